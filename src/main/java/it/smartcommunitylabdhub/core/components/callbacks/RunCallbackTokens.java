@@ -0,0 +1,83 @@
+package it.smartcommunitylabdhub.core.components.callbacks;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Issues and verifies the tokens used by the runtime wrappers to call back core.
+ * <p>
+ * A token is the HMAC of the run id with the callback secret, so it is only valid for the run it
+ * has been issued for and nothing has to be stored. When no secret is configured a random one is
+ * generated at startup, tokens issued before a restart are then no longer valid.
+ */
+@Slf4j
+@Component
+public class RunCallbackTokens {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    @Value("${runtime.callback.secret}")
+    private String secret;
+
+    private SecretKeySpec key;
+
+    @PostConstruct
+    public void init() {
+        byte[] secretBytes;
+        if (secret == null || secret.isBlank()) {
+            log.warn("No runtime callback secret configured, using a random one: "
+                    + "runs started before a restart will not be able to call back");
+            secretBytes = new byte[32];
+            new SecureRandom().nextBytes(secretBytes);
+        } else {
+            secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        key = new SecretKeySpec(secretBytes, ALGORITHM);
+    }
+
+    /**
+     * Issue the callback token of a run.
+     *
+     * @param runId the run id
+     * @return the token, url safe
+     */
+    public String issue(String runId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sign(runId));
+    }
+
+    /**
+     * Check the token presented for a run, in constant time.
+     *
+     * @param runId the run id
+     * @param token the token presented by the caller
+     * @return true if the token has been issued for the run
+     */
+    public boolean verify(String runId, String token) {
+        if (runId == null || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                issue(runId).getBytes(StandardCharsets.US_ASCII),
+                token.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private byte[] sign(String runId) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(runId.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign callback token", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package it.smartcommunitylabdhub.core.components.dispatch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after each heartbeat of this executor, the runs of the expired executors can be
+ * taken over.
+ */
+@Getter
+@AllArgsConstructor
+public class ExecutorHeartbeatEvent {
+    private final String executor;
+}
@@ -0,0 +1,172 @@
+package it.smartcommunitylabdhub.core.components.dispatch;
+
+import it.smartcommunitylabdhub.core.components.infrastructure.factories.frameworks.Framework;
+import it.smartcommunitylabdhub.core.components.infrastructure.factories.frameworks.FrameworkFactory;
+import it.smartcommunitylabdhub.core.components.infrastructure.factories.runnables.Runnable;
+import it.smartcommunitylabdhub.core.models.entities.dispatch.RunDispatchEntity;
+import it.smartcommunitylabdhub.core.repositories.RunDispatchRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Consumer of the dispatch queue, run by the instances with the executor role.
+ * <p>
+ * Each worker claims the oldest available runnable, executes it with its framework and
+ * acknowledges it by deleting it from the queue. A claim hides the runnable from the other
+ * executors for the visibility timeout: a runnable whose executor stops before the
+ * acknowledgement is claimed again once it expires, delivery is at least once. Failed executions
+ * are released with a growing delay, and dropped after the maximum number of attempts.
+ */
+@Slf4j
+@Component
+public class RunDispatchConsumer {
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    @Autowired
+    RunDispatchRepository runDispatchRepository;
+
+    @Autowired
+    FrameworkFactory frameworkFactory;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    RunExecutors runExecutors;
+
+    @Value("${run.dispatch.mode}")
+    private String mode;
+
+    @Value("${run.dispatch.consumer.enabled}")
+    private boolean enabled;
+
+    @Value("${run.dispatch.consumer.concurrency}")
+    private int concurrency;
+
+    @Value("${run.dispatch.consumer.visibility-timeout-ms}")
+    private long visibilityTimeoutMs;
+
+    @Value("${run.dispatch.consumer.poll-interval-ms}")
+    private long pollIntervalMs;
+
+    @Value("${run.dispatch.consumer.retry-delay-ms}")
+    private long retryDelayMs;
+
+    @Value("${run.dispatch.consumer.max-attempts}")
+    private int maxAttempts;
+
+    @PostConstruct
+    public void start() {
+        // API-only instances disable the consumer, the queue is left to the executors
+        if (!RunDispatcher.QUEUE.equals(mode) || !enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(this::consumeLoop, "Run-Dispatch-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        log.info("Run dispatch consumer " + runExecutors.getId() + " started with " + concurrency + " workers");
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        workers.forEach(LockSupport::unpark);
+        // Runnables being executed are claimed again by another executor if not acknowledged
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Wake up the workers once a runnable dispatched by this instance has been committed.
+     *
+     * @param event the dispatched runnable
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void dispatched(RunDispatchedEvent event) {
+        workers.forEach(LockSupport::unpark);
+    }
+
+    private void consumeLoop() {
+        while (running) {
+            RunDispatchEntity dispatch;
+            try {
+                dispatch = claim();
+            } catch (RuntimeException e) {
+                log.error("Cannot claim from the dispatch queue: " + e.getMessage());
+                dispatch = null;
+            }
+            if (dispatch == null) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pollIntervalMs));
+            } else {
+                consume(dispatch);
+            }
+        }
+    }
+
+    // Oldest runnable claimed by this executor, null when none is available
+    private RunDispatchEntity claim() {
+        return transactionTemplate.execute(status -> {
+            Date now = new Date();
+            Date until = new Date(now.getTime() + visibilityTimeoutMs);
+            // Other workers may take the first ones meanwhile, look a bit further
+            for (Long id : runDispatchRepository.findAvailableIds(now, PageRequest.of(0, concurrency))) {
+                if (runDispatchRepository.claim(id, runExecutors.getId(), now, until) == 1) {
+                    return runDispatchRepository.findById(id).orElse(null);
+                }
+            }
+            return null;
+        });
+    }
+
+    private void consume(RunDispatchEntity dispatch) {
+        try {
+            Runnable runnable = RunDispatcher.decode(dispatch);
+            Framework<Runnable> framework = frameworkFactory.getFramework(runnable.framework());
+            // Tracked by this executor from now on
+            runExecutors.own(runnable.getId());
+            framework.execute(runnable);
+            complete(dispatch);
+        } catch (RuntimeException e) {
+            if (dispatch.getAttempts() >= maxAttempts) {
+                log.error("Dropping run " + dispatch.getRun() + " after " + dispatch.getAttempts()
+                        + " attempts: " + e.getMessage());
+                complete(dispatch);
+            } else {
+                log.warn("Execution of run " + dispatch.getRun() + " failed, retrying: " + e.getMessage());
+                Date at = new Date(System.currentTimeMillis() + retryDelayMs * dispatch.getAttempts());
+                transactionTemplate.executeWithoutResult(status ->
+                        runDispatchRepository.release(dispatch.getId(), runExecutors.getId(), at));
+            }
+        }
+    }
+
+    private void complete(RunDispatchEntity dispatch) {
+        Integer acknowledged = transactionTemplate.execute(status ->
+                runDispatchRepository.acknowledge(dispatch.getId(), runExecutors.getId()));
+        if (acknowledged == null || acknowledged == 0) {
+            // The claim expired and the runnable has been taken by another executor
+            log.warn("Claim of run " + dispatch.getRun() + " expired before the acknowledgement");
+        }
+    }
+}
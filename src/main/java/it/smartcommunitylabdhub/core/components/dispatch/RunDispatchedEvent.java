@@ -0,0 +1,14 @@
+package it.smartcommunitylabdhub.core.components.dispatch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a runnable is written to the dispatch queue, the local consumer takes it once
+ * the transaction has committed.
+ */
+@Getter
+@AllArgsConstructor
+public class RunDispatchedEvent {
+    private final String run;
+}
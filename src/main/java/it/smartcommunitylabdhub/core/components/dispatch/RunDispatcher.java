@@ -0,0 +1,98 @@
+package it.smartcommunitylabdhub.core.components.dispatch;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import it.smartcommunitylabdhub.core.components.infrastructure.factories.runnables.Runnable;
+import it.smartcommunitylabdhub.core.exceptions.CoreException;
+import it.smartcommunitylabdhub.core.models.entities.dispatch.RunDispatchEntity;
+import it.smartcommunitylabdhub.core.repositories.RunDispatchRepository;
+import it.smartcommunitylabdhub.core.utils.ErrorList;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * Dispatch of the runnables to their framework.
+ * <p>
+ * In the local mode the runnable is published as an application event and executed
+ * asynchronously by this instance. In the queue mode it is written to the dispatch queue in the
+ * transaction of the run, and executed by the instances consuming the queue: the API and the
+ * executor roles can then be scaled apart, and the dispatched runnables survive a restart.
+ */
+@Component
+public class RunDispatcher {
+
+    public static final String LOCAL = "local";
+
+    public static final String QUEUE = "queue";
+
+    // Runnables have no setters, their fields are read and written directly
+    private static final ObjectMapper MAPPER = new ObjectMapper(new CBORFactory())
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    RunDispatchRepository runDispatchRepository;
+
+    @Value("${run.dispatch.mode}")
+    private String mode;
+
+    public void dispatch(Runnable runnable) {
+        if (!QUEUE.equals(mode)) {
+            eventPublisher.publishEvent(runnable);
+            return;
+        }
+
+        Date now = new Date();
+        runDispatchRepository.save(RunDispatchEntity.builder()
+                .run(runnable.getId())
+                .framework(runnable.framework())
+                .runnableType(runnable.getClass().getName())
+                .payload(encode(runnable))
+                .attempts(0)
+                .availableAt(now)
+                .created(now)
+                .build());
+
+        // Local consumers take it once committed, the other ones at their next poll
+        eventPublisher.publishEvent(new RunDispatchedEvent(runnable.getId()));
+    }
+
+    static byte[] encode(Runnable runnable) {
+        try {
+            return MAPPER.writeValueAsBytes(runnable);
+        } catch (IOException e) {
+            throw error("Cannot encode the runnable of run " + runnable.getId() + ": " + e.getMessage());
+        }
+    }
+
+    static Runnable decode(RunDispatchEntity dispatch) {
+        try {
+            Class<?> type = Class.forName(dispatch.getRunnableType());
+            if (!Runnable.class.isAssignableFrom(type)) {
+                throw error("Not a runnable: " + dispatch.getRunnableType());
+            }
+            return (Runnable) MAPPER.readValue(dispatch.getPayload(), type);
+        } catch (ClassNotFoundException | IOException e) {
+            throw error("Cannot decode the runnable of run " + dispatch.getRun() + ": " + e.getMessage());
+        }
+    }
+
+    private static CoreException error(String message) {
+        return new CoreException(
+                ErrorList.INTERNAL_SERVER_ERROR.getValue(),
+                message,
+                HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+}
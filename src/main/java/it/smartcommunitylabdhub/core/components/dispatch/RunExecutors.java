@@ -0,0 +1,171 @@
+package it.smartcommunitylabdhub.core.components.dispatch;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Registry of the instances executing runs.
+ * <p>
+ * Executors beat in the run_executors table, and each run in flight records the executor that
+ * tracks it. An executor whose heartbeat is older than the lease is gone: its runs are orphans,
+ * taken over by the first live executor that claims them, so that each run is tracked by a
+ * single instance. Instances with the consumer disabled, serving only the API, do not beat and
+ * never take runs over.
+ */
+@Slf4j
+@Component
+public class RunExecutors {
+
+    private static final String BEAT = "UPDATE run_executors SET heartbeat = ? WHERE id = ?";
+
+    private static final String REGISTER = "INSERT INTO run_executors (id, heartbeat) VALUES (?, ?)";
+
+    private static final String FORGET = "DELETE FROM run_executors WHERE heartbeat < ?";
+
+    private static final String OWN = "UPDATE runs SET executor = ? WHERE id = ?";
+
+    private static final String TAKE_OVER = "UPDATE runs SET executor = ? WHERE id = ? AND executor = ?";
+
+    private static final String TAKE_OVER_UNOWNED = "UPDATE runs SET executor = ? WHERE id = ? AND executor IS NULL";
+
+    private static final String ORPHANS = "SELECT r.id, r.executor FROM runs r "
+            + "WHERE r.state IN ('READY', 'RUNNING') AND (r.executor IS NULL OR NOT EXISTS ("
+            + "SELECT 1 FROM run_executors e WHERE e.id = r.executor AND e.heartbeat >= ?))";
+
+    // Expired executors are kept for a while, their runs may not have been taken over yet
+    private static final int FORGET_AFTER_LEASES = 10;
+
+    private final String id = hostname() + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final boolean enabled;
+
+    private final long heartbeatMs;
+
+    private final long leaseMs;
+
+    private volatile boolean running;
+
+    private Thread heartbeat;
+
+    public RunExecutors(JdbcTemplate jdbcTemplate,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${run.dispatch.consumer.enabled}") boolean enabled,
+                        @Value("${run.executor.heartbeat-ms}") long heartbeatMs,
+                        @Value("${run.executor.lease-ms}") long leaseMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.heartbeatMs = heartbeatMs;
+        this.leaseMs = leaseMs;
+    }
+
+    /**
+     * @return the id of this executor
+     */
+    public String getId() {
+        return id;
+    }
+
+    // Started once the schema has been migrated
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        heartbeat = new Thread(this::heartbeatLoop, "Run-Executor-Heartbeat");
+        heartbeat.setDaemon(true);
+        heartbeat.start();
+        log.info("Run executor " + id + " started");
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (heartbeat == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(heartbeat);
+        heartbeat.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Record this executor as the one tracking a run.
+     *
+     * @param runId the id of the run
+     */
+    public void own(String runId) {
+        jdbcTemplate.update(OWN, id, runId);
+    }
+
+    /**
+     * Take over a run from an expired executor. Concurrent claims of the same run are decided by
+     * the conditional update, a single executor gets it.
+     *
+     * @param runId    the id of the run
+     * @param previous the expired executor, null when the run has no executor
+     * @return true when this executor got the run
+     */
+    public boolean takeOver(String runId, String previous) {
+        int updated = previous == null
+                ? jdbcTemplate.update(TAKE_OVER_UNOWNED, id, runId)
+                : jdbcTemplate.update(TAKE_OVER, id, runId, previous);
+        return updated == 1;
+    }
+
+    /**
+     * @return the runs in flight without a live executor, as pairs of run and expired executor
+     */
+    public List<String[]> orphans() {
+        Timestamp live = new Timestamp(System.currentTimeMillis() - leaseMs);
+        return jdbcTemplate.query(ORPHANS,
+                (rs, row) -> new String[]{rs.getString(1), rs.getString(2)}, live);
+    }
+
+    private void heartbeatLoop() {
+        while (running) {
+            try {
+                beat();
+                eventPublisher.publishEvent(new ExecutorHeartbeatEvent(id));
+            } catch (RuntimeException e) {
+                // A missed beat is recovered by the next one, within the lease
+                log.error("Run executor heartbeat failed: " + e.getMessage());
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(heartbeatMs));
+        }
+    }
+
+    private void beat() {
+        long now = System.currentTimeMillis();
+        if (jdbcTemplate.update(BEAT, new Timestamp(now), id) == 0) {
+            jdbcTemplate.update(REGISTER, id, new Timestamp(now));
+        }
+        jdbcTemplate.update(FORGET, new Timestamp(now - FORGET_AFTER_LEASES * leaseMs));
+    }
+
+    private static String hostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "executor";
+        }
+    }
+}
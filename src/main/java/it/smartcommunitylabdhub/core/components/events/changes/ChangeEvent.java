@@ -0,0 +1,39 @@
+package it.smartcommunitylabdhub.core.components.events.changes;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import it.smartcommunitylabdhub.core.components.infrastructure.enums.EntityName;
+import lombok.*;
+
+import java.util.Date;
+
+/**
+ * Change of an entity, committed to the database. The event only identifies the entity, clients
+ * read the entity itself from the REST endpoints when they need it.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEvent {
+
+    // Position of the event in the feed, assigned on publish
+    private long sequence;
+
+    private ChangeType type;
+
+    private EntityName entity;
+
+    private String id;
+
+    private String project;
+
+    private String kind;
+
+    private String name;
+
+    private String state;
+
+    private Date timestamp;
+}
@@ -0,0 +1,219 @@
+package it.smartcommunitylabdhub.core.components.events.changes;
+
+import it.smartcommunitylabdhub.core.components.fsm.SerialExecutor;
+import it.smartcommunitylabdhub.core.components.infrastructure.enums.EntityName;
+import it.smartcommunitylabdhub.core.exceptions.CoreException;
+import it.smartcommunitylabdhub.core.utils.ErrorList;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process feed of the committed entity changes, streamed to the subscribers as Server-Sent
+ * Events.
+ * <p>
+ * Published events get a sequence number and are kept in a ring buffer of the last events. Each
+ * subscriber has a position in the feed and is sent the events after it that match its project
+ * and entity filters. Event ids are resume tokens made of the start time of the feed and the
+ * sequence number: a client reconnecting with one of them gets the events it missed, or a reset
+ * event when they are no longer in the buffer or the feed has been restarted, after which it has
+ * to read the entities again.
+ */
+@Slf4j
+@Component
+public class ChangeFeed {
+
+    public static final String EVENT_NAME = "change";
+
+    public static final String RESET_EVENT_NAME = "reset";
+
+    // Resume tokens of a previous feed are not valid, the sequence starts again on restart
+    private final long epoch = System.currentTimeMillis();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final ChangeEvent[] buffer;
+
+    // Sequence of the last published event, guarded by the buffer
+    private long sequence;
+
+    @Autowired
+    @Qualifier("changeFeedExecutor")
+    Executor executor;
+
+    @Value("${changes.feed.timeout-ms}")
+    private long timeoutMs;
+
+    @Value("${changes.feed.max-subscribers}")
+    private int maxSubscribers;
+
+    public ChangeFeed(@Value("${changes.feed.buffer-size}") int bufferSize) {
+        this.buffer = new ChangeEvent[bufferSize];
+    }
+
+    /**
+     * Publish a committed change to the subscribers.
+     *
+     * @param event the change, its sequence is assigned here
+     */
+    public void publish(ChangeEvent event) {
+        synchronized (buffer) {
+            sequence++;
+            buffer[(int) (sequence % buffer.length)] = event.toBuilder().sequence(sequence).build();
+        }
+        subscribers.forEach(this::schedule);
+    }
+
+    /**
+     * Subscribe to the changes of the entities, optionally resuming after a token.
+     *
+     * @param project  the project of the entities, null for all the projects
+     * @param entities the entity types, empty for all of them
+     * @param token    the resume token of the last event received, null to get only new events
+     * @return the emitter of the events
+     */
+    public SseEmitter subscribe(String project, Set<EntityName> entities, String token) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new CoreException(
+                    ErrorList.TOO_MANY_CHANGE_SUBSCRIBERS.getValue(),
+                    ErrorList.TOO_MANY_CHANGE_SUBSCRIBERS.getReason(),
+                    HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        long position;
+        boolean reset = false;
+        synchronized (buffer) {
+            position = sequence;
+        }
+        if (token != null && !token.isBlank()) {
+            long resumed = parse(token);
+            if (resumed >= 0 && resumed <= position) {
+                position = resumed;
+            } else {
+                reset = true;
+            }
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(project, entities, emitter, position,
+                new SerialExecutor(executor));
+        subscriber.reset = reset;
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        subscribers.add(subscriber);
+        schedule(subscriber);
+        return emitter;
+    }
+
+    private void schedule(Subscriber subscriber) {
+        // A drain already pending covers this event too
+        if (subscriber.pending.compareAndSet(false, true)) {
+            subscriber.executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        subscriber.pending.set(false);
+        if (!subscribers.contains(subscriber)) {
+            return;
+        }
+
+        List<ChangeEvent> events = new ArrayList<>();
+        synchronized (buffer) {
+            // Events older than the buffer have been overwritten
+            if (sequence - subscriber.position > buffer.length) {
+                subscriber.reset = true;
+                subscriber.position = sequence;
+            }
+            for (long next = subscriber.position + 1; next <= sequence; next++) {
+                events.add(buffer[(int) (next % buffer.length)]);
+            }
+        }
+
+        try {
+            if (subscriber.reset) {
+                subscriber.reset = false;
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(token(subscriber.position))
+                        .name(RESET_EVENT_NAME)
+                        .data("Changes are not available from the requested position, read the entities again"));
+            }
+            for (ChangeEvent event : events) {
+                subscriber.position = event.getSequence();
+                if (subscriber.matches(event)) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(token(event.getSequence()))
+                            .name(EVENT_NAME)
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away, the emitter callbacks may not be called for it
+            log.debug("Change feed subscriber closed: " + e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private String token(long position) {
+        return epoch + "-" + position;
+    }
+
+    // Sequence of a token of this feed, -1 for tokens of a previous feed or invalid ones
+    private long parse(String token) {
+        int separator = token.indexOf('-');
+        try {
+            if (separator > 0 && Long.parseLong(token.substring(0, separator)) == epoch) {
+                return Long.parseLong(token.substring(separator + 1));
+            }
+        } catch (NumberFormatException e) {
+            // Not a token of this feed
+        }
+        return -1;
+    }
+
+    private static class Subscriber {
+        private final String project;
+        private final Set<EntityName> entities;
+        private final SseEmitter emitter;
+        private final SerialExecutor executor;
+        private final AtomicBoolean pending = new AtomicBoolean(false);
+
+        // Only read and written by the drains, which are serialized
+        private long position;
+        private boolean reset;
+
+        private Subscriber(String project, Set<EntityName> entities, SseEmitter emitter, long position,
+                           SerialExecutor executor) {
+            this.project = project;
+            this.entities = entities;
+            this.emitter = emitter;
+            this.position = position;
+            this.executor = executor;
+        }
+
+        private boolean matches(ChangeEvent event) {
+            return (project == null || project.equals(event.getProject()))
+                    && (entities.isEmpty() || entities.contains(event.getEntity()));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package it.smartcommunitylabdhub.core.components.events.changes;
+
+import it.smartcommunitylabdhub.core.components.infrastructure.enums.EntityName;
+import it.smartcommunitylabdhub.core.components.outbox.OutboxRelay;
+import it.smartcommunitylabdhub.core.components.outbox.OutboxWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Record the changes of the entities and publish them once their transaction has committed, to
+ * the change feed and as application events. Each change is also written to the outbox in the
+ * transaction of the change, for the message broker.
+ * <p>
+ * The changes of a transaction are merged per entity, a client sees a single event for an entity
+ * created and then updated in the same transaction. Rolled back changes are never published.
+ */
+@Component
+public class ChangeRecorder {
+
+    // Key of the changes of the current transaction among the transaction resources
+    private static final Object CHANGES = new Object();
+
+    @Autowired
+    ChangeFeed changeFeed;
+
+    @Autowired
+    ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    OutboxWriter outboxWriter;
+
+    @Autowired
+    OutboxRelay outboxRelay;
+
+    /**
+     * Record a change, published after the commit of the current transaction.
+     *
+     * @param event the change
+     */
+    public void record(ChangeEvent event) {
+        // Every change goes to the outbox, consumers of the broker see them all
+        outboxWriter.write(event);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(event);
+            outboxRelay.wakeUp();
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, ChangeEvent> changes = (Map<String, ChangeEvent>) TransactionSynchronizationManager.getResource(CHANGES);
+        if (changes == null) {
+            Map<String, ChangeEvent> transactionChanges = new LinkedHashMap<>();
+            changes = transactionChanges;
+            TransactionSynchronizationManager.bindResource(CHANGES, transactionChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    transactionChanges.values().forEach(ChangeRecorder.this::publish);
+                    outboxRelay.wakeUp();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CHANGES);
+                }
+            });
+        }
+
+        String key = event.getEntity() + ":" + event.getProject() + ":" + event.getName() + ":" + event.getId();
+        ChangeEvent previous = changes.get(key);
+        if (previous == null) {
+            changes.put(key, event);
+        } else if (previous.getType() == ChangeType.CREATED && event.getType() == ChangeType.DELETED) {
+            // Never visible outside the transaction
+            changes.remove(key);
+        } else {
+            // A created entity stays created, an updated one takes the last state
+            changes.put(key, previous.getType() == ChangeType.CREATED && event.getType() == ChangeType.UPDATED
+                    ? event.toBuilder().type(ChangeType.CREATED).build()
+                    : event);
+        }
+    }
+
+    /**
+     * Record the deletion of entities by a bulk query, which does not go through the entity
+     * listeners. The null fields of the event match every entity: a deletion without id stands
+     * for all the versions of the named entity, or for all the entities of the project.
+     *
+     * @param entity  the entity type
+     * @param project the project of the entities
+     * @param name    the name of the entities, null for all
+     * @param id      the id of the entity, null for all
+     */
+    public void deleted(EntityName entity, String project, String name, String id) {
+        record(ChangeEvent.builder()
+                .type(ChangeType.DELETED)
+                .entity(entity)
+                .project(project)
+                .name(name)
+                .id(id)
+                .timestamp(new Date())
+                .build());
+    }
+
+    private void publish(ChangeEvent event) {
+        changeFeed.publish(event);
+        applicationEventPublisher.publishEvent(event);
+    }
+}
@@ -0,0 +1,7 @@
+package it.smartcommunitylabdhub.core.components.events.changes;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
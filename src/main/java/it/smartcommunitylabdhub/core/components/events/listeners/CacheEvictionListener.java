@@ -0,0 +1,72 @@
+package it.smartcommunitylabdhub.core.components.events.listeners;
+
+import it.smartcommunitylabdhub.core.components.events.changes.ChangeEvent;
+import it.smartcommunitylabdhub.core.config.CacheConfig;
+import it.smartcommunitylabdhub.core.models.entities.function.Function;
+import it.smartcommunitylabdhub.core.models.entities.task.Task;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Evict the cached lookups of the entities on their committed changes, recorded by the entity
+ * listener or by the services for the bulk deletes.
+ */
+@Component
+public class CacheEvictionListener {
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @EventListener
+    public void handle(ChangeEvent event) {
+        switch (event.getEntity()) {
+            case PROJECT -> {
+                cacheManager.getCache(CacheConfig.PROJECTS).evict(event.getName());
+                // The functions and tasks of a deleted project are deleted in bulk
+                evictIf(CacheConfig.FUNCTIONS, Function.class, function ->
+                        Objects.equals(function.getProject(), event.getProject()));
+                evictIf(CacheConfig.TASKS, Task.class, task ->
+                        Objects.equals(task.getProject(), event.getProject()));
+            }
+            case FUNCTION -> {
+                if (event.getId() != null) {
+                    cacheManager.getCache(CacheConfig.FUNCTIONS).evict(event.getId());
+                } else {
+                    evictIf(CacheConfig.FUNCTIONS, Function.class, function ->
+                            Objects.equals(function.getProject(), event.getProject())
+                                    && (event.getName() == null || event.getName().equals(function.getName())));
+                }
+            }
+            case TASK -> {
+                if (event.getId() != null) {
+                    cacheManager.getCache(CacheConfig.TASKS).evict(event.getId());
+                } else {
+                    evictIf(CacheConfig.TASKS, Task.class, task ->
+                            Objects.equals(task.getProject(), event.getProject()));
+                }
+            }
+            default -> {
+                // Not cached
+            }
+        }
+    }
+
+    // Evict the entries matching a condition, for the deletes without id
+    @SuppressWarnings("unchecked")
+    private <T> void evictIf(String name, Class<T> type, Predicate<T> condition) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+            ((Map<Object, Object>) nativeCache.asMap()).values()
+                    .removeIf(value -> type.isInstance(value) && condition.test((T) value));
+        } else {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package it.smartcommunitylabdhub.core.components.events.listeners;
+
+import it.smartcommunitylabdhub.core.services.interfaces.LatestVersionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Create at startup the latest version pointers of the entities stored before they were
+ * maintained. Entities already pointed are skipped, so the sweep is cheap once done.
+ */
+@Component
+@Slf4j
+public class LatestVersionBackfillListener {
+
+    @Autowired
+    LatestVersionService latestVersionService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int created = latestVersionService.backfill();
+        if (created > 0) {
+            log.info("Created " + created + " latest version pointers");
+        }
+    }
+}
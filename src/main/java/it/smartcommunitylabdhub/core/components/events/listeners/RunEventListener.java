@@ -1,5 +1,6 @@
 package it.smartcommunitylabdhub.core.components.events.listeners;
 
+import it.smartcommunitylabdhub.core.components.dispatch.RunExecutors;
 import it.smartcommunitylabdhub.core.components.events.messages.RunMessage;
 import it.smartcommunitylabdhub.core.components.infrastructure.enums.EntityName;
 import it.smartcommunitylabdhub.core.components.infrastructure.factories.specs.SpecRegistry;
@@ -29,6 +30,9 @@ public class RunEventListener {
     @Autowired
     private PollingService pollingService;
 
+    @Autowired
+    RunExecutors runExecutors;
+
     @EventListener
     @Async
     public void handle(RunMessage message) {
@@ -49,6 +53,9 @@ public class RunEventListener {
                 .getWorkflow(runAccessor.getRuntime(), runAccessor.getTask())
                 .build(message.getRunDTO()));
 
+        // Tracked by this instance from now on, the recovery sweep leaves it alone
+        runExecutors.own(message.getRunDTO().getId());
+
         // Create new run poller
         pollingService.createPoller("run:" + message.getRunDTO().getId(),
                 workflows, 2, true, false);
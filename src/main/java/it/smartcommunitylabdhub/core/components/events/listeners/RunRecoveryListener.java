@@ -0,0 +1,147 @@
+package it.smartcommunitylabdhub.core.components.events.listeners;
+
+import it.smartcommunitylabdhub.core.components.dispatch.ExecutorHeartbeatEvent;
+import it.smartcommunitylabdhub.core.components.dispatch.RunExecutors;
+import it.smartcommunitylabdhub.core.components.events.messages.RunMessage;
+import it.smartcommunitylabdhub.core.components.fsm.enums.RunState;
+import it.smartcommunitylabdhub.core.components.infrastructure.factories.frameworks.Framework;
+import it.smartcommunitylabdhub.core.components.infrastructure.factories.frameworks.FrameworkFactory;
+import it.smartcommunitylabdhub.core.components.infrastructure.factories.runnables.Runnable;
+import it.smartcommunitylabdhub.core.components.infrastructure.factories.runtimes.RuntimeFactory;
+import it.smartcommunitylabdhub.core.models.accessors.utils.RunAccessor;
+import it.smartcommunitylabdhub.core.models.accessors.utils.RunUtils;
+import it.smartcommunitylabdhub.core.models.builders.run.RunDTOBuilder;
+import it.smartcommunitylabdhub.core.models.entities.run.Run;
+import it.smartcommunitylabdhub.core.models.entities.run.RunEntity;
+import it.smartcommunitylabdhub.core.repositories.RunRepository;
+import it.smartcommunitylabdhub.core.services.interfaces.RunJournalService;
+import it.smartcommunitylabdhub.core.services.interfaces.RunService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Reconciliation sweep run at each heartbeat of this executor. Runs left READY or RUNNING by an
+ * expired executor, or by a previous instance of this one, are taken over with a conditional
+ * update and their tracking is attached again to the shared pollers. Runs tracked by live
+ * executors are left alone, and instances that do not execute runs never sweep.
+ * <p>
+ * The state of a run taken over is first replayed from its journal, from the last snapshot and
+ * the transitions recorded after it: transitions committed before the executor went away may
+ * not have reached the run yet.
+ */
+@Component
+@Slf4j
+public class RunRecoveryListener {
+
+    private static final Set<RunState> FINAL_STATES =
+            EnumSet.of(RunState.COMPLETED, RunState.ERROR, RunState.STOP);
+
+    @Autowired
+    RunRepository runRepository;
+
+    @Autowired
+    RunDTOBuilder runDTOBuilder;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    RuntimeFactory runtimeFactory;
+
+    @Autowired
+    FrameworkFactory frameworkFactory;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    RunExecutors runExecutors;
+
+    @Autowired
+    RunJournalService runJournalService;
+
+    @Autowired
+    RunService runService;
+
+    @Value("${run.recovery.enabled}")
+    private boolean enabled;
+
+    @EventListener
+    public void recover(ExecutorHeartbeatEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        for (String[] orphan : runExecutors.orphans()) {
+            String runId = orphan[0];
+            try {
+                // Other executors may be sweeping too, a single one gets each run
+                if (!runExecutors.takeOver(runId, orphan[1])) {
+                    continue;
+                }
+                // Lob columns are lazy, build the dto while the entity is attached
+                Map.Entry<RunEntity, Run> run = transactionTemplate.execute(status ->
+                        runRepository.findById(runId)
+                                .map(entity -> Map.entry(entity, runDTOBuilder.build(entity)))
+                                .orElse(null));
+                if (run != null) {
+                    log.info("Recover tracking of run " + runId + " from executor " + orphan[1]);
+                    if (replay(run.getKey(), run.getValue())) {
+                        recover(run.getKey(), run.getValue());
+                    }
+                }
+            } catch (RuntimeException e) {
+                // A single broken run must not stop the sweep
+                log.error("Cannot recover run " + runId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Bring the stored state of a run up to its journal.
+     *
+     * @return false when the journal shows that the run has already finished
+     */
+    private boolean replay(RunEntity run, Run runDTO) {
+        Optional<RunState> journaled = runJournalService.replay(run.getId());
+        if (journaled.isEmpty() || !isAhead(journaled.get(), run.getState())) {
+            return true;
+        }
+
+        log.info("Run " + run.getId() + " moved from " + run.getState() + " to " + journaled.get()
+                + " replaying its journal");
+        runDTO.setStatus(runService.patchStatus(run.getId(), Map.of("state", journaled.get().name())));
+        return !FINAL_STATES.contains(journaled.get());
+    }
+
+    private static boolean isAhead(RunState journaled, RunState stored) {
+        return FINAL_STATES.contains(journaled)
+                || (journaled == RunState.RUNNING && stored == RunState.READY);
+    }
+
+    private void recover(RunEntity run, Run runDTO) {
+        RunAccessor runAccessor = RunUtils.parseRun(run.getTask());
+
+        if (runtimeFactory.hasRuntime(runAccessor.getRuntime())) {
+            // Runs executed by a framework, rebuild the runnable without dispatching it
+            Runnable runnable = runtimeFactory.getRuntime(runAccessor.getRuntime()).run(runDTO);
+            Framework<Runnable> framework = frameworkFactory.getFramework(runnable.framework());
+            if (!framework.recover(runnable)) {
+                log.warn("Framework " + runnable.framework() + " cannot recover run " + run.getId());
+            }
+        } else {
+            // Runs tracked through the kind workflows, e.g. mlrun
+            eventPublisher.publishEvent(RunMessage.builder().runDTO(runDTO).build());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * SerialExecutor.java
+ * <p>
+ * This class runs the submitted tasks one at a time, in submission order, on top of a shared
+ * executor. No thread is owned: the queue is drained by a single task of the underlying executor
+ * while there is work to do.
+ */
+
+package it.smartcommunitylabdhub.core.components.fsm;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+public class SerialExecutor implements Executor {
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final Executor executor;
+
+    public SerialExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        schedule();
+    }
+
+    private void schedule() {
+        if (!tasks.isEmpty() && draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    // A failing task must not prevent the next ones from running
+                    log.error("Serial task failed: " + e.getMessage(), e);
+                }
+            }
+        } finally {
+            draining.set(false);
+            // Tasks added after the last poll and before the flag reset
+            schedule();
+        }
+    }
+}
@@ -2,8 +2,11 @@
  * StateMachine.java
  * <p>
  * This class represents a State Machine that handles the flow of states and transitions based on
- * events and guards. It allows the definition of states and transitions along with their associated
- * actions and guards.
+ * events and guards. States, transitions, actions and guards are held by a shared immutable
+ * {@link StateMachineDefinition}, a StateMachine instance only keeps its current state and context.
+ * <p>
+ * Transitions are lock free: the current state is moved with compare-and-set and actions run
+ * afterwards on the action executor, so slow actions never block other callers.
  *
  * @param <S> The type of the states.
  * @param <E> The type of the events.
@@ -12,53 +15,33 @@
 
 package it.smartcommunitylabdhub.core.components.fsm;
 
-import lombok.Getter;
-import lombok.Setter;
-import lombok.extern.slf4j.Slf4j;
-
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
-@Getter
-@Setter
-@Slf4j
 public class StateMachine<S, E, C> {
-    private final ReentrantLock stateLock = new ReentrantLock();
-    private String uuid;
-    private S currentState;
-    private S errorState;
-    private ConcurrentHashMap<S, State<S, E, C>> states;
-    private ConcurrentHashMap<E, Consumer<C>> eventListeners;
-    private BiConsumer<S, C> stateChangeListener;
-    private ConcurrentHashMap<S, Consumer<Optional<C>>> entryActions;
-    private ConcurrentHashMap<S, Consumer<Optional<C>>> exitActions;
-    private Context<C> context;
-
-    /**
-     * Default constructor to create an empty StateMachine.
-     */
-    public StateMachine() {
-    }
+    private final StateMachineDefinition<S, E, C> definition;
+    private final Context<C> context;
+    private final AtomicReference<S> currentState;
+    // Runs the actions of this instance in commit order
+    private final Executor actionExecutor;
 
     /**
-     * Constructor to create a StateMachine with the initial state and context.
+     * Constructor to create a StateMachine instance of a definition with the initial state and
+     * context.
      *
+     * @param definition     The shared definition of the StateMachine.
      * @param initialState   The initial state of the StateMachine.
      * @param initialContext The initial context for the StateMachine.
      */
-    public StateMachine(S initialState, Context<C> initialContext) {
-        this.uuid = UUID.randomUUID().toString();
-        this.currentState = initialState;
+    StateMachine(StateMachineDefinition<S, E, C> definition, S initialState, Context<C> initialContext) {
+        this.definition = definition;
+        this.currentState = new AtomicReference<>(initialState);
         this.context = initialContext;
-        this.errorState = null;
-        this.states = new ConcurrentHashMap<>();
-        this.eventListeners = new ConcurrentHashMap<>();
-        this.entryActions = new ConcurrentHashMap<>();
-        this.exitActions = new ConcurrentHashMap<>();
+        this.actionExecutor = new SerialExecutor(definition.getActionExecutor());
     }
 
     /**
@@ -72,215 +55,163 @@ public class StateMachine<S, E, C> {
         return new Builder<>(initialState, initialContext);
     }
 
+    public StateMachineDefinition<S, E, C> getDefinition() {
+        return definition;
+    }
+
+    public S getCurrentState() {
+        return currentState.get();
+    }
+
+    public S getErrorState() {
+        return definition.getErrorState();
+    }
+
+    public Map<S, State<S, E, C>> getStates() {
+        return definition.getStates();
+    }
+
     /**
      * Transition the state machine to the specified target state following a valid path.
      * <p>
      * This method attempts to transition the state machine to the target state by following a valid
-     * path of states. It performs the following steps: 1. Checks if a valid path exists from the
-     * current state to the target state. 2. Follows the path and for each state: a. Applies the
-     * internal logic of the target state. b. Executes the exit action of the current state. c.
-     * Executes the entry action of the next state.
+     * path of states, using the precomputed transition table. Each hop is committed with an atomic
+     * compare-and-set on the current state, no lock is taken. When another thread moves the state
+     * machine concurrently the path is resumed from the new current state.
+     * <p>
+     * Once a hop is committed, its actions are sent to the action executor, in order: a. the
+     * internal logic of the left state, b. the exit action of the left state, c. the event
+     * listeners, d. the state change listener, e. the entry action of the next state.
      *
      * @param targetState The state to transition to.
      * @param <T>         The type of the result from applying the logic.
-     * @return An optional result from applying the logic of the target state, or empty if the path
-     * is invalid.
-     * @throws InterruptedException
      */
     public <T> void goToState(S targetState) {
+        TransitionTable<S, E, C> table = definition.getTransitionTable();
+
+        while (true) {
+            S sourceState = currentState.get();
 
-        acquireLock().ifPresent(lockAcquired -> {
-            if (lockAcquired) {
-                try {
-                    // Check if a valid path exists from the current state to the target state
-                    List<S> path = findPath(currentState, targetState);
-                    if (path.isEmpty()) {
-                        // No valid path exists; transition to the error state
-                        goToErrorState();
-                    }
-
-                    // Follow the path
-                    // 1. apply internal logic
-                    // 2. execute exit action
-                    // 3. execute entry action of the current state.
-                    for (int i = 0; i < path.size() - 1; i++) {
-
-                        // Get state definition
-                        S stateInPath = path.get(i);
-                        State<S, E, C> stateDefinition = states.get(stateInPath);
-
-                        // Apply internal logic of the target state
-                        stateDefinition.getInternalLogic()
-                                .map(internalFunc -> applyInternalFunc(
-                                        (contextStateValue, stateMachineValue) -> internalFunc
-                                                .applyLogic(
-                                                        contextStateValue,
-                                                        stateMachineValue)))
-                                // Optional.empty() because no input is provided
-                                .orElse(Optional.empty());
-
-
-                        // execute exit action
-                        Consumer<Optional<C>> exitAction = exitActions.get(stateInPath);
-                        if (exitAction != null) {
-                            exitAction.accept(context.getValue());
-                        }
-
-                        // Get next state if exist and execute logic
-
-                        Optional.ofNullable(path.get(i + 1)).ifPresent(nextState -> {
-
-
-                            // Retrieve the transition event dynamically
-                            Optional<E> transitionEvent =
-                                    stateDefinition.getTransitionEvent(nextState);
-
-                            if (transitionEvent.isPresent()) {
-                                // Notify event listeners for the transition event
-                                notifyEventListeners(currentState, transitionEvent.get());
-                            }
-
-
-                            // Update the current state and notify state change listener
-                            currentState = nextState;
-
-                            // Notify listener for state changed
-                            notifyStateChangeListener(currentState);
-
-                            // Execute entry action
-                            Optional.ofNullable(entryActions.get(nextState))
-                                    .ifPresent(action -> action
-                                            .accept(context.getValue()));
-
-                        });
-                    }
-                } finally {
-                    stateLock.unlock();
+            // Already in the target state, nothing to do
+            if (sourceState.equals(targetState)) {
+                return;
+            }
+
+            // Check if a valid path exists from the current state to the target state
+            if (!table.isReachable(sourceState, targetState)) {
+                // No valid path exists; transition to the error state
+                if (goToErrorState(sourceState)) {
+                    return;
                 }
+                continue;
             }
-        });
-    }
 
-    /**
-     * Transition the state machine to the error state. This method is invoked when there's an error
-     * or an invalid state transition, and it handles the transition to the specified error state.
-     */
-    private <T> void goToErrorState() {
-        // Check if an error state is defined
-        if (errorState != null) {
-            // Set the current state to the error state
-            currentState = errorState;
-            State<S, E, C> errorStateDefinition = states.get(errorState);
-            if (errorStateDefinition != null) {
-                // Execute error logic if defined for the error state
-                errorStateDefinition.getInternalLogic()
-                        .map(internalFunc -> applyInternalFunc(
-                                (contextStateValue, stateMachineValue) -> internalFunc
-                                        .applyLogic(
-                                                contextStateValue,
-                                                stateMachineValue)))
-                        // Optional.empty() because no input is provided
-                        .orElse(Optional.empty());
-            } else {
-                // Throw an exception if the error state is not defined
-                throw new IllegalStateException(
-                        "Invalid error state: " + errorState + " : " + this.getUuid());
+            // Commit the next hop, retry from the new state if someone else moved first
+            Transaction<S, E, C> transaction = table.nextHop(sourceState, targetState);
+            if (currentState.compareAndSet(sourceState, transaction.getNextState())) {
+                actionExecutor.execute(() -> applyTransition(sourceState, transaction));
             }
-        } else {
-            // Throw an exception if the error state is not set
-            throw new IllegalStateException("Error state not set" + " : " + this.getUuid());
         }
     }
 
     /**
-     * Retrieve the context of the current state.
+     * Apply the actions of a committed transition.
      *
-     * @return An optional containing the context of the current state, or empty if no context is
-     * set.
+     * @param stateInPath The state left by the transition.
+     * @param transaction The transition.
      */
-    public Optional<C> getStateMachineContext() {
-        // Lock access to currentState to ensure thread safety
-        stateLock.lock();
-        try {
-            State<S, E, C> currentStateDefinition = states.get(currentState);
-            if (currentStateDefinition != null) {
-                return context.getValue();
-            } else {
-                return Optional.empty();
-            }
-        } finally {
-            stateLock.unlock();
+    private void applyTransition(S stateInPath, Transaction<S, E, C> transaction) {
+        // Get state definition
+        State<S, E, C> stateDefinition = definition.getStates().get(stateInPath);
+
+        // Apply internal logic of the left state
+        if (stateDefinition != null) {
+            stateDefinition.getInternalLogic()
+                    .map(internalFunc -> applyInternalFunc(
+                            (contextStateValue, stateMachineValue) -> internalFunc
+                                    .applyLogic(
+                                            contextStateValue,
+                                            stateMachineValue)))
+                    // Optional.empty() because no input is provided
+                    .orElse(Optional.empty());
         }
-    }
 
-    /**
-     * Find a path from the source state to the target state in the state machine.
-     * <p>
-     * This method initiates a depth-first search (DFS) to explore the state machine's transitions
-     * and find a valid path from the source state to the target state.
-     *
-     * @param sourceState The starting state of the path.
-     * @param targetState The state to reach.
-     * @return A list of states representing a valid path from the source state to the target state,
-     * or an empty list if no valid path is found.
-     */
-    private List<S> findPath(S sourceState, S targetState) {
-        Set<S> visited = new HashSet<>();
-        LinkedList<S> path = new LinkedList<>();
-
-        // Call the recursive DFS function to find the path
-        if (dfs(sourceState, targetState, visited, path)) {
-            // If a valid path exists, return it
-            return path;
-        } else {
-            // If no valid path exists, return an empty list
-            return Collections.emptyList();
+        // execute exit action
+        Consumer<Optional<C>> exitAction = definition.getExitActions().get(stateInPath);
+        if (exitAction != null) {
+            exitAction.accept(context.getValue());
+        }
+
+        // Notify event listeners for the transition event
+        notifyEventListeners(stateInPath, transaction.getEvent());
+
+        // Notify listener for state changed
+        S nextState = transaction.getNextState();
+        notifyTransitionListeners(stateInPath, transaction.getEvent(), nextState);
+        notifyStateChangeListener(nextState);
+
+        // Execute entry action
+        Consumer<Optional<C>> entryAction = definition.getEntryActions().get(nextState);
+        if (entryAction != null) {
+            entryAction.accept(context.getValue());
         }
     }
 
     /**
-     * Depth-First Search (DFS) function to find a path between two states in the state machine.
-     * <p>
-     * This function explores the state machine's transitions in a depth-first manner to find a path
-     * from the current state to the target state.
+     * Transition the state machine to the error state. This method is invoked when there's an error
+     * or an invalid state transition, and it handles the transition to the specified error state.
      *
-     * @param currentState The current state being explored.
-     * @param targetState  The target state to reach.
-     * @param visited      A set to keep track of visited states during the search.
-     * @param path         A linked list to record the current path being explored.
-     * @return True if a valid path is found from the current state to the target state, otherwise
-     * false.
+     * @param sourceState The state the transition started from.
+     * @return True if the error state has been committed, false if the state has been changed
+     * concurrently.
      */
-    private boolean dfs(S currentState, S targetState, Set<S> visited, LinkedList<S> path) {
-        // Mark the current state as visited and add it to the path
-        visited.add(currentState);
-        path.addLast(currentState);
-
-        // If the current state is the target state, a valid path is found
-        if (currentState.equals(targetState)) {
-            return true;
+    private boolean goToErrorState(S sourceState) {
+        S errorState = definition.getErrorState();
+        // Check if an error state is defined
+        if (errorState == null) {
+            // Throw an exception if the error state is not set
+            throw new IllegalStateException("Error state not set, current state: " + sourceState);
         }
 
-        // Get the current state's definition
-        State<S, E, C> stateDefinition = states.get(currentState);
+        State<S, E, C> errorStateDefinition = definition.getStates().get(errorState);
+        if (errorStateDefinition == null) {
+            // Throw an exception if the error state is not defined
+            throw new IllegalStateException("Invalid error state: " + errorState);
+        }
 
-        // Iterate over the transitions from the current state
-        for (E event : stateDefinition.getTransactions().keySet()) {
-            Transaction<S, E, C> transaction = stateDefinition.getTransactions().get(event);
+        // Set the current state to the error state
+        if (!currentState.compareAndSet(sourceState, errorState)) {
+            return false;
+        }
 
-            // Check if the next state in the transaction is unvisited
-            if (!visited.contains(transaction.getNextState())) {
+        // Execute error logic if defined for the error state
+        actionExecutor.execute(() -> {
+            notifyTransitionListeners(sourceState, null, errorState);
+            errorStateDefinition.getInternalLogic()
+                    .map(internalFunc -> applyInternalFunc(
+                            (contextStateValue, stateMachineValue) -> internalFunc
+                                    .applyLogic(
+                                            contextStateValue,
+                                            stateMachineValue)))
+                    // Optional.empty() because no input is provided
+                    .orElse(Optional.empty());
+        });
+        return true;
+    }
 
-                // Recursively search for a path from the next state to the target state
-                if (dfs(transaction.getNextState(), targetState, visited, path)) {
-                    return true; // A valid path is found
-                }
-            }
+    /**
+     * Retrieve the context of the current state.
+     *
+     * @return An optional containing the context of the current state, or empty if no context is
+     * set.
+     */
+    public Optional<C> getStateMachineContext() {
+        State<S, E, C> currentStateDefinition = definition.getStates().get(currentState.get());
+        if (currentStateDefinition != null) {
+            return context.getValue();
+        } else {
+            return Optional.empty();
         }
-
-        // If no valid path is found from the current state, backtrack
-        path.removeLast();
-        return false;
     }
 
     /**
@@ -288,7 +219,6 @@ public class StateMachine<S, E, C> {
      * transitions and updates to the state machine's context.
      *
      * @param stateLogic The state logic implementation to apply.
-     * @param state      The current state for which the internal logic is executed.
      * @param <T>        The type of result returned by the state logic.
      * @return An optional result obtained from applying the internal logic, or empty if not
      * applicable.
@@ -303,61 +233,50 @@ public class StateMachine<S, E, C> {
      * @param newState The new state to which the state machine has transitioned.
      */
     private void notifyStateChangeListener(S newState) {
+        BiConsumer<S, C> stateChangeListener = definition.getStateChangeListener();
         if (stateChangeListener != null) {
             stateChangeListener.accept(newState, context.getValue().orElse(null));
         }
     }
 
     /**
-     * Notifies event listeners, if registered, about an event associated with a state.
+     * Notifies the transition listeners, if registered, about a committed transition.
      *
-     * @param state     The current state from which the event is triggered.
-     * @param eventName The event name that occurred.
+     * @param fromState The state left.
+     * @param eventName The event of the transition, null for the error state.
+     * @param toState   The state reached.
      */
-    private <T> void notifyEventListeners(S state, E eventName) {
-        Consumer<C> listener = (Consumer<C>) eventListeners.get(eventName);
-        if (listener != null) {
-            listener.accept(context.getValue().orElse(null));
-
+    private void notifyTransitionListeners(S fromState, E eventName, S toState) {
+        for (TransitionListener<S, E, C> listener : definition.getTransitionListeners()) {
+            listener.onTransition(fromState, eventName, toState, context.getValue().orElse(null));
         }
     }
 
     /**
-     * Attempt to acquire a lock with a timeout.
+     * Notifies event listeners, if registered, about an event associated with a state.
      *
-     * @return An {@code Optional<Boolean>} representing the lock acquisition result. If the lock is
-     * acquired successfully, it contains {@code true}; otherwise, it contains
-     * {@code false}.
+     * @param state     The current state from which the event is triggered.
+     * @param eventName The event name that occurred.
      */
-    private Optional<Boolean> acquireLock() {
-        try {
-            boolean lockAcquired = stateLock.tryLock(10L, TimeUnit.MINUTES);
-            return Optional.of(lockAcquired); // Return Optional with lock acquisition result.
-        } catch (InterruptedException e) {
-            log.error(e.getMessage());
-            return Optional.empty(); // Return Optional.empty() in case of an interruption or
-            // exception.
+    private void notifyEventListeners(S state, E eventName) {
+        Consumer<C> listener = definition.getEventListeners().get(eventName);
+        if (listener != null) {
+            listener.accept(context.getValue().orElse(null));
+
         }
     }
 
-    // Builder
+    // Builder, configures a dedicated definition and returns a single instance of it.
+    // Use StateMachineDefinition.builder() to share the definition between instances.
     public static class Builder<S, E, C> {
-        private S currentState;
-        private S errorState;
-        private ConcurrentHashMap<S, State<S, E, C>> states;
-        private ConcurrentHashMap<E, Consumer<C>> eventListeners;
-        private BiConsumer<S, C> stateChangeListener;
-        private ConcurrentHashMap<S, Consumer<Optional<C>>> entryActions;
-        private ConcurrentHashMap<S, Consumer<Optional<C>>> exitActions;
-        private Context<C> initialContext;
+        private final S initialState;
+        private final Optional<C> initialContext;
+        private final StateMachineDefinition.Builder<S, E, C> definitionBuilder;
 
         public Builder(S initialState, Optional<C> initialContext) {
-            this.currentState = initialState;
-            this.initialContext = new Context<C>(initialContext);
-            this.states = new ConcurrentHashMap<>();
-            this.eventListeners = new ConcurrentHashMap<>();
-            this.entryActions = new ConcurrentHashMap<>();
-            this.exitActions = new ConcurrentHashMap<>();
+            this.initialState = initialState;
+            this.initialContext = initialContext;
+            this.definitionBuilder = StateMachineDefinition.builder();
         }
 
         /**
@@ -368,7 +287,7 @@ public class StateMachine<S, E, C> {
          * @return This builder instance, allowing for method chaining.
          */
         public Builder<S, E, C> withState(S state, State<S, E, C> stateDefinition) {
-            states.put(state, stateDefinition);
+            definitionBuilder.withState(state, stateDefinition);
             return this;
         }
 
@@ -381,10 +300,7 @@ public class StateMachine<S, E, C> {
          * @return This builder instance, allowing for method chaining.
          */
         public Builder<S, E, C> withErrorState(S errorState, State<S, E, C> stateDefinition) {
-            this.errorState = errorState;
-
-            // Add the error state to the states map if it doesn't exist
-            states.putIfAbsent(errorState, stateDefinition);
+            definitionBuilder.withErrorState(errorState, stateDefinition);
             return this;
         }
 
@@ -396,7 +312,7 @@ public class StateMachine<S, E, C> {
          * @return This builder instance, allowing for method chaining.
          */
         public <T> Builder<S, E, C> withEventListener(E eventName, Consumer<C> listener) {
-            eventListeners.put(eventName, listener);
+            definitionBuilder.withEventListener(eventName, listener);
             return this;
         }
 
@@ -407,7 +323,7 @@ public class StateMachine<S, E, C> {
          * @return This builder instance, allowing for method chaining.
          */
         public Builder<S, E, C> withStateChangeListener(BiConsumer<S, C> listener) {
-            stateChangeListener = listener;
+            definitionBuilder.withStateChangeListener(listener);
             return this;
         }
 
@@ -419,7 +335,7 @@ public class StateMachine<S, E, C> {
          * @param entryAction The entry action as a Consumer instance.
          */
         public Builder<S, E, C> withEntryAction(S state, Consumer<Optional<C>> entryAction) {
-            entryActions.put(state, entryAction);
+            definitionBuilder.withEntryAction(state, entryAction);
             return this;
         }
 
@@ -430,19 +346,33 @@ public class StateMachine<S, E, C> {
          * @param exitAction The exit action as a Consumer instance.
          */
         public Builder<S, E, C> withExitAction(S state, Consumer<Optional<C>> exitAction) {
-            exitActions.put(state, exitAction);
+            definitionBuilder.withExitAction(state, exitAction);
+            return this;
+        }
+
+        /**
+         * Adds a listener notified of every committed transition.
+         *
+         * @param listener The listener, invoked with the left state, the event and the new state.
+         * @return This builder instance, allowing for method chaining.
+         */
+        public Builder<S, E, C> withTransitionListener(TransitionListener<S, E, C> listener) {
+            definitionBuilder.withTransitionListener(listener);
+            return this;
+        }
+
+        /**
+         * Set the executor running actions and listeners once transitions are committed.
+         *
+         * @param actionExecutor The executor, by default actions run on the calling thread.
+         */
+        public Builder<S, E, C> withActionExecutor(Executor actionExecutor) {
+            definitionBuilder.withActionExecutor(actionExecutor);
             return this;
         }
 
         public StateMachine<S, E, C> build() {
-            StateMachine<S, E, C> stateMachine = new StateMachine<>(currentState, initialContext);
-            stateMachine.states = states;
-            stateMachine.errorState = errorState;
-            stateMachine.eventListeners = eventListeners;
-            stateMachine.stateChangeListener = stateChangeListener;
-            stateMachine.entryActions = entryActions;
-            stateMachine.exitActions = exitActions;
-            return stateMachine;
+            return definitionBuilder.build().newInstance(initialState, initialContext);
         }
 
     }
@@ -0,0 +1,218 @@
+/**
+ * StateMachineDefinition.java
+ * <p>
+ * This class holds the immutable definition of a State Machine: states, transitions, actions,
+ * listeners and the precomputed transition table. A definition is built once per type of State
+ * Machine and shared by all its instances, each instance only holds its current state and context.
+ *
+ * @param <S> The type of the states.
+ * @param <E> The type of the events.
+ * @param <C> The type of the context.
+ */
+
+package it.smartcommunitylabdhub.core.components.fsm;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+public class StateMachineDefinition<S, E, C> {
+    private final S errorState;
+    private final Map<S, State<S, E, C>> states;
+    private final Map<E, Consumer<C>> eventListeners;
+    private final BiConsumer<S, C> stateChangeListener;
+    private final List<TransitionListener<S, E, C>> transitionListeners;
+    private final Map<S, Consumer<Optional<C>>> entryActions;
+    private final Map<S, Consumer<Optional<C>>> exitActions;
+    private final TransitionTable<S, E, C> transitionTable;
+    private final Executor actionExecutor;
+
+    private StateMachineDefinition(Builder<S, E, C> builder) {
+        this.errorState = builder.errorState;
+        this.states = Map.copyOf(builder.states);
+        this.eventListeners = Map.copyOf(builder.eventListeners);
+        this.stateChangeListener = builder.stateChangeListener;
+        this.transitionListeners = List.copyOf(builder.transitionListeners);
+        this.entryActions = Map.copyOf(builder.entryActions);
+        this.exitActions = Map.copyOf(builder.exitActions);
+        // The state graph is fixed from now on, precompute the next hop of every path
+        this.transitionTable = TransitionTable.of(states);
+        this.actionExecutor = builder.actionExecutor;
+    }
+
+    /**
+     * Static builder method to create a new StateMachineDefinition.
+     *
+     * @return A new Builder instance to configure and build the definition.
+     */
+    public static <S, E, C> Builder<S, E, C> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Create a new StateMachine instance sharing this definition.
+     *
+     * @param initialState   The initial state of the instance.
+     * @param initialContext The initial context of the instance.
+     * @return The StateMachine instance.
+     */
+    public StateMachine<S, E, C> newInstance(S initialState, Optional<C> initialContext) {
+        return new StateMachine<>(this, initialState, new Context<>(initialContext));
+    }
+
+    public S getErrorState() {
+        return errorState;
+    }
+
+    /**
+     * Get the states of the definition.
+     *
+     * @return The unmodifiable map of states and their definitions.
+     */
+    public Map<S, State<S, E, C>> getStates() {
+        return states;
+    }
+
+    public Map<E, Consumer<C>> getEventListeners() {
+        return eventListeners;
+    }
+
+    public BiConsumer<S, C> getStateChangeListener() {
+        return stateChangeListener;
+    }
+
+    public List<TransitionListener<S, E, C>> getTransitionListeners() {
+        return transitionListeners;
+    }
+
+    public Map<S, Consumer<Optional<C>>> getEntryActions() {
+        return entryActions;
+    }
+
+    public Map<S, Consumer<Optional<C>>> getExitActions() {
+        return exitActions;
+    }
+
+    public TransitionTable<S, E, C> getTransitionTable() {
+        return transitionTable;
+    }
+
+    public Executor getActionExecutor() {
+        return actionExecutor;
+    }
+
+    // Builder
+    public static class Builder<S, E, C> {
+        private S errorState;
+        private final Map<S, State<S, E, C>> states = new HashMap<>();
+        private final Map<E, Consumer<C>> eventListeners = new HashMap<>();
+        private BiConsumer<S, C> stateChangeListener;
+        private final List<TransitionListener<S, E, C>> transitionListeners = new ArrayList<>();
+        private final Map<S, Consumer<Optional<C>>> entryActions = new HashMap<>();
+        private final Map<S, Consumer<Optional<C>>> exitActions = new HashMap<>();
+        private Executor actionExecutor = Runnable::run;
+
+        /**
+         * Adds a state and its definition to the builder's configuration.
+         *
+         * @param state           The state to add.
+         * @param stateDefinition The definition of the state.
+         * @return This builder instance, allowing for method chaining.
+         */
+        public Builder<S, E, C> withState(S state, State<S, E, C> stateDefinition) {
+            states.put(state, stateDefinition);
+            return this;
+        }
+
+        /**
+         * Sets the error state and its definition in the builder's configuration. If the error
+         * state doesn't exist in the states map, it will be added.
+         *
+         * @param errorState      The error state to set.
+         * @param stateDefinition The definition of the error state.
+         * @return This builder instance, allowing for method chaining.
+         */
+        public Builder<S, E, C> withErrorState(S errorState, State<S, E, C> stateDefinition) {
+            this.errorState = errorState;
+
+            // Add the error state to the states map if it doesn't exist
+            states.putIfAbsent(errorState, stateDefinition);
+            return this;
+        }
+
+        /**
+         * Adds an event listener to the builder's configuration.
+         *
+         * @param eventName The name of the event to listen for.
+         * @param listener  The listener to handle the event.
+         * @return This builder instance, allowing for method chaining.
+         */
+        public Builder<S, E, C> withEventListener(E eventName, Consumer<C> listener) {
+            eventListeners.put(eventName, listener);
+            return this;
+        }
+
+        /**
+         * Sets the state change listener for the builder's configuration.
+         *
+         * @param listener The listener to be notified when the state changes.
+         * @return This builder instance, allowing for method chaining.
+         */
+        public Builder<S, E, C> withStateChangeListener(BiConsumer<S, C> listener) {
+            stateChangeListener = listener;
+            return this;
+        }
+
+        /**
+         * Adds a listener notified of every committed transition.
+         *
+         * @param listener The listener, invoked with the left state, the event and the new state.
+         * @return This builder instance, allowing for method chaining.
+         */
+        public Builder<S, E, C> withTransitionListener(TransitionListener<S, E, C> listener) {
+            transitionListeners.add(listener);
+            return this;
+        }
+
+        /**
+         * Set the entry action for a specific state.
+         *
+         * @param state       The state for which to set the entry action.
+         * @param entryAction The entry action as a Consumer instance.
+         */
+        public Builder<S, E, C> withEntryAction(S state, Consumer<Optional<C>> entryAction) {
+            entryActions.put(state, entryAction);
+            return this;
+        }
+
+        /**
+         * Set the exit action for a specific state.
+         *
+         * @param state      The state for which to set the exit action.
+         * @param exitAction The exit action as a Consumer instance.
+         */
+        public Builder<S, E, C> withExitAction(S state, Consumer<Optional<C>> exitAction) {
+            exitActions.put(state, exitAction);
+            return this;
+        }
+
+        /**
+         * Set the executor running actions and listeners once transitions are committed.
+         *
+         * @param actionExecutor The executor, by default actions run on the calling thread.
+         */
+        public Builder<S, E, C> withActionExecutor(Executor actionExecutor) {
+            this.actionExecutor = actionExecutor;
+            return this;
+        }
+
+        public StateMachineDefinition<S, E, C> build() {
+            return new StateMachineDefinition<>(this);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+/**
+ * TransitionListener.java
+ * <p>
+ * Listener notified of every transition committed by a State Machine, including the moves to the
+ * error state. It is invoked on the action executor, after the exit action of the left state and
+ * before the entry action of the reached one.
+ *
+ * @param <S> The type of the states.
+ * @param <E> The type of the events.
+ * @param <C> The type of the context.
+ */
+
+package it.smartcommunitylabdhub.core.components.fsm;
+
+@FunctionalInterface
+public interface TransitionListener<S, E, C> {
+
+    /**
+     * @param fromState The state left by the transition.
+     * @param event     The event of the transition, null when moving to the error state.
+     * @param toState   The state reached.
+     * @param context   The context of the State Machine, may be null.
+     */
+    void onTransition(S fromState, E event, S toState, C context);
+}
@@ -0,0 +1,149 @@
+/**
+ * TransitionTable.java
+ * <p>
+ * This class holds the all-pairs next-hop table of a State Machine. For each couple of source and
+ * target states it stores the first transition of a shortest path between them, so that the next
+ * hop of a path is found with a single array lookup instead of a search of the graph.
+ * <p>
+ * States are mapped to an index using their ordinal when they are enum constants, and through a
+ * lookup map otherwise.
+ *
+ * @param <S> The type of the states.
+ * @param <E> The type of the events.
+ * @param <C> The type of the context.
+ */
+
+package it.smartcommunitylabdhub.core.components.fsm;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TransitionTable<S, E, C> {
+
+    private static final int UNKNOWN = -1;
+
+    // Number of indexed states, the table is size x size
+    private final int size;
+
+    // Index of non enum states, null when states are enum constants
+    private final Map<S, Integer> indexes;
+
+    // nextHop[from * size + to] is the first transition from -> to, null if unreachable
+    private final Transaction<S, E, C>[] nextHop;
+
+    // reachable[from * size + to] is true when a path exists, from -> from included
+    private final boolean[] reachable;
+
+    @SuppressWarnings("unchecked")
+    private TransitionTable(Map<S, State<S, E, C>> states) {
+        S sample = states.keySet().stream().findFirst().orElse(null);
+
+        if (sample instanceof Enum<?> enumSample) {
+            this.indexes = null;
+            this.size = enumSample.getDeclaringClass().getEnumConstants().length;
+        } else {
+            this.indexes = new HashMap<>();
+            states.keySet().forEach(state -> indexes.put(state, indexes.size()));
+            this.size = indexes.size();
+        }
+
+        this.nextHop = new Transaction[size * size];
+        this.reachable = new boolean[size * size];
+
+        // Index the outgoing transitions of each state
+        Transaction<S, E, C>[][] outgoing = new Transaction[size][];
+        Arrays.fill(outgoing, new Transaction[0]);
+        states.forEach((state, definition) -> {
+            int from = indexOf(state);
+            if (from != UNKNOWN) {
+                outgoing[from] = definition.getTransactions().values().stream()
+                        .filter(transaction -> indexOf(transaction.getNextState()) != UNKNOWN)
+                        .toArray(Transaction[]::new);
+            }
+        });
+
+        // Breadth first visit from each state, remembering the first hop of each path
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (S state : states.keySet()) {
+            int source = indexOf(state);
+            if (source == UNKNOWN) {
+                continue;
+            }
+            int row = source * size;
+            reachable[row + source] = true;
+
+            for (Transaction<S, E, C> transaction : outgoing[source]) {
+                int next = indexOf(transaction.getNextState());
+                if (!reachable[row + next]) {
+                    reachable[row + next] = true;
+                    nextHop[row + next] = transaction;
+                    queue.add(next);
+                }
+            }
+
+            while (!queue.isEmpty()) {
+                int current = queue.poll();
+                Transaction<S, E, C> firstHop = nextHop[row + current];
+                for (Transaction<S, E, C> transaction : outgoing[current]) {
+                    int next = indexOf(transaction.getNextState());
+                    if (!reachable[row + next]) {
+                        reachable[row + next] = true;
+                        nextHop[row + next] = firstHop;
+                        queue.add(next);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute the transition table of the given states.
+     *
+     * @param states The states of the State Machine and their definitions.
+     * @return The transition table.
+     */
+    public static <S, E, C> TransitionTable<S, E, C> of(Map<S, State<S, E, C>> states) {
+        return new TransitionTable<>(states);
+    }
+
+    /**
+     * Check whether the target state can be reached from the source state.
+     *
+     * @param sourceState The starting state.
+     * @param targetState The state to reach.
+     * @return True if a path exists, a state is always reachable from itself when it is defined.
+     */
+    public boolean isReachable(S sourceState, S targetState) {
+        int from = indexOf(sourceState);
+        int to = indexOf(targetState);
+        return from != UNKNOWN && to != UNKNOWN && reachable[from * size + to];
+    }
+
+    /**
+     * Get the first transition of a shortest path from the source state to the target state.
+     *
+     * @param sourceState The starting state.
+     * @param targetState The state to reach.
+     * @return The transition to follow, or null if the target is unreachable or equal to the source.
+     */
+    public Transaction<S, E, C> nextHop(S sourceState, S targetState) {
+        int from = indexOf(sourceState);
+        int to = indexOf(targetState);
+        if (from == UNKNOWN || to == UNKNOWN) {
+            return null;
+        }
+        return nextHop[from * size + to];
+    }
+
+    private int indexOf(S state) {
+        if (state == null) {
+            return UNKNOWN;
+        }
+        if (indexes == null) {
+            return state instanceof Enum<?> enumState ? enumState.ordinal() : UNKNOWN;
+        }
+        return indexes.getOrDefault(state, UNKNOWN);
+    }
+}
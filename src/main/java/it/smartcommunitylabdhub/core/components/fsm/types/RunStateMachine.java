@@ -2,47 +2,120 @@
  * RunStateMachine.java
  * <p>
  * This class is responsible for creating and configuring the StateMachine for managing the state
- * transitions of a Run. It defines the states, events, and transitions specific to the Run entity.
+ * transitions of a Run. It defines the states, events, and transitions specific to the Run entity
+ * once, and creates lightweight instances of it for each run.
  */
 
 package it.smartcommunitylabdhub.core.components.fsm.types;
 
 import it.smartcommunitylabdhub.core.components.fsm.State;
 import it.smartcommunitylabdhub.core.components.fsm.StateMachine;
+import it.smartcommunitylabdhub.core.components.fsm.StateMachineDefinition;
 import it.smartcommunitylabdhub.core.components.fsm.Transaction;
 import it.smartcommunitylabdhub.core.components.fsm.enums.RunEvent;
 import it.smartcommunitylabdhub.core.components.fsm.enums.RunState;
-import it.smartcommunitylabdhub.core.models.entities.run.Run;
+import it.smartcommunitylabdhub.core.services.interfaces.RunJournalService;
 import it.smartcommunitylabdhub.core.services.interfaces.RunService;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @Slf4j
 public class RunStateMachine {
 
+    // States after which the run does not move anymore
+    private static final Set<RunState> FINAL_STATES =
+            EnumSet.of(RunState.COMPLETED, RunState.ERROR, RunState.STOP);
+
     @Autowired
     RunService runService;
 
+    @Autowired
+    RunJournalService runJournalService;
+
+    @Autowired
+    @Qualifier("taskExecutor")
+    TaskExecutor taskExecutor;
+
+    // Shared by all the run state machines, compiled once
+    private StateMachineDefinition<RunState, RunEvent, Map<String, Object>> definition;
+
+    // State machines of the runs currently tracked by a framework, by run id
+    private final Map<String, StateMachine<RunState, RunEvent, Map<String, Object>>> liveMachines =
+            new ConcurrentHashMap<>();
+
     /**
-     * Create and configure the StateMachine for managing the state transitions of a Run.
+     * Create a StateMachine for managing the state transitions of a Run. Instances share the same
+     * definition and only hold the current state and the context of the run.
      *
      * @param initialState   The initial state for the StateMachine.
      * @param initialContext The initial context for the StateMachine.
-     * @return The configured StateMachine instance.
+     * @return The StateMachine instance.
      */
     public StateMachine<RunState, RunEvent, Map<String, Object>> create(
             RunState initialState,
             Map<String, Object> initialContext) {
+        return definition.newInstance(initialState, Optional.of(initialContext));
+    }
+
+    /**
+     * Register the state machine tracking a run, so that status pushed by the runtime goes
+     * through the same instance.
+     *
+     * @param runId The run id.
+     * @param fsm   The state machine of the run.
+     */
+    public void register(String runId, StateMachine<RunState, RunEvent, Map<String, Object>> fsm) {
+        liveMachines.put(runId, fsm);
+    }
 
-        // Create a new StateMachine builder with the initial state and context
-        StateMachine.Builder<RunState, RunEvent, Map<String, Object>> builder =
-                new StateMachine.Builder<>(
-                        initialState, Optional.of(initialContext));
+    public void unregister(String runId) {
+        liveMachines.remove(runId);
+    }
+
+    /**
+     * Find the state machine tracking a run.
+     *
+     * @param runId The run id.
+     * @return The state machine, empty if the run is not tracked.
+     */
+    public Optional<StateMachine<RunState, RunEvent, Map<String, Object>>> find(String runId) {
+        return Optional.ofNullable(liveMachines.get(runId));
+    }
+
+    /**
+     * Check whether a run can be moved from the source state to the target state following the
+     * transitions of the definition.
+     *
+     * @param source The state of the run.
+     * @param target The state to reach.
+     * @return True if a path exists, a state is always reachable from itself.
+     */
+    public boolean isReachable(RunState source, RunState target) {
+        return definition.getTransitionTable().isReachable(source, target);
+    }
+
+    /**
+     * Configure the definition of the StateMachine, with the states, events, and transitions
+     * specific to the Run entity. Actions only rely on the context, so the definition can be
+     * shared by all the runs.
+     */
+    @PostConstruct
+    public void init() {
+
+        // Create a new StateMachine definition builder
+        StateMachineDefinition.Builder<RunState, RunEvent, Map<String, Object>> builder =
+                StateMachineDefinition.builder();
 
         // Define states and transitions
         State<RunState, RunEvent, Map<String, Object>> createState = new State<>();
@@ -78,46 +151,72 @@ public class RunStateMachine {
         // Configure the StateMachine with the defined states and transitions
         builder.withState(RunState.CREATED, createState)
                 .withExitAction(RunState.CREATED, (context) -> {
-                    context.ifPresent(c -> {
-                        // update run state
-                        Run runDTO = runService
-                                .getRun(c.get("runId")
-                                        .toString());
-                        runDTO.getStatus().put("state", RunState.READY.toString());
-                        runService.updateRun(runDTO, runDTO.getId());
-                    });
+                    // update run state
+                    context.ifPresent(c -> updateRunState(c, RunState.READY));
 
                 })
                 .withState(RunState.BUILT, builtState)
                 .withState(RunState.READY, readyState)
                 .withState(RunState.RUNNING, runningState)
                 .withEntryAction(RunState.RUNNING, (context) -> {
-                    context.ifPresent(c -> {
-                        Run runDTO = runService
-                                .getRun(c.get("runId")
-                                        .toString());
-                        runDTO.getStatus().put("state", RunState.RUNNING.toString());
-
-                        runService.updateRun(runDTO, runDTO.getId());
-                    });
+                    context.ifPresent(c -> updateRunState(c, RunState.RUNNING));
 
                 })
                 .withState(RunState.COMPLETED, completedState)
                 .withErrorState(RunState.ERROR, errorState)
                 .withEntryAction(RunState.ERROR, (context) -> {
-                    context.ifPresent(c -> {
-                        Run runDTO = runService
-                                .getRun(c.get("runId").toString());
-                        runDTO.getStatus().put("state", RunState.ERROR.toString());
-                        runService.updateRun(runDTO, runDTO.getId());
-                    });
+                    context.ifPresent(c -> updateRunState(c, RunState.ERROR));
 
                 })
                 .withStateChangeListener((newState, context) -> log
                         .info("State Change Listener: " + newState
-                                + ", context: " + context));
+                                + ", context: " + context))
+                // Record every transition in the run journal
+                .withTransitionListener((fromState, event, toState, context) -> {
+                    if (context != null && context.get("runId") != null) {
+                        runJournalService.append(context.get("runId").toString(),
+                                fromState, event, toState);
+                    }
+                });
+
+        // Actions run on the task executor once the transition is committed
+        builder.withActionExecutor(taskExecutor);
+
+        // Build the shared definition
+        definition = builder.build();
+    }
+
+    /**
+     * Store the state of the run. Actions run after the transition is committed, so the run may
+     * have already been moved forward by the caller: never store a state older than the current,
+     * and never change a final state.
+     *
+     * @param context The context of the state machine.
+     * @param state   The state reached.
+     */
+    private void updateRunState(Map<String, Object> context, RunState state) {
+        String runId = context.get("runId").toString();
+        runService.patchStatus(runId, Map.of("state", state.toString()), status -> {
+            Object current = status.get("state");
+            if (current != null && isAfter(current.toString(), state)) {
+                log.debug("Skip state " + state + " for run " + runId + ", already " + current);
+                return false;
+            }
+            return true;
+        });
+    }
 
-        // Build and return the configured StateMachine instance
-        return builder.build();
+    private boolean isAfter(String current, RunState state) {
+        RunState stored;
+        try {
+            stored = RunState.valueOf(current.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (FINAL_STATES.contains(stored)) {
+            return true;
+        }
+        // Any other state can fall in error, otherwise the stored state must lead to the new one
+        return state != RunState.ERROR && !isReachable(stored, state);
     }
 }
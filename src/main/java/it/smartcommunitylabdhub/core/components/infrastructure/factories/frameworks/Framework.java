@@ -9,4 +9,15 @@ import it.smartcommunitylabdhub.core.components.infrastructure.factories.runnabl
 
 public interface Framework<R extends Runnable> {
 	void execute(R runnable);
+
+	/**
+	 * Re-attach the tracking of a runnable already executed, e.g. after a restart. Nothing is
+	 * submitted again.
+	 *
+	 * @param runnable the runnable rebuilt from the stored run
+	 * @return true if the run is tracked again, false if the framework cannot recover it
+	 */
+	default boolean recover(R runnable) {
+		return false;
+	}
 }
@@ -49,6 +49,16 @@ public class RuntimeFactory {
                         + runtimeClass.getName());
     }
 
+    /**
+     * Check whether a Runtime is registered for the given platform.
+     *
+     * @param runtime The runtime platform
+     * @return True if a Runtime exists for the platform.
+     */
+    public boolean hasRuntime(String runtime) {
+        return runtimeMap.containsKey(runtime);
+    }
+
     /**
      * Get the Runtime for the given platform.
      *
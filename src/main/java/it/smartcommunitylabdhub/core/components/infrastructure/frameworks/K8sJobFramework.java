@@ -6,6 +6,7 @@ import io.kubernetes.client.openapi.apis.BatchV1Api;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.models.*;
 import it.smartcommunitylabdhub.core.annotations.infrastructure.FrameworkComponent;
+import it.smartcommunitylabdhub.core.components.callbacks.RunCallbackTokens;
 import it.smartcommunitylabdhub.core.components.fsm.StateMachine;
 import it.smartcommunitylabdhub.core.components.fsm.enums.RunEvent;
 import it.smartcommunitylabdhub.core.components.fsm.enums.RunState;
@@ -13,15 +14,14 @@ import it.smartcommunitylabdhub.core.components.fsm.types.RunStateMachine;
 import it.smartcommunitylabdhub.core.components.infrastructure.factories.frameworks.Framework;
 import it.smartcommunitylabdhub.core.components.infrastructure.runnables.K8sJobRunnable;
 import it.smartcommunitylabdhub.core.components.kubernetes.K8sJobBuilderHelper;
+import it.smartcommunitylabdhub.core.components.kubernetes.K8sJobInformer;
+import it.smartcommunitylabdhub.core.components.kubernetes.K8sLogFollower;
+import it.smartcommunitylabdhub.core.components.logs.LogIngestionQueue;
 import it.smartcommunitylabdhub.core.components.pollers.PollingService;
 import it.smartcommunitylabdhub.core.components.workflows.factory.WorkflowFactory;
 import it.smartcommunitylabdhub.core.exceptions.CoreException;
 import it.smartcommunitylabdhub.core.exceptions.StopPoller;
 import it.smartcommunitylabdhub.core.models.builders.log.LogEntityBuilder;
-import it.smartcommunitylabdhub.core.models.entities.log.Log;
-import it.smartcommunitylabdhub.core.models.entities.log.metadata.LogMetadata;
-import it.smartcommunitylabdhub.core.models.entities.run.Run;
-import it.smartcommunitylabdhub.core.services.interfaces.LogService;
 import it.smartcommunitylabdhub.core.services.interfaces.RunService;
 import it.smartcommunitylabdhub.core.utils.ErrorList;
 import it.smartcommunitylabdhub.core.utils.jackson.JacksonMapper;
@@ -32,6 +32,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 @Slf4j
@@ -54,7 +55,7 @@ public class K8sJobFramework implements Framework<K8sJobRunnable> {
     LogEntityBuilder logEntityBuilder;
 
     @Autowired
-    LogService logService;
+    LogIngestionQueue logIngestionQueue;
 
     @Autowired
     RunService runService;
@@ -62,6 +63,21 @@ public class K8sJobFramework implements Framework<K8sJobRunnable> {
     @Autowired
     K8sJobBuilderHelper k8sJobBuilderHelper;
 
+    @Autowired
+    K8sJobInformer k8sJobInformer;
+
+    @Autowired
+    K8sLogFollower k8sLogFollower;
+
+    @Autowired
+    RunCallbackTokens runCallbackTokens;
+
+    @Value("${application.endpoint}")
+    private String endpoint;
+
+    // Status is pushed by the wrappers through the callback, polling only recovers missed updates
+    @Value("${runtime.callback.fallback-poll-seconds}")
+    private long fallbackPollSeconds;
 
     @Value("${kubernetes.namespace}")
     private String namespace;
@@ -110,6 +126,12 @@ public class K8sJobFramework implements Framework<K8sJobRunnable> {
         runnable.getEnvs().forEach((key, value) -> envVars.add(
                 new V1EnvVar().name(key).value(value)));
 
+        // Let the wrapper push its status back to core
+        envVars.add(new V1EnvVar().name("DHUB_CORE_CALLBACK_URL")
+                .value(endpoint + "/api/v1/runs/" + runnable.getId() + "/callback"));
+        envVars.add(new V1EnvVar().name("DHUB_CORE_CALLBACK_TOKEN")
+                .value(runCallbackTokens.issue(runnable.getId())));
+
 
         // Create the Job metadata
         V1ObjectMeta metadata = new V1ObjectMeta()
@@ -163,94 +185,185 @@ public class K8sJobFramework implements Framework<K8sJobRunnable> {
         }
 
 
-        // TODO: change this part as a poller instead of a watcher using kubeclient and jobId
-        // Initialize the run state machine considering current state and context
-        StateMachine<RunState, RunEvent, Map<String, Object>> fsm = runStateMachine
-                .create(RunState.valueOf(runnable.getState()),
-                        Map.of("runId", runnable.getId()));
-
-
         // Log the initiation of Dbt Kubernetes Listener
         log.info("Dbt Kubernetes Listener [" + threadName + "] "
                 + jobName
                 + "@"
                 + namespace);
 
+        track(runnable, jobName, containerName);
+    }
+
+    /**
+     * Re-attach the tracking of a job created before a restart. When the job no longer exists
+     * its outcome is unknown and the run is moved to error.
+     *
+     * @param runnable the runnable rebuilt from the stored run
+     * @return true, the run is either tracked again or closed
+     */
+    @Override
+    public boolean recover(K8sJobRunnable runnable) {
+        String jobName = getJobName(runnable.getRuntime(), runnable.getTask(), runnable.getId());
+        String containerName = getContainerName(runnable.getRuntime(), runnable.getTask(), runnable.getId());
+
+        Optional<V1Job> v1Job;
+        try {
+            v1Job = k8sJobInformer.getJob(jobName);
+        } catch (ApiException e) {
+            if (e.getCode() != HttpStatus.NOT_FOUND.value()) {
+                throw new CoreException(
+                        ErrorList.RUN_JOB_ERROR.getValue(),
+                        e.getMessage(),
+                        HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+            v1Job = Optional.empty();
+        }
+
+        if (v1Job.isEmpty()) {
+            log.warn("Job " + jobName + " not found, run " + runnable.getId() + " moved to error");
+            runService.patchStatus(runnable.getId(), Map.of("state", RunState.ERROR.name()));
+            return true;
+        }
 
-        // Define a function with parameters
+        log.info("Recover tracking of job " + jobName + "@" + namespace);
+        track(runnable, jobName, containerName);
+        return true;
+    }
+
+    /**
+     * Track the job through the informer, with a poller on the cache as a fallback.
+     *
+     * @param runnable      the runnable Type in this case K8SJobRunnable
+     * @param jobName       the name of the Job
+     * @param containerName the name of the container
+     */
+    private void track(K8sJobRunnable runnable, String jobName, String containerName) {
+        // Initialize the run state machine considering current state and context
+        StateMachine<RunState, RunEvent, Map<String, Object>> fsm = runStateMachine
+                .create(RunState.valueOf(runnable.getState()),
+                        Map.of("runId", runnable.getId()));
+
+        // Callbacks pushed by the wrapper drive the same state machine
+        runStateMachine.register(runnable.getId(), fsm);
+
+        // Job and pod changes are pushed by the shared informer
+        AtomicBoolean tracking = new AtomicBoolean(true);
+        k8sJobInformer.watch(jobName, v1Job -> checkJobStatus(v1Job, containerName, fsm, runnable, tracking));
+
+        // The poller reads the informer cache and only recovers missed notifications.
+        // The job status is returned so that the poller slows down while it does not change.
         TriFunction<String, String,
                 StateMachine<
                         RunState,
                         RunEvent,
                         Map<String, Object>>,
-                Void> checkJobStatus = (jName, cName, fMachine) -> {
+                V1JobStatus> checkCachedJobStatus = (jName, cName, fMachine) -> {
             try {
-                V1Job v1Job = batchV1Api.readNamespacedJob(jName, namespace, null);
-                V1JobStatus v1JobStatus = v1Job.getStatus();
-
-                // Check the Job status
-                if (Objects.requireNonNull(v1JobStatus).getSucceeded() != null
-                        && !fMachine.getCurrentState().equals(RunState.COMPLETED)) {
-
-
-                    // Job has completed successfully
-                    log.info("Job completed successfully.");
-                    // Update state machine and update runDTO
-                    fMachine.goToState(RunState.COMPLETED);
-                    Run runDTO = runService.getRun(runnable.getId());
-                    runDTO.getStatus().put("state", fsm.getCurrentState().name());
-                    runService.updateRun(runDTO, runDTO.getId());
-
-                    // Log pod status
-                    logPod(jName, cName, namespace, runnable);
-                    // Delete job and pod
-                    deleteAssociatedPodAndJob(jName, namespace, runnable);
-
-                } else if (Objects.requireNonNull(v1JobStatus).getFailed() != null) {
-                    // Job has failed delete job and pod
-                    deleteAssociatedPodAndJob(jName, namespace, runnable);
-
-                } else if (v1JobStatus.getActive() != null && v1JobStatus.getActive() > 0) {
-                    if (!fMachine.getCurrentState().equals(RunState.RUNNING)) {
-                        fMachine.goToState(RunState.READY);
-                        fMachine.goToState(RunState.RUNNING);
-                    }
-                    log.warn("Job is running...");
-                    logPod(jName, cName, namespace, runnable);
-                } else {
-                    String v1JobStatusString = JacksonMapper.CUSTOM_OBJECT_MAPPER.writeValueAsString(v1JobStatus);
-                    log.warn("Job is in an unknown state : " + v1JobStatusString);
-                    writeLog(runnable, v1JobStatusString);
-                }
-
-            } catch (ApiException | JsonProcessingException | CoreException e) {
-                deleteAssociatedPodAndJob(jName, namespace, runnable);
+                // Handled on the serial dispatch of the job, never along with an informer notification
+                return k8sJobInformer.resync(jName).map(V1Job::getStatus).orElse(null);
+            } catch (ApiException e) {
+                log.error(e.getResponseBody());
+                stopTracking(jName, runnable.getId(), tracking);
                 throw new StopPoller(e.getMessage());
             }
-
-            return null;
         };
 
         // Using the step method with explicit arguments
         pollingService.createPoller(jobName, List.of(
-                WorkflowFactory.builder().step(checkJobStatus, jobName, containerName, fsm).build()
-        ), 1, true, false);
+                WorkflowFactory.builder().step(checkCachedJobStatus, jobName, containerName, fsm).build()
+        ), fallbackPollSeconds, true, false);
 
         // Start job poller
         pollingService.startOne(jobName);
     }
 
+    /**
+     * Moves the run state machine according to the job status.
+     *
+     * @param v1Job    the job, as seen by the informer
+     * @param cName    the name of the container
+     * @param fMachine the run state machine
+     * @param runnable the runnable Type in this case K8SJobRunnable
+     * @param tracking flag cleared once the job is no longer tracked
+     */
+    private void checkJobStatus(V1Job v1Job,
+                                String cName,
+                                StateMachine<RunState, RunEvent, Map<String, Object>> fMachine,
+                                K8sJobRunnable runnable,
+                                AtomicBoolean tracking) {
+        String jName = Objects.requireNonNull(v1Job.getMetadata()).getName();
+        V1JobStatus v1JobStatus = v1Job.getStatus();
+
+        // Skip late notifications and jobs not yet picked up by the controller
+        if (!tracking.get() || v1JobStatus == null) {
+            return;
+        }
+
+        try {
+            // Check the Job status
+            if (v1JobStatus.getSucceeded() != null) {
+
+                // Job has completed successfully, the wrapper may have already reported it
+                log.info("Job completed successfully.");
+                // Update state machine and update runDTO
+                if (!fMachine.getCurrentState().equals(RunState.COMPLETED)) {
+                    fMachine.goToState(RunState.COMPLETED);
+                }
+                runService.patchStatus(runnable.getId(),
+                        Map.of("state", fMachine.getCurrentState().name()));
+
+                // Log pod status
+                logPod(jName, cName, namespace, runnable);
+                // Delete job and pod
+                deleteAssociatedPodAndJob(jName, cName, namespace, runnable, tracking);
+
+            } else if (v1JobStatus.getFailed() != null) {
+                // Job has failed, collect the last lines then delete job and pod
+                logPod(jName, cName, namespace, runnable);
+                deleteAssociatedPodAndJob(jName, cName, namespace, runnable, tracking);
+
+            } else if (v1JobStatus.getActive() != null && v1JobStatus.getActive() > 0) {
+                if (!fMachine.getCurrentState().equals(RunState.RUNNING)) {
+                    fMachine.goToState(RunState.READY);
+                    fMachine.goToState(RunState.RUNNING);
+                }
+                log.warn("Job is running...");
+                logPod(jName, cName, namespace, runnable);
+            } else {
+                String v1JobStatusString = JacksonMapper.CUSTOM_OBJECT_MAPPER.writeValueAsString(v1JobStatus);
+                log.warn("Job is in an unknown state : " + v1JobStatusString);
+                writeLog(runnable, v1JobStatusString);
+            }
+
+        } catch (JsonProcessingException | CoreException e) {
+            log.error(e.getMessage());
+            deleteAssociatedPodAndJob(jName, cName, namespace, runnable, tracking);
+        }
+    }
+
+    /**
+     * Stop receiving notifications and polling for the job.
+     *
+     * @param jobName  the name of the Job
+     * @param runId    the id of the run
+     * @param tracking flag cleared once the job is no longer tracked
+     */
+    private void stopTracking(String jobName, String runId, AtomicBoolean tracking) {
+        tracking.set(false);
+        runStateMachine.unregister(runId);
+        k8sJobInformer.unwatch(jobName);
+        pollingService.stopOne(jobName);
+    }
 
-    private void writeLog(K8sJobRunnable runnable, String log) {
 
-        LogMetadata logMetadata = new LogMetadata();
-        logMetadata.setProject(runnable.getProject());
-        logMetadata.setRun(runnable.getId());
-        Log logDTO = Log.builder()
-                .body(Map.of("content", log))
-                .metadata(logMetadata)
-                .build();
-        logService.createLog(logDTO);
+    private void writeLog(K8sJobRunnable runnable, String content) {
+        if (!writeLog(runnable, content, Map.of())) {
+            log.warn("Log ingestion queue full, status of run " + runnable.getId() + " not logged");
+        }
+    }
+
+    private boolean writeLog(K8sJobRunnable runnable, String content, Map<String, Object> status) {
+        return logIngestionQueue.offer(runnable.getProject(), runnable.getId(), content, status);
     }
 
     // Concat command with arguments
@@ -279,31 +392,17 @@ public class K8sJobFramework implements Framework<K8sJobRunnable> {
     private void logPod(String jobName, String cName, String namespace, K8sJobRunnable runnable) {
         try {
 
-            // Retrieve and print the logs of the associated Pod
-            V1PodList v1PodList = coreV1Api.listNamespacedPod(
-                    namespace, null,
-                    null, null,
-                    null, null,
-                    null, null,
-                    null, null,
-                    null, null);
-
-            for (V1Pod pod : v1PodList.getItems()) {
+            // Retrieve only the lines written since the previous read and append them to the run log
+            for (V1Pod pod : k8sJobInformer.getPods(jobName)) {
                 if (pod.getMetadata() != null && pod.getMetadata().getName() != null) {
-                    if (pod.getMetadata().getName().startsWith(jobName)) {
-                        String podName = pod.getMetadata().getName();
-                        String logs = coreV1Api.readNamespacedPodLog(podName, namespace, cName,
-                                false, null,
-                                null, null,
-                                null, null,
-                                null, null);
-
-
-                        log.info("Logs for Pod: " + podName);
-                        log.info("Log is: " + logs);
-                        if (logs != null)
-                            writeLog(runnable, logs);
-                    }
+                    String podName = pod.getMetadata().getName();
+                    // A chunk rejected by a full ingestion queue is read again by the next poll
+                    k8sLogFollower.follow(namespace, podName, cName, c -> {
+                        log.info("Logs for Pod: " + podName + " offset: " + c.getOffset());
+                        return writeLog(runnable, c.getContent(), Map.of(
+                                "pod", podName,
+                                "offset", c.getOffset()));
+                    });
                 }
             }
         } catch (ApiException e) {
@@ -316,56 +415,51 @@ public class K8sJobFramework implements Framework<K8sJobRunnable> {
      * Delete job
      *
      * @param jobName  the name of the Job
+     * @param cName    the name of the container
      * @param runnable the runnable Type in this case K8SJobRunnable
+     * @param tracking flag cleared once the job is no longer tracked
      */
-    private void deleteAssociatedPodAndJob(String jobName, String namespace, K8sJobRunnable runnable) {
+    private void deleteAssociatedPodAndJob(String jobName, String cName, String namespace, K8sJobRunnable runnable,
+                                           AtomicBoolean tracking) {
+        // Stop tracking first, deletions are notified by the informer as well
+        stopTracking(jobName, runnable.getId(), tracking);
+
         // Delete the Pod associated with the Job
         try {
-            V1PodList v1PodList = coreV1Api.listNamespacedPod(
-                    namespace, null,
-                    null, null,
-                    null, null,
-                    null, null,
-                    null, null,
-                    null, null);
-
-
-            for (V1Pod pod : v1PodList.getItems()) {
+            for (V1Pod pod : k8sJobInformer.getPods(jobName)) {
                 if (pod.getMetadata() != null && pod.getMetadata().getName() != null) {
-                    if (pod.getMetadata().getName().startsWith(jobName)) {
-                        String podName = pod.getMetadata().getName();
-
-                        // Delete the Pod
-                        V1Pod v1Pod = coreV1Api.deleteNamespacedPod(podName, namespace, null,
-                                null, null,
-                                null, null,
-                                null);
-                        log.info("Pod deleted: " + podName);
-
-                        try {
-                            writeLog(runnable, JacksonMapper.CUSTOM_OBJECT_MAPPER.writeValueAsString(v1Pod.getStatus()));
-                        } catch (JsonProcessingException e) {
-                            log.error(e.toString());
-                        }
-
-                        // Delete the Job
-                        V1Status deleteStatus = batchV1Api.deleteNamespacedJob(
-                                jobName, "default", null,
-                                null, null, null,
-                                null, null);
-
-                        try {
-                            writeLog(runnable, JacksonMapper.CUSTOM_OBJECT_MAPPER.writeValueAsString(deleteStatus));
-                        } catch (JsonProcessingException e) {
-                            log.error(e.toString());
-                        }
-                        log.info("Job deleted: " + jobName);
+                    String podName = pod.getMetadata().getName();
+
+                    // Delete the Pod
+                    V1Pod v1Pod = coreV1Api.deleteNamespacedPod(podName, namespace, null,
+                            null, null,
+                            null, null,
+                            null);
+                    log.info("Pod deleted: " + podName);
+                    k8sLogFollower.release(namespace, podName, cName);
+
+                    try {
+                        writeLog(runnable, JacksonMapper.CUSTOM_OBJECT_MAPPER.writeValueAsString(v1Pod.getStatus()));
+                    } catch (JsonProcessingException e) {
+                        log.error(e.toString());
                     }
                 }
             }
-            throw new StopPoller("POLLER STOP SUCCESSFULLY");
+
+            // Delete the Job
+            V1Status deleteStatus = batchV1Api.deleteNamespacedJob(
+                    jobName, namespace, null,
+                    null, null, null,
+                    null, null);
+
+            try {
+                writeLog(runnable, JacksonMapper.CUSTOM_OBJECT_MAPPER.writeValueAsString(deleteStatus));
+            } catch (JsonProcessingException e) {
+                log.error(e.toString());
+            }
+            log.info("Job deleted: " + jobName);
         } catch (ApiException e) {
-            throw new RuntimeException(e);
+            log.error(e.getResponseBody());
         }
     }
 
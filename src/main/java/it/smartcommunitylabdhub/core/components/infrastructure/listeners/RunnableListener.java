@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import it.smartcommunitylabdhub.core.components.dispatch.RunExecutors;
 import it.smartcommunitylabdhub.core.components.infrastructure.factories.frameworks.Framework;
 import it.smartcommunitylabdhub.core.components.infrastructure.factories.frameworks.FrameworkFactory;
 import it.smartcommunitylabdhub.core.components.infrastructure.factories.runnables.Runnable;
@@ -14,6 +15,9 @@ public class RunnableListener {
 	@Autowired
 	FrameworkFactory frameworkFactory;
 
+	@Autowired
+	RunExecutors runExecutors;
+
 	@Async
 	@EventListener
 	public <R extends Runnable> void listen(R runnable) {
@@ -21,6 +25,8 @@ public class RunnableListener {
 		Framework<Runnable> framework =
 				frameworkFactory.getFramework(
 						runnable.framework());
+		// Tracked by this instance from now on
+		runExecutors.own(runnable.getId());
 		framework.execute(runnable);
 	}
 
@@ -0,0 +1,291 @@
+package it.smartcommunitylabdhub.core.components.kubernetes;
+
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.SharedInformerFactory;
+import io.kubernetes.client.informer.cache.Lister;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.apis.BatchV1Api;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1Job;
+import io.kubernetes.client.openapi.models.V1JobList;
+import io.kubernetes.client.openapi.models.V1OwnerReference;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodList;
+import io.kubernetes.client.util.CallGeneratorParams;
+import it.smartcommunitylabdhub.core.components.fsm.SerialExecutor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Shared informer for the jobs and pods created by the core.
+ * <p>
+ * A single watch per resource type, filtered on the managed-by label, keeps a local indexed
+ * cache up to date. Job and pod changes are pushed to the handler registered for the job, so
+ * the load on the API server does not depend on the number of tracked runs nor on the number
+ * of pods living in the namespace.
+ * <p>
+ * The watches go through the client of the informer factory, without read timeout, while the
+ * fallback reads go through the shared client.
+ */
+@Component
+@Slf4j
+public class K8sJobInformer {
+
+    public static final String MANAGED_BY_LABEL = "app.kubernetes.io/managed-by";
+    public static final String MANAGED_BY_VALUE = "dhcore";
+    public static final String MANAGED_BY_SELECTOR = MANAGED_BY_LABEL + "=" + MANAGED_BY_VALUE;
+
+    private static final String JOB_NAME_INDEX = "job-name";
+
+    private final BatchV1Api batchV1Api;
+
+    private final CoreV1Api coreV1Api;
+
+    private final SharedInformerFactory informerFactory;
+
+    private final Executor executor;
+
+    private final String namespace;
+
+    private final boolean enabled;
+
+    private final BatchV1Api watchBatchV1Api;
+
+    private final CoreV1Api watchCoreV1Api;
+
+    private final Map<String, JobHandler> jobHandlers = new ConcurrentHashMap<>();
+
+    private SharedIndexInformer<V1Job> jobInformer;
+
+    private SharedIndexInformer<V1Pod> podInformer;
+
+    private Lister<V1Job> jobLister;
+
+    public K8sJobInformer(BatchV1Api batchV1Api,
+                          CoreV1Api coreV1Api,
+                          SharedInformerFactory informerFactory,
+                          @Qualifier("informerApiClient") ApiClient informerApiClient,
+                          @Qualifier("pollerExecutor") Executor executor,
+                          @Value("${kubernetes.namespace}") String namespace,
+                          @Value("${kubernetes.informer.enabled}") boolean enabled) {
+        this.batchV1Api = batchV1Api;
+        this.coreV1Api = coreV1Api;
+        this.informerFactory = informerFactory;
+        this.watchBatchV1Api = new BatchV1Api(informerApiClient);
+        this.watchCoreV1Api = new CoreV1Api(informerApiClient);
+        this.executor = executor;
+        this.namespace = namespace;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.warn("Kubernetes informer disabled, jobs and pods will be read from the API server");
+            return;
+        }
+
+        jobInformer = informerFactory.sharedIndexInformerFor(
+                (CallGeneratorParams params) -> watchBatchV1Api.listNamespacedJobCall(
+                        namespace, null,
+                        null, null,
+                        null, MANAGED_BY_SELECTOR,
+                        null, params.resourceVersion,
+                        null, null,
+                        params.timeoutSeconds, params.watch,
+                        null),
+                V1Job.class, V1JobList.class);
+
+        podInformer = informerFactory.sharedIndexInformerFor(
+                (CallGeneratorParams params) -> watchCoreV1Api.listNamespacedPodCall(
+                        namespace, null,
+                        null, null,
+                        null, MANAGED_BY_SELECTOR,
+                        null, params.resourceVersion,
+                        null, null,
+                        params.timeoutSeconds, params.watch,
+                        null),
+                V1Pod.class, V1PodList.class);
+
+        // Index pods by the name of the job owning them
+        podInformer.addIndexers(Map.of(JOB_NAME_INDEX, K8sJobInformer::ownerJobNames));
+
+        jobInformer.addEventHandler(new ResourceEventHandler<>() {
+            @Override
+            public void onAdd(V1Job job) {
+                dispatch(job);
+            }
+
+            @Override
+            public void onUpdate(V1Job oldJob, V1Job newJob) {
+                dispatch(newJob);
+            }
+
+            @Override
+            public void onDelete(V1Job job, boolean deletedFinalStateUnknown) {
+                // Nothing to do, the handler is released by the framework
+            }
+        });
+
+        podInformer.addEventHandler(new ResourceEventHandler<>() {
+            @Override
+            public void onAdd(V1Pod pod) {
+                dispatchPod(pod);
+            }
+
+            @Override
+            public void onUpdate(V1Pod oldPod, V1Pod newPod) {
+                dispatchPod(newPod);
+            }
+
+            @Override
+            public void onDelete(V1Pod pod, boolean deletedFinalStateUnknown) {
+                // Nothing to do, job status already reflects the pod termination
+            }
+        });
+
+        jobLister = new Lister<>(jobInformer.getIndexer(), namespace);
+
+        informerFactory.startAllRegisteredInformers();
+        log.info("Kubernetes informer started on namespace " + namespace + " with selector " + MANAGED_BY_SELECTOR);
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        if (enabled) {
+            informerFactory.stopAllRegisteredInformers();
+        }
+    }
+
+    /**
+     * Registers a handler notified with the latest job state on each job or pod change.
+     * Notifications for the same job are never delivered concurrently.
+     *
+     * @param jobName The name of the job.
+     * @param handler The handler receiving the job.
+     */
+    public void watch(String jobName, Consumer<V1Job> handler) {
+        jobHandlers.put(jobName, new JobHandler(handler, new SerialExecutor(executor)));
+    }
+
+    /**
+     * Removes the handler registered for the job.
+     *
+     * @param jobName The name of the job.
+     */
+    public void unwatch(String jobName) {
+        jobHandlers.remove(jobName);
+    }
+
+    /**
+     * Notifies the handler registered for the job with its current state, as an informer change
+     * would. The notification is serialized with the ones pushed by the informer.
+     *
+     * @param jobName The name of the job.
+     * @return The job if exists.
+     * @throws ApiException when the fallback read fails.
+     */
+    public Optional<V1Job> resync(String jobName) throws ApiException {
+        Optional<V1Job> job = getJob(jobName);
+        job.ifPresent(this::dispatch);
+        return job;
+    }
+
+    /**
+     * Returns the job, from the local cache when the informer is enabled and synced.
+     *
+     * @param jobName The name of the job.
+     * @return The job if exists.
+     * @throws ApiException when the fallback read fails.
+     */
+    public Optional<V1Job> getJob(String jobName) throws ApiException {
+        // Until the first list completes the cache may miss existing jobs
+        if (!enabled || !jobInformer.hasSynced()) {
+            return Optional.ofNullable(batchV1Api.readNamespacedJob(jobName, namespace, null));
+        }
+        return Optional.ofNullable(jobLister.get(jobName));
+    }
+
+    /**
+     * Returns the pods owned by the job, from the local cache when the informer is enabled.
+     *
+     * @param jobName The name of the job.
+     * @return The list of pods.
+     * @throws ApiException when the fallback list fails.
+     */
+    public List<V1Pod> getPods(String jobName) throws ApiException {
+        if (!enabled) {
+            return coreV1Api.listNamespacedPod(
+                    namespace, null,
+                    null, null,
+                    null, "job-name=" + jobName,
+                    null, null,
+                    null, null,
+                    null, null).getItems();
+        }
+        return podInformer.getIndexer().byIndex(JOB_NAME_INDEX, jobName);
+    }
+
+    /**
+     * Calls the handler registered for the job, if any, with the latest state.
+     * Handlers run on the worker pool to keep the informer dispatch thread free, one at a time
+     * for each job without holding a worker while another notification of the job is running.
+     */
+    private void dispatch(V1Job job) {
+        if (job.getMetadata() == null || job.getMetadata().getName() == null) {
+            return;
+        }
+        JobHandler handler = jobHandlers.get(job.getMetadata().getName());
+        // A notification already pending gets the latest state too
+        if (handler != null && handler.latest.getAndSet(job) == null) {
+            handler.executor.execute(() -> handler.consumer.accept(handler.latest.getAndSet(null)));
+        }
+    }
+
+    private void dispatchPod(V1Pod pod) {
+        for (String jobName : ownerJobNames(pod)) {
+            if (jobHandlers.containsKey(jobName)) {
+                V1Job job = jobLister.get(jobName);
+                if (job != null) {
+                    dispatch(job);
+                }
+            }
+        }
+    }
+
+    private static class JobHandler {
+        private final Consumer<V1Job> consumer;
+        private final SerialExecutor executor;
+        private final AtomicReference<V1Job> latest = new AtomicReference<>();
+
+        private JobHandler(Consumer<V1Job> consumer, SerialExecutor executor) {
+            this.consumer = consumer;
+            this.executor = executor;
+        }
+    }
+
+    private static List<String> ownerJobNames(V1Pod pod) {
+        if (pod.getMetadata() == null || pod.getMetadata().getOwnerReferences() == null) {
+            return Collections.emptyList();
+        }
+        return pod.getMetadata().getOwnerReferences().stream()
+                .filter(ref -> "Job".equals(ref.getKind()))
+                .map(V1OwnerReference::getName)
+                .toList();
+    }
+}
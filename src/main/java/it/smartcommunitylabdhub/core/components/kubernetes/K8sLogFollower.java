@@ -0,0 +1,179 @@
+package it.smartcommunitylabdhub.core.components.kubernetes;
+
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Follows the logs of pod containers returning only the lines written since the previous read.
+ * <p>
+ * Logs are read with timestamps and the since-seconds window starting from the last line seen,
+ * lines already returned are skipped using their timestamp. A line without timestamp takes the
+ * one of the line before it. Each container keeps a cursor with
+ * the number of bytes returned so far, used as the offset of the next chunk.
+ */
+@Slf4j
+@Component
+public class K8sLogFollower {
+
+    // Margin added to the since window to absorb clock skew between nodes and core
+    private static final long SINCE_MARGIN_SECONDS = 5;
+
+    @Autowired
+    CoreV1Api coreV1Api;
+
+    private final Map<String, LogCursor> cursors = new ConcurrentHashMap<>();
+
+    /**
+     * Read the log lines written after the previous call for the same container and pass them to
+     * the sink. The cursor only moves forward when the sink accepts the chunk, a rejected chunk is
+     * read again by the next call.
+     *
+     * @param namespace the namespace of the pod
+     * @param podName   the name of the pod
+     * @param container the name of the container
+     * @param sink      the consumer of the chunk, returning false to reject it
+     * @return true when a chunk has been accepted by the sink
+     * @throws ApiException when the log cannot be read
+     */
+    public boolean follow(String namespace, String podName, String container, Predicate<LogChunk> sink)
+            throws ApiException {
+        LogCursor cursor = cursors.computeIfAbsent(key(namespace, podName, container), k -> new LogCursor());
+
+        synchronized (cursor) {
+            Integer sinceSeconds = cursor.lastTimestamp == null ? null :
+                    (int) Math.max(1, Duration.between(cursor.lastTimestamp, Instant.now()).getSeconds()
+                            + SINCE_MARGIN_SECONDS);
+
+            String logs = coreV1Api.readNamespacedPodLog(podName, namespace, container,
+                    false, null,
+                    null, null,
+                    null, sinceSeconds,
+                    null, true);
+
+            if (logs == null || logs.isEmpty()) {
+                return false;
+            }
+
+            StringBuilder chunk = new StringBuilder();
+            Instant lastTimestamp = cursor.lastTimestamp;
+            int linesAtLastTimestamp = cursor.linesAtLastTimestamp;
+            int skipAtLastTimestamp = cursor.linesAtLastTimestamp;
+            // Timestamp of the previous line of this read
+            Instant previous = null;
+
+            for (String line : logs.split("\n")) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                int separator = line.indexOf(' ');
+                Instant timestamp = parseTimestamp(separator > 0 ? line.substring(0, separator) : line);
+                String content = separator > 0 ? line.substring(separator + 1) : "";
+
+                if (timestamp == null) {
+                    // Should not happen with timestamps enabled, the line is counted along with the
+                    // previous one so that it is skipped as well when read again
+                    if (previous == null) {
+                        // Before the first line of the window, already returned unless first read
+                        if (cursor.lastTimestamp == null) {
+                            chunk.append(line).append('\n');
+                        }
+                        continue;
+                    }
+                    timestamp = previous;
+                    content = line;
+                }
+                previous = timestamp;
+
+                if (cursor.lastTimestamp != null) {
+                    if (timestamp.isBefore(cursor.lastTimestamp)) {
+                        continue;
+                    }
+                    // Several lines can share the same timestamp, skip the ones already returned
+                    if (timestamp.equals(cursor.lastTimestamp) && skipAtLastTimestamp > 0) {
+                        skipAtLastTimestamp--;
+                        continue;
+                    }
+                }
+
+                if (timestamp.equals(lastTimestamp)) {
+                    linesAtLastTimestamp++;
+                } else {
+                    lastTimestamp = timestamp;
+                    linesAtLastTimestamp = 1;
+                }
+                chunk.append(content).append('\n');
+            }
+
+            if (chunk.isEmpty()) {
+                return false;
+            }
+
+            String content = chunk.toString();
+            if (!sink.test(new LogChunk(content, cursor.offset))) {
+                return false;
+            }
+
+            cursor.lastTimestamp = lastTimestamp;
+            cursor.linesAtLastTimestamp = linesAtLastTimestamp;
+            cursor.offset += content.getBytes(StandardCharsets.UTF_8).length;
+            return true;
+        }
+    }
+
+    /**
+     * Release the cursor of the container, to be called once the pod has been deleted.
+     *
+     * @param namespace the namespace of the pod
+     * @param podName   the name of the pod
+     * @param container the name of the container
+     */
+    public void release(String namespace, String podName, String container) {
+        cursors.remove(key(namespace, podName, container));
+    }
+
+    private static String key(String namespace, String podName, String container) {
+        return namespace + "/" + podName + "/" + container;
+    }
+
+    private static Instant parseTimestamp(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static class LogCursor {
+
+        private Instant lastTimestamp;
+
+        private int linesAtLastTimestamp;
+
+        private long offset;
+    }
+
+    /**
+     * A chunk of log and its offset in the container log stream.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class LogChunk {
+
+        private final String content;
+
+        private final long offset;
+    }
+}
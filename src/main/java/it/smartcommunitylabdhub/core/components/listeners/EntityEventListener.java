@@ -1,32 +1,97 @@
 package it.smartcommunitylabdhub.core.components.listeners;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import it.smartcommunitylabdhub.core.utils.jackson.JacksonMapper;
+import it.smartcommunitylabdhub.core.components.events.changes.ChangeEvent;
+import it.smartcommunitylabdhub.core.components.events.changes.ChangeRecorder;
+import it.smartcommunitylabdhub.core.components.events.changes.ChangeType;
+import it.smartcommunitylabdhub.core.components.infrastructure.enums.EntityName;
+import it.smartcommunitylabdhub.core.models.entities.artifact.ArtifactEntity;
+import it.smartcommunitylabdhub.core.models.entities.dataitem.DataItemEntity;
+import it.smartcommunitylabdhub.core.models.entities.function.FunctionEntity;
+import it.smartcommunitylabdhub.core.models.entities.project.ProjectEntity;
+import it.smartcommunitylabdhub.core.models.entities.run.RunEntity;
+import it.smartcommunitylabdhub.core.models.entities.task.TaskEntity;
+import it.smartcommunitylabdhub.core.models.entities.workflow.WorkflowEntity;
 import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.core.AmqpTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
+import java.util.Date;
+
+/**
+ * Record the changes of the entities, published to the change feed once their transaction has
+ * committed. Bulk deletes by query do not go through this listener, the services record them
+ * with {@link ChangeRecorder#deleted}.
+ */
 @Component
 @Slf4j
 public class EntityEventListener {
 
+    // Created by hibernate while building the entity manager factory, which the recorder depends
+    // on: resolved on first use
     @Autowired
-    private AmqpTemplate amqpTemplate;
+    @Lazy
+    ChangeRecorder changeRecorder;
 
     @PostPersist
     public void handlePostPersist(Object entity) {
-//        try {
-//            // Send the entity to RabbitMQ
-//            amqpTemplate.convertAndSend("dhcore_queue", serializeToJson(entity));
-//        } catch (JsonProcessingException e) {
-//            log.error("Error processing entity for RabbitMQ", e);
-//        }
+        record(entity, ChangeType.CREATED);
+    }
+
+    @PostUpdate
+    public void handlePostUpdate(Object entity) {
+        record(entity, ChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void handlePostRemove(Object entity) {
+        record(entity, ChangeType.DELETED);
     }
 
-    private String serializeToJson(Object entity) throws JsonProcessingException {
+    private void record(Object entity, ChangeType type) {
+        ChangeEvent event = describe(entity, type);
+        if (event != null) {
+            changeRecorder.record(event);
+        }
+    }
+
+    private static ChangeEvent describe(Object entity, ChangeType type) {
+        ChangeEvent.ChangeEventBuilder builder = ChangeEvent.builder()
+                .type(type)
+                .timestamp(new Date());
+
+        if (entity instanceof ProjectEntity project) {
+            builder.entity(EntityName.PROJECT).id(project.getId()).project(project.getName())
+                    .name(project.getName()).kind(project.getKind()).state(name(project.getState()));
+        } else if (entity instanceof FunctionEntity function) {
+            builder.entity(EntityName.FUNCTION).id(function.getId()).project(function.getProject())
+                    .name(function.getName()).kind(function.getKind()).state(name(function.getState()));
+        } else if (entity instanceof ArtifactEntity artifact) {
+            builder.entity(EntityName.ARTIFACT).id(artifact.getId()).project(artifact.getProject())
+                    .name(artifact.getName()).kind(artifact.getKind()).state(name(artifact.getState()));
+        } else if (entity instanceof DataItemEntity dataItem) {
+            builder.entity(EntityName.DATAITEM).id(dataItem.getId()).project(dataItem.getProject())
+                    .name(dataItem.getName()).kind(dataItem.getKind()).state(name(dataItem.getState()));
+        } else if (entity instanceof WorkflowEntity workflow) {
+            builder.entity(EntityName.WORKFLOW).id(workflow.getId()).project(workflow.getProject())
+                    .name(workflow.getName()).kind(workflow.getKind()).state(name(workflow.getState()));
+        } else if (entity instanceof TaskEntity task) {
+            builder.entity(EntityName.TASK).id(task.getId()).project(task.getProject())
+                    .kind(task.getKind()).state(name(task.getState()));
+        } else if (entity instanceof RunEntity run) {
+            builder.entity(EntityName.RUN).id(run.getId()).project(run.getProject())
+                    .kind(run.getKind()).state(name(run.getState()));
+        } else {
+            log.debug("No change event for entity " + entity.getClass().getSimpleName());
+            return null;
+        }
+        return builder.build();
+    }
 
-        return JacksonMapper.OBJECT_MAPPER.writeValueAsString(entity);
+    private static String name(Enum<?> state) {
+        return state != null ? state.name() : null;
     }
 }
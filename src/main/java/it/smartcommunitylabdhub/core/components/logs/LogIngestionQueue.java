@@ -0,0 +1,239 @@
+package it.smartcommunitylabdhub.core.components.logs;
+
+import it.smartcommunitylabdhub.core.models.builders.log.LogEntityBuilder;
+import it.smartcommunitylabdhub.core.models.entities.log.Log;
+import it.smartcommunitylabdhub.core.models.entities.log.LogEntity;
+import it.smartcommunitylabdhub.core.models.entities.log.metadata.LogMetadata;
+import it.smartcommunitylabdhub.core.repositories.LogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous ingestion of run log chunks.
+ * <p>
+ * Producers offer chunks to a bounded lock-free queue and never wait: when the queue is full the
+ * offer is rejected and the producer keeps the chunk for a later attempt. A single flusher thread
+ * drains the queue once it holds a batch of chunks or the flush interval has elapsed, coalesces
+ * the chunks of the same run into a single append to the log store and saves the log rows of the
+ * batch in one transaction, written by the JDBC batches of hibernate.
+ * <p>
+ * A batch that cannot be written is written again at the next flush, before any new chunk and
+ * without appending again the runs already in the store, up to the maximum number of attempts.
+ * The chunks of the batches given up are counted as dropped.
+ */
+@Slf4j
+@Component
+public class LogIngestionQueue {
+
+    private final Queue<PendingChunk> queue = new ConcurrentLinkedQueue<>();
+
+    // Size of the queue, kept apart as the size of a ConcurrentLinkedQueue is not constant time
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    @Autowired
+    LogStore logStore;
+
+    @Autowired
+    LogRepository logRepository;
+
+    @Autowired
+    LogEntityBuilder logEntityBuilder;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    LogTailBroadcaster logTailBroadcaster;
+
+    @Value("${log.ingestion.queue-capacity}")
+    private int capacity;
+
+    @Value("${log.ingestion.batch-size}")
+    private int batchSize;
+
+    @Value("${log.ingestion.flush-interval-ms}")
+    private long flushIntervalMs;
+
+    @Value("${log.ingestion.max-attempts}")
+    private int maxAttempts;
+
+    private volatile boolean running;
+
+    private Thread flusher;
+
+    // Batch whose write failed, only used by the flusher thread
+    private Batch failed;
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusher = new Thread(this::flushLoop, "Log-Flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Offer a chunk of the log of a run, without waiting.
+     *
+     * @param project the project of the run
+     * @param runId   the id of the run
+     * @param chunk   the content of the chunk
+     * @param status  the status stored with the chunk
+     * @return false when the queue is full and the chunk has not been taken
+     */
+    public boolean offer(String project, String runId, String chunk, Map<String, Object> status) {
+        int size = pending.incrementAndGet();
+        if (size > capacity) {
+            pending.decrementAndGet();
+            return false;
+        }
+        queue.offer(new PendingChunk(project, runId, chunk, status));
+        if (size == batchSize) {
+            LockSupport.unpark(flusher);
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of chunks given up after the maximum number of write attempts
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void flushLoop() {
+        while (running) {
+            // A failed batch waits for a flush interval before being written again
+            if (failed != null || pending.get() < batchSize) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+            flush();
+        }
+        // Drain what is left on shutdown
+        while (failed != null || pending.get() > 0) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        Batch batch = failed;
+        failed = null;
+        if (batch == null) {
+            batch = poll();
+            if (batch == null) {
+                return;
+            }
+        }
+
+        try {
+            write(batch);
+        } catch (RuntimeException e) {
+            if (++batch.attempts < maxAttempts) {
+                log.warn("Cannot write " + batch.size + " log chunks, attempt " + batch.attempts + ": "
+                        + e.getMessage());
+                failed = batch;
+            } else {
+                dropped.addAndGet(batch.size);
+                log.error("Cannot write " + batch.size + " log chunks, dropped after " + batch.attempts
+                        + " attempts: " + e.getMessage());
+            }
+        }
+    }
+
+    private Batch poll() {
+        Batch batch = new Batch();
+        PendingChunk chunk;
+        while (batch.size < batchSize && (chunk = queue.poll()) != null) {
+            pending.decrementAndGet();
+            // Chunks of the same run are appended together, in the order they have been offered
+            batch.runs.computeIfAbsent(chunk.runId(), k -> new PendingRun()).chunks.add(chunk);
+            batch.size++;
+        }
+        return batch.size == 0 ? null : batch;
+    }
+
+    private void write(Batch batch) {
+        List<LogEntity> entities = new ArrayList<>(batch.runs.size());
+        for (PendingRun run : batch.runs.values()) {
+            // Already in the store when written again
+            if (run.entity != null) {
+                entities.add(run.entity);
+                continue;
+            }
+
+            List<PendingChunk> chunks = run.chunks;
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            Map<String, Object> status = new HashMap<>();
+            for (PendingChunk chunk : chunks) {
+                content.writeBytes(chunk.chunk().getBytes(StandardCharsets.UTF_8));
+                // The first chunk gives the position of the content
+                chunk.status().forEach(status::putIfAbsent);
+            }
+
+            PendingChunk first = chunks.get(0);
+            byte[] bytes = content.toByteArray();
+            long offset = logStore.append(first.runId(), bytes);
+
+            LogMetadata logMetadata = new LogMetadata();
+            logMetadata.setProject(first.project());
+            logMetadata.setRun(first.runId());
+            run.entity = logEntityBuilder.build(Log.builder()
+                    .body(Map.of(
+                            "offset", offset,
+                            "length", bytes.length))
+                    .status(status)
+                    .metadata(logMetadata)
+                    .build());
+            entities.add(run.entity);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> logRepository.saveAll(entities));
+
+        // Followers read the content from the store, one notification per run of the batch
+        batch.runs.keySet().forEach(logTailBroadcaster::appended);
+    }
+
+    private record PendingChunk(String project, String runId, String chunk, Map<String, Object> status) {
+    }
+
+    private static class Batch {
+        private final Map<String, PendingRun> runs = new LinkedHashMap<>();
+        private int size;
+        private int attempts;
+    }
+
+    private static class PendingRun {
+        private final List<PendingChunk> chunks = new ArrayList<>();
+
+        // Log row of the content appended to the store, null until appended
+        private LogEntity entity;
+    }
+}
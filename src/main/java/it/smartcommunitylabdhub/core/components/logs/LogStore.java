@@ -0,0 +1,43 @@
+package it.smartcommunitylabdhub.core.components.logs;
+
+/**
+ * Storage of the log streams of the runs. Each run has a single stream of bytes, appended in
+ * chunks and read back by range, while the database only keeps the metadata of the chunks.
+ * <p>
+ * Logs are appended by the instance executing the run and read by any instance serving the API:
+ * when the roles are split, the store must be shared by all of them.
+ */
+public interface LogStore {
+
+    /**
+     * Append a chunk to the log of a run.
+     *
+     * @param runId the id of the run
+     * @param chunk the bytes to append
+     * @return the offset of the first byte of the chunk in the log
+     */
+    long append(String runId, byte[] chunk);
+
+    /**
+     * Read a range of the log of a run. The range is cut at the end of the log.
+     *
+     * @param runId  the id of the run
+     * @param offset the offset of the first byte to read
+     * @param length the maximum number of bytes to read
+     * @return the bytes read, empty when the offset is past the end of the log
+     */
+    byte[] read(String runId, long offset, int length);
+
+    /**
+     * @param runId the id of the run
+     * @return the number of bytes in the log of the run, 0 when there is no log
+     */
+    long size(String runId);
+
+    /**
+     * Delete the log of a run.
+     *
+     * @param runId the id of the run
+     */
+    void delete(String runId);
+}
@@ -0,0 +1,261 @@
+package it.smartcommunitylabdhub.core.components.logs;
+
+import it.smartcommunitylabdhub.core.components.fsm.SerialExecutor;
+import it.smartcommunitylabdhub.core.exceptions.CoreException;
+import it.smartcommunitylabdhub.core.utils.ErrorList;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Live tail of the run logs over Server-Sent Events.
+ * <p>
+ * The writers of the log store notify the runs they have appended to, and each subscriber of a
+ * notified run is sent the content between its offset and the end of the log, read from the log
+ * store. Unless polling is enabled, a subscriber costs a read of the store per append, whatever the
+ * number of clients watching the same run. The id of each event is the offset following its content, so
+ * a client reconnecting with Last-Event-ID resumes where it stopped.
+ * <p>
+ * The drain threads are shared by all the subscribers: each drain sends a single read and
+ * schedules the next one, and a client that falls behind the log after having caught up is
+ * closed, to resume from its last event when it reconnects.
+ * <p>
+ * Subscribers are local to this instance, they are notified of the appends made by this instance.
+ * When the runs are executed by other instances, writing to a shared store, the subscribers are
+ * also drained at the poll interval.
+ */
+@Slf4j
+@Component
+public class LogTailBroadcaster {
+
+    public static final String EVENT_NAME = "log";
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Autowired
+    LogStore logStore;
+
+    @Autowired
+    @Qualifier("logTailExecutor")
+    Executor executor;
+
+    @Value("${log.tail.timeout-ms}")
+    private long timeoutMs;
+
+    @Value("${log.tail.max-subscribers}")
+    private int maxSubscribers;
+
+    @Value("${log.store.max-read-bytes}")
+    private int maxReadBytes;
+
+    @Value("${log.tail.max-lag-bytes}")
+    private long maxLagBytes;
+
+    @Value("${log.tail.poll-interval-ms}")
+    private long pollIntervalMs;
+
+    private volatile boolean running;
+
+    private Thread poller;
+
+    @PostConstruct
+    public void start() {
+        if (pollIntervalMs <= 0) {
+            return;
+        }
+        running = true;
+        poller = new Thread(this::pollLoop, "Log-Tail-Poller");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (poller == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(poller);
+        poller.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Subscribe to the log of a run. The content already in the log from the offset is sent
+     * first, then the content appended while the subscription lasts.
+     *
+     * @param runId  the id of the run
+     * @param offset the offset of the first byte to send, negative to count from the end
+     * @return the emitter of the events
+     */
+    public SseEmitter subscribe(String runId, long offset) {
+        if (count.incrementAndGet() > maxSubscribers) {
+            count.decrementAndGet();
+            throw new CoreException(
+                    ErrorList.TOO_MANY_LOG_TAILS.getValue(),
+                    ErrorList.TOO_MANY_LOG_TAILS.getReason(),
+                    HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        long start = offset < 0 ? Math.max(0, logStore.size(runId) + offset) : offset;
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(runId, emitter, start, new SerialExecutor(executor));
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> {
+            unsubscribe(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        subscribers.computeIfAbsent(runId, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        // Send the backlog, appends made meanwhile are picked up by the same drain
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Notify that content has been appended to the log of a run.
+     *
+     * @param runId the id of the run
+     */
+    public void appended(String runId) {
+        Set<Subscriber> runSubscribers = subscribers.get(runId);
+        if (runSubscribers != null) {
+            runSubscribers.forEach(this::schedule);
+        }
+    }
+
+    private void pollLoop() {
+        while (running) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pollIntervalMs));
+            // Drains with nothing new read only the size of the log
+            subscribers.values().forEach(runSubscribers -> runSubscribers.forEach(this::schedule));
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        // A drain already pending covers this append too
+        if (subscriber.pending.compareAndSet(false, true)) {
+            subscriber.executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        subscriber.pending.set(false);
+        if (subscriber.closed.get()) {
+            return;
+        }
+
+        try {
+            long size = logStore.size(subscriber.runId);
+            if (subscriber.offset >= size) {
+                subscriber.caughtUp = true;
+                return;
+            }
+            if (subscriber.caughtUp && size - subscriber.offset > maxLagBytes) {
+                log.debug("Log tail of run " + subscriber.runId + " closed, lagging at " + subscriber.offset);
+                unsubscribe(subscriber);
+                subscriber.emitter.complete();
+                return;
+            }
+
+            byte[] content = complete(logStore.read(subscriber.runId, subscriber.offset,
+                    (int) Math.min(maxReadBytes, size - subscriber.offset)));
+            if (content.length == 0) {
+                // A partial character, completed by the next append
+                return;
+            }
+            subscriber.offset += content.length;
+            subscriber.emitter.send(SseEmitter.event()
+                    .id(String.valueOf(subscriber.offset))
+                    .name(EVENT_NAME)
+                    .data(new String(content, StandardCharsets.UTF_8)));
+
+            // Queued behind the drains of the other subscribers, the serial executor would run
+            // it right away
+            executor.execute(() -> schedule(subscriber));
+        } catch (IOException | IllegalStateException e) {
+            // The client went away, the emitter callbacks may not be called for it
+            log.debug("Log tail of run " + subscriber.runId + " closed: " + e.getMessage());
+            unsubscribe(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } catch (CoreException e) {
+            unsubscribe(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        count.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.runId, (k, runSubscribers) -> {
+            runSubscribers.remove(subscriber);
+            return runSubscribers.isEmpty() ? null : runSubscribers;
+        });
+    }
+
+    /**
+     * Drop the trailing bytes of a multibyte character cut by the end of a read, they are sent
+     * with the following read. Appends always hold whole characters, a read holding only part of
+     * one returns nothing.
+     */
+    static byte[] complete(byte[] content) {
+        int last = content.length - 1;
+        int start = last;
+        while (start >= 0 && start > last - 3 && (content[start] & 0xC0) == 0x80) {
+            start--;
+        }
+        if (start < 0) {
+            return content;
+        }
+
+        int lead = content[start] & 0xFF;
+        int length = lead < 0x80 ? 1 : lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : lead >= 0xC0 ? 2 : 1;
+        if (start + length <= content.length) {
+            return content;
+        }
+        return Arrays.copyOf(content, start);
+    }
+
+    private static class Subscriber {
+        private final String runId;
+        private final SseEmitter emitter;
+        private final SerialExecutor executor;
+        private final AtomicBoolean pending = new AtomicBoolean(false);
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        // Only read and written by the drains, which are serialized
+        private long offset;
+        private boolean caughtUp;
+
+        private Subscriber(String runId, SseEmitter emitter, long offset, SerialExecutor executor) {
+            this.runId = runId;
+            this.emitter = emitter;
+            this.offset = offset;
+            this.executor = executor;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package it.smartcommunitylabdhub.core.components.logs;
+
+import it.smartcommunitylabdhub.core.exceptions.CoreException;
+import it.smartcommunitylabdhub.core.utils.ErrorList;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Log store keeping the log of each run in a directory of append-only segment files.
+ * <p>
+ * Segments are named after the offset of their first byte, so the listing of the directory is
+ * the offset index of the log: a read looks up the segment holding its offset and maps only the
+ * requested range of the files. A new segment is started once the last one reaches the segment
+ * size, chunks are never split between segments.
+ */
+@Slf4j
+@Component
+public class SegmentedFileLogStore implements LogStore {
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("\\d{20}" + Pattern.quote(SEGMENT_SUFFIX));
+
+    // Run ids become directory names, nothing outside the store may be reached
+    private static final Pattern RUN_ID = Pattern.compile("[A-Za-z0-9_-]+");
+
+    // Appends to the same run are serialized by one of these locks
+    private final Object[] locks = new Object[64];
+
+    private final Path root;
+
+    private final long segmentSize;
+
+    public SegmentedFileLogStore(@Value("${log.store.path}") String path,
+                                 @Value("${log.store.segment-size}") long segmentSize) {
+        this.root = Path.of(path);
+        this.segmentSize = segmentSize;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public long append(String runId, byte[] chunk) {
+        Path directory = directory(runId);
+        synchronized (locks[Math.floorMod(runId.hashCode(), locks.length)]) {
+            try {
+                Files.createDirectories(directory);
+
+                long offset = 0;
+                Map.Entry<Long, Path> last = segments(directory).lastEntry();
+                Path segment;
+                if (last == null) {
+                    segment = segment(directory, 0);
+                } else {
+                    long lastSize = Files.size(last.getValue());
+                    offset = last.getKey() + lastSize;
+                    segment = lastSize < segmentSize ? last.getValue() : segment(directory, offset);
+                }
+
+                try (FileChannel channel = FileChannel.open(segment,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(chunk);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+                return offset;
+            } catch (IOException e) {
+                throw error("Cannot append to the log of run " + runId, e);
+            }
+        }
+    }
+
+    @Override
+    public byte[] read(String runId, long offset, int length) {
+        try {
+            TreeMap<Long, Path> segments = segments(directory(runId));
+            long size = size(segments);
+            long start = Math.max(0, offset);
+            long end = Math.min(size, start + Math.max(0, length));
+            if (start >= end) {
+                return new byte[0];
+            }
+
+            byte[] content = new byte[(int) (end - start)];
+            long position = start;
+            for (Map.Entry<Long, Path> segment : segments.tailMap(segments.floorKey(start), true).entrySet()) {
+                if (position >= end) {
+                    break;
+                }
+                try (FileChannel channel = FileChannel.open(segment.getValue(), StandardOpenOption.READ)) {
+                    long segmentEnd = Math.min(end, segment.getKey() + channel.size());
+                    if (segmentEnd <= position) {
+                        continue;
+                    }
+                    // Map only the part of the segment in the range
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                            position - segment.getKey(), segmentEnd - position);
+                    buffer.get(content, (int) (position - start), buffer.remaining());
+                    position = segmentEnd;
+                }
+            }
+            return content;
+        } catch (IOException e) {
+            throw error("Cannot read the log of run " + runId, e);
+        }
+    }
+
+    @Override
+    public long size(String runId) {
+        try {
+            return size(segments(directory(runId)));
+        } catch (IOException e) {
+            throw error("Cannot read the log of run " + runId, e);
+        }
+    }
+
+    @Override
+    public void delete(String runId) {
+        Path directory = directory(runId);
+        synchronized (locks[Math.floorMod(runId.hashCode(), locks.length)]) {
+            if (!Files.exists(directory)) {
+                return;
+            }
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                throw error("Cannot delete the log of run " + runId, e);
+            }
+        }
+    }
+
+    private Path directory(String runId) {
+        if (runId == null || !RUN_ID.matcher(runId).matches()) {
+            throw new CoreException(
+                    ErrorList.INTERNAL_SERVER_ERROR.getValue(),
+                    "Invalid run id for the log store: " + runId,
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return root.resolve(runId);
+    }
+
+    private static Path segment(Path directory, long offset) {
+        return directory.resolve(String.format("%020d", offset) + SEGMENT_SUFFIX);
+    }
+
+    // Segments of the log by offset of their first byte
+    private static TreeMap<Long, Path> segments(Path directory) throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+                    .forEach(file -> {
+                        String name = file.getFileName().toString();
+                        segments.put(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), file);
+                    });
+        } catch (NoSuchFileException e) {
+            // No log written yet
+        }
+        return segments;
+    }
+
+    private static long size(TreeMap<Long, Path> segments) throws IOException {
+        Map.Entry<Long, Path> last = segments.lastEntry();
+        return last == null ? 0 : last.getKey() + Files.size(last.getValue());
+    }
+
+    private static CoreException error(String message, IOException e) {
+        log.error(message + ": " + e.getMessage());
+        return new CoreException(
+                ErrorList.INTERNAL_SERVER_ERROR.getValue(),
+                message,
+                HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+}
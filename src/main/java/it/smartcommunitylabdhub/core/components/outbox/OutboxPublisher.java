@@ -0,0 +1,60 @@
+package it.smartcommunitylabdhub.core.components.outbox;
+
+import it.smartcommunitylabdhub.core.config.queue.RabbitAmqpConfig;
+import it.smartcommunitylabdhub.core.models.entities.outbox.OutboxEventEntity;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publish the outbox events to the change queue, a batch at a time. All the messages of a batch
+ * are sent on the same channel and the broker confirms are awaited once for the whole batch.
+ */
+@Component
+public class OutboxPublisher {
+
+    public static final String CONTENT_TYPE = "application/cbor";
+
+    private final RabbitTemplate rabbitTemplate;
+
+    private final long confirmTimeoutMs;
+
+    public OutboxPublisher(RabbitTemplate rabbitTemplate,
+                           @Value("${outbox.confirm-timeout-ms}") long confirmTimeoutMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+
+    /**
+     * Publish a batch of events and wait for the broker to confirm them.
+     *
+     * @param events the events, in publishing order
+     * @throws org.springframework.amqp.AmqpException when an event is not confirmed in time
+     */
+    public void publish(List<OutboxEventEntity> events) {
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxEventEntity event : events) {
+                operations.send("", RabbitAmqpConfig.QUEUE, message(event));
+            }
+            operations.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+    }
+
+    // The outbox id identifies the message, consumers drop the ones delivered again
+    static Message message(OutboxEventEntity event) {
+        return MessageBuilder.withBody(event.getPayload())
+                .setContentType(CONTENT_TYPE)
+                .setMessageId(String.valueOf(event.getId()))
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .setHeader("entity", event.getEntity())
+                .setHeader("type", event.getType())
+                .setHeader("project", event.getProject())
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package it.smartcommunitylabdhub.core.components.outbox;
+
+import it.smartcommunitylabdhub.core.models.entities.outbox.OutboxEventEntity;
+import it.smartcommunitylabdhub.core.repositories.OutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Relay of the outbox to the message broker.
+ * <p>
+ * A single thread drains the outbox in id order, a batch at a time: the oldest events are locked,
+ * published with publisher confirms and deleted in the same transaction. Events that are not
+ * confirmed stay in the outbox and are published again at the next attempt, delivery is at least
+ * once. The relay is woken up by the committed changes and waits for the linger time before
+ * draining, so that the changes committed meanwhile go in the same batch; it also polls the
+ * outbox at the poll interval for the events written by other instances or left by a failure.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+
+    private final OutboxPublisher outboxPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    private final int batchSize;
+
+    private final long lingerMs;
+
+    private final long pollIntervalMs;
+
+    private volatile boolean running;
+
+    private Thread relay;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       OutboxPublisher outboxPublisher,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${outbox.enabled}") boolean enabled,
+                       @Value("${outbox.batch-size}") int batchSize,
+                       @Value("${outbox.linger-ms}") long lingerMs,
+                       @Value("${outbox.poll-interval-ms}") long pollIntervalMs) {
+        this.outboxRepository = outboxRepository;
+        this.outboxPublisher = outboxPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        relay = new Thread(this::relayLoop, "Outbox-Relay");
+        relay.setDaemon(true);
+        relay.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (relay == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(relay);
+        relay.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Notify the relay that events have been committed to the outbox.
+     */
+    public void wakeUp() {
+        if (relay != null) {
+            LockSupport.unpark(relay);
+        }
+    }
+
+    private void relayLoop() {
+        while (running) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pollIntervalMs));
+            if (!running) {
+                break;
+            }
+            // Let the changes committed meanwhile join the batch, the wake ups do not shorten it
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+            for (long remaining = deadline - System.nanoTime(); running && remaining > 0;
+                 remaining = deadline - System.nanoTime()) {
+                LockSupport.parkNanos(remaining);
+            }
+            try {
+                // A full batch means that more events may be waiting
+                int published;
+                do {
+                    published = relayBatch();
+                } while (running && published == batchSize);
+            } catch (RuntimeException e) {
+                // Retried at the next poll
+                log.error("Cannot relay the outbox events: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Publish and delete the oldest batch of events.
+     *
+     * @return the number of events published
+     */
+    public int relayBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            List<OutboxEventEntity> events = outboxRepository.findOldest(PageRequest.of(0, batchSize));
+            if (events.isEmpty()) {
+                return 0;
+            }
+            // An exception rolls back the transaction, the events stay in the outbox
+            outboxPublisher.publish(events);
+            outboxRepository.deleteAllInBatch(events);
+            return events.size();
+        });
+        return published != null ? published : 0;
+    }
+}
@@ -0,0 +1,66 @@
+package it.smartcommunitylabdhub.core.components.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import it.smartcommunitylabdhub.core.components.events.changes.ChangeEvent;
+import it.smartcommunitylabdhub.core.exceptions.CoreException;
+import it.smartcommunitylabdhub.core.utils.ErrorList;
+import it.smartcommunitylabdhub.core.utils.jackson.JacksonMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+
+/**
+ * Write the entity changes to the outbox, in the transaction of the change.
+ * <p>
+ * Changes are recorded by the entity listeners while the persistence context is flushed, when it
+ * cannot take new entities: rows are inserted with JDBC, on the connection of the transaction.
+ */
+@Component
+public class OutboxWriter {
+
+    private static final String INSERT = "INSERT INTO outbox_events "
+            + "(entity, type, entity_id, project, payload, created) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Value("${outbox.enabled}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Add a change to the outbox, committed or rolled back with the current transaction.
+     *
+     * @param event the change
+     */
+    public void write(ChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        byte[] payload;
+        try {
+            payload = JacksonMapper.CBOR_QUEUE_MAPPER.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new CoreException(
+                    ErrorList.INTERNAL_SERVER_ERROR.getValue(),
+                    "Cannot encode the change event: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+        jdbcTemplate.update(INSERT,
+                event.getEntity().name(),
+                event.getType().name(),
+                event.getId(),
+                event.getProject(),
+                payload,
+                new Timestamp(event.getTimestamp().getTime()));
+    }
+}
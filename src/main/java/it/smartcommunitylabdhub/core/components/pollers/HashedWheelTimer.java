@@ -0,0 +1,239 @@
+package it.smartcommunitylabdhub.core.components.pollers;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A hashed timer wheel shared by all the pollers.
+ * <p>
+ * A single tick thread advances the wheel every tick duration and hands the expired
+ * timeouts to the worker executor, so the number of threads does not depend on the
+ * number of scheduled tasks. Timing precision is bounded by the tick duration, which
+ * is more than enough for polling intervals expressed in seconds.
+ */
+@Slf4j
+public class HashedWheelTimer {
+
+    private final long tickNanos;
+
+    private final int mask;
+
+    // Buckets are touched by the tick thread only.
+    private final Queue<WheelTimeout>[] wheel;
+
+    // New timeouts are queued here and moved into the wheel on the next tick.
+    private final Queue<WheelTimeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    private final Executor workerExecutor;
+
+    private final Thread tickThread;
+
+    private volatile boolean running = true;
+
+    private final long startTime;
+
+    private long tick;
+
+    /**
+     * Constructs a timer wheel.
+     *
+     * @param name           Name of the tick thread.
+     * @param tickDuration   Duration of a single tick.
+     * @param unit           Unit of the tick duration.
+     * @param ticksPerWheel  Number of buckets, rounded up to the next power of two.
+     * @param workerExecutor Executor running the expired tasks.
+     */
+    @SuppressWarnings("unchecked")
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel, Executor workerExecutor) {
+        if (tickDuration <= 0 || ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("tickDuration and ticksPerWheel must be greater than 0");
+        }
+        int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        size = Math.max(size, 1);
+
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = size - 1;
+        this.wheel = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            this.wheel[i] = new ArrayDeque<>();
+        }
+        this.workerExecutor = workerExecutor;
+        this.startTime = System.nanoTime();
+        this.tickThread = new Thread(this::runWheel, name);
+        this.tickThread.setDaemon(true);
+    }
+
+    /**
+     * Schedules a task to be run on the worker executor after the given delay.
+     *
+     * @param task  The task to run.
+     * @param delay Delay before running the task.
+     * @param unit  Unit of the delay.
+     * @return A handle that can be used to cancel the task.
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new RejectedExecutionException("Timer wheel has been stopped");
+        }
+        start();
+
+        long deadline = System.nanoTime() - startTime + unit.toNanos(Math.max(delay, 0));
+        WheelTimeout timeout = new WheelTimeout(task, deadline);
+        pendingTimeouts.add(timeout);
+        pendingCount.incrementAndGet();
+        return timeout;
+    }
+
+    /**
+     * Returns the number of timeouts waiting to expire, or expired and waiting for a worker.
+     */
+    public int pending() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Stops the tick thread. Pending timeouts are discarded.
+     */
+    public void stop() {
+        running = false;
+        tickThread.interrupt();
+    }
+
+    private void start() {
+        if (started.compareAndSet(false, true)) {
+            tickThread.start();
+        }
+    }
+
+    private void runWheel() {
+        while (running) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos = deadline - (System.nanoTime() - startTime);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        break;
+                    }
+                    continue;
+                }
+            }
+
+            transferPendingTimeouts();
+            expireTimeouts(wheel[(int) (tick & mask)], deadline);
+            tick++;
+        }
+    }
+
+    private void transferPendingTimeouts() {
+        WheelTimeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long expiryTick = Math.max(timeout.deadline / tickNanos, tick);
+            timeout.remainingRounds = (expiryTick - tick) / wheel.length;
+            wheel[(int) (expiryTick & mask)].add(timeout);
+        }
+    }
+
+    private void expireTimeouts(Queue<WheelTimeout> bucket, long deadline) {
+        Iterator<WheelTimeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            WheelTimeout timeout = iterator.next();
+            if (timeout.isCancelled()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                iterator.remove();
+                timeout.expire();
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public interface Timeout {
+
+        /**
+         * Cancels the task if it has not been run yet, including while it waits for a worker.
+         *
+         * @return true if the task has been cancelled by this call.
+         */
+        boolean cancel();
+
+        boolean isCancelled();
+    }
+
+    private final class WheelTimeout implements Timeout {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final Runnable task;
+
+        // Moved forward by the tick thread when the worker executor rejects the task
+        private long deadline;
+
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+
+        private long remainingRounds;
+
+        private WheelTimeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                pendingCount.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        private void expire() {
+            try {
+                workerExecutor.execute(this::run);
+            } catch (RejectedExecutionException e) {
+                // Worker pool is saturated, retry on the next tick instead of dropping the task.
+                // The same timeout is queued again, its handle can still cancel it.
+                log.warn("Timer wheel task rejected by the worker executor, retrying on next tick");
+                deadline = tickNanos * (tick + 1);
+                pendingTimeouts.add(this);
+            }
+        }
+
+        private void run() {
+            // Cancelled while waiting for a worker
+            if (!state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            pendingCount.decrementAndGet();
+            task.run();
+        }
+    }
+}
@@ -3,14 +3,21 @@ package it.smartcommunitylabdhub.core.components.pollers;
 import it.smartcommunitylabdhub.core.components.workflows.factory.Workflow;
 import it.smartcommunitylabdhub.core.exceptions.StopPoller;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.task.TaskExecutor;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.*;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The Poller class is responsible for executing a list of workflows at scheduled intervals.
  * It provides support for both synchronous and asynchronous execution of workflows.
+ * The interval is computed by a {@link PollingPolicy} from the outputs of the workflows: it
+ * grows while they stay the same and resets when they change.
  */
 @Slf4j
 public class Poller implements Runnable {
@@ -18,11 +25,24 @@ public class Poller implements Runnable {
     // List of workflows to be executed by the poller
     private final List<Workflow> workflowList;
 
-    // Scheduler for scheduling and executing tasks
-    private final ScheduledExecutorService scheduledExecutorService;
+    // Shared timer wheel the poller registers its ticks on
+    private final HashedWheelTimer timer;
 
-    // Delay between consecutive polling runs
-    private final long delay;
+    // Shared bounded worker pool running the workflow steps
+    private final Executor executor;
+
+    // Policy computing the delay between consecutive polling runs
+    private final PollingPolicy policy;
+
+    // Base delay of the next run in milliseconds, before jitter
+    private volatile long currentDelay;
+
+    // Outputs of the workflows in the last run, compared to detect changes
+    private List<Object> lastOutputs;
+
+    // Number of polling runs and of runs which observed a change
+    private final AtomicLong ticks = new AtomicLong();
+    private final AtomicLong changes = new AtomicLong();
 
     // Flag to determine whether to reschedule after each run
     private final boolean reschedule;
@@ -34,33 +54,37 @@ public class Poller implements Runnable {
     private final Boolean workflowsAsync;
 
     // Flag indicating the poller's active state
-    private boolean active;
+    private volatile boolean active;
+
+    // Next scheduled tick, cancelled when the poller is stopped
+    private volatile HashedWheelTimer.Timeout nextTick;
+
+    // Callback invoked once the poller has been stopped
+    private Runnable onStop = () -> {
+    };
 
     /**
      * Constructs a Poller with the specified parameters.
      *
      * @param name           The name of the poller.
      * @param workflowList   List of workflows to be executed.
-     * @param delay          Delay between consecutive polling runs in seconds.
+     * @param policy         Policy computing the delay between consecutive polling runs.
      * @param reschedule     Flag indicating whether to reschedule after each run.
      * @param workflowsAsync Flag indicating whether workflows should be executed asynchronously.
-     * @param executor       Task executor for handling asynchronous workflow execution.
+     * @param timer          Shared timer wheel used to schedule the polling runs.
+     * @param executor       Shared worker pool executing the workflows.
      */
-    public Poller(String name, List<Workflow> workflowList, long delay, boolean reschedule, boolean workflowsAsync, TaskExecutor executor) {
+    public Poller(String name, List<Workflow> workflowList, PollingPolicy policy, boolean reschedule,
+                  boolean workflowsAsync, HashedWheelTimer timer, Executor executor) {
         this.name = name;
         this.workflowList = workflowList;
-        this.delay = delay;
+        this.policy = policy;
+        this.currentDelay = policy.getMinDelay();
         this.reschedule = reschedule;
         this.active = true;
         this.workflowsAsync = workflowsAsync;
-        this.scheduledExecutorService = (executor instanceof ScheduledExecutorService)
-                ? (ScheduledExecutorService) executor
-                : Executors.newSingleThreadScheduledExecutor();
-    }
-
-    // Getter for the scheduled executor service
-    ScheduledExecutorService getScheduledExecutor() {
-        return this.scheduledExecutorService;
+        this.timer = timer;
+        this.executor = executor;
     }
 
     /**
@@ -68,7 +92,16 @@ public class Poller implements Runnable {
      */
     public void startPolling() {
         log.info("Poller [" + name + "] start: " + Thread.currentThread().getName() + " (ID: " + Thread.currentThread().getId() + ")");
-        getScheduledExecutor().schedule(this, delay, TimeUnit.SECONDS);
+        scheduleNext();
+    }
+
+    /**
+     * Registers the next tick of this poller on the shared timer wheel.
+     */
+    private void scheduleNext() {
+        if (active) {
+            nextTick = timer.schedule(this, policy.jittered(currentDelay), TimeUnit.MILLISECONDS);
+        }
     }
 
     /**
@@ -78,6 +111,7 @@ public class Poller implements Runnable {
     @Override
     public void run() {
         log.info("Poller [" + name + "] run: " + Thread.currentThread().getName() + " (ID: " + Thread.currentThread().getId() + ")");
+        ticks.incrementAndGet();
 
         // For the async workflows execution
         if (workflowsAsync) {
@@ -91,19 +125,21 @@ public class Poller implements Runnable {
      * Executes workflows synchronously one after the other.
      */
     private void executeSync() {
+        List<Object> outputs = new ArrayList<>();
         for (Workflow workflow : workflowList) {
             if (!active) {
                 break;
             }
-            executeWorkflow(workflow);
+            outputs.add(executeWorkflow(workflow));
         }
+        observe(outputs);
 
         if (reschedule && active) {
             log.info("Poller [" + name + "] reschedule: " + Thread.currentThread().getName() + " (ID: " + Thread.currentThread().getId() + ")");
             log.info("--------------------------------------------------------------");
 
             // Delay the rescheduling to ensure all workflows have completed
-            getScheduledExecutor().schedule(this::startPolling, delay, TimeUnit.SECONDS);
+            scheduleNext();
         }
 
         // if not reschedule but still active can stop immediately only one iteration.
@@ -117,11 +153,16 @@ public class Poller implements Runnable {
      */
     private void executeAsync() {
         CompletableFuture<Object> allWorkflowsFuture = CompletableFuture.completedFuture(null);
+        List<Object> outputs = new ArrayList<>();
 
         // Execute the workflows sequentially
         for (Workflow workflow : workflowList) {
             if (active) {
-                allWorkflowsFuture = allWorkflowsFuture.thenComposeAsync(result -> executeWorkflowAsync(workflow), getScheduledExecutor());
+                allWorkflowsFuture = allWorkflowsFuture.thenComposeAsync(result -> executeWorkflowAsync(workflow), executor)
+                        .thenApply(output -> {
+                            outputs.add(output);
+                            return output;
+                        });
             } else {
                 break;
             }
@@ -141,6 +182,8 @@ public class Poller implements Runnable {
                     log.info("POLLER EXCEPTION : " + exception.getMessage());
                     stopPolling();
                 }
+            } else {
+                observe(outputs);
             }
 
             if (reschedule && active) {
@@ -148,20 +191,21 @@ public class Poller implements Runnable {
                 log.info("--------------------------------------------------------------");
 
                 // Delay the rescheduling to ensure all workflows have completed
-                getScheduledExecutor().schedule(this::startPolling, delay, TimeUnit.SECONDS);
+                scheduleNext();
             }
-        }, getScheduledExecutor());  // Specify the executor for the continuation
+        }, executor);  // Specify the executor for the continuation
     }
 
     /**
      * Executes a single workflow synchronously.
      *
      * @param workflow The workflow to be executed.
+     * @return The output of the workflow, null if it failed.
      */
-    private void executeWorkflow(Workflow workflow) {
+    private Object executeWorkflow(Workflow workflow) {
         try {
             log.info("Workflow execution: " + Thread.currentThread().getName() + " (ID: " + Thread.currentThread().getId() + ")");
-            workflow.execute(null);
+            return workflow.execute(null);
         } catch (Exception e) {
             if (e instanceof StopPoller) {
                 log.info("POLLER: " + e.getMessage());
@@ -170,7 +214,23 @@ public class Poller implements Runnable {
                 log.error("POLLER EXCEPTION: " + e.getMessage());
                 stopPolling();
             }
+            return null;
+        }
+    }
+
+    /**
+     * Compares the outputs of the workflows with the ones of the previous run and computes the
+     * delay of the next run: back to the minimum on change, longer otherwise.
+     *
+     * @param outputs The outputs of the workflows, in order.
+     */
+    private void observe(List<Object> outputs) {
+        boolean changed = !Objects.equals(outputs, lastOutputs);
+        if (changed) {
+            changes.incrementAndGet();
         }
+        lastOutputs = outputs;
+        currentDelay = policy.nextDelay(currentDelay, changed);
     }
 
     /**
@@ -180,46 +240,59 @@ public class Poller implements Runnable {
      * @return CompletableFuture representing the asynchronous execution.
      */
     private CompletableFuture<Object> executeWorkflowAsync(Workflow workflow) {
-        CompletableFuture<Object> workflowExecution = new CompletableFuture<>();
-
-        CompletableFuture.supplyAsync(() -> {
-            try {
-                log.info("Workflow Execution: " + Thread.currentThread().getName() + " (ID: " + Thread.currentThread().getId() + ")");
-                return workflow.execute(null);
-            } catch (Exception e) {
-                throw new CompletionException(e);
-            }
-        }, getScheduledExecutor()).whenComplete((result, exception) -> {
-            if (exception != null) {
-                workflowExecution.completeExceptionally(exception);
-            } else {
-                workflowExecution.complete(result);
-            }
-        });
-
-        return workflowExecution;
+        log.info("Workflow Execution: " + Thread.currentThread().getName() + " (ID: " + Thread.currentThread().getId() + ")");
+        return workflow.executeAsync(null, executor);
     }
 
     /**
-     * Stops the polling process. It shuts down the executor service and waits for its termination.
-     * If termination does not occur within a specified timeout, a forced shutdown is attempted.
+     * Stops the polling process. The pending tick is cancelled, the shared timer wheel and
+     * worker pool are left untouched.
      */
     public void stopPolling() {
         if (active) {
             active = false;
             log.info("Poller [" + name + "] stop: " + Thread.currentThread().getName() + " (ID: " + Thread.currentThread().getId() + ")");
-            getScheduledExecutor().shutdown();
-            try {
-                if (!getScheduledExecutor().awaitTermination(5, TimeUnit.SECONDS)) {
-                    getScheduledExecutor().shutdownNow();
-                    if (!getScheduledExecutor().awaitTermination(5, TimeUnit.SECONDS)) {
-                        log.error("Unable to shutdown executor service :(");
-                    }
-                }
-            } catch (InterruptedException e) {
-                getScheduledExecutor().shutdownNow();
-                Thread.currentThread().interrupt();
+            HashedWheelTimer.Timeout tick = nextTick;
+            if (tick != null) {
+                tick.cancel();
             }
+            onStop.run();
         }
     }
+
+    void setOnStop(Runnable onStop) {
+        this.onStop = onStop;
+    }
+
+    /**
+     * Returns true while the poller is scheduled.
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of polling runs executed so far.
+     */
+    public long getTicks() {
+        return ticks.get();
+    }
+
+    /**
+     * Returns the number of polling runs which observed a change.
+     */
+    public long getChanges() {
+        return changes.get();
+    }
+
+    /**
+     * Returns the base delay of the next run in milliseconds, before jitter.
+     */
+    public long getCurrentDelay() {
+        return currentDelay;
+    }
 }
@@ -0,0 +1,43 @@
+package it.smartcommunitylabdhub.core.components.pollers;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Actuator endpoint exposing the tick counts and current delays of the pollers, available at
+ * /actuator/pollers.
+ */
+@Component
+@Endpoint(id = "pollers")
+public class PollersEndpoint {
+
+    private final PollingService pollingService;
+
+    public PollersEndpoint(PollingService pollingService) {
+        this.pollingService = pollingService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> pollers() {
+        Map<String, Object> pollers = new TreeMap<>();
+        for (Poller poller : pollingService.getPollers()) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("ticks", poller.getTicks());
+            stats.put("changes", poller.getChanges());
+            stats.put("delayMs", poller.getCurrentDelay());
+            stats.put("active", poller.isActive());
+            pollers.put(poller.getName(), stats);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("active", pollers.size());
+        result.put("totalTicks", pollingService.getTotalTicks());
+        result.put("pollers", pollers);
+        return result;
+    }
+}
@@ -0,0 +1,111 @@
+package it.smartcommunitylabdhub.core.components.pollers;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The PollingPolicy class computes the delay between two polling runs of a Poller.
+ * <p>
+ * While the observed output of the workflows stays the same the delay grows exponentially, from
+ * the minimum delay up to the maximum one. As soon as a change is detected the delay goes back to
+ * the minimum. A random jitter is applied to each delay so that pollers created together do not
+ * keep hitting the remote services at the same time.
+ */
+public class PollingPolicy {
+
+    // Delays are in milliseconds
+    private final long minDelay;
+    private final long maxDelay;
+
+    // Growth factor of the delay while nothing changes, 1 for a fixed delay
+    private final double multiplier;
+
+    // Fraction of the delay randomly added or removed, between 0 and 1
+    private final double jitter;
+
+    private PollingPolicy(long minDelay, long maxDelay, double multiplier, double jitter) {
+        if (minDelay <= 0 || maxDelay < minDelay) {
+            throw new IllegalArgumentException("Invalid delays: min " + minDelay + " max " + maxDelay);
+        }
+        if (multiplier < 1 || jitter < 0 || jitter > 1) {
+            throw new IllegalArgumentException("Invalid multiplier " + multiplier + " or jitter " + jitter);
+        }
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+    }
+
+    /**
+     * Policy running the poller at a fixed delay.
+     *
+     * @param delay The delay between polling runs.
+     * @param unit  The unit of the delay.
+     */
+    public static PollingPolicy fixed(long delay, TimeUnit unit) {
+        long millis = unit.toMillis(delay);
+        return new PollingPolicy(millis, millis, 1, 0);
+    }
+
+    /**
+     * Policy backing off exponentially while nothing changes.
+     *
+     * @param minDelay   The delay used after a change.
+     * @param maxDelay   The cap of the delay.
+     * @param unit       The unit of the delays.
+     * @param multiplier The growth factor of the delay.
+     * @param jitter     The fraction of the delay randomly added or removed.
+     */
+    public static PollingPolicy adaptive(long minDelay, long maxDelay, TimeUnit unit, double multiplier,
+                                         double jitter) {
+        return new PollingPolicy(unit.toMillis(minDelay), unit.toMillis(maxDelay), multiplier, jitter);
+    }
+
+    /**
+     * Copy of this policy starting from another minimum delay. The cap is raised to the minimum
+     * delay when lower.
+     *
+     * @param delay The new minimum delay.
+     * @param unit  The unit of the delay.
+     */
+    public PollingPolicy withMinDelay(long delay, TimeUnit unit) {
+        long millis = unit.toMillis(delay);
+        return new PollingPolicy(millis, Math.max(millis, maxDelay), multiplier, jitter);
+    }
+
+    public long getMinDelay() {
+        return minDelay;
+    }
+
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * Compute the base delay of the next run, without jitter.
+     *
+     * @param currentDelay The base delay of the last run.
+     * @param changed      True if the last run observed a change.
+     * @return The base delay in milliseconds.
+     */
+    public long nextDelay(long currentDelay, boolean changed) {
+        if (changed) {
+            return minDelay;
+        }
+        return (long) Math.min(maxDelay, Math.max(minDelay, currentDelay * multiplier));
+    }
+
+    /**
+     * Apply the jitter to a base delay, the result never goes below the minimum delay.
+     *
+     * @param delay The base delay in milliseconds.
+     * @return The delay to wait in milliseconds.
+     */
+    public long jittered(long delay) {
+        if (jitter == 0) {
+            return delay;
+        }
+        double factor = 1 + jitter * (ThreadLocalRandom.current().nextDouble() * 2 - 1);
+        return Math.max(minDelay, (long) (delay * factor));
+    }
+}
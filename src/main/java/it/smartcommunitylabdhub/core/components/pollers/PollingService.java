@@ -8,24 +8,58 @@
 package it.smartcommunitylabdhub.core.components.pollers;
 
 import it.smartcommunitylabdhub.core.components.workflows.factory.Workflow;
-import org.springframework.core.task.TaskExecutor;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 public class PollingService {
     private final Map<String, Poller> pollerMap;
-    private final TaskExecutor executor;
+    private final HashedWheelTimer timer;
+    private final Executor executor;
+    private final PollingPolicy defaultPolicy;
 
-    public PollingService(TaskExecutor executor) {
-        this.pollerMap = new HashMap<>();
+    // Ticks of the pollers already stopped
+    private final LongAdder stoppedTicks = new LongAdder();
+
+    /**
+     * @param timer         Timer wheel shared by all the pollers.
+     * @param executor      Bounded worker pool running the workflows of all the pollers.
+     * @param defaultPolicy Backoff applied to the pollers created with a delay, starting from it.
+     */
+    public PollingService(HashedWheelTimer timer, Executor executor, PollingPolicy defaultPolicy) {
+        this.pollerMap = new ConcurrentHashMap<>();
+        this.timer = timer;
         this.executor = executor;
+        this.defaultPolicy = defaultPolicy;
     }
 
+    /**
+     * Create a poller backing off from the given delay as configured by the default policy.
+     *
+     * @param delay The minimum delay between polling runs in seconds.
+     */
     public void createPoller(String name, List<Workflow> workflowList, long delay, boolean reschedule, boolean asyncWorkflow) {
-        Poller poller = new Poller(name, workflowList, delay, reschedule, asyncWorkflow, executor);
-        pollerMap.put(name, poller);
+        createPoller(name, workflowList, defaultPolicy.withMinDelay(delay, TimeUnit.SECONDS), reschedule, asyncWorkflow);
+    }
+
+    public void createPoller(String name, List<Workflow> workflowList, PollingPolicy policy, boolean reschedule,
+                             boolean asyncWorkflow) {
+        Poller poller = new Poller(name, workflowList, policy, reschedule, asyncWorkflow, timer, executor);
+        // Stopped pollers release their entry, also when they stop themselves.
+        poller.setOnStop(() -> {
+            stoppedTicks.add(poller.getTicks());
+            pollerMap.remove(name, poller);
+        });
+        Poller previous = pollerMap.put(name, poller);
+        if (previous != null) {
+            previous.stopPolling();
+        }
     }
 
     public void startPolling() {
@@ -38,12 +72,35 @@ public class PollingService {
     }
 
     public void startOne(String name) {
-        pollerMap.get(name).startPolling();
+        Poller poller = pollerMap.get(name);
+        if (poller != null) {
+            poller.startPolling();
+        }
     }
 
     public void stopOne(String name) {
-        pollerMap.get(name).stopPolling();
-        pollerMap.remove(name);
+        Poller poller = pollerMap.remove(name);
+        if (poller != null) {
+            poller.stopPolling();
+        }
+    }
+
+    public int size() {
+        return pollerMap.size();
+    }
+
+    /**
+     * Returns the pollers currently registered.
+     */
+    public Collection<Poller> getPollers() {
+        return Collections.unmodifiableCollection(pollerMap.values());
+    }
+
+    /**
+     * Returns the ticks of all the pollers, including the ones already stopped.
+     */
+    public long getTotalTicks() {
+        return stoppedTicks.sum() + pollerMap.values().stream().mapToLong(Poller::getTicks).sum();
     }
 
     public void remove(String name) {
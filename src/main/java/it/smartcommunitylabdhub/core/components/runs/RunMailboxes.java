@@ -0,0 +1,233 @@
+package it.smartcommunitylabdhub.core.components.runs;
+
+import it.smartcommunitylabdhub.core.exceptions.CoreException;
+import it.smartcommunitylabdhub.core.models.builders.run.RunDTOBuilder;
+import it.smartcommunitylabdhub.core.models.builders.run.RunEntityBuilder;
+import it.smartcommunitylabdhub.core.models.converters.ConversionUtils;
+import it.smartcommunitylabdhub.core.models.entities.run.Run;
+import it.smartcommunitylabdhub.core.models.entities.run.RunEntity;
+import it.smartcommunitylabdhub.core.repositories.RunRepository;
+import it.smartcommunitylabdhub.core.utils.ErrorList;
+import it.smartcommunitylabdhub.core.utils.jackson.JacksonMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Per-run mailboxes serializing the updates of the runs.
+ * <p>
+ * An update is a function of the current run, queued in the mailbox of its run. A mailbox is
+ * drained by a single task of the shared executor at a time: the run is read once, the queued
+ * updates are applied in order and the result is written once. Each update is applied to its own
+ * copy of the run, kept only when the update succeeds. Concurrent updates of a run are
+ * neither lost nor waiting on a lock, and the mailboxes of different runs are drained in parallel.
+ * A mailbox only exists while it has updates, idle runs cost nothing.
+ */
+@Component
+public class RunMailboxes {
+
+    // Writes of a batch run again after a conflicting status patch, up to this number of times
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final ConcurrentHashMap<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    private final RunRepository runRepository;
+
+    private final RunEntityBuilder runEntityBuilder;
+
+    private final RunDTOBuilder runDTOBuilder;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor executor;
+
+    private final int maxBatch;
+
+    private final long timeoutMs;
+
+    public RunMailboxes(RunRepository runRepository,
+                        RunEntityBuilder runEntityBuilder,
+                        RunDTOBuilder runDTOBuilder,
+                        TransactionTemplate transactionTemplate,
+                        @Qualifier("runMailboxExecutor") Executor executor,
+                        @Value("${run.mailbox.max-batch}") int maxBatch,
+                        @Value("${run.mailbox.timeout-ms}") long timeoutMs) {
+        this.runRepository = runRepository;
+        this.runEntityBuilder = runEntityBuilder;
+        this.runDTOBuilder = runDTOBuilder;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.maxBatch = maxBatch;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Queue an update of a run.
+     *
+     * @param uuid   the id of the run
+     * @param update the update, returns the run to store or null when there is nothing to change
+     * @return the run stored after the update
+     */
+    public CompletableFuture<Run> submit(String uuid, UnaryOperator<Run> update) {
+        Update pending = new Update(update);
+        boolean[] created = {false};
+        // Additions and the removal of an empty mailbox are atomic on the key
+        Mailbox mailbox = mailboxes.compute(uuid, (key, current) -> {
+            Mailbox target = current;
+            if (target == null) {
+                target = new Mailbox(key);
+                created[0] = true;
+            }
+            target.updates.add(pending);
+            return target;
+        });
+        if (created[0]) {
+            executor.execute(() -> drain(mailbox));
+        }
+        return pending.result;
+    }
+
+    /**
+     * Update a run and wait for the result.
+     *
+     * @param uuid   the id of the run
+     * @param update the update, returns the run to store or null when there is nothing to change
+     * @return the run stored after the update
+     */
+    public Run update(String uuid, UnaryOperator<Run> update) {
+        try {
+            return submit(uuid, update).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw error("Cannot update run " + uuid + ": " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw error("Interrupted while updating run " + uuid);
+        } catch (TimeoutException e) {
+            throw error("Timed out while updating run " + uuid);
+        }
+    }
+
+    private void drain(Mailbox mailbox) {
+        List<Update> batch = new ArrayList<>();
+        Update next;
+        while (batch.size() < maxBatch && (next = mailbox.updates.poll()) != null) {
+            batch.add(next);
+        }
+        if (!batch.isEmpty()) {
+            apply(mailbox.uuid, batch);
+        }
+
+        // Updates queued meanwhile are drained by a new task, giving way to the other runs
+        if (mailboxes.computeIfPresent(mailbox.uuid,
+                (key, current) -> current.updates.isEmpty() ? null : current) != null) {
+            executor.execute(() -> drain(mailbox));
+        }
+    }
+
+    private void apply(String uuid, List<Update> batch) {
+        try {
+            Run stored = null;
+            // The status patches bypass the mailbox, a conflicting one makes the batch run again
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    stored = write(uuid, batch);
+                    break;
+                } catch (OptimisticLockingFailureException e) {
+                    if (attempt >= MAX_ATTEMPTS) {
+                        throw e;
+                    }
+                }
+            }
+            // Failed updates are already completed
+            Run result = stored;
+            batch.forEach(pending -> pending.result.complete(result));
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.result.completeExceptionally(e));
+        }
+    }
+
+    private Run write(String uuid, List<Update> batch) {
+        return transactionTemplate.execute(status -> {
+            RunEntity entity = runRepository.findById(uuid).orElseThrow(() -> new CoreException(
+                    ErrorList.RUN_NOT_FOUND.getValue(),
+                    ErrorList.RUN_NOT_FOUND.getReason(),
+                    HttpStatus.NOT_FOUND));
+
+            Run run = runDTOBuilder.build(entity);
+            boolean changed = false;
+            for (Update pending : batch) {
+                if (pending.result.isDone()) {
+                    continue;
+                }
+                try {
+                    // A failing update must not leave its partial changes to the next ones
+                    Run updated = pending.update.apply(copy(run));
+                    if (updated != null) {
+                        run = updated;
+                        changed = true;
+                    }
+                } catch (RuntimeException e) {
+                    // Reported to its caller, the other updates are still stored
+                    pending.result.completeExceptionally(e);
+                }
+            }
+            if (!changed) {
+                return run;
+            }
+
+            RunEntity updated = runEntityBuilder.update(entity, run);
+            if (run.getExtra() != null && !run.getExtra().isEmpty()) {
+                updated.setExtra(ConversionUtils.convert(run.getExtra(), "cbor"));
+            }
+            runRepository.saveAndFlush(updated);
+            return runDTOBuilder.build(updated);
+        });
+    }
+
+    private static Run copy(Run run) {
+        return JacksonMapper.CUSTOM_OBJECT_MAPPER.convertValue(run, Run.class);
+    }
+
+    private static CoreException error(String message) {
+        return new CoreException(
+                ErrorList.INTERNAL_SERVER_ERROR.getValue(),
+                message,
+                HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private static class Mailbox {
+        private final String uuid;
+        private final Queue<Update> updates = new ConcurrentLinkedQueue<>();
+
+        private Mailbox(String uuid) {
+            this.uuid = uuid;
+        }
+    }
+
+    private static class Update {
+        private final UnaryOperator<Run> update;
+        private final CompletableFuture<Run> result = new CompletableFuture<>();
+
+        private Update(UnaryOperator<Run> update) {
+            this.update = update;
+        }
+    }
+}
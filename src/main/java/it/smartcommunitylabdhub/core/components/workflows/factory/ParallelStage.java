@@ -0,0 +1,92 @@
+/**
+ * ParallelStage.java
+ * <p>
+ * A group of steps receiving the same input and running in parallel (fan-out). Once all of them
+ * have completed their outputs are joined into the output of the stage (fan-in). The stage fails
+ * as soon as one of the steps fails, or on timeout, and the steps not started yet are cancelled.
+ */
+
+package it.smartcommunitylabdhub.core.components.workflows.factory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+class ParallelStage implements WorkflowStage {
+    private final List<WorkflowStep> branches;
+    private final Function<List<Object>, Object> join;
+    private final Executor executor;
+    private final long timeout;
+    private final TimeUnit unit;
+
+    ParallelStage(List<WorkflowStep> branches, Function<List<Object>, Object> join, Executor executor,
+                  long timeout, TimeUnit unit) {
+        this.branches = List.copyOf(branches);
+        this.join = join;
+        this.executor = executor;
+        this.timeout = timeout;
+        this.unit = unit;
+    }
+
+    /**
+     * Set the executor of the branches which do not define their own.
+     */
+    @Override
+    public ParallelStage withExecutor(Executor executor) {
+        return new ParallelStage(branches, join, executor, timeout, unit);
+    }
+
+    /**
+     * Set the timeout of the whole group.
+     */
+    @Override
+    public ParallelStage withTimeout(long timeout, TimeUnit unit) {
+        return new ParallelStage(branches, join, executor, timeout, unit);
+    }
+
+    @Override
+    public CompletableFuture<Object> apply(Object input, Executor defaultExecutor) {
+        Executor branchExecutor = executor != null ? executor : defaultExecutor;
+
+        List<CompletableFuture<Object>> futures = new ArrayList<>(branches.size());
+        for (WorkflowStep branch : branches) {
+            futures.add(branch.apply(input, branchExecutor));
+        }
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+
+        // The first failure fails the stage, without waiting for the other branches
+        futures.forEach(f -> f.whenComplete((output, e) -> {
+            if (e != null) {
+                future.completeExceptionally(e);
+            }
+        }));
+
+        CompletableFuture
+                .allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    // Outputs keep the declaration order of the branches
+                    List<Object> outputs = new ArrayList<>(futures.size());
+                    futures.forEach(f -> outputs.add(f.join()));
+                    return join.apply(outputs);
+                })
+                .whenComplete((output, e) -> {
+                    if (e != null) {
+                        future.completeExceptionally(e);
+                    } else {
+                        future.complete(output);
+                    }
+                });
+
+        // Queued branches do not start once the stage has failed, running ones are not interrupted
+        future.whenComplete((output, e) -> {
+            if (e != null) {
+                futures.forEach(f -> f.cancel(false));
+            }
+        });
+        return timeout > 0 ? future.orTimeout(timeout, unit) : future;
+    }
+}
@@ -1,9 +1,9 @@
-
 /**
  * Workflow.java
  *
- * This class represents a workflow that executes a series of steps sequentially.
- * Each step is represented as a Function, and the output of each step is passed as input to the next step.
+ * This class represents a workflow that executes a series of stages sequentially.
+ * Each stage is either a single step or a group of steps running in parallel, the output of each
+ * stage is passed as input to the next stage.
  * It provides both synchronous and asynchronous execution of the workflow.
  */
 
@@ -11,17 +11,24 @@ package it.smartcommunitylabdhub.core.components.workflows.factory;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 public class Workflow {
-    private final List<Function<?, ?>> steps;
+    private final List<WorkflowStage> stages;
 
     public Workflow(List<Function<?, ?>> steps) {
-        this.steps = steps;
+        this(steps.stream().map(step -> WorkflowStep.of(step)).toArray(WorkflowStage[]::new));
+    }
+
+    Workflow(WorkflowStage... stages) {
+        this.stages = List.of(stages);
     }
 
     /**
-     * Execute the workflow synchronously.
+     * Execute the workflow synchronously. Steps run on the calling thread, except the ones
+     * bound to their own executor; parallel groups without executor run their steps one by one.
      *
      * @param input The initial input for the workflow.
      * @param <I>   The input type.
@@ -30,28 +37,40 @@ public class Workflow {
      */
     @SuppressWarnings("unchecked")
     public <I, O> O execute(I input) {
-        Object result = input;
-        for (Function<?, ?> step : steps) {
-            result = ((Function<Object, Object>) step).apply(result);
+        try {
+            return (O) run(input, Runnable::run).join();
+        } catch (CompletionException e) {
+            // Give back the exception thrown by the step, e.g. StopPoller
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
         }
-        return (O) result;
     }
 
     /**
      * Execute the workflow asynchronously.
      *
-     * @param input The initial input for the workflow.
-     * @param <I>   The input type.
-     * @param <O>   The output type.
+     * @param input    The initial input for the workflow.
+     * @param executor The executor running the steps not bound to their own executor.
+     * @param <I>      The input type.
+     * @param <O>      The output type.
      * @return A CompletableFuture representing the result of the workflow
      *         execution.
      */
     @SuppressWarnings("unchecked")
-    public <I, O> CompletableFuture<O> executeAsync(I input) {
+    public <I, O> CompletableFuture<O> executeAsync(I input, Executor executor) {
+        return run(input, executor).thenApply(result -> (O) result);
+    }
+
+    private CompletableFuture<Object> run(Object input, Executor executor) {
         CompletableFuture<Object> future = CompletableFuture.completedFuture(input);
-        for (Function<Object, Object> step : (List<Function<Object, Object>>) (List<?>) steps) {
-            future = future.thenComposeAsync(result -> CompletableFuture.supplyAsync(() -> step.apply(result)));
+        for (WorkflowStage stage : stages) {
+            future = future.thenCompose(result -> stage.apply(result, executor));
         }
-        return future.thenApply(result -> (O) result);
+        return future;
     }
-}
\ No newline at end of file
+}
@@ -2,7 +2,9 @@
  * WorkflowFactory.java
  * <p>
  * This class is a factory to build workflows by adding individual steps.
- * The steps are represented as Functions that are executed sequentially.
+ * The steps are represented as Functions that are executed sequentially. Groups of steps can be
+ * added with parallel: they receive the same input, run concurrently, and their outputs are joined
+ * before the next step. Each step or group can be bound to its own executor and timeout.
  * <p>
  * The idea is that each kind function, artifact, dataitem, workflow has
  * their workflow to speak with Some external services.
@@ -14,10 +16,12 @@ import org.apache.commons.lang3.function.TriFunction;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 public class WorkflowFactory {
-    private final List<Function<?, ?>> steps;
+    private final List<WorkflowStage> steps;
 
     private WorkflowFactory() {
         this.steps = new ArrayList<>();
@@ -36,7 +40,7 @@ public class WorkflowFactory {
      * @return The WorkflowFactory instance with the added step.
      */
     public <I, O> WorkflowFactory step(Function<I, O> step) {
-        steps.add(step);
+        steps.add(WorkflowStep.of(step));
         return this;
     }
 
@@ -50,7 +54,7 @@ public class WorkflowFactory {
      * @return The WorkflowFactory instance with the added step.
      */
     public <I, O> WorkflowFactory step(Function<I, O> step, I argument) {
-        steps.add(input -> step.apply(argument));
+        steps.add(WorkflowStep.of(input -> step.apply(argument)));
         return this;
     }
 
@@ -65,12 +69,12 @@ public class WorkflowFactory {
      */
     @SuppressWarnings("unchecked")
     public <I, O> WorkflowFactory step(Function<I[], O> step, I... argument) {
-        steps.add(input -> step.apply(argument));
+        steps.add(WorkflowStep.of(input -> step.apply(argument)));
         return this;
     }
 
     public <A, B, C, O> WorkflowFactory step(TriFunction<A, B, C, O> step, A a, B b, C c) {
-        steps.add(input -> step.apply(a, b, c));
+        steps.add(WorkflowStep.of(input -> step.apply(a, b, c)));
         return this;
     }
 
@@ -85,22 +89,83 @@ public class WorkflowFactory {
      */
     @SuppressWarnings("unchecked")
     public <I, O> WorkflowFactory conditionalStep(Function<I, Boolean> condition, Function<I, O> step) {
-        steps.add((Function<Object, Object>) (input) -> {
+        steps.add(WorkflowStep.of((Function<Object, Object>) (input) -> {
             if (condition.apply((I) input)) {
                 return step.apply((I) input);
             } else {
                 return input; // Skip the step
             }
-        });
+        }));
         return this;
     }
 
+    /**
+     * Add a group of steps running in parallel. Each step receives the output of the previous
+     * step, the output of the group is the list of the outputs of its steps, in order.
+     *
+     * @param branches The steps of the group.
+     * @return The WorkflowFactory instance with the added group.
+     */
+    public WorkflowFactory parallel(WorkflowStep... branches) {
+        return parallel(outputs -> outputs, branches);
+    }
+
+    /**
+     * Add a group of steps running in parallel, whose outputs are merged by a join function.
+     *
+     * @param join     The function merging the outputs of the steps, in order.
+     * @param branches The steps of the group.
+     * @param <O>      The output type of the group.
+     * @return The WorkflowFactory instance with the added group.
+     */
+    @SuppressWarnings("unchecked")
+    public <O> WorkflowFactory parallel(Function<List<Object>, O> join, WorkflowStep... branches) {
+        if (branches.length == 0) {
+            throw new IllegalArgumentException("A parallel group needs at least one step");
+        }
+        steps.add(new ParallelStage(List.of(branches), (Function<List<Object>, Object>) join,
+                null, 0, null));
+        return this;
+    }
+
+    /**
+     * Run the last added step or group on the given executor instead of the workflow one.
+     * For a group, only the steps without their own executor are affected.
+     *
+     * @param executor The executor.
+     * @return The WorkflowFactory instance.
+     */
+    public WorkflowFactory withExecutor(Executor executor) {
+        steps.set(lastIndex(), steps.get(lastIndex()).withExecutor(executor));
+        return this;
+    }
+
+    /**
+     * Fail the workflow with a TimeoutException when the last added step or group does not
+     * complete in time.
+     *
+     * @param timeout The timeout.
+     * @param unit    The unit of the timeout.
+     * @return The WorkflowFactory instance.
+     */
+    public WorkflowFactory withTimeout(long timeout, TimeUnit unit) {
+        steps.set(lastIndex(), steps.get(lastIndex()).withTimeout(timeout, unit));
+        return this;
+    }
+
+    private int lastIndex() {
+        if (steps.isEmpty()) {
+            throw new IllegalStateException("No step to configure");
+        }
+        return steps.size() - 1;
+    }
+
     /**
      * Build the workflow using the added steps.
      *
      * @return The constructed Workflow instance.
      */
     public Workflow build() {
-        return new Workflow(steps);
+        return new Workflow(steps.toArray(WorkflowStage[]::new));
     }
 }
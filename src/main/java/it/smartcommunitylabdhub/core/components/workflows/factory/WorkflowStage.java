@@ -0,0 +1,28 @@
+/**
+ * WorkflowStage.java
+ * <p>
+ * A stage of a workflow: either a single step or a group of steps running in parallel. Stages are
+ * executed one after the other, the output of a stage is the input of the next one.
+ */
+
+package it.smartcommunitylabdhub.core.components.workflows.factory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+interface WorkflowStage {
+
+    /**
+     * Run the stage.
+     *
+     * @param input           The output of the previous stage.
+     * @param defaultExecutor The executor used when the stage does not define its own.
+     * @return A future completed with the output of the stage.
+     */
+    CompletableFuture<Object> apply(Object input, Executor defaultExecutor);
+
+    WorkflowStage withExecutor(Executor executor);
+
+    WorkflowStage withTimeout(long timeout, TimeUnit unit);
+}
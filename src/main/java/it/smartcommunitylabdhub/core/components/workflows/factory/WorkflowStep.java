@@ -0,0 +1,72 @@
+/**
+ * WorkflowStep.java
+ * <p>
+ * A single step of a workflow, optionally bound to its own executor and timeout. Steps are
+ * immutable, withExecutor and withTimeout return a new step.
+ */
+
+package it.smartcommunitylabdhub.core.components.workflows.factory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+public class WorkflowStep implements WorkflowStage {
+    private final Function<Object, Object> function;
+    private final Executor executor;
+    private final long timeout;
+    private final TimeUnit unit;
+
+    private WorkflowStep(Function<Object, Object> function, Executor executor, long timeout, TimeUnit unit) {
+        this.function = function;
+        this.executor = executor;
+        this.timeout = timeout;
+        this.unit = unit;
+    }
+
+    /**
+     * Create a step running the given function on the workflow executor, without timeout.
+     *
+     * @param function The function of the step.
+     * @param <I>      The input type of the step.
+     * @param <O>      The output type of the step.
+     * @return The step.
+     */
+    @SuppressWarnings("unchecked")
+    public static <I, O> WorkflowStep of(Function<I, O> function) {
+        return new WorkflowStep((Function<Object, Object>) function, null, 0, null);
+    }
+
+    /**
+     * Run the step on the given executor instead of the workflow one.
+     *
+     * @param executor The executor of the step.
+     * @return A copy of the step.
+     */
+    @Override
+    public WorkflowStep withExecutor(Executor executor) {
+        return new WorkflowStep(function, executor, timeout, unit);
+    }
+
+    /**
+     * Fail the step with a TimeoutException when it does not complete in time. The function
+     * itself is not interrupted.
+     *
+     * @param timeout The timeout.
+     * @param unit    The unit of the timeout.
+     * @return A copy of the step.
+     */
+    @Override
+    public WorkflowStep withTimeout(long timeout, TimeUnit unit) {
+        return new WorkflowStep(function, executor, timeout, unit);
+    }
+
+    @Override
+    public CompletableFuture<Object> apply(Object input, Executor defaultExecutor) {
+        CompletableFuture<Object> future = CompletableFuture.supplyAsync(
+                () -> function.apply(input),
+                executor != null ? executor : defaultExecutor);
+        return timeout > 0 ? future.orTimeout(timeout, unit) : future;
+    }
+}
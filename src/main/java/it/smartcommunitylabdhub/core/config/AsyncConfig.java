@@ -1,7 +1,10 @@
 package it.smartcommunitylabdhub.core.config;
 
+import it.smartcommunitylabdhub.core.components.pollers.HashedWheelTimer;
+import it.smartcommunitylabdhub.core.components.pollers.PollingPolicy;
 import it.smartcommunitylabdhub.core.components.pollers.PollingService;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.TaskExecutor;
@@ -10,6 +13,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableAsync
@@ -27,11 +31,80 @@ public class AsyncConfig implements AsyncConfigurer {
         return executor;
     }
 
+    /**
+     * Bounded worker pool shared by all the pollers, its size does not depend on the
+     * number of active pollers.
+     */
     @Bean
-    PollingService pollingService(@Qualifier("taskExecutor") TaskExecutor executor) {
+    ThreadPoolTaskExecutor pollerExecutor(@Value("${poller.workers.pool-size}") int poolSize,
+                                          @Value("${poller.workers.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("Poller-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Workers sending the appended log content to the clients following the run logs.
+     */
+    @Bean
+    ThreadPoolTaskExecutor logTailExecutor(@Value("${log.tail.pool-size}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("Log-Tail-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Workers sending the entity changes to the subscribers of the change feed.
+     */
+    @Bean
+    ThreadPoolTaskExecutor changeFeedExecutor(@Value("${changes.feed.pool-size}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("Change-Feed-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Workers draining the mailboxes of the runs, one task per run at a time.
+     */
+    @Bean
+    ThreadPoolTaskExecutor runMailboxExecutor(@Value("${run.mailbox.pool-size}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("Run-Mailbox-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(destroyMethod = "stop")
+    HashedWheelTimer pollerTimer(@Qualifier("pollerExecutor") ThreadPoolTaskExecutor executor,
+                                 @Value("${poller.timer.tick-ms}") long tickMs,
+                                 @Value("${poller.timer.wheel-size}") int wheelSize) {
+        return new HashedWheelTimer("Poller-Timer", tickMs, TimeUnit.MILLISECONDS, wheelSize, executor);
+    }
+
+    @Bean
+    PollingService pollingService(HashedWheelTimer pollerTimer,
+                                  @Qualifier("pollerExecutor") ThreadPoolTaskExecutor executor,
+                                  @Value("${poller.backoff.max-delay-seconds}") long maxDelay,
+                                  @Value("${poller.backoff.multiplier}") double multiplier,
+                                  @Value("${poller.backoff.jitter}") double jitter) {
+
+        // Pollers back off while nothing changes, the minimum delay is given by each poller
+        PollingPolicy backoff = PollingPolicy.adaptive(1, maxDelay, TimeUnit.SECONDS, multiplier, jitter);
 
-        // Create new Polling service instance
-        PollingService pollingService = new PollingService(executor);
+        // Create new Polling service instance, all the pollers share the same timer and workers
+        PollingService pollingService = new PollingService(pollerTimer, executor, backoff);
 
         // CREATE POLLERS EXAMPLE
         //
@@ -0,0 +1,96 @@
+package it.smartcommunitylabdhub.core.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import it.smartcommunitylabdhub.core.utils.jackson.JacksonMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Local caches of the hot lookups, bounded in size and expired after a time to live. Entries are
+ * evicted on the committed changes of their entities, the time to live bounds the staleness of
+ * the entries changed by other instances. Hit and miss statistics are recorded and exposed by the
+ * actuator cache metrics.
+ * <p>
+ * The DTOs are mutable, their caches hold copies: the instance returned to a caller is its own
+ * and can be modified without changing the cached entry.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Project entities by name
+    public static final String PROJECTS = "projects";
+
+    // Function DTOs by id
+    public static final String FUNCTIONS = "functions";
+
+    // Task DTOs by id
+    public static final String TASKS = "tasks";
+
+    private static final Set<String> DTO_CACHES = Set.of(FUNCTIONS, TASKS);
+
+    @Bean
+    CacheManager cacheManager(@Value("${cache.projects.max-size}") long projectsSize,
+                              @Value("${cache.projects.ttl-seconds}") long projectsTtl,
+                              @Value("${cache.functions.max-size}") long functionsSize,
+                              @Value("${cache.functions.ttl-seconds}") long functionsTtl,
+                              @Value("${cache.tasks.max-size}") long tasksSize,
+                              @Value("${cache.tasks.ttl-seconds}") long tasksTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+                return DTO_CACHES.contains(name)
+                        ? new DtoCache(name, cache, isAllowNullValues())
+                        : super.adaptCaffeineCache(name, cache);
+            }
+        };
+        // Only the caches below, a typo in a cache name must not create an unbounded cache
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(PROJECTS, build(projectsSize, projectsTtl));
+        cacheManager.registerCustomCache(FUNCTIONS, build(functionsSize, functionsTtl));
+        cacheManager.registerCustomCache(TASKS, build(tasksSize, tasksTtl));
+        return cacheManager;
+    }
+
+    private static Cache<Object, Object> build(long maxSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Cache storing and returning copies of the values, made through their JSON representation.
+     */
+    static class DtoCache extends CaffeineCache {
+
+        DtoCache(String name, Cache<Object, Object> cache, boolean allowNullValues) {
+            super(name, cache, allowNullValues);
+        }
+
+        @Override
+        protected Object toStoreValue(Object userValue) {
+            return super.toStoreValue(copy(userValue));
+        }
+
+        @Override
+        protected Object fromStoreValue(Object storeValue) {
+            return copy(super.fromStoreValue(storeValue));
+        }
+
+        private static Object copy(Object value) {
+            return value == null ? null : JacksonMapper.CUSTOM_OBJECT_MAPPER.convertValue(value, value.getClass());
+        }
+    }
+}
@@ -1,23 +1,40 @@
 package it.smartcommunitylabdhub.core.config;
 
+import io.kubernetes.client.informer.SharedInformerFactory;
 import io.kubernetes.client.openapi.ApiClient;
 import io.kubernetes.client.openapi.apis.BatchV1Api;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.util.ClientBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class KubernetesConfig {
     @Bean
+    @Primary
     ApiClient kubeApiClient() throws Exception {
-        try {
-            return ClientBuilder.defaultClient();
-        } catch (IOException e) {
-            return ClientBuilder.cluster().build();
-        }
+        return newClient();
+    }
+
+    // Watches keep the connection open, the server side timeout is set on each watch call: the
+    // informers get their own client without read timeout, the other calls keep the default one
+    @Bean
+    ApiClient informerApiClient() throws Exception {
+        ApiClient apiClient = newClient();
+        apiClient.setHttpClient(apiClient.getHttpClient().newBuilder()
+                .readTimeout(0, TimeUnit.SECONDS)
+                .build());
+        return apiClient;
+    }
+
+    @Bean
+    SharedInformerFactory sharedInformerFactory(@Qualifier("informerApiClient") ApiClient apiClient) {
+        return new SharedInformerFactory(apiClient);
     }
 
     @Bean
@@ -29,4 +46,12 @@ public class KubernetesConfig {
     CoreV1Api coreV1Api(ApiClient apiClient) {
         return new CoreV1Api(apiClient);
     }
+
+    private static ApiClient newClient() throws IOException {
+        try {
+            return ClientBuilder.defaultClient();
+        } catch (IOException e) {
+            return ClientBuilder.cluster().build();
+        }
+    }
 }
\ No newline at end of file
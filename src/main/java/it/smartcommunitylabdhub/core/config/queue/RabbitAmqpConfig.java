@@ -7,8 +7,11 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class RabbitAmqpConfig {
 
+    // Queue of the entity changes relayed from the outbox
+    public static final String QUEUE = "dhcore_queue";
+
     @Bean
     public Queue dhcoreQueue() {
-        return new Queue("dhcore_queue");
+        return new Queue(QUEUE);
     }
 }
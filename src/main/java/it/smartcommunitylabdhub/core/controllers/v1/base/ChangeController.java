@@ -0,0 +1,34 @@
+package it.smartcommunitylabdhub.core.controllers.v1.base;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import it.smartcommunitylabdhub.core.annotations.common.ApiVersion;
+import it.smartcommunitylabdhub.core.services.interfaces.ChangeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/changes")
+@ApiVersion("v1")
+@Tag(name = "Change feed API", description = "Endpoints streaming the changes of the entities")
+public class ChangeController {
+
+    @Autowired
+    ChangeService changeService;
+
+    @Operation(summary = "Follow entity changes", description = "Stream the created, updated and deleted "
+            + "entities as Server-Sent Events, optionally filtered by project and by entity type "
+            + "(entity=run,function,...). Event ids are resume tokens: pass the last one received as the "
+            + "Last-Event-ID header or the from parameter to get the changes missed meanwhile. A reset "
+            + "event is sent when they are no longer available, the entities have then to be read again")
+    @GetMapping(path = "", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter followChanges(
+            @RequestParam(name = "project", required = false) String project,
+            @RequestParam(name = "entity", required = false) String entity,
+            @RequestParam(name = "from", required = false) String from,
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return this.changeService.subscribe(project, entity, lastEventId != null ? lastEventId : from);
+    }
+}
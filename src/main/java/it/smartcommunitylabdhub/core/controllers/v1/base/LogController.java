@@ -12,6 +12,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/logs")
 @ApiVersion("v1")
@@ -28,10 +30,14 @@ public class LogController {
         return ResponseEntity.ok(this.logService.getLog(uuid));
     }
 
-    @Operation(summary = "Log list", description = "Return the log list")
+    @Operation(summary = "Log list", description = "Return the log list, pass the cursor parameter "
+            + "(empty for the first page) to page by cursor and count=exact|estimate to get the total, "
+            + "summary=true or fields=body,... to read only some of the body, extra, status and metadata sections")
     @GetMapping(path = "", produces = "application/json; charset=UTF-8")
-    public ResponseEntity<Page<Log>> getLogs(Pageable pageable) {
-        return ResponseEntity.ok(this.logService.getLogs(pageable));
+    public ResponseEntity<Page<Log>> getLogs(
+            @RequestParam Map<String, String> filter,
+            Pageable pageable) {
+        return ResponseEntity.ok(this.logService.getLogs(filter, pageable));
     }
 
     @Operation(summary = "Delete a log", description = "Delete a specific log")
@@ -33,7 +33,8 @@ public class ProjectController {
     @Autowired
     ProjectService projectService;
 
-    @Operation(summary = "List project", description = "Return a list of all projects")
+    @Operation(summary = "List project",
+            description = "Return a list of all projects, with summary=true only the number of their latest entities")
     @GetMapping(path = "", produces = "application/json; charset=UTF-8")
     public ResponseEntity<Page<Project>> getProjects(
             @RequestParam Map<String, String> filter,
@@ -6,15 +6,19 @@ import it.smartcommunitylabdhub.core.annotations.common.ApiVersion;
 import it.smartcommunitylabdhub.core.annotations.validators.ValidateField;
 import it.smartcommunitylabdhub.core.models.entities.log.Log;
 import it.smartcommunitylabdhub.core.models.entities.run.Run;
+import it.smartcommunitylabdhub.core.models.entities.run.RunCallback;
 import it.smartcommunitylabdhub.core.services.interfaces.LogService;
+import it.smartcommunitylabdhub.core.services.interfaces.RunCallbackService;
 import it.smartcommunitylabdhub.core.services.interfaces.RunService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
 
@@ -30,6 +34,9 @@ public class RunController {
     @Autowired
     LogService logService;
 
+    @Autowired
+    RunCallbackService runCallbackService;
+
     @Operation(summary = "Get a run", description = "Given an uuid return the related Run")
     @GetMapping(path = "/{uuid}", produces = "application/json; charset=UTF-8")
     public ResponseEntity<Run> getRun(
@@ -41,11 +48,42 @@ public class RunController {
     @GetMapping(path = "/{uuid}/log", produces = "application/json; charset=UTF-8")
     public ResponseEntity<Page<Log>> getRunLog(
             @ValidateField @PathVariable(name = "uuid", required = true) String uuid,
+            @RequestParam Map<String, String> filter,
             Pageable pageable) {
-        return ResponseEntity.ok(this.logService.getLogsByRunUuid(uuid, pageable));
+        return ResponseEntity.ok(this.logService.getLogsByRunUuid(uuid, filter, pageable));
+    }
+
+    @Operation(summary = "Run log content", description = "Return a range of the log content of a run, "
+            + "a negative offset counts from the end of the log. The total size is returned in the "
+            + "X-Log-Size header and the offset of the first byte returned in X-Log-Offset")
+    @GetMapping(path = "/{uuid}/log/content", produces = "text/plain; charset=UTF-8")
+    public ResponseEntity<byte[]> getRunLogContent(
+            @ValidateField @PathVariable(name = "uuid", required = true) String uuid,
+            @RequestParam(name = "offset", defaultValue = "0") long offset,
+            @RequestParam(name = "length", required = false) Integer length) {
+        long size = this.logService.size(uuid);
+        long start = offset < 0 ? Math.max(0, size + offset) : offset;
+        byte[] content = this.logService.read(uuid, start, length != null ? length : Integer.MAX_VALUE);
+        return ResponseEntity.ok()
+                .header("X-Log-Size", String.valueOf(size))
+                .header("X-Log-Offset", String.valueOf(start))
+                .body(content);
+    }
+
+    @Operation(summary = "Follow run log", description = "Stream the log content of a run as Server-Sent "
+            + "Events, from the offset then as it is written. A negative offset counts from the end of the "
+            + "log. Event ids are the offset following the content of the event, a client reconnecting with "
+            + "the Last-Event-ID header resumes from there")
+    @GetMapping(path = "/{uuid}/log/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter followRunLog(
+            @ValidateField @PathVariable(name = "uuid", required = true) String uuid,
+            @RequestParam(name = "offset", defaultValue = "0") long offset,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return this.logService.tail(uuid, lastEventId != null ? lastEventId : offset);
     }
 
-    @Operation(summary = "Run list", description = "Return a list of all runs")
+    @Operation(summary = "Run list", description = "Return a list of all runs, pass summary=true or "
+            + "fields=spec,status,... to read only some of the spec, extra, status and metadata sections")
     @GetMapping(path = "", produces = "application/json; charset=UTF-8")
     public ResponseEntity<Page<Run>> getRuns(
             @RequestParam Map<String, String> filter,
@@ -71,6 +109,29 @@ public class RunController {
     }
 
 
+    @Operation(summary = "Patch the run status",
+            description = "Apply a JSON merge patch to the status of the run and return the patched status")
+    @PatchMapping(path = "/{uuid}/status", consumes = {"application/merge-patch+json",
+            MediaType.APPLICATION_JSON_VALUE}, produces = "application/json; charset=UTF-8")
+    public ResponseEntity<Map<String, Object>> patchRunStatus(
+            @ValidateField @PathVariable String uuid,
+            @RequestBody Map<String, Object> patch) {
+        return ResponseEntity.ok(this.runService.patchStatus(uuid, patch));
+    }
+
+
+    @Operation(summary = "Push the run status",
+            description = "Called by the runtime wrapper with the run token to push state, progress and result")
+    @PostMapping(path = "/{uuid}/callback", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = "application/json; charset=UTF-8")
+    public ResponseEntity<Run> callback(
+            @ValidateField @PathVariable(name = "uuid", required = true) String uuid,
+            @RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody RunCallback callback) {
+        return ResponseEntity.ok(this.runCallbackService.callback(uuid, authorization, callback));
+    }
+
+
     @Operation(summary = "Delete a run", description = "Delete a specific run")
     @DeleteMapping(path = "/{uuid}")
     public ResponseEntity<Boolean> deleteRun(
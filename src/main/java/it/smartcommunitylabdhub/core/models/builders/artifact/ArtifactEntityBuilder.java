@@ -91,7 +91,7 @@ public class ArtifactEntityBuilder {
                         .with(a -> a.setExtra(ConversionUtils.convert(
                                 artifactDTO.getStatus(), "cbor")))
                         .with(a -> a.setSpec(ConversionUtils.convert(
-                                spec.toMap(), "cbor")))
+                                spec.toMap(), "cbor+deflate")))
 
                         // Store status if not present
                         .withIfElse(artifactFieldAccessor.getState().equals(State.NONE.name()),
@@ -85,7 +85,7 @@ public class DataItemEntityBuilder {
                         .with(d -> d.setExtra(ConversionUtils.convert(
                                 dataItemDTO.getExtra(), "cbor")))
                         .with(d -> d.setSpec(ConversionUtils.convert(
-                                spec.toMap(), "cbor")))
+                                spec.toMap(), "cbor+deflate")))
                         .with(d -> d.setStatus(ConversionUtils.convert(dataItemDTO
                                 .getStatus(), "cbor")))
 
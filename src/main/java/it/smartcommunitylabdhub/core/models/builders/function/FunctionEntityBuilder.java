@@ -86,7 +86,7 @@ public class FunctionEntityBuilder {
                         .with(f -> f.setExtra(ConversionUtils.convert(
                                 functionDTO.getExtra(), "cbor")))
                         .with(f -> f.setSpec(ConversionUtils.convert(
-                                spec.toMap(), "cbor")))
+                                spec.toMap(), "cbor+deflate")))
                         .with(f -> f.setStatus(ConversionUtils.convert(
                                 functionDTO.getStatus(), "cbor")))
 
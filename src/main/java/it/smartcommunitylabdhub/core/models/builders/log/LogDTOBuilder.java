@@ -1,5 +1,6 @@
 package it.smartcommunitylabdhub.core.models.builders.log;
 
+import it.smartcommunitylabdhub.core.components.logs.LogStore;
 import it.smartcommunitylabdhub.core.models.builders.EntityFactory;
 import it.smartcommunitylabdhub.core.models.converters.ConversionUtils;
 import it.smartcommunitylabdhub.core.models.converters.types.MetadataConverter;
@@ -10,6 +11,8 @@ import it.smartcommunitylabdhub.core.utils.MapUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -19,6 +22,9 @@ public class LogDTOBuilder {
     @Autowired
     MetadataConverter<LogMetadata> metadataConverter;
 
+    @Autowired
+    LogStore logStore;
+
     public Log build(LogEntity log) {
         return EntityFactory.create(Log::new, log, builder -> builder
                 .with(dto -> dto.setId(log.getId()))
@@ -37,8 +43,7 @@ public class LogDTOBuilder {
                     logMetadata.setUpdated(log.getUpdated());
                     dto.setMetadata(logMetadata);
                 })
-                .with(dto -> dto.setBody(
-                        ConversionUtils.reverse(log.getBody(), "cbor")))
+                .with(dto -> dto.setBody(buildBody(log)))
                 .with(dto -> dto.setExtra(
                         ConversionUtils.reverse(log.getExtra(), "cbor")))
                 .with(dto -> dto.setStatus(
@@ -53,4 +58,18 @@ public class LogDTOBuilder {
 
         );
     }
+
+    // Chunks written to the log store only keep their position, read their content back
+    private Map<String, Object> buildBody(LogEntity log) {
+        Map<String, Object> body = ConversionUtils.reverse(log.getBody(), "cbor");
+        if (!body.containsKey("content")
+                && body.get("offset") instanceof Number offset
+                && body.get("length") instanceof Number length) {
+            body = new HashMap<>(body);
+            body.put("content", new String(
+                    logStore.read(log.getRun(), offset.longValue(), length.intValue()),
+                    StandardCharsets.UTF_8));
+        }
+        return body;
+    }
 }
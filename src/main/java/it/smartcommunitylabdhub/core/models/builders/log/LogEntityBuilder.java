@@ -70,7 +70,7 @@ public class LogEntityBuilder {
                         .with(l -> l.setExtra(ConversionUtils.convert(
                                 logDTO.getExtra(), "cbor")))
                         .with(l -> l.setBody(ConversionUtils.convert(
-                                logDTO.getBody(), "cbor")))
+                                logDTO.getBody(), "cbor+deflate")))
                         .with(l -> l.setStatus(ConversionUtils.convert(
                                 logDTO.getStatus(), "cbor")))
 
@@ -119,7 +119,7 @@ public class LogEntityBuilder {
                         .with(l -> l.setStatus(ConversionUtils.convert(
                                 logDTO.getStatus(), "cbor")))
                         .with(l -> l.setBody(ConversionUtils.convert(
-                                logDTO.getBody(), "cbor")))
+                                logDTO.getBody(), "cbor+deflate")))
 
                         // Store status if not present
                         .withIfElse(logFieldAccessor.getState().equals(State.NONE.name()),
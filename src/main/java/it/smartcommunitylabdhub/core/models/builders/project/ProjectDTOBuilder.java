@@ -41,6 +41,21 @@ public class ProjectDTOBuilder {
     @Autowired
     MetadataConverter<ProjectMetadata> metadataConverter;
 
+    /**
+     * Build a project summary: the latest entities of the project are not embedded, the spec
+     * only holds how many of them there are.
+     *
+     * @param project the project
+     * @param counts  the number of latest entities by type (functions, artifacts, ...)
+     * @return the project
+     */
+    public Project buildSummary(ProjectEntity project, Map<String, Long> counts) {
+        Map<String, Object> spec = ConversionUtils.reverse(
+                project.getSpec(), "cbor");
+        spec.put("counts", counts);
+        return build(project, spec);
+    }
+
     public Project build(
             ProjectEntity project,
             List<ArtifactEntity> artifacts,
@@ -74,6 +89,10 @@ public class ProjectDTOBuilder {
                                 d, embeddable))
                         .collect(Collectors.toList()));
 
+        return build(project, spec);
+    }
+
+    private Project build(ProjectEntity project, Map<String, Object> spec) {
         // Find base run spec
         return EntityFactory.create(Project::new, project, builder -> builder
                 .with(dto -> dto.setId(project.getId()))
@@ -108,7 +108,7 @@ public class ProjectEntityBuilder {
                             spec.remove("workflows");
                             spec.remove("artifacts");
                             spec.remove("dataitems");
-                            p.setSpec(ConversionUtils.convert(spec, "cbor"));
+                            p.setSpec(ConversionUtils.convert(spec, "cbor+deflate"));
                         })
 
                         // Metadata Extraction
@@ -177,7 +177,7 @@ public class ProjectEntityBuilder {
                             spec.remove("workflows");
                             spec.remove("artifacts");
                             spec.remove("dataitems");
-                            p.setSpec(ConversionUtils.convert(spec, "cbor"));
+                            p.setSpec(ConversionUtils.convert(spec, "cbor+deflate"));
                         })
                         .withIf(projectDTO.getMetadata().getSource() != null, (p) ->
                                 p.setSource(projectDTO.getMetadata().getSource()))
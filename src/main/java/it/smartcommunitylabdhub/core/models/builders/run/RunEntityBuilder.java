@@ -107,9 +107,9 @@ public class RunEntityBuilder {
                         .with(r -> r.setExtra(ConversionUtils.convert(
                                 runDTO.getExtra(), "cbor")))
                         .with(r -> r.setSpec(ConversionUtils.convert(
-                                spec.toMap(), "cbor")))
+                                spec.toMap(), "cbor+deflate")))
                         .with(r -> r.setStatus(ConversionUtils.convert(
-                                runDTO.getStatus(), "cbor")))
+                                runDTO.getStatus(), "cbor+deflate")))
                         .withIf(runDTO.getMetadata().getCreated() != null, (r) ->
                                 r.setCreated(runDTO.getMetadata().getCreated()))
                         .withIf(runDTO.getMetadata().getUpdated() != null, (r) ->
@@ -149,7 +149,7 @@ public class RunEntityBuilder {
                                 }
                         )
                         .with(r -> r.setStatus(ConversionUtils.convert(
-                                runDTO.getStatus(), "cbor")))
+                                runDTO.getStatus(), "cbor+deflate")))
                         .with(p -> p.setMetadata(ConversionUtils.convert(
                                 runDTO.getMetadata(), "metadata"))));
     }
@@ -105,7 +105,7 @@ public class TaskEntityBuilder {
                         .with(t -> t.setExtra(ConversionUtils.convert(
                                 taskDTO.getExtra(), "cbor")))
                         .with(t -> t.setSpec(ConversionUtils.convert(
-                                spec.toMap(), "cbor")))
+                                spec.toMap(), "cbor+deflate")))
                         .with(t -> t.setStatus(ConversionUtils.convert(
                                 taskDTO.getStatus(), "cbor")))
                         .withIf(taskDTO.getMetadata().getCreated() != null, (t) ->
@@ -157,7 +157,7 @@ public class TaskEntityBuilder {
                         .with(t -> t.setExtra(ConversionUtils.convert(
                                 taskDTO.getExtra(), "cbor")))
                         .with(t -> t.setSpec(ConversionUtils.convert(
-                                spec.toMap(), "cbor")))
+                                spec.toMap(), "cbor+deflate")))
                         .with(t -> t.setStatus(ConversionUtils.convert(
                                 taskDTO.getStatus(), "cbor")))
         );
@@ -84,7 +84,7 @@ public class WorkflowEntityBuilder {
                         .with(w -> w.setExtra(ConversionUtils.convert(
                                 workflowDTO.getExtra(), "cbor")))
                         .with(w -> w.setSpec(ConversionUtils.convert(
-                                spec.toMap(), "cbor")))
+                                spec.toMap(), "cbor+deflate")))
                         .with(w -> w.setStatus(ConversionUtils.convert(
                                 workflowDTO.getStatus(), "cbor")))
 
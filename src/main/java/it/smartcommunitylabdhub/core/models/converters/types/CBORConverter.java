@@ -29,7 +29,9 @@ public class CBORConverter implements Converter<Map<String, Object>, byte[]> {
             if (cborBytes == null) {
                 return new HashMap<>();
             }
-            return JacksonMapper.CBOR_OBJECT_MAPPER.readValue(cborBytes, new TypeReference<Map<String, Object>>() {
+            // Values written by the cbor+deflate converter may be compressed
+            return JacksonMapper.CBOR_OBJECT_MAPPER.readValue(
+                    CBORDeflateConverter.uncompress(cborBytes), new TypeReference<Map<String, Object>>() {
             });
         } catch (IOException e) {
             throw new CustomException(null, e);
@@ -0,0 +1,110 @@
+package it.smartcommunitylabdhub.core.models.converters.types;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import it.smartcommunitylabdhub.core.annotations.common.ConverterType;
+import it.smartcommunitylabdhub.core.exceptions.CustomException;
+import it.smartcommunitylabdhub.core.models.converters.interfaces.Converter;
+import it.smartcommunitylabdhub.core.utils.jackson.JacksonMapper;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * CBOR converter compressing the values larger than the compression threshold with deflate.
+ * <p>
+ * Compressed values start with a header byte followed by the zlib stream of the CBOR value. The
+ * header is never the first byte of a CBOR map, so compressed and plain values can be stored in
+ * the same column: both are read by this converter and by the plain cbor one.
+ */
+@ConverterType(type = "cbor+deflate")
+public class CBORDeflateConverter implements Converter<Map<String, Object>, byte[]> {
+
+    // Major type 0 with the reserved additional information 28, not valid as first CBOR byte
+    public static final byte HEADER = 0x1C;
+
+    private final CBORConverter cborConverter = new CBORConverter();
+
+    @Value("${converter.compression.threshold}")
+    private int threshold;
+
+    @Override
+    public byte[] convert(Map<String, Object> map) throws CustomException {
+        try {
+            return compress(JacksonMapper.CBOR_OBJECT_MAPPER.writeValueAsBytes(map), threshold);
+        } catch (JsonProcessingException e) {
+            throw new CustomException(null, e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> reverseConvert(byte[] bytes) throws CustomException {
+        return cborConverter.reverseConvert(bytes);
+    }
+
+    /**
+     * Compress a CBOR value when it is at least threshold bytes long and compression saves space.
+     *
+     * @param cbor      the CBOR value
+     * @param threshold the minimum size of the values to compress
+     * @return the compressed value with its header, or the CBOR value itself
+     */
+    public static byte[] compress(byte[] cbor, int threshold) {
+        if (cbor.length < threshold) {
+            return cbor;
+        }
+
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(cbor);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(cbor.length / 2 + 16);
+            out.write(HEADER);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.size() < cbor.length ? out.toByteArray() : cbor;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Return the CBOR value of a stored value, decompressing it when it has the header.
+     *
+     * @param bytes the stored value, either compressed or plain CBOR
+     * @return the CBOR value
+     * @throws CustomException when the compressed value is corrupted
+     */
+    public static byte[] uncompress(byte[] bytes) throws CustomException {
+        if (bytes == null || bytes.length == 0 || bytes[0] != HEADER) {
+            return bytes;
+        }
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(Arrays.copyOfRange(bytes, 1, bytes.length));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated compressed value");
+                }
+                out.write(buffer, 0, inflated);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new CustomException(null, e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
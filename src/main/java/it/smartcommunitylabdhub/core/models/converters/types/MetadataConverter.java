@@ -35,7 +35,8 @@ public class MetadataConverter<M extends BaseMetadata>
             }
 
             // Deserialize CBOR bytes into a Map<String, Object>
-            Map<String, Object> cborMap = JacksonMapper.CBOR_OBJECT_MAPPER.readValue(cborBytes, Map.class);
+            Map<String, Object> cborMap = JacksonMapper.CBOR_OBJECT_MAPPER.readValue(
+                    CBORDeflateConverter.uncompress(cborBytes), Map.class);
 
             // Convert the map to the target class
             return JacksonMapper.OBJECT_MAPPER.convertValue(cborMap, targetClass);
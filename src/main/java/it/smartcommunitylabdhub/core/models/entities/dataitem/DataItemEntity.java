@@ -1,5 +1,6 @@
 package it.smartcommunitylabdhub.core.models.entities.dataitem;
 
+import it.smartcommunitylabdhub.core.components.listeners.EntityEventListener;
 import it.smartcommunitylabdhub.core.models.base.interfaces.BaseEntity;
 import it.smartcommunitylabdhub.core.models.enums.State;
 import jakarta.persistence.*;
@@ -17,8 +18,10 @@ import java.util.UUID;
 @Setter
 @Builder
 @Entity
-@Table(name = "dataitems")
-@EntityListeners(AuditingEntityListener.class)
+@Table(name = "dataitems", indexes = {
+        @Index(name = "idx_dataitems_project_name_created", columnList = "project, name, created")
+})
+@EntityListeners({AuditingEntityListener.class, EntityEventListener.class})
 public class DataItemEntity implements BaseEntity {
 
     @Id
@@ -0,0 +1,54 @@
+package it.smartcommunitylabdhub.core.models.entities.dispatch;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Date;
+
+/**
+ * Runnable waiting in the dispatch queue. A row is available once its available time has passed:
+ * claiming it moves that time forward by the visibility timeout, so that the runnable goes back
+ * to the queue if the executor stops before acknowledging it.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Entity
+@Table(name = "run_dispatch", indexes = {
+        @Index(name = "idx_run_dispatch_available_at", columnList = "available_at")
+})
+public class RunDispatchEntity {
+
+    // Identity, gives the dispatching order
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String run;
+
+    @Column(nullable = false)
+    private String framework;
+
+    // Class of the runnable encoded in the payload
+    @Column(name = "runnable_type", nullable = false)
+    private String runnableType;
+
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "available_at", nullable = false)
+    private Date availableAt;
+
+    // Executor holding the claim, null while the runnable is waiting
+    @Column(name = "claimed_by")
+    private String claimedBy;
+
+    @Column(updatable = false)
+    private Date created;
+}
@@ -1,5 +1,6 @@
 package it.smartcommunitylabdhub.core.models.entities.function;
 
+import it.smartcommunitylabdhub.core.components.listeners.EntityEventListener;
 import it.smartcommunitylabdhub.core.models.base.interfaces.BaseEntity;
 import it.smartcommunitylabdhub.core.models.enums.State;
 import jakarta.persistence.*;
@@ -17,8 +18,10 @@ import java.util.UUID;
 @Setter
 @Builder
 @Entity
-@Table(name = "functions")
-@EntityListeners(AuditingEntityListener.class)
+@Table(name = "functions", indexes = {
+        @Index(name = "idx_functions_project_name_created", columnList = "project, name, created")
+})
+@EntityListeners({AuditingEntityListener.class, EntityEventListener.class})
 public class FunctionEntity implements BaseEntity {
 
     @Id
@@ -17,7 +17,10 @@ import java.util.UUID;
 @Setter
 @Builder
 @Entity
-@Table(name = "logs")
+@Table(name = "logs", indexes = {
+        @Index(name = "idx_logs_run_created", columnList = "run, created"),
+        @Index(name = "idx_logs_project_created", columnList = "project, created")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class LogEntity implements BaseEntity {
 
@@ -32,15 +35,19 @@ public class LogEntity implements BaseEntity {
     private String run;
 
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     private byte[] body;
 
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     private byte[] extra;
 
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     private byte[] status;
 
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     private byte[] metadata;
 
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,43 @@
+package it.smartcommunitylabdhub.core.models.entities.outbox;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Date;
+
+/**
+ * Entity change waiting to be published to the message broker. Rows are written in the
+ * transaction of the change and deleted once the broker has confirmed them.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEventEntity {
+
+    // Identity, gives the publishing order
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String entity;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(name = "entity_id")
+    private String entityId;
+
+    private String project;
+
+    // CBOR encoded change event, sent as is
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(updatable = false)
+    private Date created;
+}
@@ -0,0 +1,30 @@
+package it.smartcommunitylabdhub.core.models.entities.run;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+/**
+ * Status pushed by a runtime wrapper while the run is executing. Every field is optional, the
+ * result is usually sent along with the final state.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class RunCallback {
+
+    private String state;
+
+    // Completion percentage, between 0 and 100
+    private Double progress;
+
+    private String message;
+
+    private Map<String, Object> result;
+}
@@ -1,6 +1,7 @@
 package it.smartcommunitylabdhub.core.models.entities.run;
 
 import it.smartcommunitylabdhub.core.components.fsm.enums.RunState;
+import it.smartcommunitylabdhub.core.components.listeners.EntityEventListener;
 import it.smartcommunitylabdhub.core.models.base.interfaces.BaseEntity;
 import jakarta.persistence.*;
 import lombok.*;
@@ -17,8 +18,13 @@ import java.util.UUID;
 @Setter
 @Builder
 @Entity
-@Table(name = "runs")
-@EntityListeners(AuditingEntityListener.class)
+@Table(name = "runs", indexes = {
+        @Index(name = "idx_runs_task_id", columnList = "task_id"),
+        @Index(name = "idx_runs_task", columnList = "task"),
+        @Index(name = "idx_runs_project_created", columnList = "project, created"),
+        @Index(name = "idx_runs_state", columnList = "state")
+})
+@EntityListeners({AuditingEntityListener.class, EntityEventListener.class})
 public class RunEntity implements BaseEntity {
 
     @Id
@@ -40,15 +46,19 @@ public class RunEntity implements BaseEntity {
     private String taskId;
 
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     private byte[] metadata;
 
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     private byte[] spec;
 
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     private byte[] extra;
 
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     private byte[] status;
 
     @CreatedDate
@@ -61,6 +71,11 @@ public class RunEntity implements BaseEntity {
     @Enumerated(EnumType.STRING)
     private RunState state;
 
+    // Checked by the full updates and by the status patches, which bump it by query
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     public void prePersist() {
         if (id == null) {
@@ -0,0 +1,38 @@
+package it.smartcommunitylabdhub.core.models.entities.run;
+
+import it.smartcommunitylabdhub.core.components.fsm.enums.RunState;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.util.Date;
+
+/**
+ * Snapshot of the journal of a run: the state reached after the transition with the given
+ * sequence. Replaying a run only needs the transitions recorded after it.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Entity
+@Table(name = "run_snapshots")
+@EntityListeners(AuditingEntityListener.class)
+public class RunSnapshotEntity {
+
+    @Id
+    @Column(unique = true)
+    private String run;
+
+    @Column(nullable = false)
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RunState state;
+
+    @LastModifiedDate
+    private Date updated;
+}
@@ -0,0 +1,61 @@
+package it.smartcommunitylabdhub.core.models.entities.run;
+
+import it.smartcommunitylabdhub.core.components.fsm.enums.RunEvent;
+import it.smartcommunitylabdhub.core.components.fsm.enums.RunState;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Append only journal of the transitions of a run, one row per committed state machine transition.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Entity
+@Table(name = "run_transitions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_run_transitions_run_sequence",
+                columnNames = {"run", "sequence"}))
+@EntityListeners(AuditingEntityListener.class)
+public class RunTransitionEntity {
+
+    @Id
+    @Column(unique = true)
+    private String id;
+
+    @Column(nullable = false)
+    private String run;
+
+    // Position of the transition in the journal of the run, starting from 1
+    @Column(nullable = false)
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_state")
+    private RunState fromState;
+
+    // Null when the run has been moved to the error state
+    @Enumerated(EnumType.STRING)
+    private RunEvent event;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_state", nullable = false)
+    private RunState toState;
+
+    @CreatedDate
+    @Column(updatable = false)
+    private Date created;
+
+    @PrePersist
+    public void prePersist() {
+        if (id == null) {
+            this.id = UUID.randomUUID().toString();
+        }
+    }
+}
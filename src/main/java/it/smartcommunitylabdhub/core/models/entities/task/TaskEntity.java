@@ -1,5 +1,6 @@
 package it.smartcommunitylabdhub.core.models.entities.task;
 
+import it.smartcommunitylabdhub.core.components.listeners.EntityEventListener;
 import it.smartcommunitylabdhub.core.models.base.interfaces.BaseEntity;
 import it.smartcommunitylabdhub.core.models.enums.State;
 import jakarta.persistence.*;
@@ -18,10 +19,11 @@ import java.util.UUID;
 @Builder
 @Entity
 @Table(name = "tasks", uniqueConstraints = {
-        @UniqueConstraint(columnNames = {"function", "kind"})
-
+        @UniqueConstraint(name = "uk_tasks_function_kind", columnNames = {"function", "kind"})
+}, indexes = {
+        @Index(name = "idx_tasks_project_created", columnList = "project, created")
 })
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, EntityEventListener.class})
 public class TaskEntity implements BaseEntity {
 
     @Id
@@ -0,0 +1,62 @@
+package it.smartcommunitylabdhub.core.models.entities.version;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Pointer to the latest version of a versioned entity (function, artifact, data item or
+ * workflow), one row per type, project and name. It is updated in the same transaction as the
+ * versions, so that reading the latest version is a lookup instead of a group by.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Entity
+@Table(name = "latest_versions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_latest_versions_type_project_name",
+                columnNames = {"type", "project", "name"}))
+@EntityListeners(AuditingEntityListener.class)
+public class LatestVersionEntity {
+
+    public static final String FUNCTION = "function";
+    public static final String ARTIFACT = "artifact";
+    public static final String DATAITEM = "dataitem";
+    public static final String WORKFLOW = "workflow";
+
+    @Id
+    @Column(unique = true)
+    private String id;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(nullable = false)
+    private String project;
+
+    @Column(nullable = false)
+    private String name;
+
+    // Id of the latest version
+    @Column(nullable = false)
+    private String version;
+
+    // Creation date of the latest version
+    private Date created;
+
+    @LastModifiedDate
+    private Date updated;
+
+    @PrePersist
+    public void prePersist() {
+        if (id == null) {
+            this.id = UUID.randomUUID().toString();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package it.smartcommunitylabdhub.core.models.filters.pagination;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page read with keyset pagination. The following page is requested with the next cursor, the
+ * total is only known when it has been counted: -1 otherwise.
+ *
+ * @param <T> the type of the content
+ */
+public class CursorPage<T> extends PageImpl<T> {
+
+    private final String nextCursor;
+    private final long total;
+    private final boolean totalEstimated;
+
+    public CursorPage(List<T> content, int size, String nextCursor, long total, boolean totalEstimated) {
+        super(content, PageRequest.ofSize(size), Math.max(total, content.size()));
+        this.nextCursor = nextCursor;
+        this.total = total;
+        this.totalEstimated = totalEstimated;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * @return true when the total is a lower bound, the count stopped at the estimate limit
+     */
+    public boolean isTotalEstimated() {
+        return totalEstimated;
+    }
+
+    @Override
+    public long getTotalElements() {
+        return total;
+    }
+
+    @Override
+    public int getTotalPages() {
+        return total < 0 ? -1 : super.getTotalPages();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public boolean isLast() {
+        return !hasNext();
+    }
+
+    @Override
+    public <U> CursorPage<U> map(Function<? super T, ? extends U> converter) {
+        return new CursorPage<>(getConvertedContent(converter), getSize(), nextCursor, total, totalEstimated);
+    }
+}
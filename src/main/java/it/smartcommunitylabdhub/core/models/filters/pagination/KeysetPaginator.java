@@ -0,0 +1,249 @@
+package it.smartcommunitylabdhub.core.models.filters.pagination;
+
+import it.smartcommunitylabdhub.core.exceptions.CoreException;
+import it.smartcommunitylabdhub.core.utils.ErrorList;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Lob;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reads pages of entities either by offset, as requested by the pageable, or with keyset
+ * pagination on (created, id) when the cursor filter is present.
+ * <p>
+ * Keyset pages cost the same at any depth. Their total is computed according to the count
+ * filter: none (default), exact, or estimate, which counts up to a limit and reports a lower
+ * bound beyond it.
+ * <p>
+ * Entities are read with a projection on their columns. The fields filter lists the Lob columns
+ * to read (e.g. fields=spec,status), every other column is always read. Without the filter all
+ * the columns are read, summary=true reads none of the Lob columns. Entities missing a Lob column
+ * are built with it set to null.
+ */
+@Component
+public class KeysetPaginator {
+
+    public static final String CURSOR = "cursor";
+    public static final String COUNT = "count";
+    public static final String FIELDS = "fields";
+    public static final String SUMMARY = "summary";
+
+    // Newest first, the id breaks ties between entities created together
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("created"), Sort.Order.desc("id"));
+
+    // Column attributes of each entity class, split in plain and Lob ones
+    private final Map<Class<?>, EntityColumns> columns = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Value("${pagination.count-estimate-limit}")
+    private int estimateLimit;
+
+    public <T> Page<T> findAll(JpaSpecificationExecutor<T> repository,
+                               Class<T> entityClass,
+                               Specification<T> specification,
+                               Map<String, String> filter,
+                               Pageable pageable) {
+        List<String> attributes = selectedAttributes(entityClass, filter);
+        String cursor = filter.get(CURSOR);
+        if (cursor == null) {
+            // Offset pagination, with the exact total
+            List<T> content = select(entityClass, specification, attributes, null, pageable.getSort(),
+                    pageable.isPaged() ? pageable.getOffset() : 0,
+                    pageable.isPaged() ? pageable.getPageSize() : -1);
+            return PageableExecutionUtils.getPage(content, pageable, () -> repository.count(specification));
+        }
+
+        // Read one more entity to know whether a following page exists
+        int size = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE - 1;
+        List<T> content = select(entityClass, specification, attributes,
+                cursor.isBlank() ? null : decode(cursor), KEYSET_SORT, 0, size + 1);
+
+        String nextCursor = null;
+        if (content.size() > size) {
+            content = content.subList(0, size);
+            nextCursor = encode(new BeanWrapperImpl(content.get(size - 1)));
+        }
+
+        String count = filter.getOrDefault(COUNT, "none");
+        switch (count) {
+            case "exact":
+                return new CursorPage<>(content, size, nextCursor, repository.count(specification), false);
+            case "estimate":
+                long counted = countUpTo(entityClass, specification, estimateLimit);
+                return new CursorPage<>(content, size, nextCursor, counted, counted >= estimateLimit);
+            default:
+                return new CursorPage<>(content, size, nextCursor, -1, false);
+        }
+    }
+
+    private <T> List<T> select(Class<T> entityClass,
+                               Specification<T> specification,
+                               List<String> attributes,
+                               Object[] after,
+                               Sort sort,
+                               long offset,
+                               int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<T> root = query.from(entityClass);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String attribute : attributes) {
+            selections.add(root.get(attribute).alias(attribute));
+        }
+        query.multiselect(selections);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        if (after != null) {
+            // (created, id) < (after created, after id), with the same order of KEYSET_SORT
+            Path<Date> created = root.get("created");
+            Path<String> id = root.get("id");
+            predicates.add(criteriaBuilder.or(
+                    criteriaBuilder.lessThan(created, (Date) after[0]),
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(created, after[0]),
+                            criteriaBuilder.lessThan(id, (String) after[1]))));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+
+        List<Order> orders = QueryUtils.toOrders(sort, root, criteriaBuilder);
+        if (!orders.isEmpty()) {
+            query.orderBy(orders);
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query).setFirstResult((int) offset);
+        if (limit >= 0) {
+            typedQuery.setMaxResults(limit);
+        }
+
+        return typedQuery.getResultList().stream()
+                .map(tuple -> {
+                    T entity = BeanUtils.instantiateClass(entityClass);
+                    BeanWrapper wrapper = new BeanWrapperImpl(entity);
+                    for (String attribute : attributes) {
+                        wrapper.setPropertyValue(attribute, tuple.get(attribute));
+                    }
+                    return entity;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private List<String> selectedAttributes(Class<?> entityClass, Map<String, String> filter) {
+        EntityColumns entityColumns = columns.computeIfAbsent(entityClass, this::entityColumns);
+
+        List<String> attributes = new ArrayList<>(entityColumns.plain());
+        if (Boolean.parseBoolean(filter.get(SUMMARY))) {
+            return attributes;
+        }
+
+        String fields = filter.get(FIELDS);
+        if (fields == null) {
+            attributes.addAll(entityColumns.lobs());
+            return attributes;
+        }
+
+        Set<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .collect(Collectors.toSet());
+        entityColumns.lobs().stream()
+                .filter(requested::contains)
+                .forEach(attributes::add);
+        return attributes;
+    }
+
+    private EntityColumns entityColumns(Class<?> entityClass) {
+        List<String> plain = new ArrayList<>();
+        List<String> lobs = new ArrayList<>();
+        for (Attribute<?, ?> attribute : entityManager.getMetamodel().entity(entityClass).getSingularAttributes()) {
+            Field field = ReflectionUtils.findField(entityClass, attribute.getName());
+            if (field != null && field.isAnnotationPresent(Lob.class)) {
+                lobs.add(attribute.getName());
+            } else {
+                plain.add(attribute.getName());
+            }
+        }
+        return new EntityColumns(List.copyOf(plain), List.copyOf(lobs));
+    }
+
+    // Fetch at most limit ids, the cost is bounded whatever the size of the table
+    private <T> long countUpTo(Class<T> entityClass, Specification<T> specification, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = criteriaBuilder.createQuery();
+        Root<T> root = query.from(entityClass);
+        query.select(root.get("id"));
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList().size();
+    }
+
+    private String encode(BeanWrapper last) {
+        Date created = (Date) last.getPropertyValue("created");
+        String key = created.getTime() + ":" + last.getPropertyValue("id");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Object[] decode(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.indexOf(':');
+            return new Object[]{
+                    new Date(Long.parseLong(key.substring(0, separator))),
+                    key.substring(separator + 1)};
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new CoreException(
+                    ErrorList.INVALID_CURSOR.getValue(),
+                    ErrorList.INVALID_CURSOR.getReason(),
+                    HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private record EntityColumns(List<String> plain, List<String> lobs) {
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,27 +26,29 @@ public interface DataItemRepository extends JpaRepository<DataItemEntity, String
     Page<DataItemEntity> findAllByProjectAndNameOrderByCreatedDesc(String project, String name,
                                                                    Pageable pageable);
 
-    @Query("SELECT a FROM DataItemEntity a WHERE a.project = :project AND (a.name, a.project, a.created) IN "
-            +
-            "(SELECT a2.name, a2.project, MAX(a2.created) FROM DataItemEntity a2 WHERE a2.project = :project GROUP BY a2.name, a2.project) "
-            +
-            "ORDER BY a.created DESC")
+    @Query("SELECT a FROM DataItemEntity a, LatestVersionEntity l WHERE l.type = 'dataitem' AND l.version = a.id "
+            + "AND l.project = :project ORDER BY a.created DESC")
     Page<DataItemEntity> findAllLatestDataItemsByProject(@Param("project") String project,
                                                          Pageable pageable);
 
-    @Query("SELECT a FROM DataItemEntity a WHERE a.project = :project AND (a.name, a.project, a.created) IN "
-            +
-            "(SELECT a2.name, a2.project, MAX(a2.created) FROM DataItemEntity a2 WHERE a2.project = :project GROUP BY a2.name, a2.project) "
-            +
-            "ORDER BY a.created DESC")
+    @Query("SELECT a FROM DataItemEntity a, LatestVersionEntity l WHERE l.type = 'dataitem' AND l.version = a.id "
+            + "AND l.project = :project ORDER BY a.created DESC")
     List<DataItemEntity> findAllLatestDataItemsByProject(@Param("project") String project);
 
+    @Query("SELECT a FROM DataItemEntity a, LatestVersionEntity l WHERE l.type = 'dataitem' AND l.version = a.id "
+            + "AND l.project IN :projects ORDER BY a.created DESC")
+    List<DataItemEntity> findAllLatestDataItemsByProjects(@Param("projects") Collection<String> projects);
+
+    @Query("SELECT l.project, COUNT(l) FROM LatestVersionEntity l WHERE l.type = 'dataitem' "
+            + "AND l.project IN :projects GROUP BY l.project")
+    List<Object[]> countLatestDataItemsByProjects(@Param("projects") Collection<String> projects);
+
     Optional<DataItemEntity> findByProjectAndNameAndId(@Param("project") String project,
                                                        @Param("name") String name,
                                                        @Param("id") String id);
 
-    @Query("SELECT a FROM DataItemEntity a WHERE a.project = :project AND a.name = :name " +
-            "AND a.created = (SELECT MAX(a2.created) FROM DataItemEntity a2 WHERE a2.project = :project AND a2.name = :name)")
+    @Query("SELECT a FROM DataItemEntity a, LatestVersionEntity l WHERE l.type = 'dataitem' AND l.version = a.id "
+            + "AND l.project = :project AND l.name = :name")
     Optional<DataItemEntity> findLatestDataItemByProjectAndName(@Param("project") String project,
                                                                 @Param("name") String name);
 
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,19 +17,22 @@ public interface FunctionRepository extends JpaRepository<FunctionEntity, String
 
     List<FunctionEntity> findByProject(String project);
 
-    @Query("SELECT a FROM FunctionEntity a WHERE a.project = :project AND (a.name, a.project, a.created) IN "
-            +
-            "(SELECT a2.name, a2.project, MAX(a2.created) FROM FunctionEntity a2 WHERE a2.project = :project GROUP BY a2.name, a2.project) "
-            +
-            "ORDER BY a.created DESC")
+    @Query("SELECT a FROM FunctionEntity a, LatestVersionEntity l WHERE l.type = 'function' AND l.version = a.id "
+            + "AND l.project = :project ORDER BY a.created DESC")
     List<FunctionEntity> findAllLatestFunctionsByProject(@Param("project") String project);
 
+    @Query("SELECT a FROM FunctionEntity a, LatestVersionEntity l WHERE l.type = 'function' AND l.version = a.id "
+            + "AND l.project IN :projects ORDER BY a.created DESC")
+    List<FunctionEntity> findAllLatestFunctionsByProjects(@Param("projects") Collection<String> projects);
+
+    @Query("SELECT l.project, COUNT(l) FROM LatestVersionEntity l WHERE l.type = 'function' "
+            + "AND l.project IN :projects GROUP BY l.project")
+    List<Object[]> countLatestFunctionsByProjects(@Param("projects") Collection<String> projects);
+
     Page<FunctionEntity> findAll(Pageable pageable);
 
-    @Query("SELECT a FROM FunctionEntity a WHERE (a.name, a.created) IN " +
-            "(SELECT a2.name, MAX(a2.created) FROM FunctionEntity a2 GROUP BY a2.name) "
-            +
-            "ORDER BY a.created DESC")
+    @Query("SELECT a FROM FunctionEntity a, LatestVersionEntity l WHERE l.type = 'function' AND l.version = a.id "
+            + "ORDER BY a.created DESC")
     List<FunctionEntity> findAllLatestFunctions();
 
     ////////////////////////////
@@ -40,11 +44,8 @@ public interface FunctionRepository extends JpaRepository<FunctionEntity, String
 
     List<FunctionEntity> findAllByProjectAndNameOrderByCreatedDesc(String project, String name);
 
-    @Query("SELECT a FROM FunctionEntity a WHERE a.project = :project AND (a.name, a.project, a.created) IN "
-            +
-            "(SELECT a2.name, a2.project, MAX(a2.created) FROM FunctionEntity a2 WHERE a2.project = :project GROUP BY a2.name, a2.project) "
-            +
-            "ORDER BY a.created DESC")
+    @Query("SELECT a FROM FunctionEntity a, LatestVersionEntity l WHERE l.type = 'function' AND l.version = a.id "
+            + "AND l.project = :project ORDER BY a.created DESC")
     Page<FunctionEntity> findAllLatestFunctionsByProject(@Param("project") String project,
                                                          Pageable pageable);
 
@@ -52,8 +53,8 @@ public interface FunctionRepository extends JpaRepository<FunctionEntity, String
                                                        @Param("name") String name,
                                                        @Param("id") String id);
 
-    @Query("SELECT a FROM FunctionEntity a WHERE a.project = :project AND a.name = :name " +
-            "AND a.created = (SELECT MAX(a2.created) FROM FunctionEntity a2 WHERE a2.project = :project AND a2.name = :name)")
+    @Query("SELECT a FROM FunctionEntity a, LatestVersionEntity l WHERE l.type = 'function' AND l.version = a.id "
+            + "AND l.project = :project AND l.name = :name")
     Optional<FunctionEntity> findLatestFunctionByProjectAndName(@Param("project") String project,
                                                                 @Param("name") String name);
 
@@ -0,0 +1,24 @@
+package it.smartcommunitylabdhub.core.repositories;
+
+import it.smartcommunitylabdhub.core.models.entities.version.LatestVersionEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface LatestVersionRepository extends JpaRepository<LatestVersionEntity, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM LatestVersionEntity l WHERE l.type = :type AND l.project = :project AND l.name = :name")
+    Optional<LatestVersionEntity> findForUpdate(@Param("type") String type,
+                                                @Param("project") String project,
+                                                @Param("name") String name);
+
+    @Modifying
+    @Query("DELETE FROM LatestVersionEntity l WHERE l.project = :project")
+    void deleteByProject(@Param("project") String project);
+}
@@ -4,11 +4,12 @@ import it.smartcommunitylabdhub.core.models.entities.log.LogEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface LogRepository extends JpaRepository<LogEntity, String> {
+public interface LogRepository extends JpaRepository<LogEntity, String>, JpaSpecificationExecutor<LogEntity> {
 
     Page<LogEntity> findByProject(String name, Pageable pageable);
 
@@ -17,4 +18,8 @@ public interface LogRepository extends JpaRepository<LogEntity, String> {
     @Modifying
     @Query("DELETE FROM LogEntity l WHERE l.project = :project ")
     void deleteByProjectName(@Param("project") String project);
+
+    @Modifying
+    @Query("DELETE FROM LogEntity l WHERE l.run = :run ")
+    void deleteByRun(@Param("run") String run);
 }
@@ -0,0 +1,18 @@
+package it.smartcommunitylabdhub.core.repositories;
+
+import it.smartcommunitylabdhub.core.models.entities.outbox.OutboxEventEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxEventEntity, Long> {
+
+    // Oldest events, locked until the end of the transaction so that relays do not publish them twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OutboxEventEntity o ORDER BY o.id")
+    List<OutboxEventEntity> findOldest(Pageable pageable);
+}
@@ -1,11 +1,13 @@
 package it.smartcommunitylabdhub.core.repositories;
 
 import it.smartcommunitylabdhub.core.models.entities.project.ProjectEntity;
+import jakarta.persistence.LockModeType;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -22,6 +24,10 @@ public interface ProjectRepository extends JpaRepository<ProjectEntity, String>,
 
     Optional<ProjectEntity> findByName(String name);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM ProjectEntity p WHERE p.name = :name")
+    Optional<ProjectEntity> findByNameForUpdate(@Param("name") String name);
+
     @NotNull
     Page<ProjectEntity> findAll(@NotNull Pageable pageable);
 }
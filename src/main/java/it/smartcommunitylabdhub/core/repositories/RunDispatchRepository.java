@@ -0,0 +1,33 @@
+package it.smartcommunitylabdhub.core.repositories;
+
+import it.smartcommunitylabdhub.core.models.entities.dispatch.RunDispatchEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+
+public interface RunDispatchRepository extends JpaRepository<RunDispatchEntity, Long> {
+
+    @Query("SELECT d.id FROM RunDispatchEntity d WHERE d.availableAt <= :now ORDER BY d.id")
+    List<Long> findAvailableIds(@Param("now") Date now, Pageable pageable);
+
+    // Conditional on the row being still available, a single executor gets the claim
+    @Modifying
+    @Query("UPDATE RunDispatchEntity d SET d.claimedBy = :owner, d.availableAt = :until, "
+            + "d.attempts = d.attempts + 1 WHERE d.id = :id AND d.availableAt <= :now")
+    int claim(@Param("id") Long id, @Param("owner") String owner,
+              @Param("now") Date now, @Param("until") Date until);
+
+    @Modifying
+    @Query("DELETE FROM RunDispatchEntity d WHERE d.id = :id AND d.claimedBy = :owner")
+    int acknowledge(@Param("id") Long id, @Param("owner") String owner);
+
+    @Modifying
+    @Query("UPDATE RunDispatchEntity d SET d.claimedBy = null, d.availableAt = :at "
+            + "WHERE d.id = :id AND d.claimedBy = :owner")
+    int release(@Param("id") Long id, @Param("owner") String owner, @Param("at") Date at);
+}
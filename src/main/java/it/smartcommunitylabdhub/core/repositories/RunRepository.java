@@ -1,14 +1,19 @@
 package it.smartcommunitylabdhub.core.repositories;
 
+import it.smartcommunitylabdhub.core.components.fsm.enums.RunState;
 import it.smartcommunitylabdhub.core.models.entities.run.RunEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +23,19 @@ public interface RunRepository extends JpaRepository<RunEntity, String>, JpaSpec
 
     List<RunEntity> findByTask(String task);
 
+    List<RunEntity> findByStateIn(Collection<RunState> states);
+
+    @Query("SELECT r.id FROM RunEntity r WHERE r.project = :project")
+    List<String> findIdsByProject(@Param("project") String project);
+
+    // Held until the end of the transaction, serializes the writers of the journal of the run
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id FROM RunEntity r WHERE r.id = :id")
+    Optional<String> lockById(@Param("id") String id);
+
+    @Query("SELECT r.id AS id, r.project AS project FROM RunEntity r WHERE r.taskId = :taskId")
+    List<KeyView> findKeysByTaskId(@Param("taskId") String taskId);
+
     @Modifying
     @Query("DELETE FROM RunEntity r WHERE r.project = :project ")
     void deleteByProjectName(@Param("project") String project);
@@ -26,6 +44,18 @@ public interface RunRepository extends JpaRepository<RunEntity, String>, JpaSpec
     @Query("DELETE FROM RunEntity r WHERE r.taskId = :taskId ")
     void deleteByTaskId(String taskId);
 
+    @Query("SELECT r.project AS project, r.kind AS kind, r.state AS state, r.status AS status, "
+            + "r.version AS version FROM RunEntity r WHERE r.id = :id")
+    Optional<StatusView> findStatusById(@Param("id") String id);
+
+    // Conditional on the version read, zero rows when the run has been updated meanwhile
+    @Modifying
+    @Query("UPDATE RunEntity r SET r.status = :status, r.state = :state, r.updated = :updated, "
+            + "r.version = r.version + 1 WHERE r.id = :id AND r.version = :version")
+    int updateStatus(@Param("id") String id, @Param("version") Long version,
+                     @Param("status") byte[] status, @Param("state") RunState state,
+                     @Param("updated") Date updated);
+
 
     ////////////////////////////
     // CONTEXT SPECIFIC QUERY //
@@ -45,4 +75,27 @@ public interface RunRepository extends JpaRepository<RunEntity, String>, JpaSpec
     void deleteByProjectAndId(@Param("project") String project,
                               @Param("id") String id);
 
+    /**
+     * The keys of a run, recorded when it is deleted by a bulk query.
+     */
+    interface KeyView {
+        String getId();
+
+        String getProject();
+    }
+
+    /**
+     * The columns of a run needed to patch its status, without the spec, extra and metadata.
+     */
+    interface StatusView {
+        String getProject();
+
+        String getKind();
+
+        RunState getState();
+
+        byte[] getStatus();
+
+        Long getVersion();
+    }
 }
@@ -0,0 +1,7 @@
+package it.smartcommunitylabdhub.core.repositories;
+
+import it.smartcommunitylabdhub.core.models.entities.run.RunSnapshotEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface RunSnapshotRepository extends JpaRepository<RunSnapshotEntity, String> {
+}
@@ -0,0 +1,23 @@
+package it.smartcommunitylabdhub.core.repositories;
+
+import it.smartcommunitylabdhub.core.models.entities.run.RunTransitionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface RunTransitionRepository extends JpaRepository<RunTransitionEntity, String> {
+
+    Optional<RunTransitionEntity> findTopByRunOrderBySequenceDesc(String run);
+
+    List<RunTransitionEntity> findByRunAndSequenceGreaterThanOrderBySequenceAsc(String run, Long sequence);
+
+    List<RunTransitionEntity> findByRunOrderBySequenceAsc(String run);
+
+    @Modifying
+    @Query("DELETE FROM RunTransitionEntity t WHERE t.run = :run")
+    void deleteByRun(@Param("run") String run);
+}
@@ -6,15 +6,17 @@ import it.smartcommunitylabdhub.core.models.builders.artifact.ArtifactDTOBuilder
 import it.smartcommunitylabdhub.core.models.builders.artifact.ArtifactEntityBuilder;
 import it.smartcommunitylabdhub.core.models.entities.artifact.Artifact;
 import it.smartcommunitylabdhub.core.models.entities.artifact.ArtifactEntity;
+import it.smartcommunitylabdhub.core.models.entities.version.LatestVersionEntity;
 import it.smartcommunitylabdhub.core.models.enums.State;
 import it.smartcommunitylabdhub.core.models.filters.abstracts.AbstractSpecificationService;
 import it.smartcommunitylabdhub.core.models.filters.entities.ArtifactEntityFilter;
+import it.smartcommunitylabdhub.core.models.filters.pagination.KeysetPaginator;
 import it.smartcommunitylabdhub.core.repositories.ArtifactRepository;
 import it.smartcommunitylabdhub.core.services.interfaces.ArtifactService;
+import it.smartcommunitylabdhub.core.services.interfaces.LatestVersionService;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
@@ -22,7 +24,6 @@ import org.springframework.stereotype.Service;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
@@ -33,6 +34,12 @@ public class ArtifactServiceImpl extends AbstractSpecificationService<ArtifactEn
     @Autowired
     ArtifactRepository artifactRepository;
 
+    @Autowired
+    KeysetPaginator keysetPaginator;
+
+    @Autowired
+    LatestVersionService latestVersionService;
+
     @Autowired
     ArtifactEntityBuilder artifactEntityBuilder;
 
@@ -56,16 +63,10 @@ public class ArtifactServiceImpl extends AbstractSpecificationService<ArtifactEn
 
             Specification<ArtifactEntity> specification = createSpecification(filter, artifactEntityFilter);
 
-            Page<ArtifactEntity> artifactPage = this.artifactRepository.findAll(specification, pageable);
+            Page<ArtifactEntity> artifactPage = keysetPaginator.findAll(this.artifactRepository, ArtifactEntity.class,
+                    specification, filter, pageable);
 
-            return new PageImpl<>(
-                    artifactPage.getContent()
-                            .stream()
-                            .map((artifact) -> artifactDTOBuilder.build(artifact, false))
-                            .collect(Collectors.toList()),
-                    pageable,
-                    artifactPage.getContent().size()
-            );
+            return artifactPage.map((artifact) -> artifactDTOBuilder.build(artifact, false));
 
         } catch (CustomException e) {
             throw new CoreException(
@@ -84,7 +85,11 @@ public class ArtifactServiceImpl extends AbstractSpecificationService<ArtifactEn
         }
         Optional<ArtifactEntity> savedArtifact = Optional.of(artifactDTO)
                 .map(artifactEntityBuilder::build)
-                .map(this.artifactRepository::saveAndFlush);
+                .map(this.artifactRepository::saveAndFlush)
+                .map(artifact -> {
+                    latestVersionService.refresh(LatestVersionEntity.ARTIFACT, artifact.getProject(), artifact.getName());
+                    return artifact;
+                });
 
         return savedArtifact.map(artifact -> artifactDTOBuilder.build(artifact, false))
                 .orElseThrow(() -> new CoreException(
@@ -145,7 +150,10 @@ public class ArtifactServiceImpl extends AbstractSpecificationService<ArtifactEn
     public boolean deleteArtifact(String uuid) {
         try {
             if (this.artifactRepository.existsById(uuid)) {
-                this.artifactRepository.deleteById(uuid);
+                this.artifactRepository.findById(uuid).ifPresent(artifact -> {
+                    this.artifactRepository.delete(artifact);
+                    latestVersionService.refresh(LatestVersionEntity.ARTIFACT, artifact.getProject(), artifact.getName());
+                });
                 return true;
             }
             throw new CoreException(
@@ -0,0 +1,39 @@
+package it.smartcommunitylabdhub.core.services;
+
+import it.smartcommunitylabdhub.core.components.events.changes.ChangeFeed;
+import it.smartcommunitylabdhub.core.components.infrastructure.enums.EntityName;
+import it.smartcommunitylabdhub.core.exceptions.CoreException;
+import it.smartcommunitylabdhub.core.services.interfaces.ChangeService;
+import it.smartcommunitylabdhub.core.utils.ErrorList;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+@Service
+public class ChangeServiceImpl implements ChangeService {
+
+    @Autowired
+    ChangeFeed changeFeed;
+
+    @Override
+    public SseEmitter subscribe(String project, String entities, String token) {
+        Set<EntityName> names = EnumSet.noneOf(EntityName.class);
+        if (entities != null && !entities.isBlank()) {
+            for (String entity : entities.split(",")) {
+                try {
+                    names.add(EntityName.valueOf(entity.trim().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    throw new CoreException(
+                            ErrorList.INVALID_ENTITY_NAME.getValue(),
+                            ErrorList.INVALID_ENTITY_NAME.getReason() + " " + entity,
+                            HttpStatus.BAD_REQUEST);
+                }
+            }
+        }
+        return changeFeed.subscribe(project, names, token);
+    }
+}
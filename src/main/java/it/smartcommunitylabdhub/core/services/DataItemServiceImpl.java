@@ -6,15 +6,17 @@ import it.smartcommunitylabdhub.core.models.builders.dataitem.DataItemDTOBuilder
 import it.smartcommunitylabdhub.core.models.builders.dataitem.DataItemEntityBuilder;
 import it.smartcommunitylabdhub.core.models.entities.dataitem.DataItem;
 import it.smartcommunitylabdhub.core.models.entities.dataitem.DataItemEntity;
+import it.smartcommunitylabdhub.core.models.entities.version.LatestVersionEntity;
 import it.smartcommunitylabdhub.core.models.enums.State;
 import it.smartcommunitylabdhub.core.models.filters.abstracts.AbstractSpecificationService;
 import it.smartcommunitylabdhub.core.models.filters.entities.DataItemEntityFilter;
+import it.smartcommunitylabdhub.core.models.filters.pagination.KeysetPaginator;
 import it.smartcommunitylabdhub.core.repositories.DataItemRepository;
 import it.smartcommunitylabdhub.core.services.interfaces.DataItemService;
+import it.smartcommunitylabdhub.core.services.interfaces.LatestVersionService;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
@@ -22,7 +24,6 @@ import org.springframework.stereotype.Service;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
@@ -33,6 +34,12 @@ public class DataItemServiceImpl extends AbstractSpecificationService<DataItemEn
     @Autowired
     DataItemRepository dataItemRepository;
 
+    @Autowired
+    KeysetPaginator keysetPaginator;
+
+    @Autowired
+    LatestVersionService latestVersionService;
+
     @Autowired
     DataItemEntityBuilder dataItemEntityBuilder;
 
@@ -56,14 +63,11 @@ public class DataItemServiceImpl extends AbstractSpecificationService<DataItemEn
 
             Specification<DataItemEntity> specification = createSpecification(filter, dataItemEntityFilter);
 
-            Page<DataItemEntity> dataItemPage = this.dataItemRepository.findAll(specification, pageable);
+            Page<DataItemEntity> dataItemPage = keysetPaginator.findAll(this.dataItemRepository, DataItemEntity.class,
+                    specification, filter, pageable);
 
-            return new PageImpl<>(
-                    dataItemPage.getContent().stream().map((dataItem) ->
-                                    dataItemDTOBuilder.build(dataItem, false))
-                            .collect(Collectors.toList()),
-                    pageable,
-                    dataItemPage.getContent().size());
+            return dataItemPage.map((dataItem) ->
+                                    dataItemDTOBuilder.build(dataItem, false));
 
         } catch (CustomException e) {
             throw new CoreException(
@@ -82,7 +86,11 @@ public class DataItemServiceImpl extends AbstractSpecificationService<DataItemEn
         }
         Optional<DataItemEntity> savedDataItem = Optional.of(dataItemDTO)
                 .map(dataItemEntityBuilder::build)
-                .map(this.dataItemRepository::saveAndFlush);
+                .map(this.dataItemRepository::saveAndFlush)
+                .map(dataItem -> {
+                    latestVersionService.refresh(LatestVersionEntity.DATAITEM, dataItem.getProject(), dataItem.getName());
+                    return dataItem;
+                });
 
         return savedDataItem.map(dataItem -> dataItemDTOBuilder.build(dataItem, false))
                 .orElseThrow(() -> new CoreException(
@@ -143,7 +151,10 @@ public class DataItemServiceImpl extends AbstractSpecificationService<DataItemEn
     public boolean deleteDataItem(String uuid) {
         try {
             if (this.dataItemRepository.existsById(uuid)) {
-                this.dataItemRepository.deleteById(uuid);
+                this.dataItemRepository.findById(uuid).ifPresent(dataItem -> {
+                    this.dataItemRepository.delete(dataItem);
+                    latestVersionService.refresh(LatestVersionEntity.DATAITEM, dataItem.getProject(), dataItem.getName());
+                });
                 return true;
             }
             throw new CoreException(
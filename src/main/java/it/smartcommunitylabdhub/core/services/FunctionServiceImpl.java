@@ -1,5 +1,6 @@
 package it.smartcommunitylabdhub.core.services;
 
+import it.smartcommunitylabdhub.core.config.CacheConfig;
 import it.smartcommunitylabdhub.core.exceptions.CoreException;
 import it.smartcommunitylabdhub.core.exceptions.CustomException;
 import it.smartcommunitylabdhub.core.models.accessors.utils.RunUtils;
@@ -13,18 +14,23 @@ import it.smartcommunitylabdhub.core.models.entities.function.FunctionEntity;
 import it.smartcommunitylabdhub.core.models.entities.run.Run;
 import it.smartcommunitylabdhub.core.models.entities.run.RunEntity;
 import it.smartcommunitylabdhub.core.models.entities.task.Task;
+import it.smartcommunitylabdhub.core.models.entities.version.LatestVersionEntity;
 import it.smartcommunitylabdhub.core.models.enums.State;
 import it.smartcommunitylabdhub.core.models.filters.abstracts.AbstractSpecificationService;
 import it.smartcommunitylabdhub.core.models.filters.entities.FunctionEntityFilter;
+import it.smartcommunitylabdhub.core.models.filters.pagination.KeysetPaginator;
 import it.smartcommunitylabdhub.core.repositories.FunctionRepository;
 import it.smartcommunitylabdhub.core.repositories.RunRepository;
 import it.smartcommunitylabdhub.core.repositories.TaskRepository;
 import it.smartcommunitylabdhub.core.services.interfaces.FunctionService;
+import it.smartcommunitylabdhub.core.services.interfaces.LatestVersionService;
+import it.smartcommunitylabdhub.core.services.interfaces.RunService;
 import it.smartcommunitylabdhub.core.utils.ErrorList;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
@@ -44,9 +50,20 @@ public class FunctionServiceImpl extends AbstractSpecificationService<FunctionEn
     @Autowired
     FunctionRepository functionRepository;
 
+    @Autowired
+    KeysetPaginator keysetPaginator;
+
+    @Autowired
+    LatestVersionService latestVersionService;
+
     @Autowired
     RunRepository runRepository;
 
+    // The run service depends on this service
+    @Autowired
+    @Lazy
+    RunService runService;
+
     @Autowired
     TaskRepository taskRepository;
 
@@ -77,14 +94,10 @@ public class FunctionServiceImpl extends AbstractSpecificationService<FunctionEn
 
             Specification<FunctionEntity> specification = createSpecification(filter, functionEntityFilter);
 
-            Page<FunctionEntity> functionPage = this.functionRepository.findAll(specification, pageable);
+            Page<FunctionEntity> functionPage = keysetPaginator.findAll(this.functionRepository, FunctionEntity.class,
+                    specification, filter, pageable);
 
-            return new PageImpl<>(
-                    functionPage.getContent().stream()
-                            .map(function -> functionDTOBuilder.build(function, false))
-                            .collect(Collectors.toList()),
-                    pageable,
-                    functionPage.getContent().size());
+            return functionPage.map(function -> functionDTOBuilder.build(function, false));
         } catch (CustomException e) {
             throw new CoreException(
                     ErrorList.INTERNAL_SERVER_ERROR.getValue(),
@@ -118,7 +131,11 @@ public class FunctionServiceImpl extends AbstractSpecificationService<FunctionEn
         }
         Optional<FunctionEntity> savedFunction = Optional.of(functionDTO)
                 .map(functionEntityBuilder::build)
-                .map(this.functionRepository::saveAndFlush);
+                .map(this.functionRepository::saveAndFlush)
+                .map(function -> {
+                    latestVersionService.refresh(LatestVersionEntity.FUNCTION, function.getProject(), function.getName());
+                    return function;
+                });
 
         return savedFunction
                 .map(function -> functionDTOBuilder.build(function, false))
@@ -129,6 +146,7 @@ public class FunctionServiceImpl extends AbstractSpecificationService<FunctionEn
     }
 
     @Override
+    @Cacheable(CacheConfig.FUNCTIONS)
     public Function getFunction(String uuid) {
 
         final FunctionEntity function = functionRepository.findById(uuid).orElse(null);
@@ -198,7 +216,7 @@ public class FunctionServiceImpl extends AbstractSpecificationService<FunctionEn
                     taskList.forEach(task -> {
 
                         // remove run
-                        this.runRepository.deleteByTaskId(task.getId());
+                        this.runService.deleteRunByTaskId(task.getId());
 
                         // remove task
                         this.taskRepository.deleteById(task.getId());
@@ -206,7 +224,10 @@ public class FunctionServiceImpl extends AbstractSpecificationService<FunctionEn
                     });
 
                 }
-                this.functionRepository.deleteById(uuid);
+                this.functionRepository.findById(uuid).ifPresent(function -> {
+                    this.functionRepository.delete(function);
+                    latestVersionService.refresh(LatestVersionEntity.FUNCTION, function.getProject(), function.getName());
+                });
                 return true;
             }
             throw new CoreException(
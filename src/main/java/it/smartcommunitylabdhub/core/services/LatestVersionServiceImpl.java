@@ -0,0 +1,104 @@
+package it.smartcommunitylabdhub.core.services;
+
+import it.smartcommunitylabdhub.core.models.entities.version.LatestVersionEntity;
+import it.smartcommunitylabdhub.core.repositories.LatestVersionRepository;
+import it.smartcommunitylabdhub.core.repositories.ProjectRepository;
+import it.smartcommunitylabdhub.core.services.interfaces.LatestVersionService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@Transactional
+public class LatestVersionServiceImpl implements LatestVersionService {
+
+    // Entity holding the versions of each type
+    private static final Map<String, String> ENTITIES = Map.of(
+            LatestVersionEntity.FUNCTION, "FunctionEntity",
+            LatestVersionEntity.ARTIFACT, "ArtifactEntity",
+            LatestVersionEntity.DATAITEM, "DataItemEntity",
+            LatestVersionEntity.WORKFLOW, "WorkflowEntity");
+
+    @Autowired
+    LatestVersionRepository latestVersionRepository;
+
+    @Autowired
+    ProjectRepository projectRepository;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Override
+    public void refresh(String type, String project, String name) {
+        // Concurrent writers of the same entity wait for each other on the pointer row
+        Optional<LatestVersionEntity> pointer = latestVersionRepository.findForUpdate(type, project, name);
+        if (pointer.isEmpty()) {
+            // First version of the entity, there is no row to lock yet: serialize on the project
+            projectRepository.findByNameForUpdate(project);
+            pointer = latestVersionRepository.findForUpdate(type, project, name);
+        }
+
+        List<Object[]> newest = entityManager.createQuery(
+                        "SELECT a.id, a.created FROM " + entityOf(type) + " a "
+                                + "WHERE a.project = :project AND a.name = :name "
+                                + "ORDER BY a.created DESC, a.id DESC", Object[].class)
+                .setParameter("project", project)
+                .setParameter("name", name)
+                .setMaxResults(1)
+                .getResultList();
+
+        if (newest.isEmpty()) {
+            pointer.ifPresent(latestVersionRepository::delete);
+            return;
+        }
+
+        LatestVersionEntity latest = pointer.orElseGet(() -> LatestVersionEntity.builder()
+                .type(type)
+                .project(project)
+                .name(name)
+                .build());
+        latest.setVersion((String) newest.get(0)[0]);
+        latest.setCreated((Date) newest.get(0)[1]);
+        latestVersionRepository.save(latest);
+    }
+
+    @Override
+    public void deleteProject(String project) {
+        latestVersionRepository.deleteByProject(project);
+    }
+
+    @Override
+    public int backfill() {
+        int created = 0;
+        for (String type : ENTITIES.keySet()) {
+            List<Object[]> missing = entityManager.createQuery(
+                            "SELECT DISTINCT a.project, a.name FROM " + entityOf(type) + " a "
+                                    + "WHERE NOT EXISTS (SELECT l FROM LatestVersionEntity l "
+                                    + "WHERE l.type = :type AND l.project = a.project AND l.name = a.name)",
+                            Object[].class)
+                    .setParameter("type", type)
+                    .getResultList();
+
+            for (Object[] entity : missing) {
+                refresh(type, (String) entity[0], (String) entity[1]);
+                created++;
+            }
+        }
+        return created;
+    }
+
+    private String entityOf(String type) {
+        String entity = ENTITIES.get(type);
+        if (entity == null) {
+            throw new IllegalArgumentException("Unknown versioned type " + type);
+        }
+        return entity;
+    }
+}
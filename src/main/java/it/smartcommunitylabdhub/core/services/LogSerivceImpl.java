@@ -1,23 +1,36 @@
 package it.smartcommunitylabdhub.core.services;
 
+import it.smartcommunitylabdhub.core.components.logs.LogStore;
+import it.smartcommunitylabdhub.core.components.logs.LogTailBroadcaster;
 import it.smartcommunitylabdhub.core.exceptions.CoreException;
 import it.smartcommunitylabdhub.core.exceptions.CustomException;
 import it.smartcommunitylabdhub.core.models.builders.log.LogDTOBuilder;
 import it.smartcommunitylabdhub.core.models.builders.log.LogEntityBuilder;
 import it.smartcommunitylabdhub.core.models.entities.log.Log;
 import it.smartcommunitylabdhub.core.models.entities.log.LogEntity;
+import it.smartcommunitylabdhub.core.models.entities.log.metadata.LogMetadata;
+import it.smartcommunitylabdhub.core.models.entities.run.RunEntity;
+import it.smartcommunitylabdhub.core.models.filters.pagination.KeysetPaginator;
 import it.smartcommunitylabdhub.core.repositories.LogRepository;
+import it.smartcommunitylabdhub.core.repositories.RunRepository;
 import it.smartcommunitylabdhub.core.services.interfaces.LogService;
+import it.smartcommunitylabdhub.core.utils.ErrorList;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -32,17 +45,28 @@ public class LogSerivceImpl implements LogService {
     @Autowired
     LogDTOBuilder logDTOBuilder;
 
+    @Autowired
+    KeysetPaginator keysetPaginator;
+
+    @Autowired
+    LogStore logStore;
+
+    @Autowired
+    RunRepository runRepository;
+
+    @Autowired
+    LogTailBroadcaster logTailBroadcaster;
+
+    @Value("${log.store.max-read-bytes}")
+    private int maxReadBytes;
+
     @Override
-    public Page<Log> getLogs(Pageable pageable) {
+    public Page<Log> getLogs(Map<String, String> filter, Pageable pageable) {
         try {
-            Page<LogEntity> logPage = this.logRepository.findAll(pageable);
+            Page<LogEntity> logPage = keysetPaginator.findAll(this.logRepository, LogEntity.class,
+                    Specification.where(null), filter, pageable);
 
-            return new PageImpl<>(
-                    logPage.getContent().stream()
-                            .map(log -> logDTOBuilder.build(log))
-                            .collect(Collectors.toList()),
-                    pageable,
-                    logPage.getContent().size());
+            return logPage.map(log -> logDTOBuilder.build(log));
 
         } catch (CustomException e) {
             throw new CoreException(
@@ -100,21 +124,84 @@ public class LogSerivceImpl implements LogService {
     }
 
     @Override
-    public Page<Log> getLogsByRunUuid(String uuid, Pageable pageable) {
-        Page<LogEntity> logPage = logRepository.findByRun(uuid, pageable);
-        return new PageImpl<>(
-                logPage.getContent().stream()
-                        .map(log -> {
-                            try {
-                                return logDTOBuilder.build(log);
-                            } catch (CustomException e) {
-                                throw new CoreException("InternalServerError", e.getMessage(),
-                                        HttpStatus.INTERNAL_SERVER_ERROR);
-                            }
-                        }).collect(Collectors.toList()),
-                pageable,
-                logPage.getContent().size()
-        );
+    public Page<Log> getLogsByRunUuid(String uuid, Map<String, String> filter, Pageable pageable) {
+        Specification<LogEntity> specification = (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("run"), uuid);
+        Page<LogEntity> logPage = keysetPaginator.findAll(logRepository, LogEntity.class,
+                specification, filter, pageable);
+        return logPage.map(log -> {
+            try {
+                return logDTOBuilder.build(log);
+            } catch (CustomException e) {
+                throw new CoreException("InternalServerError", e.getMessage(),
+                        HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        });
+    }
+
+    @Override
+    public Log append(String runId, String chunk) {
+        return append(runId, chunk, Map.of());
+    }
+
+    @Override
+    public Log append(String runId, String chunk, Map<String, Object> status) {
+        RunEntity run = runRepository.findById(runId).orElseThrow(() -> new CoreException(
+                ErrorList.RUN_NOT_FOUND.getValue(),
+                ErrorList.RUN_NOT_FOUND.getReason(),
+                HttpStatus.NOT_FOUND));
+
+        byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+        long offset = logStore.append(runId, bytes);
+        logTailBroadcaster.appended(runId);
+
+        LogMetadata logMetadata = new LogMetadata();
+        logMetadata.setProject(run.getProject());
+        logMetadata.setRun(runId);
+        return createLog(Log.builder()
+                .body(Map.of(
+                        "offset", offset,
+                        "length", bytes.length))
+                .status(new HashMap<>(status))
+                .metadata(logMetadata)
+                .build());
     }
 
+    @Override
+    public byte[] read(String runId, long offset, int length) {
+        return logStore.read(runId, offset, Math.min(length, maxReadBytes));
+    }
+
+    @Override
+    public long size(String runId) {
+        return logStore.size(runId);
+    }
+
+    @Override
+    public SseEmitter tail(String runId, long offset) {
+        if (!runRepository.existsById(runId)) {
+            throw new CoreException(
+                    ErrorList.RUN_NOT_FOUND.getValue(),
+                    ErrorList.RUN_NOT_FOUND.getReason(),
+                    HttpStatus.NOT_FOUND);
+        }
+        return logTailBroadcaster.subscribe(runId, offset);
+    }
+
+    @Override
+    public void deleteRunLogs(String runId) {
+        logRepository.deleteByRun(runId);
+
+        // Files cannot be rolled back, drop them only once the rows are gone
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    logStore.delete(runId);
+                }
+            });
+        } else {
+            logStore.delete(runId);
+        }
+    }
 }
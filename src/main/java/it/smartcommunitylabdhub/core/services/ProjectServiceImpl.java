@@ -1,5 +1,7 @@
 package it.smartcommunitylabdhub.core.services;
 
+import it.smartcommunitylabdhub.core.components.events.changes.ChangeRecorder;
+import it.smartcommunitylabdhub.core.components.infrastructure.enums.EntityName;
 import it.smartcommunitylabdhub.core.exceptions.CoreException;
 import it.smartcommunitylabdhub.core.exceptions.CustomException;
 import it.smartcommunitylabdhub.core.models.builders.artifact.ArtifactDTOBuilder;
@@ -14,13 +16,17 @@ import it.smartcommunitylabdhub.core.models.entities.function.Function;
 import it.smartcommunitylabdhub.core.models.entities.function.FunctionEntity;
 import it.smartcommunitylabdhub.core.models.entities.project.Project;
 import it.smartcommunitylabdhub.core.models.entities.project.ProjectEntity;
+import it.smartcommunitylabdhub.core.models.entities.version.LatestVersionEntity;
 import it.smartcommunitylabdhub.core.models.entities.workflow.Workflow;
 import it.smartcommunitylabdhub.core.models.entities.workflow.WorkflowEntity;
 import it.smartcommunitylabdhub.core.models.enums.State;
 import it.smartcommunitylabdhub.core.models.filters.abstracts.AbstractSpecificationService;
 import it.smartcommunitylabdhub.core.models.filters.entities.ProjectEntityFilter;
 import it.smartcommunitylabdhub.core.repositories.*;
+import it.smartcommunitylabdhub.core.services.interfaces.LatestVersionService;
+import it.smartcommunitylabdhub.core.services.interfaces.LogService;
 import it.smartcommunitylabdhub.core.services.interfaces.ProjectService;
+import it.smartcommunitylabdhub.core.services.interfaces.RunJournalService;
 import it.smartcommunitylabdhub.core.utils.ErrorList;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,6 +50,9 @@ public class ProjectServiceImpl extends AbstractSpecificationService<ProjectEnti
     @Autowired
     ProjectRepository projectRepository;
 
+    @Autowired
+    LatestVersionService latestVersionService;
+
     @Autowired
     FunctionRepository functionRepository;
 
@@ -59,6 +68,9 @@ public class ProjectServiceImpl extends AbstractSpecificationService<ProjectEnti
     @Autowired
     LogRepository logRepository;
 
+    @Autowired
+    LogService logService;
+
     @Autowired
     RunRepository runRepository;
 
@@ -83,6 +95,12 @@ public class ProjectServiceImpl extends AbstractSpecificationService<ProjectEnti
     @Autowired
     ProjectEntityFilter projectEntityFilter;
 
+    @Autowired
+    ChangeRecorder changeRecorder;
+
+    @Autowired
+    RunJournalService runJournalService;
+
     @Override
     public Project getProject(String name) {
 
@@ -117,17 +135,50 @@ public class ProjectServiceImpl extends AbstractSpecificationService<ProjectEnti
             Specification<ProjectEntity> specification = createSpecification(filter, projectEntityFilter);
 
             Page<ProjectEntity> projectPage = this.projectRepository.findAll(specification, pageable);
+            List<ProjectEntity> projects = projectPage.getContent();
+            if (projects.isEmpty()) {
+                return new PageImpl<>(List.of(), pageable, projectPage.getTotalElements());
+            }
+
+            // Load the contents of the whole page at once, one query per type of entity
+            List<String> names = projects.stream().map(ProjectEntity::getName).toList();
+
+            if (Boolean.parseBoolean(filter.get("summary"))) {
+                Map<String, Long> functions = toCounts(functionRepository.countLatestFunctionsByProjects(names));
+                Map<String, Long> artifacts = toCounts(artifactRepository.countLatestArtifactsByProjects(names));
+                Map<String, Long> workflows = toCounts(workflowRepository.countLatestWorkflowsByProjects(names));
+                Map<String, Long> dataItems = toCounts(dataItemRepository.countLatestDataItemsByProjects(names));
+
+                return new PageImpl<>(
+                        projects.stream().map(project -> projectDTOBuilder.buildSummary(project, Map.of(
+                                "functions", functions.getOrDefault(project.getName(), 0L),
+                                "artifacts", artifacts.getOrDefault(project.getName(), 0L),
+                                "workflows", workflows.getOrDefault(project.getName(), 0L),
+                                "dataitems", dataItems.getOrDefault(project.getName(), 0L)
+                        ))).collect(Collectors.toList()), pageable, projectPage.getTotalElements());
+            }
+
+            Map<String, List<FunctionEntity>> functions = functionRepository
+                    .findAllLatestFunctionsByProjects(names).stream()
+                    .collect(Collectors.groupingBy(FunctionEntity::getProject));
+            Map<String, List<ArtifactEntity>> artifacts = artifactRepository
+                    .findAllLatestArtifactsByProjects(names).stream()
+                    .collect(Collectors.groupingBy(ArtifactEntity::getProject));
+            Map<String, List<WorkflowEntity>> workflows = workflowRepository
+                    .findAllLatestWorkflowsByProjects(names).stream()
+                    .collect(Collectors.groupingBy(WorkflowEntity::getProject));
+            Map<String, List<DataItemEntity>> dataItems = dataItemRepository
+                    .findAllLatestDataItemsByProjects(names).stream()
+                    .collect(Collectors.groupingBy(DataItemEntity::getProject));
 
             return new PageImpl<>(
-                    projectPage.getContent().stream().map((project) -> {
-                        List<FunctionEntity> functions = functionRepository.findAllLatestFunctionsByProject(project.getName());
-                        List<ArtifactEntity> artifacts = artifactRepository.findAllLatestArtifactsByProject(project.getName());
-                        List<WorkflowEntity> workflows = workflowRepository.findAllLatestWorkflowsByProject(project.getName());
-                        List<DataItemEntity> dataItems = dataItemRepository.findAllLatestDataItemsByProject(project.getName());
-
-                        return projectDTOBuilder.build(project, artifacts, functions, workflows,
-                                dataItems, true);
-                    }).collect(Collectors.toList()), pageable, projectPage.getContent().size());
+                    projects.stream().map((project) -> projectDTOBuilder.build(project,
+                            artifacts.getOrDefault(project.getName(), List.of()),
+                            functions.getOrDefault(project.getName(), List.of()),
+                            workflows.getOrDefault(project.getName(), List.of()),
+                            dataItems.getOrDefault(project.getName(), List.of()),
+                            true)
+                    ).collect(Collectors.toList()), pageable, projectPage.getTotalElements());
         } catch (CustomException e) {
             throw new CoreException(
                     ErrorList.INTERNAL_SERVER_ERROR.getValue(),
@@ -206,12 +257,24 @@ public class ProjectServiceImpl extends AbstractSpecificationService<ProjectEnti
                                 this.workflowRepository.deleteByProjectName(project.getName());
                                 this.functionRepository.deleteByProjectName(project.getName());
                                 this.dataItemRepository.deleteByProjectName(project.getName());
+                                this.latestVersionService.deleteProject(project.getName());
+                                this.runRepository.findIdsByProject(project.getName()).forEach(runId -> {
+                                    this.logService.deleteRunLogs(runId);
+                                    this.runJournalService.deleteJournal(runId);
+                                });
                                 this.logRepository.deleteByProjectName(project.getName());
                                 this.runRepository.deleteByProjectName(project.getName());
                                 this.taskRepository.deleteByProjectName(project.getName());
+
+                                // Bulk deletes do not go through the entity listeners
+                                for (EntityName entity : List.of(EntityName.ARTIFACT, EntityName.DATAITEM,
+                                        EntityName.WORKFLOW, EntityName.FUNCTION, EntityName.RUN, EntityName.TASK)) {
+                                    this.changeRecorder.deleted(entity, project.getName(), null, null);
+                                }
                             });
                         }
                         projectRepository.deleteByName(projectName);
+                        this.changeRecorder.deleted(EntityName.PROJECT, projectName, projectName, null);
                         deleted = true;
                     }
                     if (!deleted) {
@@ -320,6 +383,7 @@ public class ProjectServiceImpl extends AbstractSpecificationService<ProjectEnti
         try {
             if (this.projectRepository.existsByName(name)) {
                 this.projectRepository.deleteByName(name);
+                this.changeRecorder.deleted(EntityName.PROJECT, name, name, null);
                 return true;
             }
             return false;
@@ -331,4 +395,10 @@ public class ProjectServiceImpl extends AbstractSpecificationService<ProjectEnti
         }
     }
 
+    // Rows of (project, count) as returned by the count queries
+    private Map<String, Long> toCounts(List<Object[]> rows) {
+        return rows.stream().collect(Collectors.toMap(
+                row -> (String) row[0],
+                row -> ((Number) row[1]).longValue()));
+    }
 }
@@ -0,0 +1,128 @@
+package it.smartcommunitylabdhub.core.services;
+
+import it.smartcommunitylabdhub.core.components.callbacks.RunCallbackTokens;
+import it.smartcommunitylabdhub.core.components.fsm.StateMachine;
+import it.smartcommunitylabdhub.core.components.fsm.enums.RunEvent;
+import it.smartcommunitylabdhub.core.components.fsm.enums.RunState;
+import it.smartcommunitylabdhub.core.components.fsm.types.RunStateMachine;
+import it.smartcommunitylabdhub.core.exceptions.CoreException;
+import it.smartcommunitylabdhub.core.models.entities.run.Run;
+import it.smartcommunitylabdhub.core.models.entities.run.RunCallback;
+import it.smartcommunitylabdhub.core.services.interfaces.RunCallbackService;
+import it.smartcommunitylabdhub.core.services.interfaces.RunService;
+import it.smartcommunitylabdhub.core.utils.ErrorList;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@Slf4j
+public class RunCallbackServiceImpl implements RunCallbackService {
+
+    private static final String BEARER = "Bearer ";
+
+    // States after which the run does not move anymore, late callbacks are ignored
+    private static final Set<RunState> FINAL_STATES =
+            EnumSet.of(RunState.COMPLETED, RunState.ERROR, RunState.STOP);
+
+    @Autowired
+    RunService runService;
+
+    @Autowired
+    RunStateMachine runStateMachine;
+
+    @Autowired
+    RunCallbackTokens runCallbackTokens;
+
+    @Override
+    public Run callback(String uuid, String authorization, RunCallback callback) {
+        String token = authorization != null && authorization.startsWith(BEARER)
+                ? authorization.substring(BEARER.length()).trim()
+                : null;
+        if (!runCallbackTokens.verify(uuid, token)) {
+            throw new CoreException(
+                    ErrorList.RUN_CALLBACK_UNAUTHORIZED.getValue(),
+                    ErrorList.RUN_CALLBACK_UNAUTHORIZED.getReason(),
+                    HttpStatus.UNAUTHORIZED);
+        }
+
+        Run runDTO = runService.getRun(uuid);
+        RunState current = parseState(String.valueOf(runDTO.getStatus().get("state")));
+        Map<String, Object> changes = new HashMap<>();
+
+        if (callback.getState() != null) {
+            RunState target = parseState(callback.getState());
+            if (target == null) {
+                throw new CoreException(
+                        ErrorList.RUN_CALLBACK_INVALID.getValue(),
+                        "Unknown state " + callback.getState(),
+                        HttpStatus.BAD_REQUEST);
+            }
+
+            RunState source = current != null ? current : RunState.CREATED;
+            // Callbacks may be retried or overtaken by the poller, never move the run backwards
+            if (isBehind(target, source)) {
+                log.debug("Skip callback state " + target + " for run " + uuid + ", already " + current);
+            } else if (target != RunState.ERROR && !runStateMachine.isReachable(source, target)) {
+                // The state machine would move the run in error
+                throw new CoreException(
+                        ErrorList.RUN_CALLBACK_INVALID.getValue(),
+                        "State " + target + " cannot be reached from " + source,
+                        HttpStatus.BAD_REQUEST);
+            } else {
+                // Drive the state machine tracking the run, so that its listeners and actions run
+                StateMachine<RunState, RunEvent, Map<String, Object>> fsm = runStateMachine.find(uuid)
+                        .orElseGet(() -> runStateMachine.create(source, Map.of("runId", uuid)));
+                fsm.goToState(target);
+                changes.put("state", fsm.getCurrentState().name());
+            }
+        }
+
+        if (callback.getProgress() != null) {
+            changes.put("progress", callback.getProgress());
+        }
+        if (callback.getMessage() != null) {
+            changes.put("message", callback.getMessage());
+        }
+        if (callback.getResult() != null) {
+            changes.put("result", callback.getResult());
+        }
+
+        if (changes.isEmpty()) {
+            return runDTO;
+        }
+
+        runDTO.setStatus(runService.patchStatus(uuid, changes, status -> {
+            // The run may have been moved forward since it was read, keep its state
+            RunState stored = parseState(String.valueOf(status.get("state")));
+            RunState state = parseState((String) changes.get("state"));
+            if (stored != null && state != null && isBehind(state, stored)) {
+                changes.remove("state");
+            }
+            return !changes.isEmpty();
+        }));
+        return runDTO;
+    }
+
+    /**
+     * Check whether a run in the current state has already gone through the target state.
+     */
+    private boolean isBehind(RunState target, RunState current) {
+        return target == current || FINAL_STATES.contains(current)
+                || runStateMachine.isReachable(target, current);
+    }
+
+    private RunState parseState(String state) {
+        try {
+            return RunState.valueOf(state.toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
+}
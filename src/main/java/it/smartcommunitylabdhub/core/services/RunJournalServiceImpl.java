@@ -0,0 +1,94 @@
+package it.smartcommunitylabdhub.core.services;
+
+import it.smartcommunitylabdhub.core.components.fsm.enums.RunEvent;
+import it.smartcommunitylabdhub.core.components.fsm.enums.RunState;
+import it.smartcommunitylabdhub.core.models.entities.run.RunSnapshotEntity;
+import it.smartcommunitylabdhub.core.models.entities.run.RunTransitionEntity;
+import it.smartcommunitylabdhub.core.repositories.RunRepository;
+import it.smartcommunitylabdhub.core.repositories.RunSnapshotRepository;
+import it.smartcommunitylabdhub.core.repositories.RunTransitionRepository;
+import it.smartcommunitylabdhub.core.services.interfaces.RunJournalService;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+@Transactional
+public class RunJournalServiceImpl implements RunJournalService {
+
+    // States after which the run does not move anymore, always snapshotted
+    private static final Set<RunState> FINAL_STATES =
+            EnumSet.of(RunState.COMPLETED, RunState.ERROR, RunState.STOP);
+
+    @Autowired
+    RunTransitionRepository runTransitionRepository;
+
+    @Autowired
+    RunSnapshotRepository runSnapshotRepository;
+
+    @Autowired
+    RunRepository runRepository;
+
+    @Value("${run.journal.snapshot-interval}")
+    private int snapshotInterval;
+
+    @Override
+    public RunTransitionEntity append(String runId, RunState fromState, RunEvent event, RunState toState) {
+        // Concurrent appends to the same run, from any instance, wait for the lock of the run so
+        // that each one reads the sequence committed by the previous
+        runRepository.lockById(runId);
+        long sequence = runTransitionRepository.findTopByRunOrderBySequenceDesc(runId)
+                .map(RunTransitionEntity::getSequence)
+                .orElse(0L) + 1;
+
+        RunTransitionEntity transition = runTransitionRepository.save(
+                RunTransitionEntity.builder()
+                        .run(runId)
+                        .sequence(sequence)
+                        .fromState(fromState)
+                        .event(event)
+                        .toState(toState)
+                        .build());
+
+        if (sequence % snapshotInterval == 0 || FINAL_STATES.contains(toState)) {
+            runSnapshotRepository.save(RunSnapshotEntity.builder()
+                    .run(runId)
+                    .sequence(sequence)
+                    .state(toState)
+                    .build());
+        }
+
+        return transition;
+    }
+
+    @Override
+    public Optional<RunState> replay(String runId) {
+        Optional<RunSnapshotEntity> snapshot = runSnapshotRepository.findById(runId);
+
+        List<RunTransitionEntity> transitions = runTransitionRepository
+                .findByRunAndSequenceGreaterThanOrderBySequenceAsc(
+                        runId, snapshot.map(RunSnapshotEntity::getSequence).orElse(0L));
+
+        if (transitions.isEmpty()) {
+            return snapshot.map(RunSnapshotEntity::getState);
+        }
+        return Optional.of(transitions.get(transitions.size() - 1).getToState());
+    }
+
+    @Override
+    public List<RunTransitionEntity> getTransitions(String runId) {
+        return runTransitionRepository.findByRunOrderBySequenceAsc(runId);
+    }
+
+    @Override
+    public void deleteJournal(String runId) {
+        runTransitionRepository.deleteByRun(runId);
+        runSnapshotRepository.findById(runId).ifPresent(runSnapshotRepository::delete);
+    }
+}
@@ -1,5 +1,9 @@
 package it.smartcommunitylabdhub.core.services;
 
+import it.smartcommunitylabdhub.core.components.dispatch.RunDispatcher;
+import it.smartcommunitylabdhub.core.components.events.changes.ChangeEvent;
+import it.smartcommunitylabdhub.core.components.events.changes.ChangeRecorder;
+import it.smartcommunitylabdhub.core.components.events.changes.ChangeType;
 import it.smartcommunitylabdhub.core.components.fsm.enums.RunState;
 import it.smartcommunitylabdhub.core.components.infrastructure.enums.EntityName;
 import it.smartcommunitylabdhub.core.components.infrastructure.factories.runnables.Runnable;
@@ -8,6 +12,7 @@ import it.smartcommunitylabdhub.core.components.infrastructure.factories.runtime
 import it.smartcommunitylabdhub.core.components.infrastructure.factories.specs.SpecRegistry;
 import it.smartcommunitylabdhub.core.components.kinds.factory.builders.KindBuilderFactory;
 import it.smartcommunitylabdhub.core.components.kinds.factory.publishers.KindPublisherFactory;
+import it.smartcommunitylabdhub.core.components.runs.RunMailboxes;
 import it.smartcommunitylabdhub.core.exceptions.CoreException;
 import it.smartcommunitylabdhub.core.exceptions.CustomException;
 import it.smartcommunitylabdhub.core.models.accessors.utils.TaskAccessor;
@@ -15,6 +20,7 @@ import it.smartcommunitylabdhub.core.models.accessors.utils.TaskUtils;
 import it.smartcommunitylabdhub.core.models.base.interfaces.Spec;
 import it.smartcommunitylabdhub.core.models.builders.run.RunDTOBuilder;
 import it.smartcommunitylabdhub.core.models.builders.run.RunEntityBuilder;
+import it.smartcommunitylabdhub.core.models.converters.ConversionUtils;
 import it.smartcommunitylabdhub.core.models.entities.function.specs.FunctionBaseSpec;
 import it.smartcommunitylabdhub.core.models.entities.run.Run;
 import it.smartcommunitylabdhub.core.models.entities.run.RunEntity;
@@ -22,25 +28,30 @@ import it.smartcommunitylabdhub.core.models.entities.run.specs.RunBaseSpec;
 import it.smartcommunitylabdhub.core.models.entities.task.specs.TaskBaseSpec;
 import it.smartcommunitylabdhub.core.models.filters.abstracts.AbstractSpecificationService;
 import it.smartcommunitylabdhub.core.models.filters.entities.RunEntityFilter;
+import it.smartcommunitylabdhub.core.models.filters.pagination.KeysetPaginator;
 import it.smartcommunitylabdhub.core.repositories.RunRepository;
 import it.smartcommunitylabdhub.core.services.interfaces.FunctionService;
+import it.smartcommunitylabdhub.core.services.interfaces.LogService;
+import it.smartcommunitylabdhub.core.services.interfaces.RunJournalService;
 import it.smartcommunitylabdhub.core.services.interfaces.RunService;
 import it.smartcommunitylabdhub.core.services.interfaces.TaskService;
 import it.smartcommunitylabdhub.core.utils.ErrorList;
+import it.smartcommunitylabdhub.core.utils.MapUtils;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
+import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 
 @Service
@@ -48,12 +59,18 @@ import java.util.stream.Stream;
 public class RunSerivceImpl extends AbstractSpecificationService<RunEntity, RunEntityFilter>
         implements RunService {
 
+    // Patches read again the status after a concurrent update, up to this number of times
+    private static final int STATUS_PATCH_ATTEMPTS = 5;
+
     @Autowired
     RunDTOBuilder runDTOBuilder;
 
     @Autowired
     RunRepository runRepository;
 
+    @Autowired
+    KeysetPaginator keysetPaginator;
+
     @Autowired
     TaskService taskService;
 
@@ -76,11 +93,23 @@ public class RunSerivceImpl extends AbstractSpecificationService<RunEntity, RunE
     RunEntityBuilder runEntityBuilder;
 
     @Autowired
-    ApplicationEventPublisher eventPublisher;
+    RunDispatcher runDispatcher;
+
+    @Autowired
+    RunMailboxes runMailboxes;
+
+    @Autowired
+    ChangeRecorder changeRecorder;
 
     @Autowired
     SpecRegistry<? extends Spec> specRegistry;
 
+    @Autowired
+    RunJournalService runJournalService;
+
+    @Autowired
+    LogService logService;
+
     @Override
     public Page<Run> getRuns(Map<String, String> filter, Pageable pageable) {
         try {
@@ -95,13 +124,10 @@ public class RunSerivceImpl extends AbstractSpecificationService<RunEntity, RunE
 
             Specification<RunEntity> specification = createSpecification(filter, runEntityFilter);
 
-            Page<RunEntity> runPage = this.runRepository.findAll(specification, pageable);
+            Page<RunEntity> runPage = keysetPaginator.findAll(this.runRepository, RunEntity.class,
+                    specification, filter, pageable);
 
-            return new PageImpl<>(
-                    runPage.getContent().stream().map(run -> runDTOBuilder.build(run))
-                            .collect(Collectors.toList()),
-                    pageable,
-                    runPage.getContent().size());
+            return runPage.map(run -> runDTOBuilder.build(run));
 
         } catch (CustomException e) {
             throw new CoreException(ErrorList.INTERNAL_SERVER_ERROR.getValue(),
@@ -123,6 +149,8 @@ public class RunSerivceImpl extends AbstractSpecificationService<RunEntity, RunE
     public boolean deleteRun(String uuid, Boolean cascade) {
         try {
             this.runRepository.deleteById(uuid);
+            this.runJournalService.deleteJournal(uuid);
+            this.logService.deleteRunLogs(uuid);
             return true;
         } catch (Exception e) {
             throw new CoreException(ErrorList.INTERNAL_SERVER_ERROR.getValue(),
@@ -134,6 +162,12 @@ public class RunSerivceImpl extends AbstractSpecificationService<RunEntity, RunE
     @Override
     public boolean deleteRunByTaskId(String uuid) {
         try {
+            // The bulk delete does not go through the entity listeners
+            this.runRepository.findKeysByTaskId(uuid).forEach(run -> {
+                this.logService.deleteRunLogs(run.getId());
+                this.runJournalService.deleteJournal(run.getId());
+                this.changeRecorder.deleted(EntityName.RUN, run.getProject(), null, run.getId());
+            });
             this.runRepository.deleteByTaskId(uuid);
             return true;
         } catch (Exception e) {
@@ -146,7 +180,12 @@ public class RunSerivceImpl extends AbstractSpecificationService<RunEntity, RunE
     @Override
     public Run save(Run runDTO) {
 
-        return Optional.of(this.runRepository.saveAndFlush(runEntityBuilder.build(runDTO)))
+        // The built run replaces the stored one, it takes its version
+        RunEntity runEntity = runEntityBuilder.build(runDTO);
+        runRepository.findStatusById(runEntity.getId())
+                .ifPresent(current -> runEntity.setVersion(current.getVersion()));
+
+        return Optional.of(this.runRepository.saveAndFlush(runEntity))
                 .map(run -> runDTOBuilder.build(run))
                 .orElseThrow(() -> new CoreException(
                         "RunSaveError",
@@ -154,7 +193,10 @@ public class RunSerivceImpl extends AbstractSpecificationService<RunEntity, RunE
                         HttpStatus.NOT_FOUND));
     }
 
+    // Not transactional: the mailbox writes in its own transaction, the caller would hold a
+    // connection while waiting for it
     @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public Run updateRun(Run runDTO, String uuid) {
 
         if (!runDTO.getId().equals(uuid)) {
@@ -164,18 +206,9 @@ public class RunSerivceImpl extends AbstractSpecificationService<RunEntity, RunE
                     HttpStatus.NOT_FOUND);
         }
 
-        final RunEntity run = runRepository.findById(uuid).orElse(null);
-        if (run == null) {
-            throw new CoreException(
-                    ErrorList.RUN_NOT_FOUND.getValue(),
-                    ErrorList.RUN_NOT_FOUND.getReason(),
-                    HttpStatus.NOT_FOUND);
-        }
-
         try {
-            final RunEntity runUpdated = runEntityBuilder.update(run, runDTO);
-            this.runRepository.saveAndFlush(runUpdated);
-            return runDTOBuilder.build(runUpdated);
+            // The run sent replaces the current one, in order with the other updates
+            return runMailboxes.update(uuid, current -> runDTO);
         } catch (CustomException e) {
             throw new CoreException(
                     ErrorList.INTERNAL_SERVER_ERROR.getValue(),
@@ -184,6 +217,87 @@ public class RunSerivceImpl extends AbstractSpecificationService<RunEntity, RunE
         }
     }
 
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public Run updateRun(String uuid, UnaryOperator<Run> update) {
+        return runMailboxes.update(uuid, update);
+    }
+
+    @Override
+    public Map<String, Object> patchStatus(String uuid, Map<String, Object> patch) {
+        return patchStatus(uuid, patch, status -> true);
+    }
+
+    @Override
+    public Map<String, Object> patchStatus(String uuid, Map<String, Object> patch,
+                                           Predicate<Map<String, Object>> condition) {
+        // A run always has a state, the state column would keep the one removed from the status
+        if (patch.containsKey("state") && patch.get("state") == null) {
+            throw new CoreException(
+                    ErrorList.RUN_STATUS_INVALID.getValue(),
+                    "The state of a run cannot be removed",
+                    HttpStatus.BAD_REQUEST);
+        }
+
+        // Only the status is read and written, a conflicting update makes the patch read it again
+        for (int attempt = 0; attempt < STATUS_PATCH_ATTEMPTS; attempt++) {
+            RunRepository.StatusView current = runRepository.findStatusById(uuid).orElseThrow(
+                    () -> new CoreException(
+                            ErrorList.RUN_NOT_FOUND.getValue(),
+                            ErrorList.RUN_NOT_FOUND.getReason(),
+                            HttpStatus.NOT_FOUND));
+
+            Map<String, Object> status = current.getStatus() != null
+                    ? new HashMap<>(ConversionUtils.<byte[], Map<String, Object>>reverse(current.getStatus(), "cbor"))
+                    : new HashMap<>();
+            // The state column is the reference, as in the run DTO
+            if (current.getState() != null) {
+                status.put("state", current.getState().name());
+            }
+            if (!condition.test(status)) {
+                return status;
+            }
+
+            Map<String, Object> patched = MapUtils.mergePatch(status, patch);
+            RunState state = current.getState();
+            if (patched.get("state") != null) {
+                state = parseState(patched.get("state").toString());
+                patched.put("state", state.name());
+            }
+
+            if (runRepository.updateStatus(uuid, current.getVersion(),
+                    ConversionUtils.convert(patched, "cbor+deflate"), state, new Date()) == 1) {
+                // Bulk updates do not go through the entity listeners
+                changeRecorder.record(ChangeEvent.builder()
+                        .type(ChangeType.UPDATED)
+                        .entity(EntityName.RUN)
+                        .id(uuid)
+                        .project(current.getProject())
+                        .kind(current.getKind())
+                        .state(state != null ? state.name() : null)
+                        .timestamp(new Date())
+                        .build());
+                return patched;
+            }
+        }
+
+        throw new CoreException(
+                ErrorList.RUN_STATUS_CONFLICT.getValue(),
+                ErrorList.RUN_STATUS_CONFLICT.getReason(),
+                HttpStatus.CONFLICT);
+    }
+
+    private RunState parseState(String state) {
+        try {
+            return RunState.valueOf(state.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new CoreException(
+                    ErrorList.RUN_STATUS_INVALID.getValue(),
+                    "Unknown state " + state,
+                    HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @Override
     public <F extends FunctionBaseSpec<F>> Run createRun(Run runDTO) {
 
@@ -271,7 +385,7 @@ public class RunSerivceImpl extends AbstractSpecificationService<RunEntity, RunE
                                             );
 
                                             // Dispatch Runnable
-                                            eventPublisher.publishEvent(runnable);
+                                            runDispatcher.dispatch(runnable);
 
                                             // Return saved run
                                             return runDTOBuilder.build(run);
@@ -2,6 +2,7 @@ package it.smartcommunitylabdhub.core.services;
 
 import it.smartcommunitylabdhub.core.components.infrastructure.enums.EntityName;
 import it.smartcommunitylabdhub.core.components.infrastructure.factories.specs.SpecRegistry;
+import it.smartcommunitylabdhub.core.config.CacheConfig;
 import it.smartcommunitylabdhub.core.exceptions.CoreException;
 import it.smartcommunitylabdhub.core.exceptions.CustomException;
 import it.smartcommunitylabdhub.core.models.accessors.utils.TaskAccessor;
@@ -15,14 +16,16 @@ import it.smartcommunitylabdhub.core.models.entities.task.specs.TaskBaseSpec;
 import it.smartcommunitylabdhub.core.models.enums.State;
 import it.smartcommunitylabdhub.core.models.filters.abstracts.AbstractSpecificationService;
 import it.smartcommunitylabdhub.core.models.filters.entities.TaskEntityFilter;
-import it.smartcommunitylabdhub.core.repositories.RunRepository;
+import it.smartcommunitylabdhub.core.models.filters.pagination.KeysetPaginator;
 import it.smartcommunitylabdhub.core.repositories.TaskRepository;
+import it.smartcommunitylabdhub.core.services.interfaces.RunService;
 import it.smartcommunitylabdhub.core.services.interfaces.TaskService;
 import it.smartcommunitylabdhub.core.utils.ErrorList;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
@@ -31,7 +34,6 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
@@ -43,7 +45,12 @@ public class TaskServiceImpl extends AbstractSpecificationService<TaskEntity, Ta
     TaskRepository taskRepository;
 
     @Autowired
-    RunRepository runRepository;
+    KeysetPaginator keysetPaginator;
+
+    // The run service depends on this service
+    @Autowired
+    @Lazy
+    RunService runService;
 
     @Autowired
     TaskDTOBuilder taskDTOBuilder;
@@ -70,15 +77,10 @@ public class TaskServiceImpl extends AbstractSpecificationService<TaskEntity, Ta
 
             Specification<TaskEntity> specification = createSpecification(filter, taskEntityFilter);
 
-            Page<TaskEntity> taskPage = this.taskRepository.findAll(specification, pageable);
+            Page<TaskEntity> taskPage = keysetPaginator.findAll(this.taskRepository, TaskEntity.class,
+                    specification, filter, pageable);
 
-            return new PageImpl<>(
-                    taskPage.getContent()
-                            .stream()
-                            .map(task -> taskDTOBuilder.build(task))
-                            .collect(Collectors.toList()),
-                    pageable,
-                    taskPage.getContent().size());
+            return taskPage.map(task -> taskDTOBuilder.build(task));
 
         } catch (CustomException e) {
             throw new CoreException("InternalServerError", e.getMessage(),
@@ -87,6 +89,7 @@ public class TaskServiceImpl extends AbstractSpecificationService<TaskEntity, Ta
     }
 
     @Override
+    @Cacheable(CacheConfig.TASKS)
     public Task getTask(String uuid) {
         return taskRepository.findById(uuid).map(task -> taskDTOBuilder.build(task))
                 .orElseThrow(() -> new CoreException("TaskNotFound",
@@ -105,7 +108,7 @@ public class TaskServiceImpl extends AbstractSpecificationService<TaskEntity, Ta
         try {
             if (this.taskRepository.existsById(uuid)) {
                 if (cascade) {
-                    this.runRepository.deleteByTaskId(uuid);
+                    this.runService.deleteRunByTaskId(uuid);
                 }
                 this.taskRepository.deleteById(uuid);
                 return true;
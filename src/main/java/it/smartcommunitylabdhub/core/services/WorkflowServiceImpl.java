@@ -10,19 +10,21 @@ import it.smartcommunitylabdhub.core.models.builders.workflow.WorkflowEntityBuil
 import it.smartcommunitylabdhub.core.models.converters.ConversionUtils;
 import it.smartcommunitylabdhub.core.models.entities.run.Run;
 import it.smartcommunitylabdhub.core.models.entities.run.RunEntity;
+import it.smartcommunitylabdhub.core.models.entities.version.LatestVersionEntity;
 import it.smartcommunitylabdhub.core.models.entities.workflow.Workflow;
 import it.smartcommunitylabdhub.core.models.entities.workflow.WorkflowEntity;
 import it.smartcommunitylabdhub.core.models.enums.State;
 import it.smartcommunitylabdhub.core.models.filters.abstracts.AbstractSpecificationService;
 import it.smartcommunitylabdhub.core.models.filters.entities.WorkflowEntityFilter;
+import it.smartcommunitylabdhub.core.models.filters.pagination.KeysetPaginator;
 import it.smartcommunitylabdhub.core.repositories.RunRepository;
 import it.smartcommunitylabdhub.core.repositories.TaskRepository;
 import it.smartcommunitylabdhub.core.repositories.WorkflowRepository;
+import it.smartcommunitylabdhub.core.services.interfaces.LatestVersionService;
 import it.smartcommunitylabdhub.core.services.interfaces.WorkflowService;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
@@ -42,6 +44,12 @@ public class WorkflowServiceImpl extends AbstractSpecificationService<WorkflowEn
     @Autowired
     WorkflowRepository workflowRepository;
 
+    @Autowired
+    KeysetPaginator keysetPaginator;
+
+    @Autowired
+    LatestVersionService latestVersionService;
+
     @Autowired
     RunRepository runRepository;
 
@@ -75,15 +83,10 @@ public class WorkflowServiceImpl extends AbstractSpecificationService<WorkflowEn
 
             Specification<WorkflowEntity> specification = createSpecification(filter, workflowEntityFilter);
 
-            Page<WorkflowEntity> workflowPage = this.workflowRepository.findAll(specification, pageable);
+            Page<WorkflowEntity> workflowPage = keysetPaginator.findAll(this.workflowRepository, WorkflowEntity.class,
+                    specification, filter, pageable);
 
-            return new PageImpl<>(
-                    workflowPage.getContent()
-                            .stream()
-                            .map((workflow) -> workflowDTOBuilder.build(workflow, false))
-                            .collect(Collectors.toList()),
-                    pageable,
-                    workflowPage.getContent().size());
+            return workflowPage.map((workflow) -> workflowDTOBuilder.build(workflow, false));
         } catch (CustomException e) {
             throw new CoreException(
                     "InternalServerError",
@@ -101,7 +104,11 @@ public class WorkflowServiceImpl extends AbstractSpecificationService<WorkflowEn
         }
         Optional<WorkflowEntity> savedWorkflow = Optional.of(workflowDTO)
                 .map(workflowEntityBuilder::build)
-                .map(this.workflowRepository::saveAndFlush);
+                .map(this.workflowRepository::saveAndFlush)
+                .map(workflow -> {
+                    latestVersionService.refresh(LatestVersionEntity.WORKFLOW, workflow.getProject(), workflow.getName());
+                    return workflow;
+                });
 
         return savedWorkflow.map(workflow -> workflowDTOBuilder.build(workflow, false))
                 .orElseThrow(() -> new CoreException(
@@ -162,7 +169,10 @@ public class WorkflowServiceImpl extends AbstractSpecificationService<WorkflowEn
     public boolean deleteWorkflow(String uuid) {
         try {
             if (this.workflowRepository.existsById(uuid)) {
-                this.workflowRepository.deleteById(uuid);
+                this.workflowRepository.findById(uuid).ifPresent(workflow -> {
+                    this.workflowRepository.delete(workflow);
+                    latestVersionService.refresh(LatestVersionEntity.WORKFLOW, workflow.getProject(), workflow.getName());
+                });
                 return true;
             }
             throw new CoreException(
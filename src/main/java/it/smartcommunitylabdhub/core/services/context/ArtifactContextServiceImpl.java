@@ -1,19 +1,22 @@
 package it.smartcommunitylabdhub.core.services.context;
 
+import it.smartcommunitylabdhub.core.components.infrastructure.enums.EntityName;
 import it.smartcommunitylabdhub.core.exceptions.CoreException;
 import it.smartcommunitylabdhub.core.exceptions.CustomException;
 import it.smartcommunitylabdhub.core.models.builders.artifact.ArtifactDTOBuilder;
 import it.smartcommunitylabdhub.core.models.builders.artifact.ArtifactEntityBuilder;
 import it.smartcommunitylabdhub.core.models.entities.artifact.Artifact;
 import it.smartcommunitylabdhub.core.models.entities.artifact.ArtifactEntity;
+import it.smartcommunitylabdhub.core.models.entities.version.LatestVersionEntity;
 import it.smartcommunitylabdhub.core.models.enums.State;
 import it.smartcommunitylabdhub.core.models.filters.entities.ArtifactEntityFilter;
+import it.smartcommunitylabdhub.core.models.filters.pagination.KeysetPaginator;
 import it.smartcommunitylabdhub.core.repositories.ArtifactRepository;
 import it.smartcommunitylabdhub.core.services.context.interfaces.ArtifactContextService;
+import it.smartcommunitylabdhub.core.services.interfaces.LatestVersionService;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
@@ -21,7 +24,6 @@ import org.springframework.stereotype.Service;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
@@ -31,6 +33,12 @@ public class ArtifactContextServiceImpl extends ContextService<ArtifactEntity, A
     @Autowired
     ArtifactRepository artifactRepository;
 
+    @Autowired
+    KeysetPaginator keysetPaginator;
+
+    @Autowired
+    LatestVersionService latestVersionService;
+
     @Autowired
     ArtifactEntityBuilder artifactEntityBuilder;
 
@@ -68,6 +76,9 @@ public class ArtifactContextServiceImpl extends ContextService<ArtifactEntity, A
                         return artifactRepository.saveAndFlush(newArtifact);
                     });
 
+            // Point the latest version to the new one if it is the most recent
+            latestVersionService.refresh(LatestVersionEntity.ARTIFACT, artifact.getProject(), artifact.getName());
+
             // Return artifact DTO
             return artifactDTOBuilder.build(artifact, false);
 
@@ -95,17 +106,11 @@ public class ArtifactContextServiceImpl extends ContextService<ArtifactEntity, A
 
             Specification<ArtifactEntity> specification = createSpecification(filter, artifactEntityFilter);
 
-            Page<ArtifactEntity> artifactPage = artifactRepository.findAll(
+            Page<ArtifactEntity> artifactPage = keysetPaginator.findAll(artifactRepository, ArtifactEntity.class,
                     Specification.where(specification).and((root, query, criteriaBuilder) ->
-                            criteriaBuilder.equal(root.get("project"), projectName)), pageable);
-
-            return new PageImpl<>(
-                    artifactPage.getContent()
-                            .stream()
-                            .map((artifact) -> artifactDTOBuilder.build(artifact, false))
-                            .collect(Collectors.toList()),
-                    pageable, artifactPage.getContent().size()
-            );
+                            criteriaBuilder.equal(root.get("project"), projectName)), filter, pageable);
+
+            return artifactPage.map((artifact) -> artifactDTOBuilder.build(artifact, false));
         } catch (CustomException e) {
             throw new CoreException(
                     "InternalServerError",
@@ -132,23 +137,18 @@ public class ArtifactContextServiceImpl extends ContextService<ArtifactEntity, A
 
             Specification<ArtifactEntity> specification = createSpecification(filter, artifactEntityFilter);
 
-            Page<ArtifactEntity> artifactPage = artifactRepository.findAll(
+            Page<ArtifactEntity> artifactPage = keysetPaginator.findAll(artifactRepository, ArtifactEntity.class,
                     Specification.where(specification)
                             .and((root, query, criteriaBuilder) ->
                                     criteriaBuilder.and(
                                             criteriaBuilder.equal(root.get("project"), projectName),
                                             criteriaBuilder.equal(root.get("name"), artifactName))),
-                    pageable);
+                    filter, pageable);
 
 
-            return new PageImpl<>(
-                    artifactPage.getContent()
-                            .stream()
-                            .map((artifact) -> {
+            return artifactPage.map((artifact) -> {
                                 return artifactDTOBuilder.build(artifact, false);
-                            }).collect(Collectors.toList()),
-                    pageable, artifactPage.getContent().size()
-            );
+                            });
         } catch (CustomException e) {
             throw new CoreException(
                     "InternalServerError",
@@ -246,6 +246,9 @@ public class ArtifactContextServiceImpl extends ContextService<ArtifactEntity, A
                         return artifactRepository.saveAndFlush(newArtifact);
                     });
 
+            // Point the latest version to the new one if it is the most recent
+            latestVersionService.refresh(LatestVersionEntity.ARTIFACT, artifact.getProject(), artifact.getName());
+
             // Return artifact DTO
             return artifactDTOBuilder.build(artifact, false);
 
@@ -304,6 +307,8 @@ public class ArtifactContextServiceImpl extends ContextService<ArtifactEntity, A
                     uuid)) {
                 this.artifactRepository.deleteByProjectAndNameAndId(projectName, artifactName,
                         uuid);
+                changeRecorder.deleted(EntityName.ARTIFACT, projectName, artifactName, uuid);
+                latestVersionService.refresh(LatestVersionEntity.ARTIFACT, projectName, artifactName);
                 return true;
             }
             throw new CoreException(
@@ -324,6 +329,8 @@ public class ArtifactContextServiceImpl extends ContextService<ArtifactEntity, A
         try {
             if (artifactRepository.existsByProjectAndName(projectName, artifactName)) {
                 this.artifactRepository.deleteByProjectAndName(projectName, artifactName);
+                changeRecorder.deleted(EntityName.ARTIFACT, projectName, artifactName, null);
+                latestVersionService.refresh(LatestVersionEntity.ARTIFACT, projectName, artifactName);
                 return true;
             }
             throw new CoreException(
@@ -1,11 +1,15 @@
 package it.smartcommunitylabdhub.core.services.context;
 
+import it.smartcommunitylabdhub.core.components.events.changes.ChangeRecorder;
+import it.smartcommunitylabdhub.core.config.CacheConfig;
 import it.smartcommunitylabdhub.core.exceptions.CustomException;
 import it.smartcommunitylabdhub.core.models.entities.project.ProjectEntity;
 import it.smartcommunitylabdhub.core.models.filters.abstracts.AbstractSpecificationService;
 import it.smartcommunitylabdhub.core.models.filters.interfaces.SpecificationFilter;
 import it.smartcommunitylabdhub.core.repositories.ProjectRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -14,12 +18,30 @@ public class ContextService<T, F extends SpecificationFilter<T>> extends Abstrac
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    ChangeRecorder changeRecorder;
+
+    /**
+     * Return the project of the context, read from the project cache. The returned entity is
+     * shared between the requests and must not be modified.
+     */
     public ProjectEntity checkContext(String projectName) throws CustomException {
 
-        return this.projectRepository.findByName(projectName)
+        Cache projects = cacheManager.getCache(CacheConfig.PROJECTS);
+        ProjectEntity project = projects.get(projectName, ProjectEntity.class);
+        if (project != null) {
+            return project;
+        }
+
+        // Missing projects are not cached, they may be created at any time
+        project = this.projectRepository.findByName(projectName)
                 .orElseThrow(() -> new CustomException(
                         "(Context) Project " + "[" + projectName + "] not found", null));
-
+        projects.put(projectName, project);
+        return project;
     }
 
 }
@@ -1,19 +1,22 @@
 package it.smartcommunitylabdhub.core.services.context;
 
+import it.smartcommunitylabdhub.core.components.infrastructure.enums.EntityName;
 import it.smartcommunitylabdhub.core.exceptions.CoreException;
 import it.smartcommunitylabdhub.core.exceptions.CustomException;
 import it.smartcommunitylabdhub.core.models.builders.dataitem.DataItemDTOBuilder;
 import it.smartcommunitylabdhub.core.models.builders.dataitem.DataItemEntityBuilder;
 import it.smartcommunitylabdhub.core.models.entities.dataitem.DataItem;
 import it.smartcommunitylabdhub.core.models.entities.dataitem.DataItemEntity;
+import it.smartcommunitylabdhub.core.models.entities.version.LatestVersionEntity;
 import it.smartcommunitylabdhub.core.models.enums.State;
 import it.smartcommunitylabdhub.core.models.filters.entities.DataItemEntityFilter;
+import it.smartcommunitylabdhub.core.models.filters.pagination.KeysetPaginator;
 import it.smartcommunitylabdhub.core.repositories.DataItemRepository;
 import it.smartcommunitylabdhub.core.services.context.interfaces.DataItemContextService;
+import it.smartcommunitylabdhub.core.services.interfaces.LatestVersionService;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
@@ -21,7 +24,6 @@ import org.springframework.stereotype.Service;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
@@ -31,6 +33,12 @@ public class DataItemContextServiceImpl extends ContextService<DataItemEntity, D
     @Autowired
     DataItemRepository dataItemRepository;
 
+    @Autowired
+    KeysetPaginator keysetPaginator;
+
+    @Autowired
+    LatestVersionService latestVersionService;
+
     @Autowired
     DataItemDTOBuilder dataItemDTOBuilder;
 
@@ -68,6 +76,9 @@ public class DataItemContextServiceImpl extends ContextService<DataItemEntity, D
                         return dataItemRepository.saveAndFlush(newDataItem);
                     });
 
+            // Point the latest version to the new one if it is the most recent
+            latestVersionService.refresh(LatestVersionEntity.DATAITEM, dataItem.getProject(), dataItem.getName());
+
             // Return dataItem DTO
             return dataItemDTOBuilder.build(dataItem, false);
 
@@ -96,18 +107,13 @@ public class DataItemContextServiceImpl extends ContextService<DataItemEntity, D
 
             Specification<DataItemEntity> specification = createSpecification(filter, dataItemEntityFilter);
 
-            Page<DataItemEntity> dataItemPage = dataItemRepository.findAll(
+            Page<DataItemEntity> dataItemPage = keysetPaginator.findAll(dataItemRepository, DataItemEntity.class,
                     Specification.where(specification).and((root, query, criteriaBuilder) ->
-                            criteriaBuilder.equal(root.get("project"), projectName)), pageable);
+                            criteriaBuilder.equal(root.get("project"), projectName)), filter, pageable);
 
-            return new PageImpl<>(
-                    dataItemPage.getContent()
-                            .stream()
-                            .map((dataItem) -> {
+            return dataItemPage.map((dataItem) -> {
                                 return dataItemDTOBuilder.build(dataItem, false);
-                            }).collect(Collectors.toList()),
-                    pageable, dataItemPage.getContent().size()
-            );
+                            });
         } catch (CustomException e) {
             throw new CoreException(
                     "InternalServerError",
@@ -133,24 +139,18 @@ public class DataItemContextServiceImpl extends ContextService<DataItemEntity, D
 
             Specification<DataItemEntity> specification = createSpecification(filter, dataItemEntityFilter);
 
-            Page<DataItemEntity> dataItemPage = dataItemRepository.findAll(
+            Page<DataItemEntity> dataItemPage = keysetPaginator.findAll(dataItemRepository, DataItemEntity.class,
                     Specification.where(specification)
                             .and((root, query, criteriaBuilder) ->
                                     criteriaBuilder.and(
                                             criteriaBuilder.equal(root.get("project"), projectName),
                                             criteriaBuilder.equal(root.get("name"), dataItemName))),
-                    pageable);
+                    filter, pageable);
 
 
-            return new PageImpl<>(
-                    dataItemPage.getContent()
-                            .stream()
-                            .map((dataItem) -> {
+            return dataItemPage.map((dataItem) -> {
                                 return dataItemDTOBuilder.build(dataItem, false);
-                            }).collect(Collectors.toList()),
-                    pageable,
-                    dataItemPage.getContent().size()
-            );
+                            });
         } catch (CustomException e) {
             throw new CoreException(
                     "InternalServerError",
@@ -247,6 +247,9 @@ public class DataItemContextServiceImpl extends ContextService<DataItemEntity, D
                         return dataItemRepository.saveAndFlush(newDataItem);
                     });
 
+            // Point the latest version to the new one if it is the most recent
+            latestVersionService.refresh(LatestVersionEntity.DATAITEM, dataItem.getProject(), dataItem.getName());
+
             // Return dataItem DTO
             return dataItemDTOBuilder.build(dataItem, false);
 
@@ -305,6 +308,8 @@ public class DataItemContextServiceImpl extends ContextService<DataItemEntity, D
                     uuid)) {
                 this.dataItemRepository.deleteByProjectAndNameAndId(projectName, dataItemName,
                         uuid);
+                changeRecorder.deleted(EntityName.DATAITEM, projectName, dataItemName, uuid);
+                latestVersionService.refresh(LatestVersionEntity.DATAITEM, projectName, dataItemName);
                 return true;
             }
             throw new CoreException(
@@ -325,6 +330,8 @@ public class DataItemContextServiceImpl extends ContextService<DataItemEntity, D
         try {
             if (dataItemRepository.existsByProjectAndName(projectName, dataItemName)) {
                 this.dataItemRepository.deleteByProjectAndName(projectName, dataItemName);
+                changeRecorder.deleted(EntityName.DATAITEM, projectName, dataItemName, null);
+                latestVersionService.refresh(LatestVersionEntity.DATAITEM, projectName, dataItemName);
                 return true;
             }
             throw new CoreException(
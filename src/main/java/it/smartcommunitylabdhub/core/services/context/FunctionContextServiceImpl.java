@@ -1,5 +1,6 @@
 package it.smartcommunitylabdhub.core.services.context;
 
+import it.smartcommunitylabdhub.core.components.infrastructure.enums.EntityName;
 import it.smartcommunitylabdhub.core.exceptions.CoreException;
 import it.smartcommunitylabdhub.core.exceptions.CustomException;
 import it.smartcommunitylabdhub.core.models.accessors.utils.TaskUtils;
@@ -8,17 +9,19 @@ import it.smartcommunitylabdhub.core.models.builders.function.FunctionEntityBuil
 import it.smartcommunitylabdhub.core.models.entities.function.Function;
 import it.smartcommunitylabdhub.core.models.entities.function.FunctionEntity;
 import it.smartcommunitylabdhub.core.models.entities.task.TaskEntity;
+import it.smartcommunitylabdhub.core.models.entities.version.LatestVersionEntity;
 import it.smartcommunitylabdhub.core.models.enums.State;
 import it.smartcommunitylabdhub.core.models.filters.entities.FunctionEntityFilter;
+import it.smartcommunitylabdhub.core.models.filters.pagination.KeysetPaginator;
 import it.smartcommunitylabdhub.core.repositories.FunctionRepository;
-import it.smartcommunitylabdhub.core.repositories.RunRepository;
 import it.smartcommunitylabdhub.core.repositories.TaskRepository;
 import it.smartcommunitylabdhub.core.services.context.interfaces.FunctionContextService;
+import it.smartcommunitylabdhub.core.services.interfaces.LatestVersionService;
+import it.smartcommunitylabdhub.core.services.interfaces.RunService;
 import it.smartcommunitylabdhub.core.utils.ErrorList;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
@@ -27,7 +30,6 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
@@ -38,6 +40,12 @@ public class FunctionContextServiceImpl extends ContextService<FunctionEntity, F
     @Autowired
     FunctionRepository functionRepository;
 
+    @Autowired
+    KeysetPaginator keysetPaginator;
+
+    @Autowired
+    LatestVersionService latestVersionService;
+
     @Autowired
     FunctionDTOBuilder functionDTOBuilder;
 
@@ -51,7 +59,7 @@ public class FunctionContextServiceImpl extends ContextService<FunctionEntity, F
     TaskRepository taskRepository;
 
     @Autowired
-    RunRepository runRepository;
+    RunService runService;
 
     @Override
     public Function createFunction(String projectName, Function functionDTO) {
@@ -81,6 +89,9 @@ public class FunctionContextServiceImpl extends ContextService<FunctionEntity, F
                         return functionRepository.saveAndFlush(newFunction);
                     });
 
+            // Point the latest version to the new one if it is the most recent
+            latestVersionService.refresh(LatestVersionEntity.FUNCTION, function.getProject(), function.getName());
+
             // Return function DTO
             return functionDTOBuilder.build(function, false);
 
@@ -131,18 +142,12 @@ public class FunctionContextServiceImpl extends ContextService<FunctionEntity, F
 
             Specification<FunctionEntity> specification = createSpecification(filter, functionEntityFilter);
 
-            Page<FunctionEntity> functionPage = functionRepository.findAll(
+            Page<FunctionEntity> functionPage = keysetPaginator.findAll(functionRepository, FunctionEntity.class,
                     Specification.where(specification).and((root, query, criteriaBuilder) ->
-                            criteriaBuilder.equal(root.get("project"), projectName)), pageable);
+                            criteriaBuilder.equal(root.get("project"), projectName)), filter, pageable);
 
 
-            return new PageImpl<>(
-                    functionPage.getContent()
-                            .stream()
-                            .map(function -> functionDTOBuilder.build(function, false))
-                            .collect(Collectors.toList()),
-                    pageable, functionPage.getContent().size()
-            );
+            return functionPage.map(function -> functionDTOBuilder.build(function, false));
         } catch (CustomException e) {
             throw new CoreException(
                     ErrorList.INTERNAL_SERVER_ERROR.getValue(),
@@ -168,21 +173,15 @@ public class FunctionContextServiceImpl extends ContextService<FunctionEntity, F
 
             Specification<FunctionEntity> specification = createSpecification(filter, functionEntityFilter);
 
-            Page<FunctionEntity> functionPage = functionRepository.findAll(
+            Page<FunctionEntity> functionPage = keysetPaginator.findAll(functionRepository, FunctionEntity.class,
                     Specification.where(specification)
                             .and((root, query, criteriaBuilder) ->
                                     criteriaBuilder.and(
                                             criteriaBuilder.equal(root.get("project"), projectName),
                                             criteriaBuilder.equal(root.get("name"), functionName))),
-                    pageable);
-
-            return new PageImpl<>(
-                    functionPage.getContent()
-                            .stream()
-                            .map(function -> functionDTOBuilder.build(function, false))
-                            .collect(Collectors.toList()),
-                    pageable, functionPage.getContent().size()
-            );
+                    filter, pageable);
+
+            return functionPage.map(function -> functionDTOBuilder.build(function, false));
         } catch (CustomException e) {
             throw new CoreException(
                     ErrorList.INTERNAL_SERVER_ERROR.getValue(),
@@ -299,6 +298,9 @@ public class FunctionContextServiceImpl extends ContextService<FunctionEntity, F
                         return functionRepository.saveAndFlush(newFunction);
                     });
 
+            // Point the latest version to the new one if it is the most recent
+            latestVersionService.refresh(LatestVersionEntity.FUNCTION, function.getProject(), function.getName());
+
             // Return function DTO
             return functionDTOBuilder.build(function, false);
 
@@ -365,7 +367,7 @@ public class FunctionContextServiceImpl extends ContextService<FunctionEntity, F
                 taskList.forEach(task -> {
 
                     // remove run
-                    this.runRepository.deleteByTaskId(task.getId());
+                    this.runService.deleteRunByTaskId(task.getId());
 
                     // remove task
                     this.taskRepository.deleteById(task.getId());
@@ -373,6 +375,8 @@ public class FunctionContextServiceImpl extends ContextService<FunctionEntity, F
                 });
 
                 this.functionRepository.deleteByProjectAndNameAndId(projectName, functionName, uuid);
+                changeRecorder.deleted(EntityName.FUNCTION, projectName, functionName, uuid);
+                latestVersionService.refresh(LatestVersionEntity.FUNCTION, projectName, functionName);
 
                 return true;
             }
@@ -405,7 +409,7 @@ public class FunctionContextServiceImpl extends ContextService<FunctionEntity, F
                     taskList.forEach(task -> {
 
                         // remove run
-                        this.runRepository.deleteByTaskId(task.getId());
+                        this.runService.deleteRunByTaskId(task.getId());
 
                         // remove task
                         this.taskRepository.deleteById(task.getId());
@@ -414,6 +418,8 @@ public class FunctionContextServiceImpl extends ContextService<FunctionEntity, F
                 });
 
                 this.functionRepository.deleteByProjectAndName(projectName, functionName);
+                changeRecorder.deleted(EntityName.FUNCTION, projectName, functionName, null);
+                latestVersionService.refresh(LatestVersionEntity.FUNCTION, projectName, functionName);
 
                 return true;
             }
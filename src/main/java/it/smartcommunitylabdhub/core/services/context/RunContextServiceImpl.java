@@ -1,21 +1,23 @@
 package it.smartcommunitylabdhub.core.services.context;
 
 import it.smartcommunitylabdhub.core.components.fsm.enums.RunState;
+import it.smartcommunitylabdhub.core.components.infrastructure.enums.EntityName;
 import it.smartcommunitylabdhub.core.exceptions.CoreException;
 import it.smartcommunitylabdhub.core.exceptions.CustomException;
 import it.smartcommunitylabdhub.core.models.builders.run.RunDTOBuilder;
-import it.smartcommunitylabdhub.core.models.builders.run.RunEntityBuilder;
 import it.smartcommunitylabdhub.core.models.entities.run.Run;
 import it.smartcommunitylabdhub.core.models.entities.run.RunEntity;
 import it.smartcommunitylabdhub.core.models.filters.entities.RunEntityFilter;
+import it.smartcommunitylabdhub.core.models.filters.pagination.KeysetPaginator;
 import it.smartcommunitylabdhub.core.repositories.RunRepository;
 import it.smartcommunitylabdhub.core.services.context.interfaces.RunContextService;
+import it.smartcommunitylabdhub.core.services.interfaces.LogService;
+import it.smartcommunitylabdhub.core.services.interfaces.RunJournalService;
 import it.smartcommunitylabdhub.core.services.interfaces.RunService;
 import it.smartcommunitylabdhub.core.utils.ErrorList;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
@@ -23,7 +25,6 @@ import org.springframework.stereotype.Service;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
@@ -34,10 +35,10 @@ public class RunContextServiceImpl extends ContextService<RunEntity, RunEntityFi
     RunRepository runRepository;
 
     @Autowired
-    RunDTOBuilder runDTOBuilder;
+    KeysetPaginator keysetPaginator;
 
     @Autowired
-    RunEntityBuilder runEntityBuilder;
+    RunDTOBuilder runDTOBuilder;
 
     @Autowired
     RunEntityFilter runEntityFilter;
@@ -45,6 +46,12 @@ public class RunContextServiceImpl extends ContextService<RunEntity, RunEntityFi
     @Autowired
     RunService runService;
 
+    @Autowired
+    LogService logService;
+
+    @Autowired
+    RunJournalService runJournalService;
+
     @Override
     public Run createRun(String projectName, Run runDTO) {
         try {
@@ -86,17 +93,11 @@ public class RunContextServiceImpl extends ContextService<RunEntity, RunEntityFi
 
             Specification<RunEntity> specification = createSpecification(filter, runEntityFilter);
 
-            Page<RunEntity> runPage = runRepository.findAll(
+            Page<RunEntity> runPage = keysetPaginator.findAll(runRepository, RunEntity.class,
                     Specification.where(specification).and((root, query, criteriaBuilder) ->
-                            criteriaBuilder.equal(root.get("project"), projectName)), pageable);
-
-            return new PageImpl<>(
-                    runPage.getContent()
-                            .stream()
-                            .map(run -> runDTOBuilder.build(run))
-                            .collect(Collectors.toList()),
-                    pageable, runPage.getContent().size()
-            );
+                            criteriaBuilder.equal(root.get("project"), projectName)), filter, pageable);
+
+            return runPage.map(run -> runDTOBuilder.build(run));
         } catch (CustomException e) {
             throw new CoreException(
                     ErrorList.INTERNAL_SERVER_ERROR.getValue(),
@@ -129,7 +130,9 @@ public class RunContextServiceImpl extends ContextService<RunEntity, RunEntityFi
     }
 
 
+    // Not transactional, the update is written by the mailbox of the run
     @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public Run updateRun(String projectName,
                          String uuid,
                          Run runDTO) {
@@ -149,18 +152,8 @@ public class RunContextServiceImpl extends ContextService<RunEntity, RunEntityFi
             // Check project context
             checkContext(runDTO.getProject());
 
-            RunEntity run = this.runRepository.findById(runDTO.getId()).map(
-                            a -> // Update the existing run version
-                                    runEntityBuilder.update(a, runDTO))
-                    .orElseThrow(
-                            () -> new CoreException(
-                                    ErrorList.RUN_NOT_FOUND.getValue(),
-                                    ErrorList.RUN_NOT_FOUND.getReason(),
-                                    HttpStatus.INTERNAL_SERVER_ERROR
-                            ));
-
-            // Return run DTO
-            return runDTOBuilder.build(run);
+            // Update the existing run, in order with the other updates of the run
+            return runService.updateRun(runDTO, uuid);
 
         } catch (CustomException e) {
             throw new CoreException(
@@ -176,6 +169,9 @@ public class RunContextServiceImpl extends ContextService<RunEntity, RunEntityFi
         try {
             if (this.runRepository.existsByProjectAndId(projectName, uuid)) {
                 this.runRepository.deleteByProjectAndId(projectName, uuid);
+                changeRecorder.deleted(EntityName.RUN, projectName, null, uuid);
+                this.logService.deleteRunLogs(uuid);
+                this.runJournalService.deleteJournal(uuid);
                 return true;
             }
             throw new CoreException(
@@ -1,5 +1,6 @@
 package it.smartcommunitylabdhub.core.services.context;
 
+import it.smartcommunitylabdhub.core.components.infrastructure.enums.EntityName;
 import it.smartcommunitylabdhub.core.exceptions.CoreException;
 import it.smartcommunitylabdhub.core.exceptions.CustomException;
 import it.smartcommunitylabdhub.core.models.builders.task.TaskDTOBuilder;
@@ -8,14 +9,14 @@ import it.smartcommunitylabdhub.core.models.entities.task.Task;
 import it.smartcommunitylabdhub.core.models.entities.task.TaskEntity;
 import it.smartcommunitylabdhub.core.models.enums.State;
 import it.smartcommunitylabdhub.core.models.filters.entities.TaskEntityFilter;
-import it.smartcommunitylabdhub.core.repositories.RunRepository;
+import it.smartcommunitylabdhub.core.models.filters.pagination.KeysetPaginator;
 import it.smartcommunitylabdhub.core.repositories.TaskRepository;
 import it.smartcommunitylabdhub.core.services.context.interfaces.TaskContextService;
+import it.smartcommunitylabdhub.core.services.interfaces.RunService;
 import it.smartcommunitylabdhub.core.utils.ErrorList;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
@@ -23,7 +24,6 @@ import org.springframework.stereotype.Service;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
@@ -35,6 +35,9 @@ public class TaskContextServiceImpl
     @Autowired
     TaskRepository taskRepository;
 
+    @Autowired
+    KeysetPaginator keysetPaginator;
+
     @Autowired
     TaskDTOBuilder taskDTOBuilder;
 
@@ -45,7 +48,7 @@ public class TaskContextServiceImpl
     TaskEntityFilter taskEntityFilter;
 
     @Autowired
-    RunRepository runRepository;
+    RunService runService;
 
     @Override
     public Task createTask(String projectName, Task taskDTO) {
@@ -103,17 +106,11 @@ public class TaskContextServiceImpl
 
             Specification<TaskEntity> specification = createSpecification(filter, taskEntityFilter);
 
-            Page<TaskEntity> taskPage = taskRepository.findAll(
+            Page<TaskEntity> taskPage = keysetPaginator.findAll(taskRepository, TaskEntity.class,
                     Specification.where(specification).and((root, query, criteriaBuilder) ->
-                            criteriaBuilder.equal(root.get("project"), projectName)), pageable);
-
-            return new PageImpl<>(
-                    taskPage.getContent()
-                            .stream()
-                            .map(task -> taskDTOBuilder.build(task))
-                            .collect(Collectors.toList()),
-                    pageable, taskPage.getContent().size()
-            );
+                            criteriaBuilder.equal(root.get("project"), projectName)), filter, pageable);
+
+            return taskPage.map(task -> taskDTOBuilder.build(task));
         } catch (CustomException e) {
             throw new CoreException(
                     ErrorList.INTERNAL_SERVER_ERROR.getValue(),
@@ -195,9 +192,10 @@ public class TaskContextServiceImpl
 
                 // Delete Task
                 this.taskRepository.deleteByProjectAndId(projectName, uuid);
+                changeRecorder.deleted(EntityName.TASK, projectName, null, uuid);
 
                 // Delete Run
-                this.runRepository.deleteByTaskId(uuid);
+                this.runService.deleteRunByTaskId(uuid);
                 return true;
             }
             throw new CoreException(
@@ -1,19 +1,22 @@
 package it.smartcommunitylabdhub.core.services.context;
 
+import it.smartcommunitylabdhub.core.components.infrastructure.enums.EntityName;
 import it.smartcommunitylabdhub.core.exceptions.CoreException;
 import it.smartcommunitylabdhub.core.exceptions.CustomException;
 import it.smartcommunitylabdhub.core.models.builders.workflow.WorkflowDTOBuilder;
 import it.smartcommunitylabdhub.core.models.builders.workflow.WorkflowEntityBuilder;
+import it.smartcommunitylabdhub.core.models.entities.version.LatestVersionEntity;
 import it.smartcommunitylabdhub.core.models.entities.workflow.Workflow;
 import it.smartcommunitylabdhub.core.models.entities.workflow.WorkflowEntity;
 import it.smartcommunitylabdhub.core.models.enums.State;
 import it.smartcommunitylabdhub.core.models.filters.entities.WorkflowEntityFilter;
+import it.smartcommunitylabdhub.core.models.filters.pagination.KeysetPaginator;
 import it.smartcommunitylabdhub.core.repositories.WorkflowRepository;
 import it.smartcommunitylabdhub.core.services.context.interfaces.WorkflowContextService;
+import it.smartcommunitylabdhub.core.services.interfaces.LatestVersionService;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
@@ -21,7 +24,6 @@ import org.springframework.stereotype.Service;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
@@ -32,6 +34,12 @@ public class WorkflowContextServiceImpl extends ContextService<WorkflowEntity, W
     @Autowired
     WorkflowRepository workflowRepository;
 
+    @Autowired
+    KeysetPaginator keysetPaginator;
+
+    @Autowired
+    LatestVersionService latestVersionService;
+
     @Autowired
     WorkflowEntityBuilder workflowEntityBuilder;
 
@@ -69,6 +77,9 @@ public class WorkflowContextServiceImpl extends ContextService<WorkflowEntity, W
                         return workflowRepository.saveAndFlush(newWorkflow);
                     });
 
+            // Point the latest version to the new one if it is the most recent
+            latestVersionService.refresh(LatestVersionEntity.WORKFLOW, workflow.getProject(), workflow.getName());
+
             // Return workflow DTO
             return workflowDTOBuilder.build(workflow, false);
 
@@ -98,19 +109,14 @@ public class WorkflowContextServiceImpl extends ContextService<WorkflowEntity, W
 
             Specification<WorkflowEntity> specification = createSpecification(filter, workflowEntityFilter);
 
-            Page<WorkflowEntity> workflowPage = workflowRepository.findAll(
+            Page<WorkflowEntity> workflowPage = keysetPaginator.findAll(workflowRepository, WorkflowEntity.class,
                     Specification.where(specification).and((root, query, criteriaBuilder) ->
-                            criteriaBuilder.equal(root.get("project"), projectName)), pageable);
+                            criteriaBuilder.equal(root.get("project"), projectName)), filter, pageable);
 
 
-            return new PageImpl<>(
-                    workflowPage.getContent()
-                            .stream()
-                            .map((workflow) -> {
+            return workflowPage.map((workflow) -> {
                                 return workflowDTOBuilder.build(workflow, false);
-                            }).collect(Collectors.toList()),
-                    pageable, workflowPage.getContent().size()
-            );
+                            });
         } catch (CustomException e) {
             throw new CoreException(
                     "InternalServerError",
@@ -136,22 +142,17 @@ public class WorkflowContextServiceImpl extends ContextService<WorkflowEntity, W
 
             Specification<WorkflowEntity> specification = createSpecification(filter, workflowEntityFilter);
 
-            Page<WorkflowEntity> workflowPage = workflowRepository.findAll(
+            Page<WorkflowEntity> workflowPage = keysetPaginator.findAll(workflowRepository, WorkflowEntity.class,
                     Specification.where(specification)
                             .and((root, query, criteriaBuilder) ->
                                     criteriaBuilder.and(
                                             criteriaBuilder.equal(root.get("project"), projectName),
                                             criteriaBuilder.equal(root.get("name"), workflowName))),
-                    pageable);
+                    filter, pageable);
 
-            return new PageImpl<>(
-                    workflowPage.getContent()
-                            .stream()
-                            .map((workflow) -> {
+            return workflowPage.map((workflow) -> {
                                 return workflowDTOBuilder.build(workflow, false);
-                            }).collect(Collectors.toList()),
-                    pageable, workflowPage.getContent().size()
-            );
+                            });
         } catch (CustomException e) {
             throw new CoreException(
                     "InternalServerError",
@@ -248,6 +249,9 @@ public class WorkflowContextServiceImpl extends ContextService<WorkflowEntity, W
                         return workflowRepository.saveAndFlush(newWorkflow);
                     });
 
+            // Point the latest version to the new one if it is the most recent
+            latestVersionService.refresh(LatestVersionEntity.WORKFLOW, workflow.getProject(), workflow.getName());
+
             // Return workflow DTO
             return workflowDTOBuilder.build(workflow, false);
 
@@ -306,6 +310,8 @@ public class WorkflowContextServiceImpl extends ContextService<WorkflowEntity, W
                     uuid)) {
                 this.workflowRepository.deleteByProjectAndNameAndId(projectName, workflowName,
                         uuid);
+                changeRecorder.deleted(EntityName.WORKFLOW, projectName, workflowName, uuid);
+                latestVersionService.refresh(LatestVersionEntity.WORKFLOW, projectName, workflowName);
                 return true;
             }
             throw new CoreException(
@@ -326,6 +332,8 @@ public class WorkflowContextServiceImpl extends ContextService<WorkflowEntity, W
         try {
             if (workflowRepository.existsByProjectAndName(projectName, workflowName)) {
                 this.workflowRepository.deleteByProjectAndName(projectName, workflowName);
+                changeRecorder.deleted(EntityName.WORKFLOW, projectName, workflowName, null);
+                latestVersionService.refresh(LatestVersionEntity.WORKFLOW, projectName, workflowName);
                 return true;
             }
             throw new CoreException(
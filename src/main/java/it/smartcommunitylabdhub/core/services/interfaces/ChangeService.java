@@ -0,0 +1,16 @@
+package it.smartcommunitylabdhub.core.services.interfaces;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface ChangeService {
+
+    /**
+     * Follow the committed changes of the entities as Server-Sent Events.
+     *
+     * @param project  the project of the entities, null for all the projects
+     * @param entities comma separated entity types (project, function, run...), null for all
+     * @param token    the id of the last event received, to resume after it
+     * @return the emitter of the change events
+     */
+    SseEmitter subscribe(String project, String entities, String token);
+}
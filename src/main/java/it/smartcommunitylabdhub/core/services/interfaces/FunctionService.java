@@ -15,6 +15,10 @@ public interface FunctionService {
 
     Function createFunction(Function functionDTO);
 
+    /**
+     * Return the function, read from the function cache. The returned instance is a copy of the
+     * cached one and can be modified.
+     */
     Function getFunction(String uuid);
 
     Function updateFunction(Function functionDTO, String uuid);
@@ -0,0 +1,23 @@
+package it.smartcommunitylabdhub.core.services.interfaces;
+
+public interface LatestVersionService {
+
+    /**
+     * Point the latest version of an entity to its most recent version, or remove the pointer
+     * when no version is left. Must be called in the transaction writing or deleting versions.
+     *
+     * @param type    the type of entity, see LatestVersionEntity
+     * @param project the project
+     * @param name    the name of the entity
+     */
+    void refresh(String type, String project, String name);
+
+    void deleteProject(String project);
+
+    /**
+     * Create the pointers missing for the versions already stored.
+     *
+     * @return the number of pointers created
+     */
+    int backfill();
+}
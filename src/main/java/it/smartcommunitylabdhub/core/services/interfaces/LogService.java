@@ -3,17 +3,56 @@ package it.smartcommunitylabdhub.core.services.interfaces;
 import it.smartcommunitylabdhub.core.models.entities.log.Log;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
 
 public interface LogService {
 
-    Page<Log> getLogs(Pageable pageable);
+    Page<Log> getLogs(Map<String, String> filter, Pageable pageable);
 
     Log getLog(String uuid);
 
-    Page<Log> getLogsByRunUuid(String uuid, Pageable pageable);
+    Page<Log> getLogsByRunUuid(String uuid, Map<String, String> filter, Pageable pageable);
 
     boolean deleteLog(String uuid);
 
     Log createLog(Log logDTO);
 
+    /**
+     * Append a chunk to the log of a run. The content goes to the log store, the database only
+     * keeps a log with the position of the chunk.
+     *
+     * @param runId the id of the run
+     * @param chunk the content to append
+     * @return the log holding the metadata of the chunk
+     */
+    Log append(String runId, String chunk);
+
+    Log append(String runId, String chunk, Map<String, Object> status);
+
+    /**
+     * Read a range of the log of a run, at most log.store.max-read-bytes bytes.
+     *
+     * @param runId  the id of the run
+     * @param offset the offset of the first byte
+     * @param length the maximum number of bytes
+     * @return the bytes read
+     */
+    byte[] read(String runId, long offset, int length);
+
+    long size(String runId);
+
+    /**
+     * Follow the log of a run: the content from the offset is sent, then the content appended
+     * later, as Server-Sent Events whose ids are the offsets following their content.
+     *
+     * @param runId  the id of the run
+     * @param offset the offset of the first byte, negative to count from the end of the log
+     * @return the emitter of the log events
+     */
+    SseEmitter tail(String runId, long offset);
+
+    void deleteRunLogs(String runId);
+
 }
@@ -0,0 +1,17 @@
+package it.smartcommunitylabdhub.core.services.interfaces;
+
+import it.smartcommunitylabdhub.core.models.entities.run.Run;
+import it.smartcommunitylabdhub.core.models.entities.run.RunCallback;
+
+public interface RunCallbackService {
+
+    /**
+     * Apply the status pushed by the runtime wrapper of a run.
+     *
+     * @param uuid          the run id
+     * @param authorization the authorization header sent by the wrapper
+     * @param callback      the pushed status
+     * @return the updated run
+     */
+    Run callback(String uuid, String authorization, RunCallback callback);
+}
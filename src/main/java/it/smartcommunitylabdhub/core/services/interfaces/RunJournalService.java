@@ -0,0 +1,34 @@
+package it.smartcommunitylabdhub.core.services.interfaces;
+
+import it.smartcommunitylabdhub.core.components.fsm.enums.RunEvent;
+import it.smartcommunitylabdhub.core.components.fsm.enums.RunState;
+import it.smartcommunitylabdhub.core.models.entities.run.RunTransitionEntity;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface RunJournalService {
+
+    /**
+     * Append a transition to the journal of the run.
+     *
+     * @param runId     the run id
+     * @param fromState the state left
+     * @param event     the event of the transition, null for the error state
+     * @param toState   the state reached
+     * @return the journal entry
+     */
+    RunTransitionEntity append(String runId, RunState fromState, RunEvent event, RunState toState);
+
+    /**
+     * Rebuild the state of the run from its last snapshot and the transitions recorded after it.
+     *
+     * @param runId the run id
+     * @return the state, empty if nothing has been recorded for the run
+     */
+    Optional<RunState> replay(String runId);
+
+    List<RunTransitionEntity> getTransitions(String runId);
+
+    void deleteJournal(String runId);
+}
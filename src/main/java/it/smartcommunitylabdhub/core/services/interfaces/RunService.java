@@ -7,6 +7,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 public interface RunService {
 
@@ -24,4 +26,33 @@ public interface RunService {
 
     Run updateRun(@Valid Run runDTO, String uuid);
 
+    /**
+     * Update a run through its mailbox, serialized with the other updates of the run.
+     *
+     * @param uuid   the id of the run
+     * @param update applied to the current run, returns the run to store or null to leave it
+     * @return the stored run
+     */
+    Run updateRun(String uuid, UnaryOperator<Run> update);
+
+    /**
+     * Apply a JSON merge patch to the status of a run, without reading or writing the rest of it.
+     *
+     * @param uuid  the id of the run
+     * @param patch the merge patch, a null value removes the field
+     * @return the patched status
+     */
+    Map<String, Object> patchStatus(String uuid, Map<String, Object> patch);
+
+    /**
+     * Apply a JSON merge patch to the status of a run when the current status matches a condition.
+     *
+     * @param uuid      the id of the run
+     * @param patch     the merge patch, a null value removes the field
+     * @param condition tested on the current status, the patch is skipped when false
+     * @return the patched status, or the current one when skipped
+     */
+    Map<String, Object> patchStatus(String uuid, Map<String, Object> patch,
+                                    Predicate<Map<String, Object>> condition);
+
 }
@@ -11,6 +11,10 @@ public interface TaskService {
 
     Page<Task> getTasks(Map<String, String> filter, Pageable pageable);
 
+    /**
+     * Return the task, read from the task cache. The returned instance is a copy of the cached
+     * one and can be modified.
+     */
     Task getTask(String uuid);
 
     List<Task> getTasksByFunction(String function);
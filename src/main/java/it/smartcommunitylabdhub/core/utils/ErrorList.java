@@ -62,6 +62,47 @@ public enum ErrorList {
 
     RUN_JOB_ERROR("K8sJobError", "Cannot execute job in Kubernetes"),
 
+    /**
+     *
+     */
+    RUN_CALLBACK_UNAUTHORIZED("RunCallbackUnauthorized", "Invalid or missing run callback token."),
+    /**
+     *
+     */
+    RUN_CALLBACK_INVALID("RunCallbackInvalid", "The run callback contains an unknown state."),
+
+    /**
+     *
+     */
+    INVALID_CURSOR("InvalidCursor", "The pagination cursor is not valid."),
+
+    /**
+     *
+     */
+    TOO_MANY_LOG_TAILS("TooManyLogTails", "Too many clients are following the run logs, retry later."),
+
+    /**
+     *
+     */
+    TOO_MANY_CHANGE_SUBSCRIBERS("TooManyChangeSubscribers",
+            "Too many clients are following the entity changes, retry later."),
+
+    /**
+     *
+     */
+    INVALID_ENTITY_NAME("InvalidEntityName", "The entity type is not valid."),
+
+    /**
+     *
+     */
+    RUN_STATUS_INVALID("RunStatusInvalid", "The run status patch is not valid."),
+
+    /**
+     *
+     */
+    RUN_STATUS_CONFLICT("RunStatusConflict",
+            "The run status has been updated concurrently, retry the request."),
+
     /**
      *
      */
@@ -51,6 +51,34 @@ public class MapUtils {
         return mergedMap;
     }
 
+    /**
+     * Apply a JSON merge patch (RFC 7386) to a map: null values remove the key, maps are patched
+     * recursively and any other value replaces the current one.
+     *
+     * @param target the map to patch, left unchanged
+     * @param patch  the merge patch
+     * @return the patched map
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> mergePatch(Map<String, Object> target, Map<String, Object> patch) {
+        Map<String, Object> patched = target != null ? new HashMap<>(target) : new HashMap<>();
+
+        patch.forEach((key, value) -> {
+            if (value == null) {
+                patched.remove(key);
+            } else if (value instanceof Map) {
+                Object current = patched.get(key);
+                patched.put(key, mergePatch(
+                        current instanceof Map ? (Map<String, Object>) current : null,
+                        (Map<String, Object>) value));
+            } else {
+                patched.put(key, value);
+            }
+        });
+
+        return patched;
+    }
+
     @SafeVarargs
     public static <K, V> Map<K, V> mergeMultipleMaps(Map<K, V>... maps) {
         Map<K, V> mergedMap = new HashMap<>();
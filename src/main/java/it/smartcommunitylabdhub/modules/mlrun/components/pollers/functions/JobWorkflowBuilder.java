@@ -9,8 +9,10 @@ import it.smartcommunitylabdhub.core.components.fsm.types.RunStateMachine;
 import it.smartcommunitylabdhub.core.components.infrastructure.enums.EntityName;
 import it.smartcommunitylabdhub.core.components.infrastructure.factories.accessors.AccessorRegistry;
 import it.smartcommunitylabdhub.core.components.kinds.factory.workflows.KindWorkflow;
+import it.smartcommunitylabdhub.core.components.logs.LogIngestionQueue;
 import it.smartcommunitylabdhub.core.components.workflows.factory.Workflow;
 import it.smartcommunitylabdhub.core.components.workflows.factory.WorkflowFactory;
+import it.smartcommunitylabdhub.core.components.workflows.factory.WorkflowStep;
 import it.smartcommunitylabdhub.core.components.workflows.functions.BaseWorkflowBuilder;
 import it.smartcommunitylabdhub.core.exceptions.StopPoller;
 import it.smartcommunitylabdhub.core.models.accessors.kinds.dataitems.DataitemDefaultFieldAccessor;
@@ -18,17 +20,16 @@ import it.smartcommunitylabdhub.core.models.accessors.kinds.interfaces.Accessor;
 import it.smartcommunitylabdhub.core.models.accessors.kinds.interfaces.RunFieldAccessor;
 import it.smartcommunitylabdhub.core.models.accessors.utils.ArtifactUtils;
 import it.smartcommunitylabdhub.core.models.entities.artifact.Artifact;
-import it.smartcommunitylabdhub.core.models.entities.log.Log;
-import it.smartcommunitylabdhub.core.models.entities.log.metadata.LogMetadata;
 import it.smartcommunitylabdhub.core.models.entities.run.Run;
 import it.smartcommunitylabdhub.core.services.interfaces.ArtifactService;
-import it.smartcommunitylabdhub.core.services.interfaces.LogService;
 import it.smartcommunitylabdhub.core.services.interfaces.RunService;
 import it.smartcommunitylabdhub.core.utils.jackson.JacksonMapper;
 import it.smartcommunitylabdhub.core.utils.MapUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.http.*;
 
 import java.util.*;
@@ -40,13 +41,17 @@ public class JobWorkflowBuilder extends BaseWorkflowBuilder
         implements KindWorkflow<Run, Workflow> {
 
     private final RunService runService;
-    private final LogService logService;
+    private final LogIngestionQueue logIngestionQueue;
     private final ArtifactService artifactService;
     private final RunStateMachine runStateMachine;
 
     @Autowired
     AccessorRegistry<? extends Accessor<Object>> accessorRegistry;
 
+    @Autowired
+    @Qualifier("taskExecutor")
+    TaskExecutor taskExecutor;
+
     ObjectMapper objectMapper = new ObjectMapper();
 
     @Value("${mlrun.api.run-url}")
@@ -55,54 +60,39 @@ public class JobWorkflowBuilder extends BaseWorkflowBuilder
     @Value("${mlrun.api.log-url}")
     private String logUrl;
 
-    public JobWorkflowBuilder(RunService runService, LogService logService,
+    public JobWorkflowBuilder(RunService runService, LogIngestionQueue logIngestionQueue,
                               ArtifactService artifactService,
                               RunStateMachine runStateMachine) {
         this.runService = runService;
-        this.logService = logService;
+        this.logIngestionQueue = logIngestionQueue;
         this.artifactService = artifactService;
         this.runStateMachine = runStateMachine;
     }
 
     @SuppressWarnings("unchecked")
     public Workflow build(Run runDTO) {
+        // Read the run from mlrun and move the state machine, returns the mlrun run data
         Function<Object[], Object> getRunUpdate = params -> {
 
             try {
                 StateMachine<RunState, RunEvent, Map<String, Object>> stateMachine =
                         (StateMachine<RunState, RunEvent, Map<String, Object>>) params[2];
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                HttpEntity<String> entity = new HttpEntity<>(headers);
 
                 String requestUrl = params[0].toString()
                         .replace("{project}", ((Run) params[1]).getProject())
                         .replace("{uid}", ((Run) params[1]).getExtra().get("mlrun_run_uid")
                                 .toString());
 
-                /*
-                 * WRITE LOG USING LOG WRITER
-                 *
-                 * LogWriter.writeLog(((RunDTO) params[1]).getId() + ".txt",
-                 * "-------------------------------------------------\n" +
-                 * "REQUEST URL UPDATE RUN : " + requestUrl + "\n" + "RunDTO ID : " + ((RunDTO)
-                 * params[1]).getId() + "\n" + "RunDTO :" + ((RunDTO) params[1]).getExtra()
-                 * .get("mlrun_run_uid").toString() + "\n" + "State Machine :" +
-                 * stateMachine.getUuid() + "\n" +
-                 * "-------------------------------------------------\n");
-                 */
-
                 ResponseEntity<Map<String, Object>> response =
                         restTemplate.exchange(requestUrl, HttpMethod.GET,
-                                entity, responseType);
+                                jsonEntity(), responseType);
 
                 // FIXME: remove this later
                 log.info(objectMapper.writeValueAsString(response));
 
                 return Optional.ofNullable(response.getBody()).map(body -> {
-                    Map<String, Object> status =
-                            (Map<String, Object>) ((Map<String, Object>) body.get("data"))
-                                    .get("status");
+                    Map<String, Object> data = (Map<String, Object>) body.get("data");
+                    Map<String, Object> status = (Map<String, Object>) data.get("status");
 
                     if (!stateMachine.getCurrentState()
                             .equals(RunState.valueOf(
@@ -115,123 +105,116 @@ public class JobWorkflowBuilder extends BaseWorkflowBuilder
                                                 () -> RunState.ERROR));
 
                         // Update run state
-                        runDTO.getStatus().put("state", stateMachine.getCurrentState().name());
-
-                        // Store change
-                        this.runService.save(runDTO);
-
-                    } else if (stateMachine.getCurrentState().equals(RunState.COMPLETED)) {
-                        // Get response body and store log as well as artifacts if present.
-                        Optional.ofNullable(response.getBody())
-                                .ifPresentOrElse(b ->
-                                        // Get run uid from mlrun.
-                                        MapUtils.getNestedFieldValue(b, "data").ifPresent(data -> {
-                                            MapUtils.getNestedFieldValue(data, "metadata")
-                                                    .ifPresent(metadata -> {
-                                                        String uid = (String) metadata.get("uid");
-
-                                                        // Call mlrun api to get log of specific run uid.
-                                                        ResponseEntity<String> logResponse =
-                                                                restTemplate.exchange(logUrl
-                                                                                .replace("{project}",
-                                                                                        runDTO.getProject())
-                                                                                .replace("{uid}", uid),
-                                                                        HttpMethod.GET, entity,
-                                                                        String.class);
-
-                                                        // Create and store log
-                                                        LogMetadata logMetadata = new LogMetadata();
-                                                        logMetadata.setProject(runDTO.getProject());
-                                                        logMetadata.setRun(runDTO.getId());
-                                                        logService.createLog(
-                                                                Log.builder()
-                                                                        .metadata(logMetadata)
-                                                                        .body(Map.of("content",
-                                                                                logResponse.getBody())
-                                                                        ).build());
-                                                    });
-
-                                            // get Artifacts from results
-                                            MapUtils.getNestedFieldValue(data, "status")
-                                                    .ifPresent(metadata -> {
-
-                                                        List<Map<String, Object>> artifacts =
-                                                                new ArrayList<>();
-
-                                                        ((List<Map<String, Object>>) metadata
-                                                                .get("artifacts")).stream()
-                                                                .forEach(artifact -> {
-                                                                    DataitemDefaultFieldAccessor mlrunDataItemAccessor =
-                                                                            accessorRegistry.createAccessor(
-                                                                                    "dataitem",
-                                                                                    EntityName.ARTIFACT,
-                                                                                    artifact
-                                                                            );
-                                                                    // Create artifact
-                                                                    Artifact artifactDTO =
-                                                                            Artifact
-                                                                                    .builder()
-                                                                                    .name(mlrunDataItemAccessor
-                                                                                            .getTree())
-                                                                                    .project(mlrunDataItemAccessor
-                                                                                            .getProject())
-                                                                                    .kind(mlrunDataItemAccessor
-                                                                                            .getKind())
-                                                                                    .spec(mlrunDataItemAccessor
-                                                                                            .getSpecs())
-//                                                                                    .state(mlrunDataItemAccessor
-//                                                                                            .getState()
-//                                                                                            .toUpperCase())
-                                                                                    .build();
-
-                                                                    // Store artifact
-                                                                    artifactDTO =
-                                                                            this.artifactService
-                                                                                    .createArtifact(
-                                                                                            artifactDTO);
-
-                                                                    artifacts.add(Map.of(
-                                                                            "key",
-                                                                            mlrunDataItemAccessor
-                                                                                    .getKey(),
-                                                                            "id",
-                                                                            ArtifactUtils
-                                                                                    .getKey(artifactDTO),
-                                                                            "kind",
-                                                                            "artifact"));
-                                                                });
-
-                                                        // Save runs artifact keys
-                                                        ((Map<String, Object>) runDTO.getExtra()
-                                                                .getOrDefault("status",
-                                                                        new HashMap<>())).put(
-                                                                "artifacts",
-                                                                artifacts);
-
-                                                        this.runService.save(runDTO);
-                                                    });
-                                        }), () -> {
-                                    // Could not receive body from mlrun..stop poller now
-                                    throw new StopPoller(
-                                            "Poller complete with ERROR {Mlrun body not found}");
-                                });
-
-                        // Poller complete successfully
-                        throw new StopPoller("Poller complete SUCCESSFULLY");
-
-                    } else if (stateMachine.getCurrentState().equals(RunState.ERROR)) {
+                        this.runService.patchStatus(runDTO.getId(),
+                                Map.of("state", stateMachine.getCurrentState().name()));
+                    }
 
+                    if (stateMachine.getCurrentState().equals(RunState.ERROR)) {
                         // State machine goes Error, stop poller
                         throw new StopPoller("Poller complete with ERROR");
                     }
-                    return null;
-                }).orElseGet(() -> null);
+                    return data;
+                }).orElseThrow(() -> {
+                    // Could not receive body from mlrun..stop poller now
+                    return new StopPoller("Poller complete with ERROR {Mlrun body not found}");
+                });
 
             } catch (Exception e) {
                 log.warn(e.getMessage() + " -> Stop Poller now!");
                 throw new StopPoller("STOP");
             }
+        };
 
+        // Once completed, store the log of the run
+        Function<Object[], Object> storeLog = params -> {
+            Map<String, Object> data = (Map<String, Object>) params[0];
+            if (!isCompleted(params[1])) {
+                return data;
+            }
+            try {
+                MapUtils.getNestedFieldValue(data, "metadata").ifPresent(metadata -> {
+                    String uid = (String) metadata.get("uid");
+
+                    // Call mlrun api to get log of specific run uid.
+                    ResponseEntity<String> logResponse =
+                            restTemplate.exchange(logUrl
+                                            .replace("{project}", runDTO.getProject())
+                                            .replace("{uid}", uid),
+                                    HttpMethod.GET, jsonEntity(),
+                                    String.class);
+
+                    // Store the log through the ingestion queue, without waiting
+                    if (logResponse.getBody() != null && !logIngestionQueue.offer(
+                            runDTO.getProject(), runDTO.getId(), logResponse.getBody(), Map.of())) {
+                        log.warn("Log ingestion queue full, log of run " + runDTO.getId() + " not stored");
+                    }
+                });
+                return data;
+            } catch (Exception e) {
+                log.warn(e.getMessage() + " -> Stop Poller now!");
+                throw new StopPoller("STOP");
+            }
+        };
+
+        // Once completed, register the artifacts produced by the run
+        Function<Object[], Object> storeArtifacts = params -> {
+            Map<String, Object> data = (Map<String, Object>) params[0];
+            if (!isCompleted(params[1])) {
+                return data;
+            }
+            try {
+                MapUtils.getNestedFieldValue(data, "status").ifPresent(metadata -> {
+
+                    List<Map<String, Object>> artifacts = new ArrayList<>();
+
+                    ((List<Map<String, Object>>) metadata.get("artifacts")).forEach(artifact -> {
+                        DataitemDefaultFieldAccessor mlrunDataItemAccessor =
+                                accessorRegistry.createAccessor(
+                                        "dataitem",
+                                        EntityName.ARTIFACT,
+                                        artifact
+                                );
+                        // Create artifact
+                        Artifact artifactDTO = Artifact.builder()
+                                .name(mlrunDataItemAccessor.getTree())
+                                .project(mlrunDataItemAccessor.getProject())
+                                .kind(mlrunDataItemAccessor.getKind())
+                                .spec(mlrunDataItemAccessor.getSpecs())
+                                .build();
+
+                        // Store artifact
+                        artifactDTO = this.artifactService.createArtifact(artifactDTO);
+
+                        artifacts.add(Map.of(
+                                "key", mlrunDataItemAccessor.getKey(),
+                                "id", ArtifactUtils.getKey(artifactDTO),
+                                "kind", "artifact"));
+                    });
+
+                    // Save runs artifact keys
+                    this.runService.updateRun(runDTO.getId(), run -> {
+                        ((Map<String, Object>) run.getExtra()
+                                .computeIfAbsent("status", key -> new HashMap<>())).put("artifacts", artifacts);
+                        return run;
+                    });
+                });
+                return data;
+            } catch (Exception e) {
+                log.warn(e.getMessage() + " -> Stop Poller now!");
+                throw new StopPoller("STOP");
+            }
+        };
+
+        // Stop once completed, otherwise return the observed state so that the poller backs off
+        // while it does not change
+        Function<Object[], Object> checkCompleted = params -> {
+            if (isCompleted(params[1])) {
+                // Poller complete successfully
+                throw new StopPoller("Poller complete SUCCESSFULLY");
+            }
+            return MapUtils.getNestedFieldValue((Map<String, Object>) params[0], "status")
+                    .map(status -> status.get("state"))
+                    .orElse(null);
         };
 
         // Retrieve Field accessor
@@ -249,8 +232,25 @@ public class JobWorkflowBuilder extends BaseWorkflowBuilder
                 .create(RunState.valueOf(runFieldAccessor.getState()), Map.of("runId", runDTO.getId()));
         fsm.goToState(RunState.READY);
 
-        // Define workflow steps
-        return WorkflowFactory.builder().step(getRunUpdate, runUrl, runDTO, fsm).build();
+        // Define workflow steps, log and artifacts of a completed run are stored in parallel
+        return WorkflowFactory.builder()
+                .step(getRunUpdate, runUrl, runDTO, fsm)
+                .parallel(outputs -> outputs.get(0),
+                        WorkflowStep.of(data -> storeLog.apply(new Object[]{data, fsm})),
+                        WorkflowStep.of(data -> storeArtifacts.apply(new Object[]{data, fsm})))
+                .withExecutor(taskExecutor)
+                .step(data -> checkCompleted.apply(new Object[]{data, fsm}))
+                .build();
+    }
+
+    private boolean isCompleted(Object stateMachine) {
+        return ((StateMachine<?, ?, ?>) stateMachine).getCurrentState().equals(RunState.COMPLETED);
+    }
+
+    private HttpEntity<String> jsonEntity() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new HttpEntity<>(headers);
     }
 
 }
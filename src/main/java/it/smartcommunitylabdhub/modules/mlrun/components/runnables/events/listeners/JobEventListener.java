@@ -79,12 +79,15 @@ public class JobEventListener {
 
         optionalData.ifPresentOrElse(
                 data -> {
-                    MapUtils.getNestedFieldValue(data, "metadata").ifPresent(metadata -> {
-                        runDTO.setExtra("mlrun_run_uid", metadata.get("uid"));
-                    });
+                    Object uid = MapUtils.getNestedFieldValue(data, "metadata")
+                            .map(metadata -> metadata.get("uid"))
+                            .orElse(null);
 
                     // Save RunDTO
-                    Run savedRunDTO = runService.save(runDTO);
+                    Run savedRunDTO = runService.updateRun(runDTO.getId(), run -> {
+                        run.setExtra("mlrun_run_uid", uid);
+                        return run;
+                    });
 
                     log.info("Dispatch event to RunMessage");
                     eventPublisher.publishEvent(RunMessage.builder().runDTO(savedRunDTO).build());
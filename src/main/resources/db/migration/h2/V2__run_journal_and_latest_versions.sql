@@ -0,0 +1,33 @@
+-- Run journal and latest version pointers
+
+CREATE TABLE IF NOT EXISTS run_transitions (
+    id varchar(255) NOT NULL,
+    run varchar(255) NOT NULL,
+    sequence bigint NOT NULL,
+    from_state varchar(255),
+    event varchar(255),
+    to_state varchar(255) NOT NULL,
+    created timestamp(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_run_transitions_run_sequence UNIQUE (run, sequence)
+);
+
+CREATE TABLE IF NOT EXISTS run_snapshots (
+    run varchar(255) NOT NULL,
+    sequence bigint NOT NULL,
+    state varchar(255) NOT NULL,
+    updated timestamp(6),
+    PRIMARY KEY (run)
+);
+
+CREATE TABLE IF NOT EXISTS latest_versions (
+    id varchar(255) NOT NULL,
+    type varchar(255) NOT NULL,
+    project varchar(255) NOT NULL,
+    name varchar(255) NOT NULL,
+    version varchar(255) NOT NULL,
+    created timestamp(6),
+    updated timestamp(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_latest_versions_type_project_name UNIQUE (type, project, name)
+);
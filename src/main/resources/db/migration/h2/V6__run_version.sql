@@ -0,0 +1,3 @@
+-- Optimistic version of the runs, checked by the status patches and the full updates
+
+ALTER TABLE runs ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
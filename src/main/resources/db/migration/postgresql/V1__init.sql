@@ -0,0 +1,128 @@
+-- Schema of the entities, as previously generated by hibernate
+
+CREATE TABLE IF NOT EXISTS projects (
+    id varchar(255) NOT NULL,
+    name varchar(255),
+    kind varchar(255) NOT NULL,
+    description varchar(255),
+    source varchar(255),
+    metadata oid,
+    spec oid,
+    extra oid,
+    status oid,
+    created timestamp(6),
+    updated timestamp(6),
+    state varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_projects_name UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS functions (
+    id varchar(255) NOT NULL,
+    kind varchar(255) NOT NULL,
+    project varchar(255) NOT NULL,
+    name varchar(255) NOT NULL,
+    metadata oid,
+    spec oid,
+    extra oid,
+    status oid,
+    created timestamp(6),
+    updated timestamp(6),
+    embedded boolean,
+    state varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS artifacts (
+    id varchar(255) NOT NULL,
+    kind varchar(255) NOT NULL,
+    project varchar(255) NOT NULL,
+    name varchar(255) NOT NULL,
+    metadata oid,
+    spec oid,
+    extra oid,
+    status oid,
+    created timestamp(6),
+    updated timestamp(6),
+    embedded boolean,
+    state varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS dataitems (
+    id varchar(255) NOT NULL,
+    kind varchar(255) NOT NULL,
+    project varchar(255) NOT NULL,
+    name varchar(255) NOT NULL,
+    metadata oid,
+    spec oid,
+    extra oid,
+    status oid,
+    created timestamp(6),
+    updated timestamp(6),
+    embedded boolean,
+    state varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS workflows (
+    id varchar(255) NOT NULL,
+    kind varchar(255) NOT NULL,
+    project varchar(255) NOT NULL,
+    name varchar(255) NOT NULL,
+    metadata oid,
+    spec oid,
+    extra oid,
+    status oid,
+    created timestamp(6),
+    updated timestamp(6),
+    embedded boolean,
+    state varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS tasks (
+    id varchar(255) NOT NULL,
+    function varchar(255) NOT NULL,
+    kind varchar(255) NOT NULL,
+    project varchar(255) NOT NULL,
+    metadata oid,
+    spec oid,
+    extra oid,
+    status oid,
+    created timestamp(6),
+    updated timestamp(6),
+    state varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_tasks_function_kind UNIQUE (function, kind)
+);
+
+CREATE TABLE IF NOT EXISTS runs (
+    id varchar(255) NOT NULL,
+    task varchar(255) NOT NULL,
+    kind varchar(255) NOT NULL,
+    project varchar(255) NOT NULL,
+    task_id varchar(255) NOT NULL,
+    metadata oid,
+    spec oid,
+    extra oid,
+    status oid,
+    created timestamp(6),
+    updated timestamp(6),
+    state varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS logs (
+    id varchar(255) NOT NULL,
+    project varchar(255) NOT NULL,
+    run varchar(255) NOT NULL,
+    body oid,
+    extra oid,
+    status oid,
+    metadata oid,
+    state varchar(255),
+    created timestamp(6),
+    updated timestamp(6),
+    PRIMARY KEY (id)
+);
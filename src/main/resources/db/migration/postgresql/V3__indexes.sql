@@ -0,0 +1,18 @@
+-- Indexes matching the repository queries, keep in sync with the @Table indexes of the entities
+
+-- Versions of an entity, latest first
+CREATE INDEX IF NOT EXISTS idx_functions_project_name_created ON functions (project, name, created);
+CREATE INDEX IF NOT EXISTS idx_artifacts_project_name_created ON artifacts (project, name, created);
+CREATE INDEX IF NOT EXISTS idx_dataitems_project_name_created ON dataitems (project, name, created);
+CREATE INDEX IF NOT EXISTS idx_workflows_project_name_created ON workflows (project, name, created);
+
+-- Tasks by function are served by uk_tasks_function_kind
+CREATE INDEX IF NOT EXISTS idx_tasks_project_created ON tasks (project, created);
+
+CREATE INDEX IF NOT EXISTS idx_runs_task_id ON runs (task_id);
+CREATE INDEX IF NOT EXISTS idx_runs_task ON runs (task);
+CREATE INDEX IF NOT EXISTS idx_runs_project_created ON runs (project, created);
+CREATE INDEX IF NOT EXISTS idx_runs_state ON runs (state);
+
+CREATE INDEX IF NOT EXISTS idx_logs_run_created ON logs (run, created);
+CREATE INDEX IF NOT EXISTS idx_logs_project_created ON logs (project, created);
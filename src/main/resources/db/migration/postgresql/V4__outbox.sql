@@ -0,0 +1,12 @@
+-- Transactional outbox of the entity changes, drained by the relay in id order
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    entity varchar(255) NOT NULL,
+    type varchar(255) NOT NULL,
+    entity_id varchar(255),
+    project varchar(255),
+    payload bytea NOT NULL,
+    created timestamp(6),
+    PRIMARY KEY (id)
+);
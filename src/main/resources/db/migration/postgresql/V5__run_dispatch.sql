@@ -0,0 +1,16 @@
+-- Durable queue of the runnables dispatched to the executor instances
+
+CREATE TABLE IF NOT EXISTS run_dispatch (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    run varchar(255) NOT NULL,
+    framework varchar(255) NOT NULL,
+    runnable_type varchar(255) NOT NULL,
+    payload bytea NOT NULL,
+    attempts integer NOT NULL,
+    available_at timestamp(6) NOT NULL,
+    claimed_by varchar(255),
+    created timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_run_dispatch_available_at ON run_dispatch (available_at);
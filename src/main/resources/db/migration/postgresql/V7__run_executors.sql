@@ -0,0 +1,10 @@
+-- Instances executing runs, alive while their heartbeat is within the lease
+
+CREATE TABLE IF NOT EXISTS run_executors (
+    id varchar(255) NOT NULL,
+    heartbeat timestamp(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Executor tracking each run in flight, the runs of an expired executor are taken over
+ALTER TABLE runs ADD COLUMN IF NOT EXISTS executor varchar(255);
@@ -0,0 +1,46 @@
+package it.smartcommunitylabdhub.core;
+
+import it.smartcommunitylabdhub.core.config.CacheConfig;
+import it.smartcommunitylabdhub.core.models.entities.function.Function;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class CacheConfigTest {
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = ReflectionTestUtils.invokeMethod(new CacheConfig(), "cacheManager",
+                10L, 60L, 10L, 60L, 10L, 60L);
+    }
+
+    @Test
+    void functionsAreCachedAsCopies() {
+        Cache functions = cacheManager.getCache(CacheConfig.FUNCTIONS);
+        Function function = Function.builder()
+                .id("id").name("name").kind("job").project("project")
+                .spec(new HashMap<>(Map.of("image", "python")))
+                .build();
+        function.setExtra("extra", "value");
+        functions.put("id", function);
+
+        // Neither the stored instance nor the returned ones are shared with the cache
+        function.getSpec().put("image", "changed");
+        Function cached = functions.get("id", Function.class);
+        Assertions.assertEquals("python", cached.getSpec().get("image"));
+        Assertions.assertEquals("value", cached.getExtra().get("extra"));
+
+        cached.getSpec().put("image", "changed");
+        Assertions.assertNotSame(cached, functions.get("id", Function.class));
+        Assertions.assertEquals("python", functions.get("id", Function.class).getSpec().get("image"));
+        Assertions.assertEquals("python", functions.get("id", () -> function).getSpec().get("image"));
+    }
+}
@@ -0,0 +1,154 @@
+package it.smartcommunitylabdhub.core;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import it.smartcommunitylabdhub.core.models.converters.types.CBORDeflateConverter;
+import it.smartcommunitylabdhub.core.utils.jackson.JacksonMapper;
+
+/**
+ * Compares encoding and decoding of the plain cbor values against the cbor+deflate ones, on a run
+ * spec embedding the source of its function and on a log body. The sizes of both encodings are
+ * printed before the benchmarks start.
+ * <p>
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=it.smartcommunitylabdhub.core.CompressionBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP = new TypeReference<>() {
+    };
+
+    @Param({"spec", "log"})
+    public String payload;
+
+    private Map<String, Object> value;
+
+    private byte[] cbor;
+
+    private byte[] deflated;
+
+    @Setup
+    public void setup() throws Exception {
+        value = "spec".equals(payload) ? runSpec() : logBody();
+        cbor = JacksonMapper.CBOR_OBJECT_MAPPER.writeValueAsBytes(value);
+        deflated = CBORDeflateConverter.compress(cbor, 0);
+    }
+
+    @Benchmark
+    public byte[] encodeCbor() throws Exception {
+        return JacksonMapper.CBOR_OBJECT_MAPPER.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] encodeCborDeflate() throws Exception {
+        return CBORDeflateConverter.compress(JacksonMapper.CBOR_OBJECT_MAPPER.writeValueAsBytes(value), 0);
+    }
+
+    @Benchmark
+    public Map<String, Object> decodeCbor() throws Exception {
+        return JacksonMapper.CBOR_OBJECT_MAPPER.readValue(cbor, MAP);
+    }
+
+    @Benchmark
+    public Map<String, Object> decodeCborDeflate() throws Exception {
+        return JacksonMapper.CBOR_OBJECT_MAPPER.readValue(CBORDeflateConverter.uncompress(deflated), MAP);
+    }
+
+    // Spec of a python job run: function source, inputs, parameters and k8s settings
+    static Map<String, Object> runSpec() {
+        Random random = new Random(42);
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            source.append("def step_").append(i).append("(df, threshold=").append(random.nextInt(100))
+                    .append("):\n    df = df[df['value_").append(i % 7).append("'] > threshold]\n")
+                    .append("    return df.groupby('key').agg({'value': 'mean'})\n\n");
+        }
+
+        Map<String, Object> spec = new LinkedHashMap<>();
+        spec.put("task", "python+job://project-demo/etl-pipeline:4c1e7c3a-7d8e-4b0e-9a4a-2f6b1d1b9c55");
+        spec.put("source", Map.of(
+                "base64", Base64.getEncoder().encodeToString(source.toString().getBytes()),
+                "handler", "main:handler",
+                "lang", "python"));
+
+        List<Object> inputs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            inputs.add(Map.of("name", "dataset_" + i,
+                    "path", "s3://datalake/project-demo/raw/2023/11/dataset_" + i + ".parquet"));
+        }
+        spec.put("inputs", inputs);
+
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        for (int i = 0; i < 30; i++) {
+            parameters.put("param_" + i, random.nextDouble());
+        }
+        spec.put("parameters", parameters);
+
+        List<Object> env = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            env.add(Map.of("name", "ENV_VARIABLE_" + i, "value", "value-" + random.nextInt(1000)));
+        }
+        spec.put("k8s", Map.of(
+                "env", env,
+                "resources", Map.of(
+                        "requests", Map.of("cpu", "500m", "memory", "1Gi"),
+                        "limits", Map.of("cpu", "2", "memory", "4Gi"))));
+        return spec;
+    }
+
+    // Log of a job, lines with timestamps and repeated messages
+    static Map<String, Object> logBody() {
+        Random random = new Random(42);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append("2023-11-20T10:").append(String.format("%02d:%02d", i / 60 % 60, i % 60))
+                    .append(".").append(String.format("%03d", random.nextInt(1000))).append("Z ")
+                    .append(i % 10 == 0 ? "WARN " : "INFO ")
+                    .append("[worker-").append(random.nextInt(8)).append("] processed batch ").append(i)
+                    .append(" rows=").append(random.nextInt(100000))
+                    .append(" elapsed_ms=").append(random.nextInt(5000)).append('\n');
+        }
+        return Map.of("content", content.toString());
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (Map<String, Object> value : List.of(runSpec(), logBody())) {
+            byte[] cbor = JacksonMapper.CBOR_OBJECT_MAPPER.writeValueAsBytes(value);
+            byte[] deflated = CBORDeflateConverter.compress(cbor, 0);
+            System.out.printf("cbor %d bytes, cbor+deflate %d bytes, saved %.1f%%%n",
+                    cbor.length, deflated.length, 100.0 * (cbor.length - deflated.length) / cbor.length);
+        }
+
+        new Runner(new OptionsBuilder()
+                .include(CompressionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,93 @@
+package it.smartcommunitylabdhub.core;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import it.smartcommunitylabdhub.core.components.pollers.HashedWheelTimer;
+
+class HashedWheelTimerTest {
+
+    private ExecutorService workers;
+
+    private final AtomicInteger workerThreads = new AtomicInteger();
+
+    private HashedWheelTimer timer;
+
+    @BeforeEach
+    public void setup() {
+        workers = Executors.newFixedThreadPool(2, task -> {
+            workerThreads.incrementAndGet();
+            return new Thread(task);
+        });
+        timer = new HashedWheelTimer("test-timer", 10, TimeUnit.MILLISECONDS, 8, workers);
+    }
+
+    @AfterEach
+    public void teardown() {
+        timer.stop();
+        workers.shutdownNow();
+    }
+
+    @Test
+    void runsManyTasksOnSharedThreads() throws InterruptedException {
+        int tasks = 2000;
+        CountDownLatch latch = new CountDownLatch(tasks);
+
+        for (int i = 0; i < tasks; i++) {
+            // Delays span several rounds of the wheel
+            timer.schedule(latch::countDown, i % 200, TimeUnit.MILLISECONDS);
+        }
+
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        // The tasks share the tick thread and the workers, whatever the other threads of the JVM
+        Assertions.assertTrue(workerThreads.get() <= 2);
+        Assertions.assertEquals(1, Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> "test-timer".equals(thread.getName()))
+                .count());
+        Assertions.assertEquals(0, timer.pending());
+    }
+
+    @Test
+    void cancelledTaskIsNotRun() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        HashedWheelTimer.Timeout cancelled = timer.schedule(counter::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+        timer.schedule(latch::countDown, 100, TimeUnit.MILLISECONDS);
+
+        Assertions.assertTrue(cancelled.cancel());
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, counter.get());
+    }
+
+    @Test
+    void rejectedTaskCanStillBeCancelled() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        CountDownLatch rejected = new CountDownLatch(3);
+        HashedWheelTimer saturated = new HashedWheelTimer("saturated-timer", 10, TimeUnit.MILLISECONDS, 8,
+                task -> {
+                    rejected.countDown();
+                    throw new RejectedExecutionException("saturated");
+                });
+        try {
+            HashedWheelTimer.Timeout timeout = saturated.schedule(counter::incrementAndGet, 0, TimeUnit.MILLISECONDS);
+
+            // Retried on each tick, through the same handle
+            Assertions.assertTrue(rejected.await(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(timeout.cancel());
+            Assertions.assertEquals(0, saturated.pending());
+            Assertions.assertEquals(0, counter.get());
+        } finally {
+            saturated.stop();
+        }
+    }
+}
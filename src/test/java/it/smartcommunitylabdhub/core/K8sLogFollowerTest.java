@@ -0,0 +1,73 @@
+package it.smartcommunitylabdhub.core;
+
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import it.smartcommunitylabdhub.core.components.kubernetes.K8sLogFollower;
+import it.smartcommunitylabdhub.core.components.kubernetes.K8sLogFollower.LogChunk;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+class K8sLogFollowerTest {
+
+    @Mock
+    private CoreV1Api coreV1Api;
+
+    private K8sLogFollower follower;
+
+    private final List<LogChunk> chunks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        follower = new K8sLogFollower();
+        ReflectionTestUtils.setField(follower, "coreV1Api", coreV1Api);
+    }
+
+    @Test
+    void linesWithoutTimestampAreReturnedOnce() throws ApiException {
+        String first = "2026-01-01T10:00:00Z start\n"
+                + "  at frame one\n"
+                + "2026-01-01T10:00:01Z next\n"
+                + "  at frame two\n";
+        // Read again from the since window, along with a new line
+        String second = first + "2026-01-01T10:00:02Z done\n";
+        when(coreV1Api.readNamespacedPodLog(eq("pod"), eq("ns"), eq("main"),
+                any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(first, second, second);
+
+        Assertions.assertTrue(follower.follow("ns", "pod", "main", chunks::add));
+        Assertions.assertTrue(follower.follow("ns", "pod", "main", chunks::add));
+        Assertions.assertFalse(follower.follow("ns", "pod", "main", chunks::add));
+
+        Assertions.assertEquals(2, chunks.size());
+        Assertions.assertEquals("start\n  at frame one\nnext\n  at frame two\n", chunks.get(0).getContent());
+        Assertions.assertEquals("done\n", chunks.get(1).getContent());
+        Assertions.assertEquals(chunks.get(0).getContent().length(), chunks.get(1).getOffset());
+    }
+
+    @Test
+    void leadingLinesWithoutTimestampAreReturnedOnlyByTheFirstRead() throws ApiException {
+        String first = "banner\n2026-01-01T10:00:00Z start\n";
+        String second = "banner\n2026-01-01T10:00:00Z start\n2026-01-01T10:00:01Z next\n";
+        when(coreV1Api.readNamespacedPodLog(eq("pod"), eq("ns"), eq("main"),
+                any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(first, second);
+
+        Assertions.assertTrue(follower.follow("ns", "pod", "main", chunks::add));
+        Assertions.assertTrue(follower.follow("ns", "pod", "main", chunks::add));
+
+        Assertions.assertEquals("banner\nstart\n", chunks.get(0).getContent());
+        Assertions.assertEquals("next\n", chunks.get(1).getContent());
+    }
+}
@@ -0,0 +1,105 @@
+package it.smartcommunitylabdhub.core;
+
+import it.smartcommunitylabdhub.core.components.logs.LogIngestionQueue;
+import it.smartcommunitylabdhub.core.components.logs.LogStore;
+import it.smartcommunitylabdhub.core.components.logs.LogTailBroadcaster;
+import it.smartcommunitylabdhub.core.models.builders.log.LogEntityBuilder;
+import it.smartcommunitylabdhub.core.models.entities.log.LogEntity;
+import it.smartcommunitylabdhub.core.repositories.LogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LogIngestionQueueTest {
+
+    @Mock
+    private LogStore logStore;
+
+    @Mock
+    private LogRepository logRepository;
+
+    @Mock
+    private LogEntityBuilder logEntityBuilder;
+
+    @Mock
+    private LogTailBroadcaster logTailBroadcaster;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LogIngestionQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(logEntityBuilder.build(any())).thenAnswer(invocation -> new LogEntity());
+
+        queue = new LogIngestionQueue();
+        ReflectionTestUtils.setField(queue, "logStore", logStore);
+        ReflectionTestUtils.setField(queue, "logRepository", logRepository);
+        ReflectionTestUtils.setField(queue, "logEntityBuilder", logEntityBuilder);
+        ReflectionTestUtils.setField(queue, "logTailBroadcaster", logTailBroadcaster);
+        ReflectionTestUtils.setField(queue, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(queue, "capacity", 100);
+        ReflectionTestUtils.setField(queue, "batchSize", 10);
+        ReflectionTestUtils.setField(queue, "flushIntervalMs", 10L);
+        ReflectionTestUtils.setField(queue, "maxAttempts", 3);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        queue.stop();
+    }
+
+    @Test
+    void failedBatchIsWrittenAgainWithoutAppendingTwice() {
+        when(logRepository.saveAll(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(List.of());
+        Assertions.assertTrue(queue.offer("project", "run-a", "a1\n", Map.of()));
+        Assertions.assertTrue(queue.offer("project", "run-b", "b1\n", Map.of()));
+        Assertions.assertTrue(queue.offer("project", "run-a", "a2\n", Map.of()));
+        queue.start();
+
+        verify(logTailBroadcaster, timeout(5000)).appended("run-a");
+        verify(logTailBroadcaster, timeout(5000)).appended("run-b");
+        verify(logRepository, times(2)).saveAll(anyList());
+        verify(logStore).append(eq("run-a"), eq("a1\na2\n".getBytes()));
+        verify(logStore).append(eq("run-b"), eq("b1\n".getBytes()));
+        Assertions.assertEquals(0, queue.getDropped());
+    }
+
+    @Test
+    void batchIsDroppedAfterTheMaximumAttempts() throws InterruptedException {
+        when(logRepository.saveAll(anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+        Assertions.assertTrue(queue.offer("project", "run-a", "a1\n", Map.of()));
+        Assertions.assertTrue(queue.offer("project", "run-b", "b1\n", Map.of()));
+        queue.start();
+
+        verify(logRepository, after(500).times(3)).saveAll(anyList());
+        Assertions.assertEquals(2, queue.getDropped());
+        verify(logStore).append(eq("run-a"), any());
+        verify(logTailBroadcaster, times(0)).appended(any());
+    }
+}
@@ -0,0 +1,85 @@
+package it.smartcommunitylabdhub.core;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import it.smartcommunitylabdhub.core.exceptions.CoreException;
+import it.smartcommunitylabdhub.core.services.RunSerivceImpl;
+import it.smartcommunitylabdhub.core.utils.MapUtils;
+
+/**
+ * Examples of RFC 7386, applied to the run status.
+ */
+class MergePatchTest {
+
+    @Test
+    void valuesAreReplacedAndAdded() {
+        Map<String, Object> patched = MapUtils.mergePatch(
+                Map.of("state", "RUNNING", "progress", 10),
+                Map.of("state", "COMPLETED", "result", "ok"));
+
+        Assertions.assertEquals(Map.of("state", "COMPLETED", "progress", 10, "result", "ok"), patched);
+    }
+
+    @Test
+    void nullRemovesTheField() {
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("message", null);
+        patch.put("missing", null);
+
+        Map<String, Object> patched = MapUtils.mergePatch(
+                Map.of("state", "ERROR", "message", "failed"), patch);
+
+        Assertions.assertEquals(Map.of("state", "ERROR"), patched);
+    }
+
+    @Test
+    void mapsArePatchedRecursively() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("loss", 0.1);
+        metrics.put("steps", null);
+
+        Map<String, Object> patched = MapUtils.mergePatch(
+                Map.of("metrics", Map.of("loss", 0.5, "steps", 100, "epochs", 3)),
+                Map.of("metrics", metrics, "labels", Map.of("team", "a")));
+
+        Assertions.assertEquals(Map.of(
+                "metrics", Map.of("loss", 0.1, "epochs", 3),
+                "labels", Map.of("team", "a")), patched);
+    }
+
+    @Test
+    void listsAndScalarsReplaceMaps() {
+        Map<String, Object> patched = MapUtils.mergePatch(
+                Map.of("artifacts", Map.of("a", 1), "result", Map.of("value", 1)),
+                Map.of("artifacts", List.of("b"), "result", "done"));
+
+        Assertions.assertEquals(Map.of("artifacts", List.of("b"), "result", "done"), patched);
+    }
+
+    @Test
+    void runStateCannotBeRemoved() {
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("state", null);
+
+        // Rejected before the run is read
+        CoreException e = Assertions.assertThrows(CoreException.class,
+                () -> new RunSerivceImpl().patchStatus("run", patch));
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+    }
+
+    @Test
+    void targetIsLeftUnchanged() {
+        Map<String, Object> status = Map.of("state", "READY");
+
+        MapUtils.mergePatch(status, Map.of("state", "RUNNING"));
+
+        Assertions.assertEquals(Map.of("state", "READY"), status);
+    }
+}
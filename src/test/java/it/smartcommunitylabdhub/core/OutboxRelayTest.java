@@ -0,0 +1,121 @@
+package it.smartcommunitylabdhub.core;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import it.smartcommunitylabdhub.core.components.outbox.OutboxPublisher;
+import it.smartcommunitylabdhub.core.components.outbox.OutboxRelay;
+import it.smartcommunitylabdhub.core.config.queue.RabbitAmqpConfig;
+import it.smartcommunitylabdhub.core.models.entities.outbox.OutboxEventEntity;
+import it.smartcommunitylabdhub.core.repositories.OutboxRepository;
+
+/**
+ * The broker is stood in by a mock of the channel operations of the rabbit template.
+ */
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private RabbitOperations operations;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(rabbitTemplate.invoke(any(RabbitOperations.OperationsCallback.class))).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(operations));
+
+        // Not started, batches are relayed by the test
+        relay = new OutboxRelay(outboxRepository, new OutboxPublisher(rabbitTemplate, 1000),
+                new TransactionTemplate(transactionManager), false, 2, 0, 1000);
+    }
+
+    @Test
+    void confirmedEventsArePublishedInOrderAndDeleted() {
+        List<OutboxEventEntity> events = List.of(event(1), event(2));
+        when(outboxRepository.findOldest(PageRequest.of(0, 2))).thenReturn(events);
+
+        Assertions.assertEquals(2, relay.relayBatch());
+
+        ArgumentCaptor<Message> messages = ArgumentCaptor.forClass(Message.class);
+        InOrder order = inOrder(operations, outboxRepository, transactionManager);
+        order.verify(operations, times(2)).send(eq(""), eq(RabbitAmqpConfig.QUEUE), messages.capture());
+        order.verify(operations).waitForConfirmsOrDie(1000);
+        order.verify(outboxRepository).deleteAllInBatch(events);
+        order.verify(transactionManager).commit(any());
+
+        Assertions.assertEquals("1", messages.getAllValues().get(0).getMessageProperties().getMessageId());
+        Assertions.assertEquals("2", messages.getAllValues().get(1).getMessageProperties().getMessageId());
+        Assertions.assertEquals(OutboxPublisher.CONTENT_TYPE,
+                messages.getAllValues().get(0).getMessageProperties().getContentType());
+        Assertions.assertArrayEquals(events.get(0).getPayload(), messages.getAllValues().get(0).getBody());
+    }
+
+    @Test
+    void unconfirmedEventsStayInTheOutbox() {
+        List<OutboxEventEntity> events = List.of(event(1));
+        when(outboxRepository.findOldest(PageRequest.of(0, 2))).thenReturn(events);
+        doThrow(new AmqpTimeoutException("not confirmed")).when(operations).waitForConfirmsOrDie(1000);
+
+        Assertions.assertThrows(AmqpTimeoutException.class, () -> relay.relayBatch());
+
+        verify(outboxRepository, never()).deleteAllInBatch(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void emptyOutboxPublishesNothing() {
+        when(outboxRepository.findOldest(PageRequest.of(0, 2))).thenReturn(List.of());
+
+        Assertions.assertEquals(0, relay.relayBatch());
+
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    private static OutboxEventEntity event(long id) {
+        return OutboxEventEntity.builder()
+                .id(id)
+                .entity("RUN")
+                .type("UPDATED")
+                .entityId("run-" + id)
+                .project("project")
+                .payload(("event " + id).getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package it.smartcommunitylabdhub.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import it.smartcommunitylabdhub.core.components.pollers.PollingPolicy;
+
+class PollingPolicyTest {
+
+    @Test
+    void fixedPolicyKeepsTheDelay() {
+        PollingPolicy policy = PollingPolicy.fixed(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(5000, policy.nextDelay(5000, false));
+        Assertions.assertEquals(5000, policy.nextDelay(5000, true));
+        Assertions.assertEquals(5000, policy.jittered(5000));
+    }
+
+    @Test
+    void delayGrowsUpToTheCapAndResetsOnChange() {
+        PollingPolicy policy = PollingPolicy.adaptive(1, 60, TimeUnit.SECONDS, 2, 0);
+
+        long delay = policy.getMinDelay();
+        for (int i = 0; i < 5; i++) {
+            delay = policy.nextDelay(delay, false);
+        }
+        Assertions.assertEquals(32000, delay);
+
+        for (int i = 0; i < 5; i++) {
+            delay = policy.nextDelay(delay, false);
+        }
+        Assertions.assertEquals(60000, delay);
+
+        Assertions.assertEquals(1000, policy.nextDelay(delay, true));
+    }
+
+    @Test
+    void jitterStaysWithinBounds() {
+        PollingPolicy policy = PollingPolicy.adaptive(2, 60, TimeUnit.SECONDS, 2, 0.2);
+
+        for (int i = 0; i < 1000; i++) {
+            long delay = policy.jittered(10000);
+            Assertions.assertTrue(delay >= 8000 && delay <= 12000, "delay " + delay);
+            Assertions.assertTrue(policy.jittered(2000) >= 2000);
+        }
+    }
+
+    @Test
+    void minDelayRaisesTheCap() {
+        PollingPolicy policy = PollingPolicy.adaptive(1, 10, TimeUnit.SECONDS, 2, 0)
+                .withMinDelay(30, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(30000, policy.getMinDelay());
+        Assertions.assertEquals(30000, policy.nextDelay(30000, false));
+    }
+}
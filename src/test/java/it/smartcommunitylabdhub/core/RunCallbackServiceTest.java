@@ -0,0 +1,103 @@
+package it.smartcommunitylabdhub.core;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import it.smartcommunitylabdhub.core.components.callbacks.RunCallbackTokens;
+import it.smartcommunitylabdhub.core.components.fsm.types.RunStateMachine;
+import it.smartcommunitylabdhub.core.exceptions.CoreException;
+import it.smartcommunitylabdhub.core.models.entities.run.Run;
+import it.smartcommunitylabdhub.core.models.entities.run.RunCallback;
+import it.smartcommunitylabdhub.core.services.RunCallbackServiceImpl;
+import it.smartcommunitylabdhub.core.services.interfaces.RunJournalService;
+import it.smartcommunitylabdhub.core.services.interfaces.RunService;
+
+/**
+ * The callbacks drive a run state machine with the actual definition, its actions run on the
+ * calling thread.
+ */
+class RunCallbackServiceTest {
+
+    @Mock
+    private RunService runService;
+
+    @Mock
+    private RunJournalService runJournalService;
+
+    @Mock
+    private RunCallbackTokens runCallbackTokens;
+
+    private RunCallbackServiceImpl runCallbackService;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        RunStateMachine runStateMachine = new RunStateMachine();
+        ReflectionTestUtils.setField(runStateMachine, "runService", runService);
+        ReflectionTestUtils.setField(runStateMachine, "runJournalService", runJournalService);
+        ReflectionTestUtils.setField(runStateMachine, "taskExecutor", (TaskExecutor) Runnable::run);
+        runStateMachine.init();
+
+        runCallbackService = new RunCallbackServiceImpl();
+        ReflectionTestUtils.setField(runCallbackService, "runService", runService);
+        ReflectionTestUtils.setField(runCallbackService, "runStateMachine", runStateMachine);
+        ReflectionTestUtils.setField(runCallbackService, "runCallbackTokens", runCallbackTokens);
+
+        when(runCallbackTokens.verify(anyString(), anyString())).thenReturn(true);
+    }
+
+    @Test
+    public void unreachableStatesAreRejected() {
+        givenRun("READY");
+
+        for (String state : new String[]{"PENDING", "STOP"}) {
+            CoreException e = Assertions.assertThrows(CoreException.class,
+                    () -> runCallbackService.callback("run", "Bearer token",
+                            RunCallback.builder().state(state).build()));
+            Assertions.assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+        }
+        verify(runService, never()).patchStatus(anyString(), anyMap(), any());
+    }
+
+    @Test
+    public void reachableStatesArePatched() {
+        givenRun("READY");
+
+        runCallbackService.callback("run", "Bearer token",
+                RunCallback.builder().state("running").progress(0.5).build());
+
+        verify(runService).patchStatus(eq("run"), eq(Map.of("state", "RUNNING", "progress", 0.5)), any());
+    }
+
+    @Test
+    public void lateStatesAreSkipped() {
+        givenRun("COMPLETED");
+
+        runCallbackService.callback("run", "Bearer token",
+                RunCallback.builder().state("ERROR").message("late").build());
+
+        verify(runService).patchStatus(eq("run"), eq(Map.of("message", "late")), any());
+    }
+
+    private void givenRun(String state) {
+        Run run = Run.builder().id("run").status(new HashMap<>(Map.of("state", state))).build();
+        when(runService.getRun("run")).thenReturn(run);
+    }
+}
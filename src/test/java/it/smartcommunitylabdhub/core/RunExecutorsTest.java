@@ -0,0 +1,133 @@
+package it.smartcommunitylabdhub.core;
+
+import it.smartcommunitylabdhub.core.components.dispatch.ExecutorHeartbeatEvent;
+import it.smartcommunitylabdhub.core.components.dispatch.RunExecutors;
+import it.smartcommunitylabdhub.core.components.events.listeners.RunEventListener;
+import it.smartcommunitylabdhub.core.components.events.listeners.RunRecoveryListener;
+import it.smartcommunitylabdhub.core.components.events.messages.RunMessage;
+import it.smartcommunitylabdhub.core.components.infrastructure.enums.EntityName;
+import it.smartcommunitylabdhub.core.components.infrastructure.factories.specs.SpecRegistry;
+import it.smartcommunitylabdhub.core.components.kinds.factory.workflows.KindWorkflow;
+import it.smartcommunitylabdhub.core.components.kinds.factory.workflows.KindWorkflowFactory;
+import it.smartcommunitylabdhub.core.components.pollers.PollingService;
+import it.smartcommunitylabdhub.core.components.workflows.factory.Workflow;
+import it.smartcommunitylabdhub.core.models.entities.run.Run;
+import it.smartcommunitylabdhub.core.models.entities.run.specs.RunBaseSpec;
+import it.smartcommunitylabdhub.core.repositories.RunRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * The runs and executors tables are created by the h2 migrations on an in-memory database.
+ */
+class RunExecutorsTest {
+
+    private static final String RUN_ID = "mlrun-run";
+
+    @Mock
+    private ApplicationEventPublisher heartbeatPublisher;
+
+    @Mock
+    private ApplicationEventPublisher recoveryPublisher;
+
+    @Mock
+    private SpecRegistry<?> specRegistry;
+
+    @Mock
+    private KindWorkflowFactory kindWorkflowFactory;
+
+    @Mock
+    private PollingService pollingService;
+
+    @Mock
+    private RunRepository runRepository;
+
+    private RunExecutors runExecutors;
+
+    private AutoCloseable mocks;
+
+    @BeforeEach
+    void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+
+        String url = "jdbc:h2:mem:run-executors-test;DB_CLOSE_DELAY=-1";
+        Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("classpath:db/migration/h2")
+                .load()
+                .migrate();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        jdbcTemplate.update("DELETE FROM runs");
+        jdbcTemplate.update("DELETE FROM run_executors");
+        jdbcTemplate.update("INSERT INTO runs (id, task, kind, project, task_id, state) VALUES (?, ?, ?, ?, ?, ?)",
+                RUN_ID, "mlrun+job://project/function:1", "run", "project", "task", "RUNNING");
+
+        runExecutors = new RunExecutors(jdbcTemplate, heartbeatPublisher, true, 60000, 60000);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        runExecutors.stop();
+        mocks.close();
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void heartbeatSweepLeavesAnOwnedMlrunRunAlone() {
+        // The first beat registers this executor
+        runExecutors.start();
+        verify(heartbeatPublisher, timeout(5000)).publishEvent(any(ExecutorHeartbeatEvent.class));
+        Assertions.assertEquals(1, runExecutors.orphans().size());
+
+        // Run handed to this instance by the mlrun job listener
+        RunBaseSpec<?> spec = mock(RunBaseSpec.class);
+        when(spec.getTask()).thenReturn("mlrun+job://project/function:1");
+        doReturn(spec).when(specRegistry).createSpec(anyString(), eq(EntityName.RUN), any());
+        KindWorkflow kindWorkflow = mock(KindWorkflow.class);
+        when(kindWorkflow.build(any())).thenReturn(mock(Workflow.class));
+        when(kindWorkflowFactory.getWorkflow("mlrun", "job")).thenReturn(kindWorkflow);
+
+        RunEventListener runEventListener = new RunEventListener();
+        ReflectionTestUtils.setField(runEventListener, "specRegistry", specRegistry);
+        ReflectionTestUtils.setField(runEventListener, "kindWorkflowFactory", kindWorkflowFactory);
+        ReflectionTestUtils.setField(runEventListener, "pollingService", pollingService);
+        ReflectionTestUtils.setField(runEventListener, "runExecutors", runExecutors);
+        runEventListener.handle(RunMessage.builder()
+                .runDTO(Run.builder().id(RUN_ID).kind("run").project("project").build())
+                .build());
+        verify(pollingService).startOne("run:" + RUN_ID);
+
+        RunRecoveryListener runRecoveryListener = new RunRecoveryListener();
+        ReflectionTestUtils.setField(runRecoveryListener, "runExecutors", runExecutors);
+        ReflectionTestUtils.setField(runRecoveryListener, "runRepository", runRepository);
+        ReflectionTestUtils.setField(runRecoveryListener, "eventPublisher", recoveryPublisher);
+        ReflectionTestUtils.setField(runRecoveryListener, "enabled", true);
+        runRecoveryListener.recover(new ExecutorHeartbeatEvent(runExecutors.getId()));
+
+        Assertions.assertEquals(List.of(), runExecutors.orphans());
+        Assertions.assertFalse(runExecutors.takeOver(RUN_ID, null));
+        verifyNoInteractions(runRepository, recoveryPublisher);
+    }
+}
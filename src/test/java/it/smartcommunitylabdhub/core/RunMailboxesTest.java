@@ -0,0 +1,192 @@
+package it.smartcommunitylabdhub.core;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import it.smartcommunitylabdhub.core.components.runs.RunMailboxes;
+import it.smartcommunitylabdhub.core.exceptions.CoreException;
+import it.smartcommunitylabdhub.core.models.builders.run.RunDTOBuilder;
+import it.smartcommunitylabdhub.core.models.builders.run.RunEntityBuilder;
+import it.smartcommunitylabdhub.core.models.entities.run.Run;
+import it.smartcommunitylabdhub.core.models.entities.run.RunEntity;
+import it.smartcommunitylabdhub.core.repositories.RunRepository;
+
+/**
+ * The mailbox tasks are queued on a manual executor, run by the test.
+ */
+class RunMailboxesTest {
+
+    @Mock
+    private RunRepository runRepository;
+
+    @Mock
+    private RunEntityBuilder runEntityBuilder;
+
+    @Mock
+    private RunDTOBuilder runDTOBuilder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Queue<java.lang.Runnable> tasks = new ArrayDeque<>();
+
+    private final RunEntity entity = RunEntity.builder().id("run").build();
+
+    private RunMailboxes mailboxes;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(runRepository.findById("run")).thenReturn(Optional.of(entity));
+        when(runDTOBuilder.build(entity)).thenAnswer(invocation ->
+                Run.builder().id("run").status(new HashMap<>()).build());
+        when(runEntityBuilder.update(eq(entity), any())).thenReturn(entity);
+
+        mailboxes = new RunMailboxes(runRepository, runEntityBuilder, runDTOBuilder,
+                new TransactionTemplate(transactionManager), tasks::add, 10, 1000);
+    }
+
+    @Test
+    void queuedUpdatesAreWrittenOnce() {
+        CompletableFuture<Run> first = mailboxes.submit("run", run -> {
+            run.getStatus().put("state", "RUNNING");
+            return run;
+        });
+        CompletableFuture<Run> second = mailboxes.submit("run", run -> {
+            run.getStatus().put("progress", 50);
+            return run;
+        });
+
+        // A single drain for the mailbox
+        Assertions.assertEquals(1, tasks.size());
+        runTasks();
+
+        ArgumentCaptor<Run> written = ArgumentCaptor.forClass(Run.class);
+        verify(runRepository, times(1)).findById("run");
+        verify(runEntityBuilder, times(1)).update(eq(entity), written.capture());
+        verify(runRepository, times(1)).saveAndFlush(entity);
+        Assertions.assertEquals("RUNNING", written.getValue().getStatus().get("state"));
+        Assertions.assertEquals(50, written.getValue().getStatus().get("progress"));
+        Assertions.assertTrue(first.isDone() && second.isDone());
+        Assertions.assertSame(first.join(), second.join());
+    }
+
+    @Test
+    void unchangedRunIsNotWritten() {
+        CompletableFuture<Run> result = mailboxes.submit("run", run -> null);
+        runTasks();
+
+        verify(runRepository, never()).saveAndFlush(any());
+        Assertions.assertEquals("run", result.join().getId());
+    }
+
+    @Test
+    void failedUpdateDoesNotDropTheOthers() {
+        CompletableFuture<Run> failed = mailboxes.submit("run", run -> {
+            throw new IllegalStateException("invalid");
+        });
+        CompletableFuture<Run> stored = mailboxes.submit("run", run -> {
+            run.getStatus().put("state", "COMPLETED");
+            return run;
+        });
+        runTasks();
+
+        Assertions.assertTrue(failed.isCompletedExceptionally());
+        verify(runRepository, times(1)).saveAndFlush(entity);
+        Assertions.assertFalse(stored.isCompletedExceptionally());
+    }
+
+    @Test
+    void failedUpdateLeavesNoPartialChange() {
+        CompletableFuture<Run> failed = mailboxes.submit("run", run -> {
+            run.getStatus().put("state", "ERROR");
+            throw new IllegalStateException("invalid");
+        });
+        CompletableFuture<Run> stored = mailboxes.submit("run", run -> {
+            run.getStatus().put("progress", 80);
+            return run;
+        });
+        runTasks();
+
+        ArgumentCaptor<Run> written = ArgumentCaptor.forClass(Run.class);
+        verify(runEntityBuilder, times(1)).update(eq(entity), written.capture());
+        Assertions.assertTrue(failed.isCompletedExceptionally());
+        Assertions.assertFalse(stored.isCompletedExceptionally());
+        Assertions.assertEquals(80, written.getValue().getStatus().get("progress"));
+        Assertions.assertFalse(written.getValue().getStatus().containsKey("state"));
+    }
+
+    @Test
+    void missingRunFailsTheUpdates() {
+        when(runRepository.findById("missing")).thenReturn(Optional.empty());
+        CompletableFuture<Run> result = mailboxes.submit("missing", run -> run);
+        runTasks();
+
+        Assertions.assertTrue(result.isCompletedExceptionally());
+        Assertions.assertThrows(CoreException.class, () -> {
+            try {
+                result.join();
+            } catch (RuntimeException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    @Test
+    void conflictingPatchMakesTheBatchRunAgain() {
+        when(runRepository.saveAndFlush(entity))
+                .thenThrow(new ObjectOptimisticLockingFailureException(RunEntity.class, "run"))
+                .thenReturn(entity);
+
+        CompletableFuture<Run> result = mailboxes.submit("run", run -> {
+            run.getStatus().put("progress", 80);
+            return run;
+        });
+        runTasks();
+
+        verify(runRepository, times(2)).findById("run");
+        verify(runRepository, times(2)).saveAndFlush(entity);
+        Assertions.assertFalse(result.isCompletedExceptionally());
+    }
+
+    @Test
+    void drainedMailboxIsClosed() {
+        mailboxes.submit("run", run -> run);
+        runTasks();
+
+        // A new mailbox, drained by a new task
+        mailboxes.submit("run", run -> run);
+        Assertions.assertEquals(1, tasks.size());
+        runTasks();
+        verify(runRepository, times(2)).saveAndFlush(entity);
+    }
+
+    private void runTasks() {
+        java.lang.Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package it.smartcommunitylabdhub.core;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import it.smartcommunitylabdhub.core.components.fsm.enums.RunState;
+import it.smartcommunitylabdhub.core.components.fsm.types.RunStateMachine;
+import it.smartcommunitylabdhub.core.services.interfaces.RunJournalService;
+import it.smartcommunitylabdhub.core.services.interfaces.RunService;
+
+/**
+ * The actions of the state machines run on the calling thread, the state they store is checked
+ * against the status of the run through the condition of the patch.
+ */
+class RunStateMachineTest {
+
+    @Mock
+    private RunService runService;
+
+    @Mock
+    private RunJournalService runJournalService;
+
+    private RunStateMachine runStateMachine;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        runStateMachine = new RunStateMachine();
+        ReflectionTestUtils.setField(runStateMachine, "runService", runService);
+        ReflectionTestUtils.setField(runStateMachine, "runJournalService", runJournalService);
+        ReflectionTestUtils.setField(runStateMachine, "taskExecutor", (TaskExecutor) Runnable::run);
+        runStateMachine.init();
+    }
+
+    @Test
+    public void finalStatesAreNotOverwritten() {
+        runStateMachine.create(RunState.READY, Map.of("runId", "run")).goToState(RunState.RUNNING);
+
+        Predicate<Map<String, Object>> condition = storedCondition(RunState.RUNNING);
+        Assertions.assertFalse(condition.test(Map.of("state", "COMPLETED")));
+        Assertions.assertFalse(condition.test(Map.of("state", "ERROR")));
+        Assertions.assertFalse(condition.test(Map.of("state", "STOP")));
+        Assertions.assertTrue(condition.test(Map.of("state", "READY")));
+    }
+
+    @Test
+    public void olderStatesAreNotStored() {
+        runStateMachine.create(RunState.CREATED, Map.of("runId", "run")).goToState(RunState.READY);
+
+        Predicate<Map<String, Object>> condition = storedCondition(RunState.READY);
+        Assertions.assertFalse(condition.test(Map.of("state", "RUNNING")));
+        Assertions.assertTrue(condition.test(Map.of("state", "CREATED")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Predicate<Map<String, Object>> storedCondition(RunState state) {
+        ArgumentCaptor<Predicate<Map<String, Object>>> condition = ArgumentCaptor.forClass(Predicate.class);
+        verify(runService).patchStatus(eq("run"), eq(Map.of("state", state.name())), condition.capture());
+        return condition.getValue();
+    }
+}
@@ -0,0 +1,139 @@
+package it.smartcommunitylabdhub.core;
+
+import it.smartcommunitylabdhub.core.models.entities.artifact.ArtifactEntity;
+import it.smartcommunitylabdhub.core.models.entities.dataitem.DataItemEntity;
+import it.smartcommunitylabdhub.core.models.entities.dispatch.RunDispatchEntity;
+import it.smartcommunitylabdhub.core.models.entities.function.FunctionEntity;
+import it.smartcommunitylabdhub.core.models.entities.log.LogEntity;
+import it.smartcommunitylabdhub.core.models.entities.outbox.OutboxEventEntity;
+import it.smartcommunitylabdhub.core.models.entities.project.ProjectEntity;
+import it.smartcommunitylabdhub.core.models.entities.run.RunEntity;
+import it.smartcommunitylabdhub.core.models.entities.run.RunSnapshotEntity;
+import it.smartcommunitylabdhub.core.models.entities.run.RunTransitionEntity;
+import it.smartcommunitylabdhub.core.models.entities.task.TaskEntity;
+import it.smartcommunitylabdhub.core.models.entities.version.LatestVersionEntity;
+import it.smartcommunitylabdhub.core.models.entities.workflow.WorkflowEntity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Checks that the migrations of every database vendor create the indexes declared on the
+ * entities. The migrations are applied to an in-memory H2 database, in PostgreSQL compatibility
+ * mode for the PostgreSQL ones.
+ */
+class SchemaIndexTest {
+
+    private static final List<Class<?>> ENTITIES = List.of(
+            ProjectEntity.class, FunctionEntity.class, ArtifactEntity.class, DataItemEntity.class,
+            WorkflowEntity.class, TaskEntity.class, RunEntity.class, LogEntity.class,
+            RunTransitionEntity.class, RunSnapshotEntity.class, LatestVersionEntity.class,
+            OutboxEventEntity.class, RunDispatchEntity.class);
+
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "CREATE\\s+INDEX\\s+IF\\s+NOT\\s+EXISTS\\s+(\\w+)\\s+ON\\s+(\\w+)\\s*\\(([^)]*)\\)",
+            Pattern.CASE_INSENSITIVE);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"h2", "postgresql"})
+    void migrationsCreateTheEntityIndexes(String vendor) throws Exception {
+        Assertions.assertEquals(entityIndexes(), migrationIndexes(vendor));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"h2", "postgresql"})
+    void schemaHasTheEntityIndexes(String vendor) throws SQLException {
+        String url = "jdbc:h2:mem:schema-index-" + vendor + ";DB_CLOSE_DELAY=-1"
+                + ("postgresql".equals(vendor) ? ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE" : "");
+        Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("classpath:db/migration/" + vendor)
+                .load()
+                .migrate();
+
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, String> expected = entityIndexes();
+
+            for (Map.Entry<String, String> index : expected.entrySet()) {
+                String table = index.getValue().substring(0, index.getValue().indexOf(' '));
+                Assertions.assertEquals(index.getValue(), table + " " + indexColumns(metaData, table, index.getKey()),
+                        "index " + index.getKey());
+            }
+        }
+    }
+
+    // Index name to "table col1,col2", as declared on the entities
+    private static Map<String, String> entityIndexes() {
+        Map<String, String> indexes = new TreeMap<>();
+        for (Class<?> entity : ENTITIES) {
+            Table table = entity.getAnnotation(Table.class);
+            for (Index index : table.indexes()) {
+                indexes.put(index.name().toLowerCase(), table.name() + " " + normalize(index.columnList()));
+            }
+        }
+        return indexes;
+    }
+
+    private static Map<String, String> migrationIndexes(String vendor) throws IOException, URISyntaxException {
+        Path location = Path.of(SchemaIndexTest.class.getClassLoader()
+                .getResource("db/migration/" + vendor).toURI());
+
+        Map<String, String> indexes = new TreeMap<>();
+        try (Stream<Path> scripts = Files.list(location)) {
+            for (Path script : scripts.filter(p -> p.toString().endsWith(".sql")).toList()) {
+                Matcher matcher = CREATE_INDEX.matcher(Files.readString(script));
+                while (matcher.find()) {
+                    indexes.put(matcher.group(1).toLowerCase(),
+                            matcher.group(2).toLowerCase() + " " + normalize(matcher.group(3)));
+                }
+            }
+        }
+        return indexes;
+    }
+
+    private static String indexColumns(DatabaseMetaData metaData, String table, String index) throws SQLException {
+        Map<String, List<String>> columns = new HashMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(null, null,
+                metaData.storesLowerCaseIdentifiers() ? table : table.toUpperCase(), false, false)) {
+            while (rs.next()) {
+                String name = rs.getString("INDEX_NAME");
+                if (name != null) {
+                    // Rows are ordered by index name and column position
+                    columns.computeIfAbsent(name.toLowerCase(), k -> new ArrayList<>())
+                            .add(rs.getString("COLUMN_NAME"));
+                }
+            }
+        }
+        return normalize(String.join(",", columns.getOrDefault(index, List.of())));
+    }
+
+    private static String normalize(String columnList) {
+        return Arrays.stream(columnList.split(","))
+                .map(c -> c.trim().toLowerCase())
+                .collect(Collectors.joining(","));
+    }
+}
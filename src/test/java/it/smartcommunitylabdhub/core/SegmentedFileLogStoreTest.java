@@ -0,0 +1,59 @@
+package it.smartcommunitylabdhub.core;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import it.smartcommunitylabdhub.core.components.logs.SegmentedFileLogStore;
+
+class SegmentedFileLogStoreTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void appendsAreReadBackAcrossSegments() throws Exception {
+        SegmentedFileLogStore store = new SegmentedFileLogStore(root.toString(), 8);
+
+        Assertions.assertEquals(0, store.append("run-1", bytes("first line\n")));
+        Assertions.assertEquals(11, store.append("run-1", bytes("second\n")));
+        Assertions.assertEquals(18, store.append("run-1", bytes("third\n")));
+
+        // The first chunk filled its segment, the following ones share the second segment
+        try (var files = Files.list(root.resolve("run-1"))) {
+            Assertions.assertEquals(2, files.count());
+        }
+
+        Assertions.assertEquals(24, store.size("run-1"));
+        Assertions.assertEquals("first line\nsecond\nthird\n", string(store.read("run-1", 0, 100)));
+        Assertions.assertEquals("line\nsec", string(store.read("run-1", 6, 8)));
+        Assertions.assertEquals("third\n", string(store.read("run-1", 18, 100)));
+        Assertions.assertEquals(0, store.read("run-1", 24, 100).length);
+    }
+
+    @Test
+    void missingLogsAreEmptyAndDeletedLogsAreGone() {
+        SegmentedFileLogStore store = new SegmentedFileLogStore(root.toString(), 1024);
+
+        Assertions.assertEquals(0, store.size("run-2"));
+        Assertions.assertEquals(0, store.read("run-2", 0, 10).length);
+
+        store.append("run-2", bytes("content"));
+        store.delete("run-2");
+
+        Assertions.assertFalse(Files.exists(root.resolve("run-2")));
+        Assertions.assertEquals(0, store.size("run-2"));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
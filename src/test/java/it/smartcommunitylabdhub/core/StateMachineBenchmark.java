@@ -0,0 +1,143 @@
+package it.smartcommunitylabdhub.core;
+
+import it.smartcommunitylabdhub.core.components.fsm.StateMachine;
+import it.smartcommunitylabdhub.core.components.fsm.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of goToState with the precomputed transition table against the
+ * depth-first path search used before.
+ * <p>
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=it.smartcommunitylabdhub.core.StateMachineBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateMachineBenchmark {
+
+    enum BenchState {
+        CREATED, BUILT, READY, PENDING, RUNNING, COMPLETED, ERROR
+    }
+
+    enum BenchEvent {
+        BUILD, PREPARE, PENDING, RUN, COMPLETE, RESTART, FAIL
+    }
+
+    // Targets visited in turn, the graph has a cycle so the walk never ends
+    private static final BenchState[] TARGETS = {
+            BenchState.RUNNING, BenchState.COMPLETED, BenchState.PENDING, BenchState.COMPLETED
+    };
+
+    private StateMachine<BenchState, BenchEvent, Map<String, Object>> stateMachine;
+
+    private Map<BenchState, it.smartcommunitylabdhub.core.components.fsm.State<BenchState, BenchEvent, Map<String, Object>>> states;
+
+    private BenchState legacyCurrentState;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        states = new HashMap<>();
+        for (BenchState state : BenchState.values()) {
+            states.put(state, new it.smartcommunitylabdhub.core.components.fsm.State<>());
+        }
+        transition(BenchState.CREATED, BenchEvent.BUILD, BenchState.BUILT);
+        transition(BenchState.CREATED, BenchEvent.FAIL, BenchState.ERROR);
+        transition(BenchState.BUILT, BenchEvent.PREPARE, BenchState.READY);
+        transition(BenchState.READY, BenchEvent.PENDING, BenchState.PENDING);
+        transition(BenchState.READY, BenchEvent.FAIL, BenchState.ERROR);
+        transition(BenchState.PENDING, BenchEvent.RUN, BenchState.RUNNING);
+        transition(BenchState.RUNNING, BenchEvent.COMPLETE, BenchState.COMPLETED);
+        transition(BenchState.RUNNING, BenchEvent.FAIL, BenchState.ERROR);
+        transition(BenchState.COMPLETED, BenchEvent.RESTART, BenchState.CREATED);
+
+        StateMachine.Builder<BenchState, BenchEvent, Map<String, Object>> builder = StateMachine
+                .<BenchState, BenchEvent, Map<String, Object>>builder(BenchState.CREATED, Optional.of(new HashMap<>()))
+                .withErrorState(BenchState.ERROR, states.get(BenchState.ERROR));
+        states.forEach(builder::withState);
+
+        stateMachine = builder.build();
+        legacyCurrentState = BenchState.CREATED;
+        next = 0;
+    }
+
+    private void transition(BenchState from, BenchEvent event, BenchState to) {
+        states.get(from).addTransaction(new Transaction<>(event, to, context -> true));
+    }
+
+    @Benchmark
+    public void goToState(Blackhole blackhole) {
+        stateMachine.goToState(TARGETS[next++ & 3]);
+        blackhole.consume(stateMachine.getCurrentState());
+    }
+
+    @Benchmark
+    public void legacyGoToState(Blackhole blackhole) {
+        List<BenchState> path = legacyFindPath(legacyCurrentState, TARGETS[next++ & 3]);
+        for (int i = 0; i < path.size() - 1; i++) {
+            BenchState nextState = path.get(i + 1);
+            blackhole.consume(states.get(path.get(i)).getTransitionEvent(nextState));
+            legacyCurrentState = nextState;
+        }
+        blackhole.consume(legacyCurrentState);
+    }
+
+    // Depth-first search as done by StateMachine.findPath before the transition table
+    private List<BenchState> legacyFindPath(BenchState sourceState, BenchState targetState) {
+        Set<BenchState> visited = new HashSet<>();
+        LinkedList<BenchState> path = new LinkedList<>();
+        return dfs(sourceState, targetState, visited, path) ? path : Collections.emptyList();
+    }
+
+    private boolean dfs(BenchState currentState, BenchState targetState, Set<BenchState> visited,
+                        LinkedList<BenchState> path) {
+        visited.add(currentState);
+        path.addLast(currentState);
+        if (currentState.equals(targetState)) {
+            return true;
+        }
+        for (Transaction<BenchState, BenchEvent, Map<String, Object>> transaction : states.get(currentState)
+                .getTransactions().values()) {
+            if (!visited.contains(transaction.getNextState())
+                    && dfs(transaction.getNextState(), targetState, visited, path)) {
+                return true;
+            }
+        }
+        path.removeLast();
+        return false;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StateMachineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,128 @@
+package it.smartcommunitylabdhub.core;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import it.smartcommunitylabdhub.core.components.workflows.factory.Workflow;
+import it.smartcommunitylabdhub.core.components.workflows.factory.WorkflowFactory;
+import it.smartcommunitylabdhub.core.components.workflows.factory.WorkflowStep;
+import it.smartcommunitylabdhub.core.exceptions.StopPoller;
+
+class WorkflowTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void teardown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void parallelStepsRunConcurrentlyAndJoinInOrder() throws Exception {
+        // Both branches wait for each other, they only complete when run concurrently
+        CountDownLatch latch = new CountDownLatch(2);
+        WorkflowStep branch = WorkflowStep.of((Integer input) -> {
+            latch.countDown();
+            try {
+                Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return input * 2;
+        });
+
+        Workflow workflow = WorkflowFactory.builder()
+                .step((Integer input) -> input + 1, 1)
+                .parallel(branch, branch, WorkflowStep.of((Integer input) -> input * 3))
+                .step((List<Object> outputs) -> outputs.toString())
+                .build();
+
+        Assertions.assertEquals("[4, 4, 6]", workflow.executeAsync(null, executor).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void parallelStageFailsOnTheFirstFailingStep() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean queuedRan = new AtomicBoolean(false);
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            // The blocked step holds the single thread, the queued one waits behind it
+            WorkflowStep blocked = WorkflowStep.of((Object input) -> {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return input;
+            }).withExecutor(single);
+            WorkflowStep queued = WorkflowStep.of((Object input) -> {
+                queuedRan.set(true);
+                return input;
+            }).withExecutor(single);
+            WorkflowStep failing = WorkflowStep.of((Object input) -> {
+                throw new IllegalStateException("failed");
+            });
+
+            Workflow workflow = WorkflowFactory.builder()
+                    .parallel(blocked, queued, failing)
+                    .build();
+
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                    () -> workflow.executeAsync(null, executor).get(1, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(IllegalStateException.class, e.getCause());
+
+            release.countDown();
+            single.submit(() -> null).get(5, TimeUnit.SECONDS);
+            Assertions.assertFalse(queuedRan.get());
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    void stepTimeoutFailsTheWorkflow() {
+        Workflow workflow = WorkflowFactory.builder()
+                .step((Object input) -> {
+                    try {
+                        Thread.sleep(2000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return input;
+                })
+                .withExecutor(executor)
+                .withTimeout(50, TimeUnit.MILLISECONDS)
+                .build();
+
+        CompletionException e = Assertions.assertThrows(CompletionException.class, () -> workflow.execute(null));
+        Assertions.assertInstanceOf(TimeoutException.class, e.getCause());
+    }
+
+    @Test
+    void syncExecutionRethrowsStepExceptions() {
+        Workflow workflow = WorkflowFactory.builder()
+                .step((Object input) -> {
+                    throw new StopPoller("done");
+                })
+                .build();
+
+        Assertions.assertThrows(StopPoller.class, () -> workflow.execute(null));
+    }
+}